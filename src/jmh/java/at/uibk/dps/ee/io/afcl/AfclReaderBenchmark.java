@@ -0,0 +1,46 @@
+package at.uibk.dps.ee.io.afcl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import at.uibk.dps.ee.io.testconstants.ConstantsTestCoreEEiO;
+import at.uibk.dps.ee.io.validation.ValidationLevel;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+
+/**
+ * End-to-end benchmark of the {@link AfclReader} (file read, parsing, graph
+ * generation, and validation) for the different generation modes.
+ *
+ * @author Fedor Smirnov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AfclReaderBenchmark {
+
+  @Param({ConstantsTestCoreEEiO.cfclFileSingleAtomic, ConstantsTestCoreEEiO.cfclFileIf,
+      ConstantsTestCoreEEiO.cfclFileElementIndex, ConstantsTestCoreEEiO.cfclFileParallelFor})
+  public String filePath;
+
+  @Param({"sequential", "parallel", "streaming"})
+  public String mode;
+
+  @Benchmark
+  public EnactmentGraph readWorkflow() {
+    return new AfclReader(filePath, "", 0, "streaming".equals(mode), "parallel".equals(mode),
+        false, ValidationLevel.FULL, new CompilationOptions()).getEnactmentGraph();
+  }
+}
@@ -0,0 +1,65 @@
+package at.uibk.dps.ee.io.afcl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import at.uibk.dps.afcl.functions.objects.DataIns;
+import at.uibk.dps.afcl.functions.objects.PropertyConstraint;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData.DataType;
+import net.sf.opendse.model.Task;
+
+/**
+ * Benchmark of the modeling of chained collection operations
+ * ({@link AfclCollectionOperations#modelCollectionOperations}).
+ *
+ * @author Fedor Smirnov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CollectionOperationsBenchmark {
+
+  @Param({"1", "4", "16"})
+  public int operationNumber;
+
+  protected DataIns dataIn;
+
+  @Setup(Level.Trial)
+  public void createDataIn() {
+    dataIn = new DataIns("myInput", "collection");
+    final List<PropertyConstraint> constraints = new ArrayList<>();
+    for (int idx = 0; idx < operationNumber - 1; idx++) {
+      constraints.add(new PropertyConstraint(ConstantsAfcl.constraintNameElementIndex,
+          "wf/index, " + idx + ":" + (idx + 6) + ":wf/stride"));
+    }
+    constraints.add(new PropertyConstraint(ConstantsAfcl.constraintNameElementIndex, "5"));
+    dataIn.setConstraints(constraints);
+  }
+
+  @Benchmark
+  public Task modelOperations() {
+    final EnactmentGraph graph = new EnactmentGraph();
+    final Task original =
+        AfclCompounds.assureDataNodePresence("wf/collection", DataType.Collection, graph);
+    return AfclCollectionOperations.modelCollectionOperations(dataIn, original, graph,
+        DataType.Number, new SymbolTableAfcl("wf"));
+  }
+}
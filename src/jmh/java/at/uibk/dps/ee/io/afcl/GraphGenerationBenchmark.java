@@ -0,0 +1,56 @@
+package at.uibk.dps.ee.io.afcl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import at.uibk.dps.afcl.Workflow;
+import at.uibk.dps.ee.io.testconstants.ConstantsTestCoreEEiO;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+
+/**
+ * Benchmark of the graph generation from parsed workflows
+ * ({@link GraphGenerationAfcl#generateEnactmentGraph(Workflow)}).
+ *
+ * @author Fedor Smirnov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GraphGenerationBenchmark {
+
+  @Param({ConstantsTestCoreEEiO.cfclFileSingleAtomic, ConstantsTestCoreEEiO.cfclFileIf,
+      ConstantsTestCoreEEiO.cfclFileElementIndex, ConstantsTestCoreEEiO.cfclFileParallelFor})
+  public String filePath;
+
+  protected Workflow workflow;
+
+  @Setup(Level.Trial)
+  public void parseWorkflow() {
+    workflow = AfclReader.bytes2Workflow(AfclReader.readWorkflowFile(filePath));
+  }
+
+  @Benchmark
+  public EnactmentGraph generateSequential() {
+    return GraphGenerationAfcl.generateEnactmentGraph(workflow);
+  }
+
+  @Benchmark
+  public EnactmentGraph generateParallel() {
+    return GraphGenerationAfclParallel.generateEnactmentGraph(workflow);
+  }
+}
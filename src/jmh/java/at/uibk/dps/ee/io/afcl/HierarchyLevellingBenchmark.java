@@ -0,0 +1,62 @@
+package at.uibk.dps.ee.io.afcl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import at.uibk.dps.afcl.Workflow;
+import at.uibk.dps.ee.io.testconstants.ConstantsTestCoreEEiO;
+
+/**
+ * Benchmark of the source resolution
+ * ({@link HierarchyLevellingAfcl#getSrcDataId(String, SymbolTableAfcl)}), with
+ * a fresh symbol table (cold) and with a symbol table which already cached the
+ * resolved sources (warm).
+ *
+ * @author Fedor Smirnov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class HierarchyLevellingBenchmark {
+
+  @Param({"ifCompound/c1", "ifCompound/res"})
+  public String afclSource;
+
+  protected Workflow workflow;
+  protected SymbolTableAfcl warmSymbolTable;
+
+  @Setup(Level.Trial)
+  public void createSymbolTable() {
+    workflow = AfclReader
+        .bytes2Workflow(AfclReader.readWorkflowFile(ConstantsTestCoreEEiO.cfclFileIf));
+    warmSymbolTable = new SymbolTableAfcl(workflow);
+    HierarchyLevellingAfcl.getSrcDataId(afclSource, warmSymbolTable);
+  }
+
+  @Benchmark
+  public void resolveCold(final Blackhole blackhole) {
+    final SymbolTableAfcl symbolTable = new SymbolTableAfcl(workflow);
+    blackhole.consume(HierarchyLevellingAfcl.getSrcDataId(afclSource, symbolTable));
+  }
+
+  @Benchmark
+  public String resolveWarm() {
+    return HierarchyLevellingAfcl.getSrcDataId(afclSource, warmSymbolTable);
+  }
+}
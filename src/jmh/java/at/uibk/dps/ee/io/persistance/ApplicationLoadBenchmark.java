@@ -0,0 +1,80 @@
+package at.uibk.dps.ee.io.persistance;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import edu.uci.ics.jung.graph.util.EdgeType;
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+/**
+ * Compares the bulk construction of enactment graphs from applications with
+ * the incremental one (each edge inserted with its endpoints looked up from the
+ * application).
+ *
+ * @author Fedor Smirnov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ApplicationLoadBenchmark {
+
+  @Param({"10000", "100000", "1000000"})
+  public int edgeNumber;
+
+  protected Application<Task, Dependency> application;
+
+  /**
+   * Creates a chain of alternating function and data nodes with the configured
+   * number of edges.
+   */
+  @Setup(Level.Trial)
+  public void createApplication() {
+    application = new Application<>();
+    Task previous = new Task("task0");
+    application.addVertex(previous);
+    for (int idx = 0; idx < edgeNumber; idx++) {
+      final Task next =
+          idx % 2 == 0 ? new Communication("data" + idx) : new Task("task" + idx);
+      application.addEdge(new Dependency("dep" + idx), previous, next, EdgeType.DIRECTED);
+      previous = next;
+    }
+  }
+
+  @Benchmark
+  public EnactmentGraph bulk() {
+    return EnactmentGraphBulkLoader.load(application);
+  }
+
+  @Benchmark
+  public EnactmentGraph incremental() {
+    final EnactmentGraph result = new EnactmentGraph();
+    for (final Task task : application) {
+      result.addVertex(task);
+    }
+    for (final Dependency dep : application.getEdges()) {
+      final Task src = application.getEndpoints(dep).getFirst();
+      final Task dst = application.getEndpoints(dep).getSecond();
+      result.addEdge(dep, src, dst, EdgeType.DIRECTED);
+    }
+    return result;
+  }
+}
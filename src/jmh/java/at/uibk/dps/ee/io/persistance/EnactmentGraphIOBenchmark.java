@@ -0,0 +1,98 @@
+package at.uibk.dps.ee.io.persistance;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import at.uibk.dps.ee.io.afcl.AfclReader;
+import at.uibk.dps.ee.io.testconstants.ConstantsTestCoreEEiO;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+
+/**
+ * Benchmark of reading and writing enactment graphs in the different formats:
+ * XML (streamed and via the OpenDSE specification reader), binary, and binary
+ * snapshots (memory-mapped, attributes decoded on access).
+ *
+ * @author Fedor Smirnov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EnactmentGraphIOBenchmark {
+
+  @Param({ConstantsTestCoreEEiO.cfclFileSingleAtomic, ConstantsTestCoreEEiO.cfclFileIf,
+      ConstantsTestCoreEEiO.cfclFileParallelFor})
+  public String filePath;
+
+  protected EnactmentGraph graph;
+  protected File xmlFile;
+  protected File binaryFile;
+  protected File outputXml;
+  protected File outputBinary;
+
+  @Setup(Level.Trial)
+  public void writeFiles() throws IOException {
+    graph = new AfclReader(filePath).getEnactmentGraph();
+    xmlFile = File.createTempFile("benchmark", ".xml");
+    binaryFile = File.createTempFile("benchmark", EnactmentGraphBinaryIO.fileSuffix);
+    outputXml = File.createTempFile("benchmarkOut", ".xml");
+    outputBinary = File.createTempFile("benchmarkOut", EnactmentGraphBinaryIO.fileSuffix);
+    EnactmentGraphIO.writeEnactmentGraph(graph, xmlFile.getAbsolutePath());
+    EnactmentGraphIO.writeEnactmentGraph(graph, binaryFile.getAbsolutePath());
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteFiles() {
+    xmlFile.delete();
+    binaryFile.delete();
+    outputXml.delete();
+    outputBinary.delete();
+  }
+
+  @Benchmark
+  public EnactmentGraph readXml() {
+    return EnactmentGraphIO.readEnactmentGraph(xmlFile.getAbsolutePath());
+  }
+
+  @Benchmark
+  public EnactmentGraph readXmlSpecification() {
+    return EnactmentGraphIO.readEnactmentGraphSpecification(xmlFile.getAbsolutePath());
+  }
+
+  @Benchmark
+  public EnactmentGraph readBinary() {
+    return EnactmentGraphIO.readEnactmentGraph(binaryFile.getAbsolutePath());
+  }
+
+  @Benchmark
+  public EnactmentGraph openSnapshot() {
+    return EnactmentGraphIO.openSnapshot(binaryFile.getAbsolutePath());
+  }
+
+  @Benchmark
+  public void writeXml() {
+    EnactmentGraphIO.writeEnactmentGraph(graph, outputXml.getAbsolutePath());
+  }
+
+  @Benchmark
+  public void writeBinary() {
+    EnactmentGraphIO.writeEnactmentGraph(graph, outputBinary.getAbsolutePath());
+  }
+}
@@ -0,0 +1,67 @@
+package at.uibk.dps.ee.io.spec;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import at.uibk.dps.ee.io.resources.ResourceGraphProviderFile;
+import at.uibk.dps.ee.io.testconstants.ConstantsTestCoreEEiO;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.graph.ResourceGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUser;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Task;
+
+/**
+ * Benchmark of the mapping creation
+ * ({@link SpecificationProviderFile#createMappings}) for graphs with the
+ * configured number of user functions.
+ *
+ * @author Fedor Smirnov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MappingCreationBenchmark {
+
+  @Param({"10", "1000", "10000"})
+  public int functionNumber;
+
+  protected EnactmentGraph eGraph;
+  protected ResourceGraph rGraph;
+  protected SpecificationProviderFile provider;
+
+  @Setup(Level.Trial)
+  public void createGraphs() {
+    eGraph = new EnactmentGraph();
+    for (int idx = 0; idx < functionNumber; idx++) {
+      final String type = idx % 2 == 0 ? "addition" : "subtraction";
+      eGraph.addVertex(PropertyServiceFunctionUser.createUserTask("task" + idx, type));
+    }
+    final ResourceGraphProviderFile rProvider =
+        new ResourceGraphProviderFile(ConstantsTestCoreEEiO.resourceTestInputPath);
+    rGraph = rProvider.getResourceGraph();
+    provider = new SpecificationProviderFile(() -> eGraph, rProvider,
+        ConstantsTestCoreEEiO.resourceTestInputPath);
+  }
+
+  @Benchmark
+  public Mappings<Task, Resource> createMappings() {
+    return provider.createMappings(eGraph, rGraph, ConstantsTestCoreEEiO.resourceTestInputPath);
+  }
+}
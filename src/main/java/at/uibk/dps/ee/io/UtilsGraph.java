@@ -0,0 +1,144 @@
+package at.uibk.dps.ee.io;
+
+import com.google.gson.JsonElement;
+
+import at.uibk.dps.ee.model.properties.PropertyServiceData.DataType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction.UsageType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlow;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlow.DataFlowType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections.OperationType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUtility;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUtility.UtilityType;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Element;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.properties.TaskPropertyService;
+
+/**
+ * Static method container for utility methods operating on the nodes and edges
+ * of enactment graphs.
+ *
+ * @author Fedor Smirnov
+ */
+public final class UtilsGraph {
+
+  /**
+   * No constructor.
+   */
+  private UtilsGraph() {}
+
+  /**
+   * Returns a copy of the given node/edge with the same id (json content is
+   * copied deeply).
+   *
+   * @param <E> the type of the element
+   * @param original the original node/edge
+   * @return the copy of the given node/edge
+   */
+  public static <E extends Element> E copyElement(final E original) {
+    return copyElement(original, original.getId());
+  }
+
+  /**
+   * Returns a copy of the given node/edge with the given id (json content is
+   * copied deeply).
+   *
+   * @param <E> the type of the element
+   * @param original the original node/edge
+   * @param copyId the id of the copy
+   * @return the copy of the given node/edge
+   */
+  @SuppressWarnings("unchecked")
+  public static <E extends Element> E copyElement(final E original, final String copyId) {
+    final Element result;
+    if (original instanceof Dependency) {
+      result = new Dependency(copyId);
+    } else if (original instanceof Communication) {
+      result = new Communication(copyId);
+    } else {
+      result = new Task(copyId);
+    }
+    for (final String attributeName : original.getAttributeNames()) {
+      final Object attribute = original.getAttribute(attributeName);
+      result.setAttribute(attributeName,
+          attribute instanceof JsonElement ? ((JsonElement) attribute).deepCopy() : attribute);
+    }
+    return (E) result;
+  }
+
+  /**
+   * Returns true iff the given node models a condition function.
+   *
+   * @param task the given node
+   * @return true iff the given node models a condition function
+   */
+  public static boolean isConditionFunction(final Task task) {
+    return TaskPropertyService.isProcess(task)
+        && PropertyServiceFunction.getUsageType(task).equals(UsageType.Utility)
+        && PropertyServiceFunctionUtility.getUtilityType(task).equals(UtilityType.Condition);
+  }
+
+  /**
+   * Returns true iff the given node models a collection operation.
+   *
+   * @param task the given node
+   * @return true iff the given node models a collection operation
+   */
+  public static boolean isCollectionOperation(final Task task) {
+    return TaskPropertyService.isProcess(task)
+        && PropertyServiceFunction.getUsageType(task).equals(UsageType.Utility)
+        && PropertyServiceFunctionUtility.getUtilityType(task)
+            .equals(UtilityType.CollectionOperation);
+  }
+
+  /**
+   * Returns true iff the given node models a collection data-flow function with
+   * the given operation type.
+   *
+   * @param task the given node
+   * @param operationType the operation type
+   * @return true iff the given node models a collection data-flow function with
+   *         the given operation type
+   */
+  public static boolean isCollectionDataFlow(final Task task,
+      final OperationType operationType) {
+    return TaskPropertyService.isProcess(task)
+        && PropertyServiceFunction.getUsageType(task).equals(UsageType.DataFlow)
+        && PropertyServiceFunctionDataFlow.getDataFlowType(task).equals(DataFlowType.Collections)
+        && PropertyServiceFunctionDataFlowCollections.getOperationType(task)
+            .equals(operationType);
+  }
+
+  /**
+   * Returns true iff the given json element is a valid content of data with the
+   * given type.
+   *
+   * @param content the json element
+   * @param dataType the data type
+   * @return true iff the given json element matches the given type
+   */
+  public static boolean matchesType(final JsonElement content, final DataType dataType) {
+    if (content == null) {
+      return false;
+    }
+    switch (dataType) {
+      case Number:
+        return content.isJsonPrimitive() && content.getAsJsonPrimitive().isNumber();
+      case Boolean:
+        return content.isJsonPrimitive() && content.getAsJsonPrimitive().isBoolean();
+      case String:
+        // unquoted strings may be parsed as numbers or booleans
+        return content.isJsonPrimitive();
+      case Collection:
+      case Array:
+        return content.isJsonArray();
+      case Object:
+        return content.isJsonObject();
+      default:
+        return true;
+    }
+  }
+}
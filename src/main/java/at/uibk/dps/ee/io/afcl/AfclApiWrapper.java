@@ -43,13 +43,16 @@ public final class AfclApiWrapper {
    * non-atomic function. Returns false if it points to an output. Throws an
    * exception in all other cases.
    * 
-   * @param sourceString
-   * @param func
-   * @return
+   * @param sourceString the src string
+   * @param func the non-atomic function
+   * @param symbolTable the symbol table of the workflow
+   * @return true if the src string points to an input of the function
    */
-  public static boolean pointsToInput(String sourceString, Function func) {
-    String funcName = UtilsAfcl.getProducerId(sourceString);
-    String dataId = UtilsAfcl.getDataId(sourceString);
+  public static boolean pointsToInput(String sourceString, Function func,
+      SymbolTableAfcl symbolTable) {
+    final SourceRef sourceRef = symbolTable.getSourceRef(sourceString);
+    final String funcName = sourceRef.getProducerId();
+    final String dataId = sourceRef.getDataId();
 
     if (func instanceof AtomicFunction) {
       throw new IllegalArgumentException("Intended to be used on non-atomics");
@@ -57,86 +60,34 @@ public final class AfclApiWrapper {
     if (!funcName.equals(func.getName())) {
       throw new IllegalArgumentException("Given function is not the src");
     }
-
-    for (DataIns dIn : getDataIns(func)) {
-      if (dataId.equals(dIn.getName())) {
-        return true;
-      }
+    final SymbolTableAfcl.Symbol symbol = symbolTable.getSymbol(funcName);
+    if (symbol.getDataIns().containsKey(dataId)) {
+      return true;
     }
-    for (DataOuts dOut : getDataOuts(func)) {
-      if (dataId.equals(dOut.getName())) {
-        return false;
-      }
+    if (symbol.getDataOuts().containsKey(dataId)) {
+      return false;
     }
     throw new IllegalStateException(
         "Source " + sourceString + " neither data out nor data in of function " + func.getName());
   }
 
-  public static Function getFunction(Workflow wf, String name) {
-    for (Function func : wf.getWorkflowBody()) {
-      Function inside = searchInsideFunction(func, name);
-      if (inside != null) {
-        return inside;
-      }
-    }
-    throw new IllegalStateException("Function " + name + " not found in WF " + wf.getName());
+  public static Function getFunction(SymbolTableAfcl symbolTable, String name) {
+    return symbolTable.getFunction(name);
   }
 
-  public static String getDataInSrc(Function func, String dInName) {
-    for (DataIns dIn : getDataIns(func)) {
-      if (dIn.getName().equals(dInName)) {
-        return dIn.getSource();
-      }
-    }
-    throw new IllegalArgumentException(
-        "Function " + func.getName() + " does not have a data in with name " + dInName);
+  public static String getDataInSrc(Function func, String dInName, SymbolTableAfcl symbolTable) {
+    return Optional.ofNullable(symbolTable.getSymbol(func.getName()).getDataIns().get(dInName))
+        .orElseThrow(() -> new IllegalArgumentException(
+            "Function " + func.getName() + " does not have a data in with name " + dInName))
+        .getSource();
   }
 
-  public static String getDataOutSrc(Function func, String dOutName) {
-    for (DataOuts dOut : getDataOuts(func)) {
-      if (dOut.getName().equals(dOutName)) {
-        return dOut.getSource();
-      }
-    }
-    throw new IllegalArgumentException(
-        "Function " + func.getName() + " does not have a data in with name " + dOutName);
-  }
-
-  protected static Function searchInsideFunction(Function function, String name) {
-    if (function.getName().equals(name)) {
-      return function;
-    }
-    if (function instanceof AtomicFunction) {
-      return null;
-    } else if (function instanceof ParallelFor) {
-      ParallelFor parFor = (ParallelFor) function;
-      for (Function loopBodyFunction : parFor.getLoopBody()) {
-        Function inside = searchInsideFunction(loopBodyFunction, name);
-        if (inside != null) {
-          return inside;
-        }
-      }
-      return null;
-    } else if (function instanceof IfThenElse) {
-      IfThenElse ifElse = (IfThenElse) function;
-      for (Function thenFunction : ifElse.getThenBranch()) {
-        Function inside = searchInsideFunction(thenFunction, name);
-        if (inside != null) {
-          return inside;
-        }
-      }
-      for (Function elseFunction : ifElse.getElseBranch()) {
-        Function inside = searchInsideFunction(elseFunction, name);
-        if (inside != null) {
-          return inside;
-        }
-      }
-      return null;
-    }
-    
-    else {
-      throw new IllegalStateException("Unknown compound:" + function.getName());
-    }
+  public static String getDataOutSrc(Function func, String dOutName,
+      SymbolTableAfcl symbolTable) {
+    return Optional.ofNullable(symbolTable.getSymbol(func.getName()).getDataOuts().get(dOutName))
+        .orElseThrow(() -> new IllegalArgumentException(
+            "Function " + func.getName() + " does not have a data in with name " + dOutName))
+        .getSource();
   }
 
   public static String getName(IfThenElse ifCompound) {
@@ -1,9 +1,6 @@
 package at.uibk.dps.ee.io.afcl;
 
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 import at.uibk.dps.afcl.functions.objects.DataIns;
@@ -37,10 +34,12 @@ public final class AfclCollectionOperations {
    * @param graph the graph
    * @param finalDataType the data type ultimately expected by the consumer
    *        function
+   * @param symbolTable the symbol table of the workflow
    * @return the data node with the processed data
    */
   public static Task modelCollectionOperations(final DataIns dataIn, final Task originalData,
-      final EnactmentGraph graph, final DataType finalDataType) {
+      final EnactmentGraph graph, final DataType finalDataType,
+      final SymbolTableAfcl symbolTable) {
     if (!PropertyServiceData.getDataType(originalData).equals(DataType.Collection)) {
       throw new IllegalStateException(
           "Collections operations applied to non-collection data " + originalData.getId());
@@ -50,51 +49,53 @@ public final class AfclCollectionOperations {
         .filter(constraint -> isCollectionConstraint(constraint)).collect(Collectors.toList());
     Task processedData = originalData;
     for (final PropertyConstraint contraint : collectionConstraints) {
-      processedData = modelCollectionOperation(contraint, dataIn.getName(), processedData, graph,
-          finalDataType);
+      processedData = modelCollectionOperation(symbolTable.getConstraintRef(contraint),
+          dataIn.getName(), processedData, graph, finalDataType);
     }
     return processedData;
   }
 
   /**
    * Same as the above method, but w.r.t. one collection operation. Applied
-   * iteratively for operation chaining.
+   * iteratively for operation chaining. Operations are shared: if the same
+   * operation is already applied to the same data, the consumer is connected to
+   * the data processed by the present operation node.
    * 
-   * @param contraint the processed constraint
+   * @param constraint the parsed constraint
    * @param jsonKey the key that the consumer will use to access the processed
    *        data
    * @param originalData data before processing with this constraint
    * @param graph the enactment graph
    * @return the node with the processed data (from the one operation)
    */
-  protected static Task modelCollectionOperation(final PropertyConstraint contraint,
+  protected static Task modelCollectionOperation(final ConstraintRef constraint,
       final String jsonKey, final Task originalData, final EnactmentGraph graph,
       final DataType finalDataType) {
+    final String subCollectionString = constraint.getString();
+    final CollectionOperation operationType = constraint.getOperation();
+    final List<String> inputStrings = constraint.getEntries();
+    if (!constraint.isLegal()) {
+      throw new IllegalArgumentException("Illegal collection operation strings: " + inputStrings);
+    }
+    final String processedDataId = originalData.getId() + ConstantsEEModel.KeyWordSeparator2
+        + operationType.name() + ConstantsEEModel.KeyWordSeparator2 + subCollectionString;
+    final boolean oneElementResult =
+        operationType.equals(CollectionOperation.ElementIndex) && inputStrings.size() == 1;
+    final DataType processedDataType = oneElementResult ? finalDataType : DataType.Collection;
     // create the function node modeling the operation
-    final String subCollectionString = contraint.getValue();
-    final CollectionOperation operationType =
-        UtilsAfcl.getCollectionOperationType(contraint.getName(), subCollectionString);
     final Task operationNode = PropertyServiceFunctionUtilityCollections
         .createCollectionOperation(originalData.getId(), subCollectionString, operationType);
+    if (graph.getVertex(operationNode.getId()) != null) {
+      // the data is sliced once for all consumers
+      return AfclCompounds.assureDataNodePresence(processedDataId, processedDataType, graph);
+    }
     // connect it to the original data
     PropertyServiceDependency.addDataDependency(originalData, operationNode, jsonKey, graph);
     // make the src connections where necessary
-    final List<String> inputStrings = getSubstrings(subCollectionString, operationType);
-    final boolean illegalStringsPresent =
-        !inputStrings.stream().allMatch(string -> isLegalEntryString(string, operationType));
-    if (illegalStringsPresent) {
-      throw new IllegalArgumentException("Illegal collection operation strings: " + inputStrings);
-    }
-    final Set<String> srcInputStrings = inputStrings.stream()
-        .filter(string -> UtilsAfcl.isSrcString(string)).collect(Collectors.toSet());
-    srcInputStrings.forEach(srcString -> attachOperationInput(srcString, operationNode, graph));
+    constraint.getSrcEntries()
+        .forEach(srcString -> attachOperationInput(srcString, operationNode, graph));
 
     // create the node for the processed data
-    final String processedDataId = originalData.getId() + ConstantsEEModel.KeyWordSeparator2
-        + operationType.name() + ConstantsEEModel.KeyWordSeparator2 + subCollectionString;
-    final boolean oneElementResult =
-        operationType.equals(CollectionOperation.ElementIndex) && inputStrings.size() == 1;
-    final DataType processedDataType = oneElementResult ? finalDataType : DataType.Collection;
     final Task processedData =
         AfclCompounds.assureDataNodePresence(processedDataId, processedDataType, graph);
     PropertyServiceDependency.addDataDependency(operationNode, processedData, jsonKey, graph);
@@ -116,100 +117,6 @@ public final class AfclCollectionOperations {
     PropertyServiceDependency.addDataDependency(inputData, operationNode, srcString, graph);
   }
 
-  /**
-   * Converts the subcollection string into a list of strings, where each entry is
-   * a number, defined either as a value or as a source-reference to a data out
-   * generating the value at run time.
-   * 
-   * @param subcollectionString the subcollection string annotate in the afcl file
-   * @param operation the operation that the subcollection string describes
-   * @return list of strings, each of them describing a number
-   */
-  protected static List<String> getSubstrings(final String subcollectionString,
-      final CollectionOperation operation) {
-    switch (operation) {
-      case Replicate:
-        return getSubstringsReplicateSplit(subcollectionString);
-      case Split:
-        return getSubstringsReplicateSplit(subcollectionString);
-      case Block:
-        return getSubstringsBlock(subcollectionString);
-      case ElementIndex:
-        return getSubstringsEIdx(subcollectionString);
-      default:
-        throw new IllegalStateException("Unknown collection operation: " + operation.name());
-    }
-  }
-
-  /**
-   * See the getSubstrings method. This one is used for replicate and split.
-   */
-  protected static List<String> getSubstringsReplicateSplit(final String subcollectionString) {
-    return Arrays.asList(subcollectionString);
-  }
-
-  /**
-   * See the getSubstrings method. This one is used for element index.
-   */
-  protected static List<String> getSubstringsEIdx(final String subcollectionString) {
-    final List<String> result = new ArrayList<>();
-    if (subcollectionString.contains(ConstantsAfcl.constraintSeparatorEIdxOuter)) {
-      for (final String innerSubString : subcollectionString
-          .split(ConstantsAfcl.constraintSeparatorEIdxOuter)) {
-        result.addAll(getInnerEidxSubstrings(innerSubString));
-      }
-    } else {
-      result.addAll(getInnerEidxSubstrings(subcollectionString));
-    }
-    return result;
-  }
-
-  /**
-   * See the getSubstrings method. This one is used for block.
-   */
-  protected static List<String> getSubstringsBlock(final String subcollectionString) {
-    if (!subcollectionString.contains(ConstantsAfcl.constraintSeparatorBlock)) {
-      throw new IllegalArgumentException(
-          "Incorrect Block Constraint Argument: " + subcollectionString);
-    }
-    return Arrays.asList(subcollectionString.split(ConstantsAfcl.constraintSeparatorBlock)[0],
-        subcollectionString.split(ConstantsAfcl.constraintSeparatorBlock)[1]);
-  }
-
-  /**
-   * Splits the given string describing one Eidx access into a list of substrings,
-   * each of which is a number, emtpy, or a src string.
-   * 
-   * @param innerEidxString
-   * @return
-   */
-  protected static List<String> getInnerEidxSubstrings(final String innerEidxString) {
-    if (innerEidxString.contains(ConstantsAfcl.constraintSeparatorEIdxInner)) {
-      return Arrays.asList(innerEidxString.split(ConstantsAfcl.constraintSeparatorEIdxInner));
-    } else {
-      return Arrays.asList(innerEidxString);
-    }
-  }
-
-  /**
-   * Returns true if the given substring is legal.
-   * 
-   * @param entryString the string to check
-   * @param operation the operation type
-   * @return true if the given substring is legal.
-   */
-  protected static boolean isLegalEntryString(final String entryString,
-      final CollectionOperation operation) {
-    if (UtilsAfcl.isSrcString(entryString)) {
-      return true;
-    }
-    final String noWsString = entryString.trim();
-    if (operation.equals(CollectionOperation.ElementIndex) && noWsString.isEmpty()) {
-      return true;
-    }
-    return UtilsAfcl.isInt(noWsString);
-  }
-
   /**
    * Returns true if the provided dataIn has at least one constraint defining a
    * collection operation.
@@ -0,0 +1,82 @@
+package at.uibk.dps.ee.io.afcl;
+
+import at.uibk.dps.ee.io.analysis.CriticalPathAnnotation;
+import at.uibk.dps.ee.io.json.ResourceInformationJsonFile;
+import at.uibk.dps.ee.io.persistance.EnactmentGraphIO;
+import at.uibk.dps.ee.io.validation.ValidationLevel;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+
+/**
+ * The {@link AfclCompiler} compiles an .afcl/.cfcl file into a graph file
+ * written with {@link EnactmentGraphIO}, so that the graph can be loaded
+ * without the AFCL front-end (see
+ * {@link at.uibk.dps.ee.io.persistance.PrecompiledGraphProvider}). If a
+ * resource information file is provided, the graph is stored with the
+ * annotation of the levels and the critical path (see
+ * {@link CriticalPathAnnotation}).
+ * 
+ * @author Fedor Smirnov
+ */
+public final class AfclCompiler {
+
+  /**
+   * No constructor.
+   */
+  private AfclCompiler() {}
+
+  /**
+   * Compiles the given .afcl file into the given graph file.
+   * 
+   * @param args the path to the .afcl file, the path of the graph file (binary
+   *        format for the .eeg suffix, XML otherwise), and (optionally) the path
+   *        to the resource information file with the cost hints
+   */
+  public static void main(final String[] args) {
+    if (args.length < 2 || args.length > 3 || args[0].isEmpty() || args[1].isEmpty()) {
+      throw new IllegalArgumentException(
+          "Usage: AfclCompiler <afcl file> <graph file> [<resource file>]");
+    }
+    if (args.length == 3) {
+      compile(args[0], args[1], args[2]);
+    } else {
+      compile(args[0], args[1]);
+    }
+  }
+
+  /**
+   * Reads and validates the workflow from the given .afcl file and writes the
+   * resulting enactment graph to the given graph file.
+   * 
+   * @param afclFilePath the path to the .afcl/.cfcl file
+   * @param graphFilePath the path of the graph file (binary format for the .eeg
+   *        suffix, XML otherwise)
+   * @return the compiled graph
+   */
+  public static EnactmentGraph compile(final String afclFilePath, final String graphFilePath) {
+    final EnactmentGraph result = new AfclReader(afclFilePath).getEnactmentGraph();
+    // the reader validates with all checks
+    EnactmentGraphIO.writeEnactmentGraph(result, graphFilePath, ValidationLevel.FULL);
+    return result;
+  }
+
+  /**
+   * Reads and validates the workflow from the given .afcl file, annotates the
+   * resulting enactment graph with the levels and the critical path estimated
+   * with the cost hints of the given resource information file, and writes the
+   * graph to the given graph file.
+   * 
+   * @param afclFilePath the path to the .afcl/.cfcl file
+   * @param graphFilePath the path of the graph file (binary format for the .eeg
+   *        suffix, XML otherwise)
+   * @param resourceFilePath the path to the resource information file
+   * @return the compiled graph
+   */
+  public static EnactmentGraph compile(final String afclFilePath, final String graphFilePath,
+      final String resourceFilePath) {
+    final EnactmentGraph result = new AfclReader(afclFilePath).getEnactmentGraph();
+    CriticalPathAnnotation.annotate(result, CriticalPathAnnotation
+        .getCostHints(ResourceInformationJsonFile.readFromFile(resourceFilePath)));
+    EnactmentGraphIO.writeEnactmentGraph(result, graphFilePath, ValidationLevel.FULL);
+    return result;
+  }
+}
@@ -7,11 +7,13 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonParser;
 
 import at.uibk.dps.afcl.Function;
-import at.uibk.dps.afcl.Workflow;
 import at.uibk.dps.afcl.functions.AtomicFunction;
 import at.uibk.dps.afcl.functions.IfThenElse;
 import at.uibk.dps.afcl.functions.ParallelFor;
 import at.uibk.dps.afcl.functions.objects.DataIns;
+import at.uibk.dps.ee.io.jfr.CompoundGenerationEvent;
+import at.uibk.dps.ee.io.report.CompilationReport;
+import at.uibk.dps.ee.io.report.CompilationReport.Phase;
 import at.uibk.dps.ee.model.graph.EnactmentGraph;
 import at.uibk.dps.ee.model.properties.PropertyServiceData;
 import at.uibk.dps.ee.model.properties.PropertyServiceData.DataType;
@@ -39,21 +41,50 @@ public final class AfclCompounds {
    * 
    * @param graph the graph to annotate
    * @param function the function to model
-   * @param workflow the afcl workflow object
+   * @param symbolTable the symbol table of the workflow
    */
   public static void addFunctionCompound(final EnactmentGraph graph, final Function function,
-      final Workflow workflow) {
+      final SymbolTableAfcl symbolTable) {
+    final CompoundGenerationEvent event = new CompoundGenerationEvent();
+    // the graph sizes are only read when the event is recorded
+    final boolean recorded = event.isEnabled();
+    final int nodesBefore = recorded ? graph.getVertexCount() : 0;
+    final int edgesBefore = recorded ? graph.getEdgeCount() : 0;
+    event.begin();
+    final CompilationReport report = symbolTable.getReport();
+    report.run(Phase.CompoundTranslation, graph,
+        () -> translateFunction(graph, function, symbolTable));
+    report.addItems(Phase.CompoundTranslation, 1);
+    if (event.shouldCommit()) {
+      event.functionName = function.getName();
+      event.compoundType = UtilsAfcl.getCompoundType(function).name();
+      event.addedNodes = graph.getVertexCount() - nodesBefore;
+      event.addedEdges = graph.getEdgeCount() - edgesBefore;
+      event.commit();
+    }
+  }
+
+  /**
+   * Translates the given function (without reporting).
+   * 
+   * @param graph the graph to annotate
+   * @param function the function to model
+   * @param symbolTable the symbol table of the workflow
+   */
+  protected static void translateFunction(final EnactmentGraph graph, final Function function,
+      final SymbolTableAfcl symbolTable) {
     switch (UtilsAfcl.getCompoundType(function)) {
       case Atomic: {
-        AfclCompoundsAtomic.addAtomicFunctionWfLevel(graph, (AtomicFunction) function);
+        AfclCompoundsAtomic.addAtomicFunctionWfLevel(graph, (AtomicFunction) function,
+            symbolTable);
         return;
       }
       case If: {
-        AfclCompoundsIf.addIf(graph, (IfThenElse) function, workflow);
+        AfclCompoundsIf.addIf(graph, (IfThenElse) function, symbolTable);
         break;
       }
       case ParallelFor: {
-        AfclCompoundsParallelFor.addParallelFor(graph, (ParallelFor) function, workflow);
+        AfclCompoundsParallelFor.addParallelFor(graph, (ParallelFor) function, symbolTable);
         break;
       }
       default:
@@ -78,6 +109,31 @@ public final class AfclCompounds {
     return result;
   }
 
+  /**
+   * Performs the given addition and returns the function nodes which it added to
+   * the graph. For a {@link ScopeTrackingGraphAfcl}, the new nodes are recorded
+   * while they are added. For other graphs, the function nodes before and after
+   * the addition are compared.
+   *
+   * @param graph the given graph
+   * @param addition the operation adding nodes to the graph
+   * @return the function nodes added by the given operation
+   */
+  protected static Set<Task> getAddedFunctionNodes(final EnactmentGraph graph,
+      final Runnable addition) {
+    if (graph instanceof ScopeTrackingGraphAfcl) {
+      final ScopeTrackingGraphAfcl scopeGraph = (ScopeTrackingGraphAfcl) graph;
+      scopeGraph.openScope();
+      addition.run();
+      return scopeGraph.closeScope();
+    }
+    final Set<Task> functionsBeforeAdding = getFunctionNodes(graph);
+    addition.run();
+    final Set<Task> result = getFunctionNodes(graph);
+    result.removeAll(functionsBeforeAdding);
+    return result;
+  }
+
   /**
    * Processes the given dataIn: generates a data node and connects it to the
    * function node.
@@ -86,35 +142,44 @@ public final class AfclCompounds {
    * @param function the node modeling the function with the given data in
    * @param dataIn the given data in (representing a constant input)
    * @param expectedType the data type we expect the node to have
+   * @param symbolTable the symbol table of the workflow
    */
   protected static void addDataIn(final EnactmentGraph graph, final Task function,
-      final DataIns dataIn, final DataType expectedType) {
-    if (UtilsAfcl.isSrcString(AfclApiWrapper.getSource(dataIn))) {
-      AfclCompounds.addDataInDefault(graph, function, dataIn, expectedType);
+      final DataIns dataIn, final DataType expectedType, final SymbolTableAfcl symbolTable) {
+    if (symbolTable.getSourceRef(AfclApiWrapper.getSource(dataIn)).isSrc()) {
+      AfclCompounds.addDataInDefault(graph, function, dataIn, expectedType, symbolTable);
     } else {
-      AfclCompounds.addDataInConstant(graph, function, dataIn, expectedType);
+      AfclCompounds.addDataInConstant(graph, function, dataIn, expectedType, symbolTable);
     }
   }
 
   /**
    * Processes the given dataIn representing constant data: generates a constant
-   * data node and connects it to the function node.
+   * data node and connects it to the function node. If enabled by the
+   * compilation options, constants with the same type and content are interned
+   * in the symbol table, so that all their consumers share one node.
    * 
    * @param graph the enactment graph
    * @param function the node modeling the function with the given data in
    * @param dataIn the given data in (representing a constant input)
    * @param expectedType the datatype we expect the node to have
+   * @param symbolTable the symbol table of the workflow
    */
   protected static void addDataInConstant(final EnactmentGraph graph, final Task function,
-      final DataIns dataIn, final DataType expectedType) {
+      final DataIns dataIn, final DataType expectedType, final SymbolTableAfcl symbolTable) {
     final String jsonKey = AfclApiWrapper.getName(dataIn);
     final String dataNodeId = function.getId() + ConstantsAfcl.SourceAffix + jsonKey;
     final DataType dataType = UtilsAfcl.getDataTypeForString(dataIn.getType());
     final String jsonString = AfclApiWrapper.getSource(dataIn);
     final JsonElement content = JsonParser.parseString(jsonString);
 
-    final Task constantDataNode =
-        PropertyServiceData.createConstantNode(dataNodeId, dataType, content);
+    Task constantDataNode = symbolTable.getOptions().isShareConstants()
+        ? symbolTable.getSharedConstant(dataType, content)
+        : PropertyServiceData.createConstantNode(dataNodeId, dataType, content);
+    if (graph.findEdge(constantDataNode, function) != null) {
+      // the function reads the same constant twice
+      constantDataNode = PropertyServiceData.createConstantNode(dataNodeId, dataType, content);
+    }
     PropertyServiceDependency.addDataDependency(constantDataNode, function, jsonKey, graph);
   }
 
@@ -126,12 +191,13 @@ public final class AfclCompounds {
    * @param function the node modeling the function with the given data in
    * @param dataIn the given data in
    * @param expectedType the type expected in the node we are looking for
+   * @param symbolTable the symbol table of the workflow
    */
   protected static void addDataInDefault(final EnactmentGraph graph, final Task function,
-      final DataIns dataIn, final DataType expectedType) {
+      final DataIns dataIn, final DataType expectedType, final SymbolTableAfcl symbolTable) {
     // create/retrieve the data node
     final String dataNodeId = AfclApiWrapper.getSource(dataIn);
-    final String srcFunc = UtilsAfcl.getProducerId(dataNodeId);
+    final String srcFunc = symbolTable.getSourceRef(dataNodeId).getProducerId();
     if (srcFunc.equals(function.getId())) {
       throw new IllegalStateException("Function " + function.getId() + " depends on itself.");
     }
@@ -143,7 +209,7 @@ public final class AfclCompounds {
     if (AfclCollectionOperations.hasCollectionOperations(dataIn)) {
       final DataType expectedDataType = UtilsAfcl.getDataTypeForString(dataIn.getType());
       connectsToFunction = AfclCollectionOperations.modelCollectionOperations(dataIn, dataNodeIn,
-          graph, expectedDataType);
+          graph, expectedDataType, symbolTable);
     }
     // connect the current node to the function
     PropertyServiceDependency.addDataDependency(connectsToFunction, function, jsonKey, graph);
@@ -1,6 +1,8 @@
 package at.uibk.dps.ee.io.afcl;
 
-import at.uibk.dps.afcl.Workflow;
+import java.util.ArrayList;
+import java.util.List;
+
 import at.uibk.dps.afcl.functions.AtomicFunction;
 import at.uibk.dps.afcl.functions.objects.DataIns;
 import at.uibk.dps.afcl.functions.objects.DataOutsAtomic;
@@ -30,14 +32,15 @@ public final class AfclCompoundsAtomic {
    * 
    * @param graph the graph
    * @param atomicFunc the provided atomic function
+   * @param symbolTable the symbol table of the workflow
    */
   protected static void addAtomicFunctionWfLevel(final EnactmentGraph graph,
-      final AtomicFunction atomicFunc) {
+      final AtomicFunction atomicFunc, final SymbolTableAfcl symbolTable) {
     final Task atomicTask = createTaskFromAtomicFunction(atomicFunc);
     // process the inputs
     for (final DataIns dataIn : AfclApiWrapper.getDataIns(atomicFunc)) {
       final DataType expectedType = UtilsAfcl.getDataTypeForString(dataIn.getType());
-      AfclCompounds.addDataIn(graph, atomicTask, dataIn, expectedType);
+      AfclCompounds.addDataIn(graph, atomicTask, dataIn, expectedType, symbolTable);
     }
     // process the outputs
     for (final DataOutsAtomic dataOut : AfclApiWrapper.getDataOuts(atomicFunc)) {
@@ -52,12 +55,12 @@ public final class AfclCompoundsAtomic {
    * 
    * @param graph the enactment graph
    * @param atomic the atomic function
-   * @param workflow the afcl workflow object
+   * @param symbolTable the symbol table of the workflow
    */
   protected static void addAtomicFunctionSubWfLevel(final EnactmentGraph graph,
-      final AtomicFunction atomic, final Workflow workflow) {
-    correctAtomicDataIns(atomic, workflow);
-    addAtomicFunctionWfLevel(graph, atomic);
+      final AtomicFunction atomic, final SymbolTableAfcl symbolTable) {
+    correctAtomicDataIns(atomic, symbolTable);
+    addAtomicFunctionWfLevel(graph, atomic, symbolTable);
   }
 
   /**
@@ -84,18 +87,22 @@ public final class AfclCompoundsAtomic {
    * data input.
    * 
    * @param function the atomic function
-   * @param workflow the afcl workflow object
+   * @param symbolTable the symbol table of the workflow
    */
   protected static void correctAtomicDataIns(final AtomicFunction function,
-      final Workflow workflow) {
+      final SymbolTableAfcl symbolTable) {
+    final List<DataIns> srcDataIns = new ArrayList<>();
+    final List<String> srcStrings = new ArrayList<>();
     for (final DataIns dataIn : AfclApiWrapper.getDataIns(function)) {
-      final String srcString = dataIn.getSource();
-      if (!UtilsAfcl.isSrcString(srcString)) {
-        // constant data in
-        continue;
+      // constant data ins are not corrected
+      if (symbolTable.getSourceRef(dataIn.getSource()).isSrc()) {
+        srcDataIns.add(dataIn);
+        srcStrings.add(dataIn.getSource());
       }
-      final String actualSrc = HierarchyLevellingAfcl.getSrcDataId(srcString, workflow);
-      dataIn.setSource(actualSrc);
+    }
+    HierarchyLevellingAfcl.resolveSources(srcStrings, symbolTable);
+    for (final DataIns dataIn : srcDataIns) {
+      dataIn.setSource(HierarchyLevellingAfcl.getSrcDataId(dataIn.getSource(), symbolTable));
     }
   }
 
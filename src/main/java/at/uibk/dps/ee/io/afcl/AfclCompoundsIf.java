@@ -1,14 +1,14 @@
 package at.uibk.dps.ee.io.afcl;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
-import com.google.common.base.Optional;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonParser;
 
 import at.uibk.dps.afcl.Function;
-import at.uibk.dps.afcl.Workflow;
 import at.uibk.dps.afcl.functions.AtomicFunction;
 import at.uibk.dps.afcl.functions.IfThenElse;
 import at.uibk.dps.afcl.functions.objects.DataOuts;
@@ -42,24 +42,173 @@ public final class AfclCompoundsIf {
   private AfclCompoundsIf() {}
 
   /**
-   * Adds the nodes and edges modeling the content of the given if compound.
+   * Adds the nodes and edges modeling the content of the given if compound. If
+   * enabled by the compilation options, only the taken branch is added for
+   * conditions which can be evaluated at compile time.
    * 
    * @param graph the enactment graph
    * @param ifCompound the if compound to add
-   * @param workflow the afcl workflow object
+   * @param symbolTable the symbol table of the workflow
    */
   protected static void addIf(final EnactmentGraph graph, final IfThenElse ifCompound,
-      final Workflow workflow) {
+      final SymbolTableAfcl symbolTable) {
+    if (symbolTable.getOptions().isEliminateDeadBranches()) {
+      final Optional<Boolean> constantCondition =
+          AfclConstantConditions.evaluate(ifCompound.getCondition());
+      if (constantCondition.isPresent()
+          && isBranchSelfTriggered(getBranch(ifCompound, constantCondition.get()))) {
+        addTakenBranch(graph, ifCompound, symbolTable, constantCondition.get());
+        return;
+      }
+    }
     // create and add the condition function, get the condition variable
-    final Task conditionVariable = addConditionFunction(graph, ifCompound, workflow);
+    final Task conditionVariable = addConditionFunction(graph, ifCompound, symbolTable);
     // add the then branch
-    addIfBranch(graph, ifCompound, workflow, conditionVariable, true);
+    addIfBranch(graph, ifCompound, symbolTable, conditionVariable, true);
     // add the else branch
-    addIfBranch(graph, ifCompound, workflow, conditionVariable, false);
+    addIfBranch(graph, ifCompound, symbolTable, conditionVariable, false);
     // create and add a choice function for each data out
+    resolveBranchSources(graph, ifCompound, symbolTable, false);
+    for (final DataOuts dataOut : AfclApiWrapper.getDataOuts(ifCompound)) {
+      addChoiceFunction(graph, dataOut, ifCompound, symbolTable, conditionVariable);
+    }
+  }
+
+  /**
+   * Resolves the sources pointing to the given branch (the first or the second
+   * part of the data-out srcs) which are not directly present in the graph (see
+   * {@link HierarchyLevellingAfcl#resolveSources}).
+   * 
+   * @param graph the enactment graph
+   * @param ifCompound the if compound that is being modeled
+   * @param symbolTable the symbol table of the workflow
+   * @param isThen true iff the sources of the then branch are resolved
+   */
+  protected static void resolveBranchSources(final EnactmentGraph graph,
+      final IfThenElse ifCompound, final SymbolTableAfcl symbolTable, final boolean isThen) {
+    final List<String> sources = new ArrayList<>();
     for (final DataOuts dataOut : AfclApiWrapper.getDataOuts(ifCompound)) {
-      addChoiceFunction(graph, dataOut, ifCompound, workflow, conditionVariable);
+      final SourceRef srcRef = symbolTable.getSourceRef(AfclApiWrapper.getSource(dataOut));
+      if (!srcRef.isIfOut()) {
+        // reported when the data out is processed
+        continue;
+      }
+      final SourceRef branchRef = isThen ? srcRef.getFirst() : srcRef.getAlternative().get();
+      if (branchRef.isSrc() && graph.getVertex(branchRef.getString()) == null) {
+        sources.add(branchRef.getString());
+      }
     }
+    HierarchyLevellingAfcl.resolveSources(sources, symbolTable);
+  }
+
+  /**
+   * Adds the nodes modeling the branch of the given if compound which is taken
+   * for a condition evaluated at compile time. Neither the condition function
+   * nor the choice functions are created: the data outs of the if compound
+   * point directly to the data produced in the taken branch.
+   * 
+   * @param graph the enactment graph
+   * @param ifCompound the if compound that is being modeled
+   * @param symbolTable the symbol table of the workflow
+   * @param isThen true iff the then branch is taken
+   */
+  protected static void addTakenBranch(final EnactmentGraph graph, final IfThenElse ifCompound,
+      final SymbolTableAfcl symbolTable, final boolean isThen) {
+    recordEliminatedWfInputs(ifCompound, symbolTable, isThen);
+    for (final Function function : getBranch(ifCompound, isThen)) {
+      if (function instanceof AtomicFunction) {
+        AfclCompoundsAtomic.addAtomicFunctionSubWfLevel(graph, (AtomicFunction) function,
+            symbolTable);
+      } else {
+        AfclCompounds.addFunctionCompound(graph, function, symbolTable);
+      }
+    }
+    resolveBranchSources(graph, ifCompound, symbolTable, isThen);
+    for (final DataOuts dataOut : AfclApiWrapper.getDataOuts(ifCompound)) {
+      final SourceRef srcRef = symbolTable.getSourceRef(AfclApiWrapper.getSource(dataOut));
+      if (!srcRef.isIfOut()) {
+        throw new IllegalArgumentException("The src of data out " + AfclApiWrapper.getName(dataOut)
+            + " does not look like the out of an if compound.");
+      }
+      final SourceRef branchRef = isThen ? srcRef.getFirst() : srcRef.getAlternative().get();
+      final String branchSrc = branchRef.getString();
+      if (!branchRef.isSrc()) {
+        throw new IllegalArgumentException("The data out " + AfclApiWrapper.getName(dataOut)
+            + " does not point to a function out of the taken branch.");
+      }
+      final String branchDataId = graph.getVertex(branchSrc) == null
+          ? HierarchyLevellingAfcl.getSrcDataId(branchSrc, symbolTable)
+          : branchSrc;
+      if (graph.getVertex(branchDataId) == null) {
+        throw new IllegalStateException("Src of if data out " + branchSrc + " not in the graph");
+      }
+      // references to the if data out are resolved to the data of the taken branch
+      symbolTable.cacheResolvedSource(
+          AfclApiWrapper.getName(ifCompound) + ConstantsAfcl.SourceAffix
+              + AfclApiWrapper.getName(dataOut),
+          branchDataId);
+    }
+  }
+
+  /**
+   * Records the wf inputs which the functions of the eliminated branch reference
+   * (directly or via the data ins of compounds). After the translation, those of
+   * them which are not used by other functions are removed from the graph.
+   * 
+   * @param ifCompound the if compound that is being modeled
+   * @param symbolTable the symbol table of the workflow
+   * @param isThen true iff the then branch is taken
+   */
+  protected static void recordEliminatedWfInputs(final IfThenElse ifCompound,
+      final SymbolTableAfcl symbolTable, final boolean isThen) {
+    final List<String> sources = new ArrayList<>();
+    for (final Function function : getBranch(ifCompound, !isThen)) {
+      DependencyAnalysisAfcl.getReferencedSources(function, symbolTable)
+          .forEach(source -> sources.add(source.getString()));
+    }
+    HierarchyLevellingAfcl.resolveSources(sources, symbolTable);
+    for (final String source : sources) {
+      final String dataId = HierarchyLevellingAfcl.getSrcDataId(source, symbolTable);
+      if (symbolTable.getSourceRef(dataId).getProducerId()
+          .equals(symbolTable.getWorkflowName())) {
+        symbolTable.addEliminatedWfInput(dataId);
+      }
+    }
+  }
+
+  /**
+   * Returns the functions of the then (else) branch of the given if compound.
+   * 
+   * @param ifCompound the given if compound
+   * @param isThen true iff the then branch is requested
+   * @return the functions of the requested branch
+   */
+  protected static List<Function> getBranch(final IfThenElse ifCompound, final boolean isThen) {
+    return Optional
+        .ofNullable(isThen ? ifCompound.getThenBranch() : ifCompound.getElseBranch())
+        .orElseGet(ArrayList::new);
+  }
+
+  /**
+   * Returns true iff all atomic functions of the given branch (including the
+   * nested ones) have data ins. Functions without data ins are only triggered by
+   * the decision variable, so that the branch cannot be added without the
+   * condition function.
+   * 
+   * @param branch the functions of the branch
+   * @return true iff all atomic functions of the given branch have data ins
+   */
+  protected static boolean isBranchSelfTriggered(final List<Function> branch) {
+    for (final Function function : branch) {
+      if (function instanceof AtomicFunction) {
+        if (AfclApiWrapper.getDataIns((AtomicFunction) function).isEmpty()) {
+          return false;
+        }
+      } else if (!isBranchSelfTriggered(DependencyAnalysisAfcl.getNestedFunctions(function))) {
+        return false;
+      }
+    }
+    return true;
   }
 
   /**
@@ -67,30 +216,26 @@ public final class AfclCompoundsIf {
    * 
    * @param graph the enactment graph
    * @param ifCompound the if compound that is being modeled
-   * @param workflow the afcl workflow object
+   * @param symbolTable the symbol table of the workflow
    * @param decisionVariable the decision variable
    * @param isThen true iff modeling the then branch
    */
   protected static void addIfBranch(final EnactmentGraph graph, final IfThenElse ifCompound,
-      final Workflow workflow, final Task decisionVariable, final boolean isThen) {
-    // remember all function nodes in the graph now
-    final Set<Task> tasksBeforeAdding = AfclCompounds.getFunctionNodes(graph);
-    // add the contents of the branch
-    final List<Function> functionsToAdd =
-        Optional.fromNullable(isThen ? ifCompound.getThenBranch() : ifCompound.getElseBranch())
-            .or(new ArrayList<Function>());
-    for (final Function function : functionsToAdd) {
-      if (function instanceof AtomicFunction) {
-        AfclCompoundsAtomic.addAtomicFunctionSubWfLevel(graph, (AtomicFunction) function, workflow);
-      } else {
-        AfclCompounds.addFunctionCompound(graph, function, workflow);
+      final SymbolTableAfcl symbolTable, final Task decisionVariable, final boolean isThen) {
+    final List<Function> functionsToAdd = getBranch(ifCompound, isThen);
+    // add the contents of the branch while remembering the new function nodes
+    final Set<Task> newTasks = AfclCompounds.getAddedFunctionNodes(graph, () -> {
+      for (final Function function : functionsToAdd) {
+        if (function instanceof AtomicFunction) {
+          AfclCompoundsAtomic.addAtomicFunctionSubWfLevel(graph, (AtomicFunction) function,
+              symbolTable);
+        } else {
+          AfclCompounds.addFunctionCompound(graph, function, symbolTable);
+        }
       }
-    }
-    // figure out which ones are new
-    final Set<Task> tasksAfterAdding = AfclCompounds.getFunctionNodes(graph);
-    tasksAfterAdding.removeAll(tasksBeforeAdding);
+    });
     // connect them to the condition variable
-    tasksAfterAdding.forEach(newTask -> {
+    newTasks.forEach(newTask -> {
       PropertyServiceDependencyControlIf.addIfDependency(decisionVariable, newTask,
           decisionVariable.getId(), isThen, graph);
       return;
@@ -104,18 +249,20 @@ public final class AfclCompoundsIf {
    * @param graph the enactment graph
    * @param dataOut the given data out
    * @param ifCompound the given if compound
-   * @param workflow the afcl workflow
+   * @param symbolTable the symbol table of the workflow
    * @param conditionVariable the data node containing the decision variable
    */
   protected static void addChoiceFunction(final EnactmentGraph graph, final DataOuts dataOut,
-      final IfThenElse ifCompound, final Workflow workflow, final Task conditionVariable) {
-    checkDataOutIfSrc(dataOut, graph, workflow);
+      final IfThenElse ifCompound, final SymbolTableAfcl symbolTable,
+      final Task conditionVariable) {
+    checkDataOutIfSrc(dataOut, graph, symbolTable);
     final String srcString = AfclApiWrapper.getSource(dataOut);
-    final String firstSrc = UtilsAfcl.getFirstSubStringIfOut(srcString);
-    final String secondSrc = UtilsAfcl.getSecondSubStringIfOut(srcString);
+    final SourceRef srcRef = symbolTable.getSourceRef(srcString);
+    final String firstSrc = srcRef.getFirst().getString();
+    final String secondSrc = srcRef.getAlternative().get().getString();
     final Task firstSrcNode = graph.getVertex(firstSrc);
-    final Task secondSrcNode = Optional.fromNullable(graph.getVertex(secondSrc))
-        .or(graph.getVertex(HierarchyLevellingAfcl.getSrcDataId(secondSrc, workflow)));
+    final Task secondSrcNode = Optional.ofNullable(graph.getVertex(secondSrc)).orElseGet(
+        () -> graph.getVertex(HierarchyLevellingAfcl.getSrcDataId(secondSrc, symbolTable)));
     // create the choice function node
     final String funcNodeId = firstSrc + ConstantsEEModel.EarliestArrivalFuncAffix + secondSrc;
     final Task choiceFunction = PropertyServiceFunctionDataFlow.createDataFlowFunction(funcNodeId,
@@ -146,20 +293,22 @@ public final class AfclCompoundsIf {
    * @param graph the hitherto created enactment graph
    */
   protected static void checkDataOutIfSrc(final DataOuts dataOut, final EnactmentGraph graph,
-      final Workflow workflow) {
-    final String srcString = AfclApiWrapper.getSource(dataOut);
-    if (!UtilsAfcl.isIfOutSrc(srcString)) {
+      final SymbolTableAfcl symbolTable) {
+    final SourceRef srcRef = symbolTable.getSourceRef(AfclApiWrapper.getSource(dataOut));
+    if (!srcRef.isIfOut()) {
       throw new IllegalArgumentException("The src of data out " + AfclApiWrapper.getName(dataOut)
           + " does not look like the out of an if compound.");
     }
-    final String firstSrc = UtilsAfcl.getFirstSubStringIfOut(srcString);
+    final SourceRef firstRef = srcRef.getFirst();
+    final String firstSrc = firstRef.getString();
     final String dataOutName = AfclApiWrapper.getName(dataOut);
-    if (!UtilsAfcl.isSrcString(firstSrc)) {
+    if (!firstRef.isSrc()) {
       throw new IllegalArgumentException(
           "First part of the if data out " + dataOutName + " does not point to a function out.");
     }
-    final String secondSrc = UtilsAfcl.getSecondSubStringIfOut(srcString);
-    if (!UtilsAfcl.isSrcString(secondSrc)) {
+    final SourceRef secondRef = srcRef.getAlternative().get();
+    final String secondSrc = secondRef.getString();
+    if (!secondRef.isSrc()) {
       throw new IllegalArgumentException(
           "Second part of the if data out " + dataOutName + " does not point to a function out.");
     }
@@ -167,7 +316,7 @@ public final class AfclCompoundsIf {
       throw new IllegalStateException("Src of if data out " + firstSrc + " not in the graph");
     }
     if (graph.getVertex(secondSrc) == null
-        && graph.getVertex(HierarchyLevellingAfcl.getSrcDataId(secondSrc, workflow)) == null) {
+        && graph.getVertex(HierarchyLevellingAfcl.getSrcDataId(secondSrc, symbolTable)) == null) {
       throw new IllegalStateException("Src of if data out " + secondSrc + " not in the graph");
     }
   }
@@ -178,18 +327,29 @@ public final class AfclCompoundsIf {
    * 
    * @param graph the enactment graph
    * @param ifCompound the if compound that is being modeled
-   * @param workflow the afcl workflow object
+   * @param symbolTable the symbol table of the workflow
    * @return the data node modeling the condition variable
    */
   protected static Task addConditionFunction(final EnactmentGraph graph,
-      final IfThenElse ifCompound, final Workflow workflow) {
+      final IfThenElse ifCompound, final SymbolTableAfcl symbolTable) {
     final String nodeId = AfclApiWrapper.getName(ifCompound);
     final List<Condition> conditions = new ArrayList<>();
     final Task funcNode =
         PropertyServiceFunctionUtilityCondition.createConditionEvaluation(nodeId, conditions);
+    final List<String> conditionSources = new ArrayList<>();
+    for (final at.uibk.dps.afcl.functions.objects.Condition afclCondition : ifCompound
+        .getCondition()) {
+      for (final String conditionData : Arrays.asList(afclCondition.getData1(),
+          afclCondition.getData2())) {
+        if (symbolTable.getSourceRef(conditionData).isSrc()) {
+          conditionSources.add(conditionData);
+        }
+      }
+    }
+    HierarchyLevellingAfcl.resolveSources(conditionSources, symbolTable);
     for (final at.uibk.dps.afcl.functions.objects.Condition afclCondition : ifCompound
         .getCondition()) {
-      conditions.add(addConditionNode(graph, afclCondition, funcNode, workflow));
+      conditions.add(addConditionNode(graph, afclCondition, funcNode, symbolTable));
     }
     PropertyServiceFunctionUtilityCondition.setConditions(funcNode, conditions);
 
@@ -213,11 +373,11 @@ public final class AfclCompoundsIf {
    */
   protected static Condition addConditionNode(final EnactmentGraph graph,
       final at.uibk.dps.afcl.functions.objects.Condition condition, final Task conditionFunction,
-      final Workflow workflow) {
+      final SymbolTableAfcl symbolTable) {
     final String firstInput =
-        getConditionDataSrc(condition.getData1(), conditionFunction.getId(), workflow);
+        getConditionDataSrc(condition.getData1(), conditionFunction.getId(), symbolTable);
     final String secondInput =
-        getConditionDataSrc(condition.getData2(), conditionFunction.getId(), workflow);
+        getConditionDataSrc(condition.getData2(), conditionFunction.getId(), symbolTable);
     final Operator operator = UtilsAfcl.getOperatorForString(condition.getOperator());
     final DataType dataType = UtilsAfcl.getDataTypeForString(condition.getType());
     final Task conditionInFirst = addConditionIn(graph, conditionFunction, firstInput, dataType);
@@ -235,13 +395,13 @@ public final class AfclCompoundsIf {
    * @param conditionDataString the condition string
    * @param conditionFunctionId the id of the function node evaluating the
    *        condition
-   * @param workflow the processed workflow
+   * @param symbolTable the symbol table of the workflow
    * @return the actual src string for the given condition data
    */
   protected static String getConditionDataSrc(final String conditionDataString,
-      final String conditionFunctionId, final Workflow workflow) {
-    if (UtilsAfcl.isSrcString(conditionDataString)) {
-      return HierarchyLevellingAfcl.getSrcDataId(conditionDataString, workflow);
+      final String conditionFunctionId, final SymbolTableAfcl symbolTable) {
+    if (symbolTable.getSourceRef(conditionDataString).isSrc()) {
+      return HierarchyLevellingAfcl.getSrcDataId(conditionDataString, symbolTable);
     } else {
       return conditionDataString;
     }
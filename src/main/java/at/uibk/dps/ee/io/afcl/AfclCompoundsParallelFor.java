@@ -1,7 +1,10 @@
 package at.uibk.dps.ee.io.afcl;
 
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -9,11 +12,11 @@ import java.util.stream.Collectors;
 import com.google.gson.JsonPrimitive;
 
 import at.uibk.dps.afcl.Function;
-import at.uibk.dps.afcl.Workflow;
 import at.uibk.dps.afcl.functions.AtomicFunction;
 import at.uibk.dps.afcl.functions.ParallelFor;
 import at.uibk.dps.afcl.functions.objects.DataIns;
 import at.uibk.dps.afcl.functions.objects.DataOuts;
+import at.uibk.dps.ee.io.UtilsGraph;
 import at.uibk.dps.ee.io.UtilsIO;
 import at.uibk.dps.ee.model.constants.ConstantsEEModel;
 import at.uibk.dps.ee.model.graph.EnactmentGraph;
@@ -22,13 +25,18 @@ import at.uibk.dps.ee.model.properties.PropertyServiceData.DataType;
 import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections.OperationType;
+import edu.uci.ics.jung.graph.util.EdgeType;
 import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
 import net.sf.opendse.model.Task;
 import net.sf.opendse.model.properties.TaskPropertyService;
 
 /**
  * Static method container for the methods used when creating the enactment
- * graph parts modeling elements of sequence compounds.
+ * graph parts modeling elements of sequence compounds. If enabled by the
+ * {@link CompilationOptions}, parallelFor compounds with a small constant
+ * iteration number and without data outs are unrolled, i.e., their body is
+ * copied once per iteration.
  * 
  * @author Fedor Smirnov
  */
@@ -45,10 +53,10 @@ public final class AfclCompoundsParallelFor {
    * 
    * @param graph the provided enactment graph
    * @param parallelFor the parallelFor compound
-   * @param workflow the afcl workflow
+   * @param symbolTable the symbol table of the workflow
    */
   protected static void addParallelFor(final EnactmentGraph graph, final ParallelFor parallelFor,
-      final Workflow workflow) {
+      final SymbolTableAfcl symbolTable) {
 
     // process the iterators and add the distribute function
     final List<String> iterators =
@@ -63,50 +71,173 @@ public final class AfclCompoundsParallelFor {
     final List<DataIns> dataIns = AfclApiWrapper.getDataIns(parallelFor);
 
     if (isIntIteratorList(iterators)) {
-      // create/find the node providing the iteration number
-      processIterator(iterators.get(0), graph, dataIns, distributionNode, parallelFor.getName());
-
-      // create the output of the distribution function
-      final String nodeId = distributionNode.getId() + ConstantsEEModel.KeywordSeparator1
-          + ConstantsEEModel.JsonKeyConstantIterator;
-      final Task intIteratorDist = new Communication(nodeId);
-      PropertyServiceData.setDataType(intIteratorDist, DataType.Boolean);
-      PropertyServiceDependency.addDataDependency(distributionNode, intIteratorDist,
-          ConstantsEEModel.JsonKeyConstantIterator, graph);
-
-      // make the loop body while remembering new nodes
-      final Set<Task> functionsBeforeAdding = AfclCompounds.getFunctionNodes(graph);
-      processTheLoopBody(parallelFor, graph, workflow);
-      final Set<Task> functionsAfterAdding = AfclCompounds.getFunctionNodes(graph);
-      functionsAfterAdding.removeAll(functionsBeforeAdding);
-      // connect all functions to the loop output
-      for (final Task bodyFunction : functionsAfterAdding) {
-        PropertyServiceDependency.addDataDependency(intIteratorDist, bodyFunction,
-            ConstantsEEModel.JsonKeyConstantIterator, graph);
+      if (isUnrollingCandidate(parallelFor, iterators.get(0), symbolTable)) {
+        final Set<Task> bodyFunctions = AfclCompounds.getAddedFunctionNodes(graph,
+            () -> processTheLoopBody(parallelFor, graph, symbolTable));
+        if (bodyFunctions.stream().allMatch(function -> graph.getPredecessorCount(function) > 0)) {
+          addUnrolledLoop(graph, UtilsIO.readAsInt(iterators.get(0)), bodyFunctions);
+          return;
+        }
+        // functions without inputs have to be triggered by the distribution node
+        final Task intIteratorDist = addIntIteratorDistribution(iterators.get(0), graph, dataIns,
+            distributionNode, parallelFor.getName(), symbolTable);
+        connectToIntIteratorDist(graph, intIteratorDist, bodyFunctions);
+      } else {
+        // create/find the node providing the iteration number
+        final Task intIteratorDist = addIntIteratorDistribution(iterators.get(0), graph, dataIns,
+            distributionNode, parallelFor.getName(), symbolTable);
+        // make the loop body while remembering new nodes
+        final Set<Task> bodyFunctions = AfclCompounds.getAddedFunctionNodes(graph,
+            () -> processTheLoopBody(parallelFor, graph, symbolTable));
+        connectToIntIteratorDist(graph, intIteratorDist, bodyFunctions);
       }
     } else {
       for (final String iterator : iterators) {
-        processIterator(iterator, graph, dataIns, distributionNode, parallelFor.getName());
+        processIterator(iterator, graph, dataIns, distributionNode, parallelFor.getName(),
+            symbolTable);
       }
       // process the loop body and remember the new functions
-      final Set<Task> functionsBeforeAdding = AfclCompounds.getFunctionNodes(graph);
-      processTheLoopBody(parallelFor, graph, workflow);
-      final Set<Task> functionsAfterAdding = AfclCompounds.getFunctionNodes(graph);
-      functionsAfterAdding.removeAll(functionsBeforeAdding);
+      final Set<Task> bodyFunctions = AfclCompounds.getAddedFunctionNodes(graph,
+          () -> processTheLoopBody(parallelFor, graph, symbolTable));
       // connect the "roots" of the body subgraph to the dist node
-      getSubGraphRoots(graph, functionsAfterAdding, distributionNode).forEach(
+      getSubGraphRoots(graph, bodyFunctions, distributionNode).forEach(
           subGraphRoot -> connectSubGraphRootToDistNode(graph, distributionNode, subGraphRoot));
     }
 
     // process the data outs and add the aggregate function
     final Optional<List<DataOuts>> dataOuts = Optional.ofNullable(parallelFor.getDataOuts());
     if (dataOuts.isPresent()) {
+      resolveDataOutSources(dataOuts.get(), symbolTable);
       for (final DataOuts dataOut : dataOuts.get()) {
-        attachAggregatedDataOut(dataOut, graph, parallelFor.getName(), workflow);
+        attachAggregatedDataOut(dataOut, graph, parallelFor.getName(), symbolTable);
       }
     }
   }
 
+  /**
+   * Adds the distribution of an int iterator: the node providing the iteration
+   * number, the distribution node, and its boolean output which triggers the
+   * functions of the loop body.
+   * 
+   * @param iterator the int iterator
+   * @param graph the enactment graph
+   * @param dataIns the data ins of the parallelFor
+   * @param distributionNode the distribution node
+   * @param parallelForName the name of the parallelFor
+   * @param symbolTable the symbol table of the workflow
+   * @return the output of the distribution node
+   */
+  protected static Task addIntIteratorDistribution(final String iterator,
+      final EnactmentGraph graph, final List<DataIns> dataIns, final Task distributionNode,
+      final String parallelForName, final SymbolTableAfcl symbolTable) {
+    processIterator(iterator, graph, dataIns, distributionNode, parallelForName, symbolTable);
+    // create the output of the distribution function
+    final String nodeId = distributionNode.getId() + ConstantsEEModel.KeywordSeparator1
+        + ConstantsEEModel.JsonKeyConstantIterator;
+    final Task intIteratorDist = new Communication(nodeId);
+    PropertyServiceData.setDataType(intIteratorDist, DataType.Boolean);
+    PropertyServiceDependency.addDataDependency(distributionNode, intIteratorDist,
+        ConstantsEEModel.JsonKeyConstantIterator, graph);
+    return intIteratorDist;
+  }
+
+  /**
+   * Connects all functions of the loop body to the output of the int iterator
+   * distribution.
+   * 
+   * @param graph the enactment graph
+   * @param intIteratorDist the output of the distribution node
+   * @param bodyFunctions the functions of the loop body
+   */
+  protected static void connectToIntIteratorDist(final EnactmentGraph graph,
+      final Task intIteratorDist, final Set<Task> bodyFunctions) {
+    for (final Task bodyFunction : bodyFunctions) {
+      PropertyServiceDependency.addDataDependency(intIteratorDist, bodyFunction,
+          ConstantsEEModel.JsonKeyConstantIterator, graph);
+    }
+  }
+
+  /**
+   * Returns true iff the given parallelFor can be unrolled at compile time: its
+   * iterator is a constant int which does not exceed the unroll threshold of
+   * the compilation, its body consists of atomic functions, and it has no data
+   * outs. Data outs are aggregated by an aggregation node which belongs to the
+   * scope of a distribution node; since the enactment model offers no function
+   * building a collection outside of such a scope, loops with data outs keep
+   * their distribution.
+   * 
+   * @param parallelFor the parallelFor
+   * @param iterator the (int) iterator of the parallelFor
+   * @param symbolTable the symbol table of the workflow
+   * @return true iff the given parallelFor can be unrolled at compile time
+   */
+  protected static boolean isUnrollingCandidate(final ParallelFor parallelFor,
+      final String iterator, final SymbolTableAfcl symbolTable) {
+    final int threshold = symbolTable.getOptions().getUnrollThreshold();
+    if (threshold == 0 || !UtilsIO.readableAsInt(iterator)) {
+      return false;
+    }
+    final int iterationNumber = UtilsIO.readAsInt(iterator);
+    if (iterationNumber < 1 || iterationNumber > threshold) {
+      return false;
+    }
+    if (parallelFor.getDataOuts() != null && !parallelFor.getDataOuts().isEmpty()) {
+      return false;
+    }
+    return parallelFor.getLoopBody().stream().allMatch(AtomicFunction.class::isInstance);
+  }
+
+  /**
+   * Replaces the (already translated) loop body by one copy per iteration. The
+   * copies are connected directly to the data the body reads, so that neither a
+   * distribution node nor a dynamic replication of the body is necessary.
+   * 
+   * @param graph the enactment graph
+   * @param parallelFor the parallelFor
+   * @param iterationNumber the number of iterations
+   * @param bodyFunctions the function nodes of the translated loop body
+   */
+  protected static void addUnrolledLoop(final EnactmentGraph graph,
+      final int iterationNumber, final Set<Task> bodyFunctions) {
+    // the body consists of the functions and the data they produce
+    final Set<Task> bodyNodes = new LinkedHashSet<>(bodyFunctions);
+    final Set<Dependency> bodyEdges = new LinkedHashSet<>();
+    for (final Task bodyFunction : bodyFunctions) {
+      bodyNodes.addAll(graph.getSuccessors(bodyFunction));
+      bodyEdges.addAll(graph.getInEdges(bodyFunction));
+      bodyEdges.addAll(graph.getOutEdges(bodyFunction));
+    }
+    for (int iteration = 0; iteration < iterationNumber; iteration++) {
+      final Map<Task, Task> copies = new HashMap<>();
+      for (final Task bodyNode : bodyNodes) {
+        final Task copy =
+            UtilsGraph.copyElement(bodyNode, getUnrolledId(bodyNode.getId(), iteration));
+        graph.addVertex(copy);
+        copies.put(bodyNode, copy);
+      }
+      for (final Dependency bodyEdge : bodyEdges) {
+        final Task src = graph.getSource(bodyEdge);
+        final Task dst = graph.getDest(bodyEdge);
+        graph.addEdge(
+            UtilsGraph.copyElement(bodyEdge, getUnrolledId(bodyEdge.getId(), iteration)),
+            copies.getOrDefault(src, src), copies.getOrDefault(dst, dst), EdgeType.DIRECTED);
+      }
+    }
+    bodyNodes.forEach(graph::removeVertex);
+  }
+
+  /**
+   * Returns the id of the copy of the node/edge with the given id for the given
+   * iteration of an unrolled loop.
+   * 
+   * @param originalId the id of the original node/edge
+   * @param iteration the iteration
+   * @return the id of the copy for the given iteration
+   */
+  protected static String getUnrolledId(final String originalId, final int iteration) {
+    return originalId + ConstantsEEModel.KeywordSeparator1 + iteration;
+  }
+
   /**
    * Connects a subgraph root to its distribution node by means of a sequence node
    * 
@@ -182,20 +313,34 @@ public final class AfclCompoundsParallelFor {
    * 
    * @param parallelFor the parallelFor compound
    * @param graph the enactment graph
-   * @param workflow the workflow
+   * @param symbolTable the symbol table of the workflow
    */
   protected static void processTheLoopBody(final ParallelFor parallelFor,
-      final EnactmentGraph graph, final Workflow workflow) {
+      final EnactmentGraph graph, final SymbolTableAfcl symbolTable) {
     // process the loop body
     for (final Function function : parallelFor.getLoopBody()) {
       if (function instanceof AtomicFunction) {
-        AfclCompoundsAtomic.addAtomicFunctionSubWfLevel(graph, (AtomicFunction) function, workflow);
+        AfclCompoundsAtomic.addAtomicFunctionSubWfLevel(graph, (AtomicFunction) function,
+            symbolTable);
       } else {
-        AfclCompounds.addFunctionCompound(graph, function, workflow);
+        AfclCompounds.addFunctionCompound(graph, function, symbolTable);
       }
     }
   }
 
+  /**
+   * Resolves the sources of the given data outs of a parallelFor (see
+   * {@link HierarchyLevellingAfcl#resolveSources}).
+   * 
+   * @param dataOuts the data outs of the parallelFor
+   * @param symbolTable the symbol table of the workflow
+   */
+  protected static void resolveDataOutSources(final List<DataOuts> dataOuts,
+      final SymbolTableAfcl symbolTable) {
+    HierarchyLevellingAfcl.resolveSources(
+        dataOuts.stream().map(DataOuts::getSource).collect(Collectors.toList()), symbolTable);
+  }
+
   /**
    * Creates the nodes modeling (a) the aggregation function of the data out and
    * (b) the aggregated data. Attaches both nodes to the graph
@@ -205,19 +350,56 @@ public final class AfclCompoundsParallelFor {
    * @param parallelForName the name of the parallelFor function
    */
   protected static void attachAggregatedDataOut(final DataOuts dataOut, final EnactmentGraph graph,
-      final String parallelForName, Workflow workflow) {
-    // create the aggregation function
-    final String aggregationId = parallelForName + ConstantsEEModel.KeywordSeparator1
-        + ConstantsEEModel.FuncNameUtilityAggregation + ConstantsEEModel.KeywordSeparator1
-        + dataOut.getName();
-    final Task aggregationNode = PropertyServiceFunctionDataFlowCollections
-        .createCollectionDataFlowTask(aggregationId, OperationType.Aggregation, parallelForName);
+      final String parallelForName, final SymbolTableAfcl symbolTable) {
+    final Task aggregationNode = createAggregationNode(dataOut, parallelForName);
     // find the source and connect the aggregation node to it
-    final String srcString = HierarchyLevellingAfcl.getSrcDataId(dataOut.getSource(), workflow);
-    final Task dataToAggregate = Optional.ofNullable(graph.getVertex(srcString)).orElseThrow(
-        () -> new IllegalStateException("Cannot find data to aggregate: " + srcString));
+    final String srcString =
+        HierarchyLevellingAfcl.getSrcDataId(dataOut.getSource(), symbolTable);
+    final Task dataToAggregate = getDataToAggregate(srcString, graph);
     PropertyServiceDependency.addDataDependency(dataToAggregate, aggregationNode,
         ConstantsEEModel.JsonKeyAggregation, graph);
+    attachAggregatedData(dataOut, aggregationNode, graph, parallelForName);
+  }
+
+  /**
+   * Creates the node modeling the aggregation function of the given data out.
+   * 
+   * @param dataOut the data out
+   * @param parallelForName the name of the parallelFor function
+   * @return the node modeling the aggregation function of the given data out
+   */
+  protected static Task createAggregationNode(final DataOuts dataOut,
+      final String parallelForName) {
+    final String aggregationId = parallelForName + ConstantsEEModel.KeywordSeparator1
+        + ConstantsEEModel.FuncNameUtilityAggregation + ConstantsEEModel.KeywordSeparator1
+        + dataOut.getName();
+    return PropertyServiceFunctionDataFlowCollections.createCollectionDataFlowTask(aggregationId,
+        OperationType.Aggregation, parallelForName);
+  }
+
+  /**
+   * Returns the node with the given id which is to be aggregated.
+   * 
+   * @param dataId the id of the data
+   * @param graph the enactment graph
+   * @return the node with the given id
+   */
+  protected static Task getDataToAggregate(final String dataId, final EnactmentGraph graph) {
+    return Optional.ofNullable(graph.getVertex(dataId)).orElseThrow(
+        () -> new IllegalStateException("Cannot find data to aggregate: " + dataId));
+  }
+
+  /**
+   * Creates the node for the aggregated data and connects it to the given
+   * aggregation node.
+   * 
+   * @param dataOut the processed data out
+   * @param aggregationNode the aggregation node
+   * @param graph the enactment graph
+   * @param parallelForName the name of the parallelFor function
+   */
+  protected static void attachAggregatedData(final DataOuts dataOut, final Task aggregationNode,
+      final EnactmentGraph graph, final String parallelForName) {
     // create the node for the aggregated data
     final DataType dataType = UtilsAfcl.getDataTypeForString(dataOut.getType());
     if (!dataType.equals(DataType.Collection)) {
@@ -272,11 +454,14 @@ public final class AfclCompoundsParallelFor {
    * @param graph the enactment graph
    * @param dataIns the list of data ins
    * @param distributionNode the node modeling the distribution operation.
+   * @param parallelForName the name of the parallelFor
+   * @param symbolTable the symbol table of the workflow
    */
   protected static void processIterator(final String iterator, final EnactmentGraph graph,
-      final List<DataIns> dataIns, final Task distributionNode, final String parallelForName) {
+      final List<DataIns> dataIns, final Task distributionNode, final String parallelForName,
+      final SymbolTableAfcl symbolTable) {
     // connect the data to distribute
-    if (UtilsAfcl.isSrcString(iterator)) {
+    if (symbolTable.getSourceRef(iterator).isSrc()) {
       // iterator from source
       final Task inputData = AfclCompounds.assureDataNodePresence(iterator, DataType.Number, graph);
       PropertyServiceDependency.addDataDependency(inputData, distributionNode,
@@ -296,7 +481,8 @@ public final class AfclCompoundsParallelFor {
       }
       final DataIns dataInIterator =
           dataIns.stream().filter(dataIn -> dataIn.getName().equals(iterator)).findAny().get();
-      AfclCompounds.addDataInDefault(graph, distributionNode, dataInIterator, DataType.Collection);
+      AfclCompounds.addDataInDefault(graph, distributionNode, dataInIterator, DataType.Collection,
+          symbolTable);
       final String distributedDataId =
           parallelForName + ConstantsAfcl.SourceAffix + dataInIterator.getName();
       final DataType dataType = UtilsAfcl.getDataTypeForString(dataInIterator.getType());
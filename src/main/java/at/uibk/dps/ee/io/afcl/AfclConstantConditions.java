@@ -0,0 +1,199 @@
+package at.uibk.dps.ee.io.afcl;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import at.uibk.dps.afcl.functions.objects.Condition;
+import at.uibk.dps.ee.model.objects.Condition.CombinedWith;
+import at.uibk.dps.ee.model.objects.Condition.Operator;
+import at.uibk.dps.ee.model.properties.PropertyServiceData.DataType;
+
+/**
+ * Static method container for the compile-time evaluation of the conditions of
+ * if compounds. A condition list can be evaluated at compile time if all
+ * compared data are constants (i.e., not source references), the operators
+ * are applicable to the data type, and the conditions are either all combined
+ * with "and" or all combined with "or".
+ *
+ * @author Fedor Smirnov
+ */
+public final class AfclConstantConditions {
+
+  /**
+   * No constructor.
+   */
+  private AfclConstantConditions() {}
+
+  /**
+   * Evaluates the given list of conditions at compile time. Returns an empty
+   * optional if the list cannot be evaluated at compile time.
+   *
+   * @param conditions the conditions of an if compound
+   * @return the result of the condition evaluation (empty if the conditions
+   *         depend on data which is only available at run time)
+   */
+  public static Optional<Boolean> evaluate(final List<Condition> conditions) {
+    if (conditions == null || conditions.isEmpty()) {
+      return Optional.empty();
+    }
+    final CombinedWith combinedWith = conditions.size() == 1 ? CombinedWith.And
+        : UtilsAfcl.getCombinedWithForString(conditions.get(0).getCombinedWith());
+    boolean result = combinedWith.equals(CombinedWith.And);
+    for (final Condition condition : conditions) {
+      final boolean sameCombination = conditions.size() == 1
+          || UtilsAfcl.getCombinedWithForString(condition.getCombinedWith()).equals(combinedWith);
+      if (!sameCombination) {
+        // mixed combinations are resolved by the condition function
+        return Optional.empty();
+      }
+      final Optional<Boolean> conditionResult = evaluate(condition);
+      if (conditionResult.isEmpty()) {
+        return Optional.empty();
+      }
+      result = combinedWith.equals(CombinedWith.And) ? result && conditionResult.get()
+          : result || conditionResult.get();
+    }
+    return Optional.of(result);
+  }
+
+  /**
+   * Evaluates the given condition at compile time. Returns an empty optional if
+   * the condition cannot be evaluated at compile time.
+   *
+   * @param condition the condition
+   * @return the result of the condition evaluation (empty if the condition
+   *         cannot be evaluated at compile time)
+   */
+  protected static Optional<Boolean> evaluate(final Condition condition) {
+    if (UtilsAfcl.isSrcString(condition.getData1())
+        || UtilsAfcl.isSrcString(condition.getData2())) {
+      return Optional.empty();
+    }
+    final JsonElement first;
+    final JsonElement second;
+    try {
+      first = JsonParser.parseString(condition.getData1());
+      second = JsonParser.parseString(condition.getData2());
+    } catch (JsonParseException exc) {
+      return Optional.empty();
+    }
+    final Operator operator = UtilsAfcl.getOperatorForString(condition.getOperator());
+    final DataType dataType = UtilsAfcl.getDataTypeForString(condition.getType());
+    return compareConstants(first, second, operator, dataType, condition.getNegation());
+  }
+
+  /**
+   * Compares the given constants with the given operator and applies the
+   * negation. Returns an empty optional if the operator is not applicable to
+   * the data type or if the constants do not match the data type.
+   *
+   * @param first the first constant
+   * @param second the second constant
+   * @param operator the operator
+   * @param dataType the data type of the constants
+   * @param negation true iff the result of the comparison is negated
+   * @return the result of the condition (empty if it cannot be evaluated)
+   */
+  public static Optional<Boolean> compareConstants(final JsonElement first,
+      final JsonElement second, final Operator operator, final DataType dataType,
+      final boolean negation) {
+    try {
+      return compare(first, second, operator, dataType)
+          .map(comparison -> comparison.booleanValue() != negation);
+    } catch (IllegalStateException | UnsupportedOperationException | NumberFormatException exc) {
+      // content not matching the type => left to the condition function
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Compares the given constants with the given operator. Returns an empty
+   * optional if the operator is not applicable to the data type.
+   *
+   * @param first the first constant
+   * @param second the second constant
+   * @param operator the operator
+   * @param dataType the data type of the constants
+   * @return the result of the comparison (empty if the operator is not
+   *         applicable)
+   */
+  protected static Optional<Boolean> compare(final JsonElement first, final JsonElement second,
+      final Operator operator, final DataType dataType) {
+    switch (dataType) {
+      case Number:
+        return compareNumbers(first.getAsDouble(), second.getAsDouble(), operator);
+      case Boolean:
+        if (!first.getAsJsonPrimitive().isBoolean() || !second.getAsJsonPrimitive().isBoolean()) {
+          return Optional.empty();
+        }
+        return compareBooleans(first.getAsBoolean(), second.getAsBoolean(), operator);
+      case String:
+        return compareStrings(first.getAsString(), second.getAsString(), operator);
+      default:
+        return Optional.empty();
+    }
+  }
+
+  /**
+   * Compares the given numbers with the given operator.
+   */
+  protected static Optional<Boolean> compareNumbers(final double first, final double second,
+      final Operator operator) {
+    switch (operator) {
+      case EQUAL:
+        return Optional.of(first == second);
+      case UNEQUAL:
+        return Optional.of(first != second);
+      case LESS:
+        return Optional.of(first < second);
+      case LESS_EQUAL:
+        return Optional.of(first <= second);
+      case GREATER:
+        return Optional.of(first > second);
+      case GREATER_EQUAL:
+        return Optional.of(first >= second);
+      default:
+        return Optional.empty();
+    }
+  }
+
+  /**
+   * Compares the given booleans with the given operator.
+   */
+  protected static Optional<Boolean> compareBooleans(final boolean first, final boolean second,
+      final Operator operator) {
+    switch (operator) {
+      case EQUAL:
+        return Optional.of(first == second);
+      case UNEQUAL:
+        return Optional.of(first != second);
+      default:
+        return Optional.empty();
+    }
+  }
+
+  /**
+   * Compares the given strings with the given operator.
+   */
+  protected static Optional<Boolean> compareStrings(final String first, final String second,
+      final Operator operator) {
+    switch (operator) {
+      case EQUAL:
+        return Optional.of(first.equals(second));
+      case UNEQUAL:
+        return Optional.of(!first.equals(second));
+      case CONTAINS:
+        return Optional.of(first.contains(second));
+      case STARTS_WITH:
+        return Optional.of(first.startsWith(second));
+      case ENDS_WITH:
+        return Optional.of(first.endsWith(second));
+      default:
+        return Optional.empty();
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package at.uibk.dps.ee.io.afcl;
 
 import java.io.IOException;
+import java.util.Optional;
 
 import org.opt4j.core.start.Constant;
 
@@ -9,6 +10,13 @@ import com.google.inject.Singleton;
 
 import at.uibk.dps.afcl.Workflow;
 import at.uibk.dps.afcl.utils.Utils;
+import at.uibk.dps.ee.io.jfr.AfclParseEvent;
+import at.uibk.dps.ee.io.jfr.WorkflowFileReadEvent;
+import at.uibk.dps.ee.io.persistance.EnactmentGraphCache;
+import at.uibk.dps.ee.io.report.CompilationReport;
+import at.uibk.dps.ee.io.report.CompilationReport.Phase;
+import at.uibk.dps.ee.io.report.CompilationReportProvider;
+import at.uibk.dps.ee.io.validation.ValidationLevel;
 import at.uibk.dps.ee.model.graph.EnactmentGraph;
 import at.uibk.dps.ee.model.graph.EnactmentGraphProvider;
 import at.uibk.dps.socketutils.UtilsSocket;
@@ -20,28 +28,77 @@ import at.uibk.dps.socketutils.UtilsSocket;
  * @author Fedor Smirnov
  */
 @Singleton
-public class AfclReader implements EnactmentGraphProvider {
+public class AfclReader implements EnactmentGraphProvider, CompilationReportProvider {
 
+  protected final CompilationReport report;
   protected final EnactmentGraph enactmentGraph;
+  protected final boolean streaming;
+  protected final boolean parallel;
+  protected final ValidationLevel validationLevel;
+  protected final CompilationOptions options;
 
   /**
    * Built via injection in cases the file is read from a file on the local
    * storage.
    * 
    * @param filePath the path to the .afcl/.cfcl file
+   * @param cacheDirectory the directory of the compiled-graph cache (no caching
+   *        if empty)
+   * @param cacheSizeMb the maximal size of the compiled-graph cache in MB
+   * @param streaming true iff the graph is to be generated while parsing the
+   *        file (see {@link GraphGenerationAfclStreaming})
+   * @param parallel true iff independent compounds are to be translated in
+   *        parallel (see {@link GraphGenerationAfclParallel})
+   * @param logReport true iff the compilation report is to be logged (the
+   *        report is always recorded)
+   * @param validationLevel the level of the validation of the generated (or
+   *        cached) graph
+   * @param options the optional transformations applied during the graph
+   *        generation (bound by the CompilationOptionsModule; all
+   *        transformations disabled if not bound)
    */
   @Inject
   public AfclReader(
-      @Constant(value = "filePath", namespace = AfclReader.class) final String filePath) {
-    try {
-      final byte[] wfData = UtilsSocket.readFileToBytes(filePath);
-      this.enactmentGraph = generateEnactmentGraph(wfData);
-    } catch (IOException ioExc) {
-      throw new IllegalStateException("IOException when reading the WF from the path: " + filePath,
-          ioExc);
+      @Constant(value = "filePath", namespace = AfclReader.class) final String filePath,
+      @Constant(value = "cacheDirectory",
+          namespace = AfclReader.class) final String cacheDirectory,
+      @Constant(value = "cacheSizeMb", namespace = AfclReader.class) final int cacheSizeMb,
+      @Constant(value = "streaming", namespace = AfclReader.class) final boolean streaming,
+      @Constant(value = "parallel", namespace = AfclReader.class) final boolean parallel,
+      @Constant(value = "logReport", namespace = AfclReader.class) final boolean logReport,
+      @Constant(value = "validationLevel",
+          namespace = AfclReader.class) final ValidationLevel validationLevel,
+      final CompilationOptions options) {
+    this.streaming = streaming;
+    this.parallel = parallel;
+    this.validationLevel = validationLevel;
+    this.options = options;
+    // graphs compiled with different options are cached separately
+    final Optional<EnactmentGraphCache> cache = cacheDirectory.isEmpty() ? Optional.empty()
+        : Optional.of(new EnactmentGraphCache(cacheDirectory, cacheSizeMb * 1024L * 1024L,
+            EnactmentGraphCache.getImplementationVersion() + options));
+    this.report = new CompilationReport(true, logReport);
+    this.enactmentGraph = generateEnactmentGraph(readWorkflow(filePath), cache);
+    if (logReport) {
+      report.log();
     }
   }
 
+  /**
+   * Constructor used to read the WF from a file on the local storage without
+   * using a cache.
+   * 
+   * @param filePath the path to the .afcl/.cfcl file
+   */
+  public AfclReader(final String filePath) {
+    this.streaming = false;
+    this.parallel = false;
+    this.validationLevel = ValidationLevel.FULL;
+    this.options = new CompilationOptions();
+    this.report = new CompilationReport();
+    this.enactmentGraph = generateEnactmentGraph(readWorkflow(filePath));
+  }
+
   /**
    * Constructor which is provided with the byte representation of the workflow
    * file.
@@ -49,6 +106,11 @@ public class AfclReader implements EnactmentGraphProvider {
    * @param workflowData
    */
   public AfclReader(final byte[] workflowData) {
+    this.streaming = false;
+    this.parallel = false;
+    this.validationLevel = ValidationLevel.FULL;
+    this.options = new CompilationOptions();
+    this.report = new CompilationReport();
     this.enactmentGraph = generateEnactmentGraph(workflowData);
   }
 
@@ -57,6 +119,11 @@ public class AfclReader implements EnactmentGraphProvider {
     return this.enactmentGraph;
   }
 
+  @Override
+  public CompilationReport getCompilationReport() {
+    return report;
+  }
+
   /**
    * Generates the enactment graph based on the .afcl/.cfcl file (provided as byte
    * array).
@@ -65,7 +132,77 @@ public class AfclReader implements EnactmentGraphProvider {
    * @return The enactment graph modeling the enactment process.
    */
   protected final EnactmentGraph generateEnactmentGraph(final byte[] wfData) {
-    return GraphGenerationAfcl.generateEnactmentGraph(bytes2Workflow(wfData));
+    // the injected options are shared, the validation level is set on a copy
+    final CompilationOptions compilationOptions =
+        new CompilationOptions(options).setValidationLevel(validationLevel);
+    if (streaming) {
+      return GraphGenerationAfclStreaming.generateEnactmentGraph(wfData, compilationOptions,
+          report);
+    }
+    final Workflow workflow = report.measure(Phase.Parsing, null, () -> bytes2Workflow(wfData));
+    if (parallel) {
+      return GraphGenerationAfclParallel.generateEnactmentGraph(workflow, compilationOptions,
+          report);
+    }
+    return GraphGenerationAfcl.generateEnactmentGraph(workflow, compilationOptions, report);
+  }
+
+  /**
+   * Reads the workflow file from the given path and reports the reading.
+   * 
+   * @param filePath the path to the .afcl/.cfcl file
+   * @return the bytes of the workflow file
+   */
+  protected final byte[] readWorkflow(final String filePath) {
+    final byte[] result = report.measure(Phase.FileRead, null, () -> readWorkflowFile(filePath));
+    report.addItems(Phase.FileRead, result.length);
+    return result;
+  }
+
+  /**
+   * Returns the enactment graph for the given wf data. The graph is loaded from
+   * the cache (if provided and containing the graph). Otherwise, it is generated
+   * and stored in the cache.
+   * 
+   * @param wfData the wf data
+   * @param cache the compiled-graph cache (optional)
+   * @return The enactment graph modeling the enactment process.
+   */
+  protected final EnactmentGraph generateEnactmentGraph(final byte[] wfData,
+      final Optional<EnactmentGraphCache> cache) {
+    if (cache.isEmpty()) {
+      return generateEnactmentGraph(wfData);
+    }
+    final Optional<EnactmentGraph> cached = cache.get().lookUp(wfData, validationLevel);
+    if (cached.isPresent()) {
+      return cached.get();
+    }
+    final EnactmentGraph result = generateEnactmentGraph(wfData);
+    cache.get().store(wfData, result, validationLevel);
+    return result;
+  }
+
+  /**
+   * Reads the workflow file from the given path.
+   * 
+   * @param filePath the path to the .afcl/.cfcl file
+   * @return the bytes of the workflow file
+   */
+  protected static byte[] readWorkflowFile(final String filePath) {
+    final WorkflowFileReadEvent event = new WorkflowFileReadEvent();
+    event.begin();
+    try {
+      final byte[] result = UtilsSocket.readFileToBytes(filePath);
+      if (event.shouldCommit()) {
+        event.filePath = filePath;
+        event.size = result.length;
+        event.commit();
+      }
+      return result;
+    } catch (IOException ioExc) {
+      throw new IllegalStateException("IOException when reading the WF from the path: " + filePath,
+          ioExc);
+    }
   }
 
   /**
@@ -75,8 +212,17 @@ public class AfclReader implements EnactmentGraphProvider {
    * @return the {@link Workflow} corresponding to the input data.
    */
   protected static Workflow bytes2Workflow(final byte[] workflowAsBytes) {
+    final AfclParseEvent event = new AfclParseEvent();
+    event.begin();
     try {
-      return Utils.readYAMLNoValidation(workflowAsBytes);
+      final Workflow result = Utils.readYAMLNoValidation(workflowAsBytes);
+      if (event.shouldCommit()) {
+        event.workflowName = result.getName();
+        event.size = workflowAsBytes.length;
+        event.functions = result.getWorkflowBody() == null ? 0 : result.getWorkflowBody().size();
+        event.commit();
+      }
+      return result;
     } catch (IOException ioExc) {
       throw new IllegalArgumentException(
           "IOException when converting the wf input into the AFCL workflow object.", ioExc);
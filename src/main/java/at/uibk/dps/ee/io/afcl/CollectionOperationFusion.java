@@ -0,0 +1,200 @@
+package at.uibk.dps.ee.io.afcl;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import at.uibk.dps.ee.io.UtilsGraph;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUtilityCollections;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUtilityCollections.CollectionOperation;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+/**
+ * Static method container for the fusion of chained collection operations. The
+ * constraints of a data in are modeled as a chain of operation nodes, each
+ * producing an intermediate collection (see {@link AfclCollectionOperations}).
+ * Two consecutive operations with constant arguments are replaced by a single
+ * operation if the composition of their index mappings can be expressed by one
+ * operation:
+ * <ul>
+ * <li>element-index(A) followed by element-index(B) selects the elements
+ * A[b] for each b in B</li>
+ * <li>replicate(n) followed by element-index(B) (all b < n) replicates the
+ * data |B| times</li>
+ * </ul>
+ * Fusion is applied repeatedly, so that longer chains are reduced to a single
+ * operation node. Operations with source-defined arguments or ranges, and
+ * blocks (whose result depends on the collection length, which is unknown at
+ * compile time), are left as they are.
+ *
+ * @author Fedor Smirnov
+ */
+public final class CollectionOperationFusion {
+
+  /**
+   * No constructor.
+   */
+  private CollectionOperationFusion() {}
+
+  /**
+   * Fuses the chained collection operations of the given graph.
+   *
+   * @param graph the enactment graph
+   * @param symbolTable the symbol table interning the parsed constraints
+   * @return the number of fused operation pairs
+   */
+  public static int fuseCollectionOperations(final EnactmentGraph graph,
+      final SymbolTableAfcl symbolTable) {
+    final Deque<Task> operations = graph.getVertices().stream()
+        .filter(UtilsGraph::isCollectionOperation)
+        .collect(Collectors.toCollection(ArrayDeque::new));
+    int result = 0;
+    while (!operations.isEmpty()) {
+      final Task second = operations.poll();
+      if (!graph.containsVertex(second)) {
+        continue;
+      }
+      final Optional<Task> fused = fuseWithPredecessor(graph, second, symbolTable);
+      if (fused.isPresent()) {
+        result++;
+        // the fused operation may be fused with its neighbors again
+        operations.push(fused.get());
+        for (final Task processed : graph.getSuccessors(fused.get())) {
+          graph.getSuccessors(processed).stream()
+              .filter(UtilsGraph::isCollectionOperation).forEach(operations::add);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Fuses the given operation with the operation producing its input, if
+   * possible. Returns the fused operation node (or an empty optional if the
+   * operations were not fused).
+   *
+   * @param graph the enactment graph
+   * @param second the second operation of the chain
+   * @param symbolTable the symbol table interning the parsed constraints
+   * @return the fused operation node (if the operations were fused)
+   */
+  protected static Optional<Task> fuseWithPredecessor(final EnactmentGraph graph,
+      final Task second, final SymbolTableAfcl symbolTable) {
+    if (graph.getInEdges(second).size() != 1 || graph.getOutEdges(second).size() != 1) {
+      return Optional.empty();
+    }
+    final Dependency intermediateIn = graph.getInEdges(second).iterator().next();
+    final Task intermediate = graph.getSource(intermediateIn);
+    if (graph.getInEdges(intermediate).size() != 1 || graph.getOutEdges(intermediate).size() != 1
+        || PropertyServiceData.isLeaf(intermediate)) {
+      return Optional.empty();
+    }
+    final Task first = graph.getPredecessors(intermediate).iterator().next();
+    if (!UtilsGraph.isCollectionOperation(first) || graph.getInEdges(first).size() != 1) {
+      return Optional.empty();
+    }
+    final Optional<FusedOperation> fusedOperation =
+        fuse(getConstraintRef(first, symbolTable), getConstraintRef(second, symbolTable));
+    if (fusedOperation.isEmpty()) {
+      return Optional.empty();
+    }
+    final Dependency originalOut = graph.getInEdges(first).iterator().next();
+    final Task original = graph.getSource(originalOut);
+    final Dependency processedIn = graph.getOutEdges(second).iterator().next();
+    final Task processed = graph.getDest(processedIn);
+    final Task fused = PropertyServiceFunctionUtilityCollections.createCollectionOperation(
+        original.getId(), fusedOperation.get().subCollectionString,
+        fusedOperation.get().operation);
+    if (graph.getVertex(fused.getId()) != null) {
+      // the same operation is applied to the original data elsewhere
+      return Optional.empty();
+    }
+    final String inKey = PropertyServiceDependency.getJsonKey(originalOut);
+    final String outKey = PropertyServiceDependency.getJsonKey(processedIn);
+    graph.removeVertex(first);
+    graph.removeVertex(intermediate);
+    graph.removeVertex(second);
+    PropertyServiceDependency.addDataDependency(original, fused, inKey, graph);
+    PropertyServiceDependency.addDataDependency(fused, processed, outKey, graph);
+    return Optional.of(fused);
+  }
+
+  /**
+   * Returns the single operation equivalent to the given operation chain (or an
+   * empty optional if no such operation exists).
+   *
+   * @param first the first operation
+   * @param second the second operation
+   * @return the single operation equivalent to the given operation chain
+   */
+  protected static Optional<FusedOperation> fuse(final ConstraintRef first,
+      final ConstraintRef second) {
+    if (!second.getOperation().equals(CollectionOperation.ElementIndex)) {
+      return Optional.empty();
+    }
+    final Optional<List<Integer>> secondIndices = second.getConstants();
+    if (secondIndices.isEmpty()) {
+      return Optional.empty();
+    }
+    final CollectionOperation firstOperation = first.getOperation();
+    if (firstOperation.equals(CollectionOperation.ElementIndex)) {
+      final Optional<List<Integer>> firstIndices = first.getConstants();
+      // a single first index results in an element, not a collection
+      if (firstIndices.isEmpty() || firstIndices.get().size() < 2
+          || secondIndices.get().stream().anyMatch(idx -> idx >= firstIndices.get().size())) {
+        return Optional.empty();
+      }
+      final List<Integer> composed = secondIndices.get().stream().map(firstIndices.get()::get)
+          .collect(Collectors.toList());
+      final String composedString = composed.stream().map(String::valueOf)
+          .collect(Collectors.joining(ConstantsAfcl.constraintSeparatorEIdxOuter));
+      return Optional.of(new FusedOperation(CollectionOperation.ElementIndex, composedString));
+    } else if (firstOperation.equals(CollectionOperation.Replicate)) {
+      final Optional<List<Integer>> replication = first.getConstants();
+      // a single index results in the replicated data itself
+      if (replication.isEmpty() || secondIndices.get().size() < 2 || secondIndices.get().stream()
+          .anyMatch(idx -> idx >= replication.get().get(0))) {
+        return Optional.empty();
+      }
+      return Optional.of(new FusedOperation(CollectionOperation.Replicate,
+          String.valueOf(secondIndices.get().size())));
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Returns the parsed constraint of the given collection operation node.
+   *
+   * @param operationNode the collection operation node
+   * @param symbolTable the symbol table interning the parsed constraints
+   * @return the parsed constraint of the given node
+   */
+  protected static ConstraintRef getConstraintRef(final Task operationNode,
+      final SymbolTableAfcl symbolTable) {
+    return symbolTable.getConstraintRef(
+        PropertyServiceFunctionUtilityCollections.getSubCollectionsString(operationNode),
+        PropertyServiceFunctionUtilityCollections.getCollectionOperation(operationNode));
+  }
+
+  /**
+   * The operation resulting from the fusion of two operations.
+   *
+   * @author Fedor Smirnov
+   */
+  protected static class FusedOperation {
+    protected final CollectionOperation operation;
+    protected final String subCollectionString;
+
+    protected FusedOperation(final CollectionOperation operation,
+        final String subCollectionString) {
+      this.operation = operation;
+      this.subCollectionString = subCollectionString;
+    }
+  }
+}
@@ -0,0 +1,210 @@
+package at.uibk.dps.ee.io.afcl;
+
+import java.util.concurrent.ForkJoinPool;
+
+import at.uibk.dps.ee.io.validation.ValidationLevel;
+
+/**
+ * The {@link CompilationOptions} configure the generation of the enactment
+ * graph from an AFCL workflow: the optional transformations applied to the
+ * graph, the level of its validation, and the pool used by
+ * {@link GraphGenerationAfclParallel}. The default options disable all
+ * transformations, so that the generated graph reflects the workflow
+ * description one-to-one, and fully validate the graph.
+ *
+ * @author Fedor Smirnov
+ */
+public class CompilationOptions {
+
+  protected int unrollThreshold;
+  protected boolean fuseCollectionOperations;
+  protected boolean eliminateDeadBranches;
+  protected boolean shareConstants;
+  protected ValidationLevel validationLevel;
+  protected ForkJoinPool pool;
+
+  /**
+   * Default constructor: all optional transformations disabled, full
+   * validation, translation on the common {@link ForkJoinPool}.
+   */
+  public CompilationOptions() {
+    this.unrollThreshold = 0;
+    this.fuseCollectionOperations = false;
+    this.eliminateDeadBranches = false;
+    this.shareConstants = false;
+    this.validationLevel = ValidationLevel.FULL;
+    this.pool = ForkJoinPool.commonPool();
+  }
+
+  /**
+   * Copy constructor.
+   *
+   * @param other the options to copy
+   */
+  public CompilationOptions(final CompilationOptions other) {
+    this.unrollThreshold = other.unrollThreshold;
+    this.fuseCollectionOperations = other.fuseCollectionOperations;
+    this.eliminateDeadBranches = other.eliminateDeadBranches;
+    this.shareConstants = other.shareConstants;
+    this.validationLevel = other.validationLevel;
+    this.pool = other.pool;
+  }
+
+  /**
+   * Returns the maximal iteration number of parallelFor compounds with a
+   * constant int iterator which are unrolled at compile time (0 if no loops are
+   * unrolled).
+   *
+   * @return the maximal iteration number of the unrolled parallelFor compounds
+   */
+  public int getUnrollThreshold() {
+    return unrollThreshold;
+  }
+
+  /**
+   * Sets the maximal iteration number of parallelFor compounds with a constant
+   * int iterator which are unrolled at compile time (0 to disable the
+   * unrolling).
+   *
+   * @param unrollThreshold the maximal iteration number of the unrolled
+   *        parallelFor compounds
+   * @return this object
+   */
+  public CompilationOptions setUnrollThreshold(final int unrollThreshold) {
+    if (unrollThreshold < 0) {
+      throw new IllegalArgumentException("The unroll threshold must not be negative.");
+    }
+    this.unrollThreshold = unrollThreshold;
+    return this;
+  }
+
+  /**
+   * Returns true iff chained collection operations are fused into single
+   * operations (see {@link CollectionOperationFusion}).
+   *
+   * @return true iff chained collection operations are fused
+   */
+  public boolean isFuseCollectionOperations() {
+    return fuseCollectionOperations;
+  }
+
+  /**
+   * Sets whether chained collection operations are fused into single
+   * operations.
+   *
+   * @param fuseCollectionOperations true iff chained collection operations are
+   *        to be fused
+   * @return this object
+   */
+  public CompilationOptions setFuseCollectionOperations(final boolean fuseCollectionOperations) {
+    this.fuseCollectionOperations = fuseCollectionOperations;
+    return this;
+  }
+
+  /**
+   * Returns true iff only the taken branch of if compounds with conditions
+   * evaluable at compile time is translated (see
+   * {@link AfclConstantConditions}).
+   *
+   * @return true iff dead branches of if compounds are eliminated
+   */
+  public boolean isEliminateDeadBranches() {
+    return eliminateDeadBranches;
+  }
+
+  /**
+   * Sets whether the dead branches of if compounds with conditions evaluable at
+   * compile time are eliminated.
+   *
+   * @param eliminateDeadBranches true iff dead branches are to be eliminated
+   * @return this object
+   */
+  public CompilationOptions setEliminateDeadBranches(final boolean eliminateDeadBranches) {
+    this.eliminateDeadBranches = eliminateDeadBranches;
+    return this;
+  }
+
+  /**
+   * Returns true iff constant nodes with the same type and content are shared
+   * by their consumers (see {@link SymbolTableAfcl#getSharedConstant}).
+   *
+   * @return true iff constant nodes are shared
+   */
+  public boolean isShareConstants() {
+    return shareConstants;
+  }
+
+  /**
+   * Sets whether constant nodes with the same type and content are shared by
+   * their consumers.
+   *
+   * @param shareConstants true iff constant nodes are to be shared
+   * @return this object
+   */
+  public CompilationOptions setShareConstants(final boolean shareConstants) {
+    this.shareConstants = shareConstants;
+    return this;
+  }
+
+  /**
+   * Returns the level of the validation of the generated graph.
+   *
+   * @return the level of the validation of the generated graph
+   */
+  public ValidationLevel getValidationLevel() {
+    return validationLevel;
+  }
+
+  /**
+   * Sets the level of the validation of the generated graph.
+   *
+   * @param validationLevel the level of the validation of the generated graph
+   * @return this object
+   */
+  public CompilationOptions setValidationLevel(final ValidationLevel validationLevel) {
+    this.validationLevel = validationLevel;
+    return this;
+  }
+
+  /**
+   * Returns the pool used by {@link GraphGenerationAfclParallel} for the
+   * translation of the independent groups.
+   *
+   * @return the pool used for the translation of the independent groups
+   */
+  public ForkJoinPool getPool() {
+    return pool;
+  }
+
+  /**
+   * Sets the pool used by {@link GraphGenerationAfclParallel} for the
+   * translation of the independent groups.
+   *
+   * @param pool the pool used for the translation of the independent groups
+   * @return this object
+   */
+  public CompilationOptions setPool(final ForkJoinPool pool) {
+    this.pool = pool;
+    return this;
+  }
+
+  /**
+   * Returns true iff any transformation of the complete graph (applied after
+   * the translation of the workflow) is enabled.
+   *
+   * @return true iff any transformation of the complete graph is enabled
+   */
+  public boolean isGraphOptimizationEnabled() {
+    return fuseCollectionOperations || eliminateDeadBranches;
+  }
+
+  // only the transformations are listed since the string is used as part of the
+  // key of the graph cache; the validation level and the pool do not change the
+  // generated graph
+  @Override
+  public String toString() {
+    return "CompilationOptions[unrollThreshold=" + unrollThreshold + ", fuseCollectionOperations="
+        + fuseCollectionOperations + ", eliminateDeadBranches=" + eliminateDeadBranches
+        + ", shareConstants=" + shareConstants + "]";
+  }
+}
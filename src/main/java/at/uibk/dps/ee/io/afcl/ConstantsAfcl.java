@@ -18,6 +18,8 @@ public final class ConstantsAfcl {
   // and the data in/out name
   public static final String SourceAffix = "/";
   public static final String IfFuncSeparator = ",";
+  // The prefix of the ids of constant nodes shared by multiple consumers
+  public static final String sharedConstantPrefix = "constant";
 
   // boolean strings
   public static final String afclTrue = "true";
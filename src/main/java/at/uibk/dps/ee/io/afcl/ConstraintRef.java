@@ -0,0 +1,239 @@
+package at.uibk.dps.ee.io.afcl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUtilityCollections.CollectionOperation;
+
+/**
+ * Immutable, pre-parsed representation of the value string of a collection
+ * constraint. The string is split once into its entries, each of which
+ * describes a number, either as a value or as a source reference to a data out
+ * generating the value at run time. The element-index string {@code 1, 3:5}, for
+ * example, has the entries {@code 1}, {@code 3}, and {@code 5}.
+ *
+ * Within a graph generation, the refs are interned by the
+ * {@link SymbolTableAfcl}.
+ *
+ * @author Fedor Smirnov
+ */
+public final class ConstraintRef {
+
+  protected final String string;
+  protected final CollectionOperation operation;
+  protected final List<String> entries;
+  protected final List<String> srcEntries;
+  protected final boolean legal;
+  protected final Optional<List<Integer>> constants;
+
+  /**
+   * Parses the given string.
+   *
+   * @param string the value string of the constraint
+   * @param operation the operation that the string describes
+   */
+  private ConstraintRef(final String string, final CollectionOperation operation) {
+    this.string = string;
+    this.operation = operation;
+    this.entries = Collections.unmodifiableList(readEntries(string, operation));
+    final Set<String> srcs = new LinkedHashSet<>();
+    boolean allLegal = true;
+    for (final String entry : entries) {
+      final String trimmed = entry.trim();
+      if (UtilsAfcl.isSrcString(trimmed)) {
+        srcs.add(trimmed);
+      } else {
+        allLegal &= isLegalEntryString(entry, operation);
+      }
+    }
+    this.srcEntries = Collections.unmodifiableList(new ArrayList<>(srcs));
+    this.legal = allLegal;
+    this.constants = readConstants(string, operation, entries);
+  }
+
+  /**
+   * Parses the given constraint string. Within a graph generation, use
+   * {@link SymbolTableAfcl#getConstraintRef(String, CollectionOperation)} to get
+   * the interned ref.
+   *
+   * @param string the value string of the constraint
+   * @param operation the operation that the string describes
+   * @return the parsed constraint ref
+   */
+  public static ConstraintRef parse(final String string, final CollectionOperation operation) {
+    if (string == null) {
+      throw new IllegalArgumentException("Constraint string not set.");
+    }
+    return new ConstraintRef(string, operation);
+  }
+
+  /**
+   * Splits the subcollection string into a list of strings, where each entry is
+   * a number, defined either as a value or as a source-reference to a data out
+   * generating the value at run time.
+   *
+   * @param subcollectionString the subcollection string annotated in the afcl
+   *        file
+   * @param operation the operation that the subcollection string describes
+   * @return list of strings, each of them describing a number
+   */
+  protected static List<String> readEntries(final String subcollectionString,
+      final CollectionOperation operation) {
+    switch (operation) {
+      case Replicate:
+      case Split:
+        return List.of(subcollectionString);
+      case Block:
+        return readEntriesBlock(subcollectionString);
+      case ElementIndex:
+        return readEntriesEIdx(subcollectionString);
+      default:
+        throw new IllegalStateException("Unknown collection operation: " + operation.name());
+    }
+  }
+
+  /**
+   * See the readEntries method. This one is used for element index.
+   */
+  protected static List<String> readEntriesEIdx(final String subcollectionString) {
+    final List<String> result = new ArrayList<>();
+    for (final String outer : subcollectionString
+        .split(ConstantsAfcl.constraintSeparatorEIdxOuter)) {
+      Collections.addAll(result, outer.split(ConstantsAfcl.constraintSeparatorEIdxInner));
+    }
+    return result;
+  }
+
+  /**
+   * See the readEntries method. This one is used for block.
+   */
+  protected static List<String> readEntriesBlock(final String subcollectionString) {
+    final String[] parts = subcollectionString.split(ConstantsAfcl.constraintSeparatorBlock);
+    if (parts.length < 2) {
+      throw new IllegalArgumentException(
+          "Incorrect Block Constraint Argument: " + subcollectionString);
+    }
+    return List.of(parts[0], parts[1]);
+  }
+
+  /**
+   * Returns true if the given (non-src) entry is legal.
+   *
+   * @param entryString the string to check
+   * @param operation the operation type
+   * @return true if the given entry is legal
+   */
+  protected static boolean isLegalEntryString(final String entryString,
+      final CollectionOperation operation) {
+    final String noWsString = entryString.trim();
+    if (operation.equals(CollectionOperation.ElementIndex) && noWsString.isEmpty()) {
+      return true;
+    }
+    return UtilsAfcl.isInt(noWsString);
+  }
+
+  /**
+   * Reads the constant, non-negative arguments of the operation: the accessed
+   * indices for element index and the entries for the other operations. Returns
+   * an empty optional if any argument is a source, empty, negative, or (for
+   * element index) a range.
+   *
+   * @param subcollectionString the subcollection string
+   * @param operation the operation
+   * @param entries the entries of the subcollection string
+   * @return the constant arguments of the operation
+   */
+  protected static Optional<List<Integer>> readConstants(final String subcollectionString,
+      final CollectionOperation operation, final List<String> entries) {
+    final List<String> arguments = operation.equals(CollectionOperation.ElementIndex)
+        ? List.of(subcollectionString.split(ConstantsAfcl.constraintSeparatorEIdxOuter))
+        : entries;
+    final List<Integer> result = new ArrayList<>(arguments.size());
+    for (final String argument : arguments) {
+      final String trimmed = argument.trim();
+      if (UtilsAfcl.isSrcString(trimmed) || !UtilsAfcl.isInt(trimmed)) {
+        return Optional.empty();
+      }
+      final int value = Integer.parseInt(trimmed);
+      if (value < 0) {
+        return Optional.empty();
+      }
+      result.add(value);
+    }
+    return Optional.of(Collections.unmodifiableList(result));
+  }
+
+  /**
+   * Returns the constraint string the ref was parsed from.
+   *
+   * @return the constraint string the ref was parsed from
+   */
+  public String getString() {
+    return string;
+  }
+
+  public CollectionOperation getOperation() {
+    return operation;
+  }
+
+  /**
+   * Returns the entries of the constraint string, each of them describing a
+   * number.
+   *
+   * @return the entries of the constraint string
+   */
+  public List<String> getEntries() {
+    return entries;
+  }
+
+  /**
+   * Returns the (distinct and trimmed) entries which are source references.
+   *
+   * @return the (distinct and trimmed) entries which are source references
+   */
+  public List<String> getSrcEntries() {
+    return srcEntries;
+  }
+
+  /**
+   * Returns true iff all entries are legal for the operation.
+   *
+   * @return true iff all entries are legal for the operation
+   */
+  public boolean isLegal() {
+    return legal;
+  }
+
+  /**
+   * Returns the constant arguments of the operation (see
+   * {@link #readConstants(String, CollectionOperation, List)}).
+   *
+   * @return the constant arguments of the operation
+   */
+  public Optional<List<Integer>> getConstants() {
+    return constants;
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (!(obj instanceof ConstraintRef)) {
+      return false;
+    }
+    final ConstraintRef other = (ConstraintRef) obj;
+    return other.operation.equals(operation) && other.string.equals(string);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * operation.hashCode() + string.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return operation.name() + "(" + string + ")";
+  }
+}
@@ -0,0 +1,207 @@
+package at.uibk.dps.ee.io.afcl;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import at.uibk.dps.afcl.Function;
+import at.uibk.dps.afcl.functions.AtomicFunction;
+import at.uibk.dps.afcl.functions.IfThenElse;
+import at.uibk.dps.afcl.functions.ParallelFor;
+import at.uibk.dps.afcl.functions.objects.Condition;
+import at.uibk.dps.afcl.functions.objects.DataIns;
+import at.uibk.dps.afcl.functions.objects.DataOuts;
+import at.uibk.dps.afcl.functions.objects.PropertyConstraint;
+
+/**
+ * Static method container with methods used to analyze the dependencies which
+ * are described by the source references of AFCL functions.
+ *
+ * @author Fedor Smirnov
+ */
+public final class DependencyAnalysisAfcl {
+
+  /**
+   * No constructor.
+   */
+  private DependencyAnalysisAfcl() {}
+
+  /**
+   * Returns the names of the given function and of all functions nested within
+   * it.
+   *
+   * @param function the given function
+   * @return the names of the given function and of all functions nested within it
+   */
+  public static Set<String> getDeclaredNames(final Function function) {
+    final Set<String> result = new HashSet<>();
+    addDeclaredNames(function, result);
+    return result;
+  }
+
+  /**
+   * Returns the names of the producers (functions, compounds, or the workflow)
+   * referenced by the source strings of the given function or any function
+   * nested within it. References to producers declared within the given function
+   * are not part of the result.
+   *
+   * @param function the given function
+   * @param symbolTable the symbol table interning the parsed refs
+   * @return the names of the producers referenced from outside the given function
+   */
+  public static Set<String> getExternalReferences(final Function function,
+      final SymbolTableAfcl symbolTable) {
+    final Set<String> result = new HashSet<>();
+    for (final SourceRef source : getReferencedSources(function, symbolTable)) {
+      result.add(source.getProducerId());
+    }
+    result.removeAll(getDeclaredNames(function));
+    return result;
+  }
+
+  /**
+   * Returns the (interned) refs of the sources referenced by the given function
+   * or any function nested within it.
+   *
+   * @param function the given function
+   * @param symbolTable the symbol table interning the parsed refs
+   * @return the refs of the sources referenced by the given function
+   */
+  public static Set<SourceRef> getReferencedSources(final Function function,
+      final SymbolTableAfcl symbolTable) {
+    final Set<SourceRef> result = new HashSet<>();
+    addReferencedSources(function, result, symbolTable);
+    return result;
+  }
+
+  /**
+   * Recursively adds the name of the given function and of its nested functions
+   * to the provided set.
+   *
+   * @param function the given function
+   * @param names the set to add the names to
+   */
+  protected static void addDeclaredNames(final Function function, final Set<String> names) {
+    names.add(function.getName());
+    for (final Function nested : getNestedFunctions(function)) {
+      addDeclaredNames(nested, names);
+    }
+  }
+
+  /**
+   * Recursively adds the sources referenced by the given function and its
+   * nested functions to the provided set.
+   *
+   * @param function the given function
+   * @param sources the set to add the source refs to
+   * @param symbolTable the symbol table interning the parsed refs
+   */
+  protected static void addReferencedSources(final Function function,
+      final Set<SourceRef> sources, final SymbolTableAfcl symbolTable) {
+    for (final DataIns dataIn : AfclApiWrapper.getDataIns(function)) {
+      addSource(dataIn.getSource(), sources, symbolTable);
+      if (AfclApiWrapper.hasConstraints(dataIn)) {
+        for (final PropertyConstraint constraint : dataIn.getConstraints()) {
+          if (AfclCollectionOperations.isCollectionConstraint(constraint)) {
+            addConstraintSources(symbolTable.getConstraintRef(constraint), sources,
+                symbolTable);
+          }
+        }
+      }
+    }
+    if (function instanceof IfThenElse) {
+      final IfThenElse ifCompound = (IfThenElse) function;
+      for (final Condition condition : Optional.ofNullable(ifCompound.getCondition())
+          .orElse(new ArrayList<>())) {
+        addSource(condition.getData1(), sources, symbolTable);
+        addSource(condition.getData2(), sources, symbolTable);
+      }
+    } else if (function instanceof ParallelFor) {
+      for (final String iterator : Optional.ofNullable(((ParallelFor) function).getIterators())
+          .orElse(new ArrayList<>())) {
+        addSource(iterator, sources, symbolTable);
+      }
+    }
+    if (!(function instanceof AtomicFunction)) {
+      for (final DataOuts dataOut : AfclApiWrapper.getDataOuts(function)) {
+        addDataOutSources(dataOut.getSource(), sources, symbolTable);
+      }
+    }
+    for (final Function nested : getNestedFunctions(function)) {
+      addReferencedSources(nested, sources, symbolTable);
+    }
+  }
+
+  /**
+   * Adds the sources referenced by the src of a data out (which can be the
+   * combined src of an if data out) to the given set.
+   *
+   * @param dataOutSrc the src of a data out
+   * @param sources the set to add the source refs to
+   * @param symbolTable the symbol table interning the parsed refs
+   */
+  protected static void addDataOutSources(final String dataOutSrc,
+      final Set<SourceRef> sources, final SymbolTableAfcl symbolTable) {
+    if (dataOutSrc == null) {
+      return;
+    }
+    final SourceRef sourceRef = symbolTable.getSourceRef(dataOutSrc);
+    addSource(sourceRef.getFirst().getString(), sources, symbolTable);
+    sourceRef.getAlternative()
+        .ifPresent(alternative -> addSource(alternative.getString(), sources, symbolTable));
+  }
+
+  /**
+   * Adds the sources referenced by the entries of a collection constraint to
+   * the given set.
+   *
+   * @param constraint the parsed collection constraint
+   * @param sources the set to add the source refs to
+   * @param symbolTable the symbol table interning the parsed refs
+   */
+  protected static void addConstraintSources(final ConstraintRef constraint,
+      final Set<SourceRef> sources, final SymbolTableAfcl symbolTable) {
+    for (final String srcEntry : constraint.getSrcEntries()) {
+      addSource(srcEntry, sources, symbolTable);
+    }
+  }
+
+  /**
+   * Adds the ref of the given string to the given set if the string is a src
+   * string.
+   *
+   * @param string the given string
+   * @param sources the set to add the source refs to
+   * @param symbolTable the symbol table interning the parsed refs
+   */
+  protected static void addSource(final String string, final Set<SourceRef> sources,
+      final SymbolTableAfcl symbolTable) {
+    if (string == null) {
+      return;
+    }
+    final SourceRef sourceRef = symbolTable.getSourceRef(string.trim());
+    if (sourceRef.isSrc()) {
+      sources.add(sourceRef);
+    }
+  }
+
+  /**
+   * Returns the functions which are directly nested in the given function.
+   *
+   * @param function the given function
+   * @return the functions which are directly nested in the given function
+   */
+  public static List<Function> getNestedFunctions(final Function function) {
+    final List<Function> result = new ArrayList<>();
+    if (function instanceof IfThenElse) {
+      final IfThenElse ifCompound = (IfThenElse) function;
+      Optional.ofNullable(ifCompound.getThenBranch()).ifPresent(result::addAll);
+      Optional.ofNullable(ifCompound.getElseBranch()).ifPresent(result::addAll);
+    } else if (function instanceof ParallelFor) {
+      Optional.ofNullable(((ParallelFor) function).getLoopBody()).ifPresent(result::addAll);
+    }
+    return result;
+  }
+}
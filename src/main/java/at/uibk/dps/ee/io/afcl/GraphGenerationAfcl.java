@@ -1,11 +1,14 @@
 package at.uibk.dps.ee.io.afcl;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 import at.uibk.dps.afcl.Function;
 import at.uibk.dps.afcl.Workflow;
 import at.uibk.dps.afcl.functions.objects.DataIns;
 import at.uibk.dps.afcl.functions.objects.DataOuts;
+import at.uibk.dps.ee.io.report.CompilationReport;
+import at.uibk.dps.ee.io.report.CompilationReport.Phase;
 import at.uibk.dps.ee.io.validation.GraphValidation;
 import at.uibk.dps.ee.model.graph.EnactmentGraph;
 import at.uibk.dps.ee.model.properties.PropertyServiceData;
@@ -36,25 +39,95 @@ public final class GraphGenerationAfcl {
    * @return the {@link EnactmentGraph} modeling the enactment of the workflow
    */
   public static EnactmentGraph generateEnactmentGraph(final Workflow afclWorkflow) {
-    final EnactmentGraph result = new EnactmentGraph();
-    addWfInputNodes(result, AfclApiWrapper.getDataIns(afclWorkflow),
-        AfclApiWrapper.getName(afclWorkflow));
-    addWfFunctions(result, afclWorkflow);
-    annotateWfOutputs(result, AfclApiWrapper.getDataOuts(afclWorkflow), afclWorkflow);
-    GraphValidation.validateGraph(result);
+    return generateEnactmentGraph(afclWorkflow, new CompilationOptions(),
+        new CompilationReport(false));
+  }
+
+  /**
+   * Generates and returns the {@link EnactmentGraph} based on the provided
+   * {@link Workflow}, applying the transformations enabled by the given options,
+   * and validates it with the level set in the options. The phases of the
+   * generation are recorded in the given report.
+   * 
+   * @param afclWorkflow the {@link Workflow} object created from an .afcl/.cfcl
+   *        file
+   * @param options the options of the compilation
+   * @param report the report of the compilation
+   * @return the {@link EnactmentGraph} modeling the enactment of the workflow
+   */
+  public static EnactmentGraph generateEnactmentGraph(final Workflow afclWorkflow,
+      final CompilationOptions options, final CompilationReport report) {
+    final EnactmentGraph result = new ScopeTrackingGraphAfcl();
+    // built once, used for all source look-ups
+    final SymbolTableAfcl symbolTable = new SymbolTableAfcl(afclWorkflow, report, options);
+    report.run(Phase.WorkflowInputs, result, () -> addWfInputNodes(result,
+        AfclApiWrapper.getDataIns(afclWorkflow), AfclApiWrapper.getName(afclWorkflow)));
+    addWfFunctions(result, afclWorkflow, symbolTable);
+    report.run(Phase.WorkflowOutputs, result, () -> annotateWfOutputs(result,
+        AfclApiWrapper.getDataOuts(afclWorkflow), symbolTable));
+    optimizeGraph(result, symbolTable);
+    GraphValidation.validateGraph(result, report, options.getValidationLevel());
     return result;
   }
 
+  /**
+   * Applies the transformations of the complete graph which are enabled by the
+   * options of the compilation.
+   * 
+   * @param graph the complete enactment graph
+   * @param symbolTable the symbol table of the workflow (providing the options
+   *        and the report of the compilation)
+   */
+  protected static void optimizeGraph(final EnactmentGraph graph,
+      final SymbolTableAfcl symbolTable) {
+    final CompilationOptions options = symbolTable.getOptions();
+    final CompilationReport report = symbolTable.getReport();
+    if (!options.isGraphOptimizationEnabled()) {
+      return;
+    }
+    report.run(Phase.Optimization, graph, () -> {
+      if (options.isFuseCollectionOperations()) {
+        report.addItems(Phase.Optimization,
+            CollectionOperationFusion.fuseCollectionOperations(graph, symbolTable));
+      }
+      if (options.isEliminateDeadBranches()) {
+        report.addItems(Phase.Optimization, removeUnusedWfInputs(graph, symbolTable));
+      }
+    });
+  }
+
+  /**
+   * Removes the wf input nodes which are referenced by eliminated if branches
+   * and are neither processed by any other function nor wf outputs. Inputs
+   * which are not used at all are kept (and reported by the validation).
+   * 
+   * @param graph the complete enactment graph
+   * @param symbolTable the symbol table of the workflow
+   * @return the number of removed wf input nodes
+   */
+  protected static int removeUnusedWfInputs(final EnactmentGraph graph,
+      final SymbolTableAfcl symbolTable) {
+    final List<Task> unusedInputs = symbolTable.getEliminatedWfInputs().stream()
+        .map(graph::getVertex)
+        .filter(task -> task != null && PropertyServiceData.isRoot(task)
+            && !PropertyServiceData.isLeaf(task) && graph.getOutEdges(task).isEmpty())
+        .collect(Collectors.toList());
+    unusedInputs.forEach(graph::removeVertex);
+    return unusedInputs.size();
+  }
+
   /**
    * Adds the functions contained within the given workflow to the graph to the
    * enactment graph
    * 
    * @param graph the enactment graph
    * @param afclWorkflow the given workflow
+   * @param symbolTable the symbol table of the workflow
    */
-  protected static void addWfFunctions(final EnactmentGraph graph, final Workflow afclWorkflow) {
+  protected static void addWfFunctions(final EnactmentGraph graph, final Workflow afclWorkflow,
+      final SymbolTableAfcl symbolTable) {
     for (final Function function : AfclApiWrapper.getWfBody(afclWorkflow)) {
-      AfclCompounds.addFunctionCompound(graph, function, afclWorkflow);
+      AfclCompounds.addFunctionCompound(graph, function, symbolTable);
     }
   }
 
@@ -64,12 +137,14 @@ public final class GraphGenerationAfcl {
    * 
    * @param graph the enactment graph
    * @param dataOuts the list of afcl data outs
-   * @param workflow the afcl workflow object
+   * @param symbolTable the symbol table of the workflow
    */
   protected static void annotateWfOutputs(final EnactmentGraph graph, final List<DataOuts> dataOuts,
-      final Workflow workflow) {
+      final SymbolTableAfcl symbolTable) {
+    HierarchyLevellingAfcl.resolveSources(
+        dataOuts.stream().map(DataOuts::getSource).collect(Collectors.toList()), symbolTable);
     for (final DataOuts dataOut : dataOuts) {
-      correctDataOut(dataOut, workflow);
+      correctDataOut(dataOut, symbolTable);
       annotateWfOutput(graph, dataOut);
     }
   }
@@ -78,11 +153,12 @@ public final class GraphGenerationAfcl {
    * Corrects the src of the given data out to point to the actual data.
    * 
    * @param dataOut the given data out
-   * @param workflow the afcl wokflow object
+   * @param symbolTable the symbol table of the workflow
    */
-  protected static void correctDataOut(final DataOuts dataOut, final Workflow workflow) {
+  protected static void correctDataOut(final DataOuts dataOut,
+      final SymbolTableAfcl symbolTable) {
     final String srcString = dataOut.getSource();
-    final String correctSrc = HierarchyLevellingAfcl.getSrcDataId(srcString, workflow);
+    final String correctSrc = HierarchyLevellingAfcl.getSrcDataId(srcString, symbolTable);
     dataOut.setSource(correctSrc);
   }
 
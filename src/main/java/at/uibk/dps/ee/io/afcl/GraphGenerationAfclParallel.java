@@ -0,0 +1,259 @@
+package at.uibk.dps.ee.io.afcl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import at.uibk.dps.afcl.Function;
+import at.uibk.dps.afcl.Workflow;
+import at.uibk.dps.ee.io.UtilsGraph;
+import at.uibk.dps.ee.io.report.CompilationReport;
+import at.uibk.dps.ee.io.report.CompilationReport.Phase;
+import at.uibk.dps.ee.io.validation.GraphValidation;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUtilityCollections;
+import edu.uci.ics.jung.graph.util.EdgeType;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.properties.TaskPropertyService;
+
+/**
+ * Parallel alternative to {@link GraphGenerationAfcl}. The top-level functions
+ * of the workflow body are grouped into independent groups based on their
+ * source references: functions referencing each other (directly or
+ * transitively) end up in the same group. Each group is translated into a
+ * private subgraph on a {@link ForkJoinPool}. The subgraphs are then merged in
+ * the order of the workflow body, with data nodes shared by id. The produced
+ * graphs are identical to the ones created by
+ * {@link GraphGenerationAfcl#generateEnactmentGraph(Workflow)}.
+ *
+ * @author Fedor Smirnov
+ */
+public final class GraphGenerationAfclParallel {
+
+  /**
+   * No constructor.
+   */
+  private GraphGenerationAfclParallel() {}
+
+  /**
+   * Generates the enactment graph for the given workflow using the common
+   * {@link ForkJoinPool}.
+   *
+   * @param afclWorkflow the {@link Workflow} object created from an .afcl/.cfcl
+   *        file
+   * @return the {@link EnactmentGraph} modeling the enactment of the workflow
+   */
+  public static EnactmentGraph generateEnactmentGraph(final Workflow afclWorkflow) {
+    return generateEnactmentGraph(afclWorkflow, new CompilationOptions(),
+        new CompilationReport(false));
+  }
+
+  /**
+   * Generates the {@link EnactmentGraph} for the provided {@link Workflow},
+   * using the pool set in the given options for the translation of independent
+   * groups and applying the transformations enabled by the options, and
+   * validates it with the level set in the options. The phases of the
+   * generation are recorded in the given report (the times of the translation
+   * are summed over all threads).
+   *
+   * @param afclWorkflow the {@link Workflow} object created from an .afcl/.cfcl
+   *        file
+   * @param options the options of the compilation
+   * @param report the report of the compilation
+   * @return the {@link EnactmentGraph} modeling the enactment of the workflow
+   */
+  public static EnactmentGraph generateEnactmentGraph(final Workflow afclWorkflow,
+      final CompilationOptions options, final CompilationReport report) {
+    final EnactmentGraph result = new ScopeTrackingGraphAfcl();
+    final SymbolTableAfcl symbolTable = new SymbolTableAfcl(afclWorkflow, report, options);
+    report.run(Phase.WorkflowInputs, result,
+        () -> GraphGenerationAfcl.addWfInputNodes(result, AfclApiWrapper.getDataIns(afclWorkflow),
+            AfclApiWrapper.getName(afclWorkflow)));
+    final List<Task> wfInputs = new ArrayList<>(result.getVertices());
+    final List<List<Function>> groups =
+        getIndependentGroups(AfclApiWrapper.getWfBody(afclWorkflow), symbolTable);
+    // the collected list keeps the order of the groups
+    final List<EnactmentGraph> subGraphs = options.getPool().submit(() -> groups.parallelStream()
+        .map(group -> translateGroup(group, wfInputs, symbolTable)).collect(Collectors.toList()))
+        .join();
+    subGraphs.forEach(subGraph -> mergeSubGraph(result, subGraph));
+    report.run(Phase.WorkflowOutputs, result, () -> GraphGenerationAfcl
+        .annotateWfOutputs(result, AfclApiWrapper.getDataOuts(afclWorkflow), symbolTable));
+    GraphGenerationAfcl.optimizeGraph(result, symbolTable);
+    GraphValidation.validateGraph(result, report, options.getValidationLevel());
+    return result;
+  }
+
+  /**
+   * Groups the given top-level functions so that functions referencing each
+   * other are in the same group. Both the groups and the functions within each
+   * group are ordered as in the workflow body.
+   *
+   * @param wfBody the top-level functions of the workflow
+   * @param symbolTable the symbol table of the workflow
+   * @return the independent groups of functions
+   */
+  protected static List<List<Function>> getIndependentGroups(final List<Function> wfBody,
+      final SymbolTableAfcl symbolTable) {
+    // maps each declared function name to the index of its top-level function
+    final Map<String, Integer> declaringFunction = new HashMap<>();
+    for (int idx = 0; idx < wfBody.size(); idx++) {
+      for (final String name : DependencyAnalysisAfcl.getDeclaredNames(wfBody.get(idx))) {
+        declaringFunction.putIfAbsent(name, idx);
+      }
+    }
+    final int[] parents = new int[wfBody.size()];
+    for (int idx = 0; idx < parents.length; idx++) {
+      parents[idx] = idx;
+    }
+    for (int idx = 0; idx < wfBody.size(); idx++) {
+      for (final String producer : DependencyAnalysisAfcl.getExternalReferences(wfBody.get(idx),
+          symbolTable)) {
+        final Integer producerIdx = declaringFunction.get(producer);
+        if (producerIdx != null) {
+          union(parents, idx, producerIdx);
+        }
+      }
+    }
+    final Map<Integer, List<Function>> groups = new LinkedHashMap<>();
+    for (int idx = 0; idx < wfBody.size(); idx++) {
+      groups.computeIfAbsent(find(parents, idx), key -> new ArrayList<>()).add(wfBody.get(idx));
+    }
+    return new ArrayList<>(groups.values());
+  }
+
+  /**
+   * Returns the representative of the group of the given index (with path
+   * compression).
+   *
+   * @param parents the parent array of the union-find structure
+   * @param idx the given index
+   * @return the representative of the group of the given index
+   */
+  protected static int find(final int[] parents, final int idx) {
+    int root = idx;
+    while (parents[root] != root) {
+      root = parents[root];
+    }
+    int current = idx;
+    while (parents[current] != root) {
+      final int next = parents[current];
+      parents[current] = root;
+      current = next;
+    }
+    return root;
+  }
+
+  /**
+   * Unites the groups of the two given indices. The smaller representative is
+   * kept, so that the group order follows the workflow body.
+   *
+   * @param parents the parent array of the union-find structure
+   * @param first the first index
+   * @param second the second index
+   */
+  protected static void union(final int[] parents, final int first, final int second) {
+    final int firstRoot = find(parents, first);
+    final int secondRoot = find(parents, second);
+    if (firstRoot < secondRoot) {
+      parents[secondRoot] = firstRoot;
+    } else {
+      parents[firstRoot] = secondRoot;
+    }
+  }
+
+  /**
+   * Translates the given group of functions into a private subgraph. The
+   * subgraph contains the (shared) wf input nodes, so that references to the wf
+   * inputs are resolved as in the sequential case.
+   *
+   * @param group the group of top-level functions
+   * @param wfInputs the wf input nodes
+   * @param symbolTable the symbol table of the workflow
+   * @return the subgraph modeling the given group
+   */
+  protected static EnactmentGraph translateGroup(final List<Function> group,
+      final List<Task> wfInputs, final SymbolTableAfcl symbolTable) {
+    final EnactmentGraph subGraph = new ScopeTrackingGraphAfcl();
+    wfInputs.forEach(subGraph::addVertex);
+    for (final Function function : group) {
+      AfclCompounds.addFunctionCompound(subGraph, function, symbolTable);
+    }
+    return subGraph;
+  }
+
+  /**
+   * Merges the given subgraph into the given graph. Data nodes which are already
+   * in the graph are shared; their data types have to match.
+   *
+   * @param graph the graph to merge into
+   * @param subGraph the subgraph to merge
+   */
+  protected static void mergeSubGraph(final EnactmentGraph graph, final EnactmentGraph subGraph) {
+    for (final Task task : subGraph) {
+      final Task present = graph.getVertex(task.getId());
+      if (present == null) {
+        graph.addVertex(task);
+      } else {
+        checkSharedNode(present, task);
+      }
+    }
+    for (final Dependency dependency : subGraph.getEdges()) {
+      if (graph.getEdge(dependency.getId()) != null) {
+        continue;
+      }
+      final Task src = graph.getVertex(subGraph.getSource(dependency).getId());
+      final Task dst = graph.getVertex(subGraph.getDest(dependency).getId());
+      graph.addEdge(dependency, src, dst, EdgeType.DIRECTED);
+    }
+  }
+
+  /**
+   * Checks that the node of a subgraph can be replaced by the node with the same
+   * id which is already in the graph.
+   *
+   * @param present the node already in the graph
+   * @param merged the node of the subgraph
+   */
+  protected static void checkSharedNode(final Task present, final Task merged) {
+    if (present == merged) {
+      return;
+    }
+    if (isSameCollectionOperation(present, merged)) {
+      // the same operation applied to the same data in different compounds
+      return;
+    }
+    if (TaskPropertyService.isProcess(present) || TaskPropertyService.isProcess(merged)) {
+      throw new IllegalStateException(
+          "Function " + present.getId() + " is defined in multiple independent compounds.");
+    }
+    if (!PropertyServiceData.getDataType(present).equals(PropertyServiceData.getDataType(merged))) {
+      throw new IllegalStateException("The type specified by node " + present.getId()
+          + " does not match the type expected by a requestor/producer");
+    }
+  }
+
+  /**
+   * Returns true iff both given nodes model the same collection operation.
+   *
+   * @param present the node already in the graph
+   * @param merged the node of the subgraph
+   * @return true iff both given nodes model the same collection operation
+   */
+  protected static boolean isSameCollectionOperation(final Task present, final Task merged) {
+    if (!UtilsGraph.isCollectionOperation(present)
+        || !UtilsGraph.isCollectionOperation(merged)) {
+      return false;
+    }
+    return PropertyServiceFunctionUtilityCollections.getCollectionOperation(present)
+        .equals(PropertyServiceFunctionUtilityCollections.getCollectionOperation(merged))
+        && PropertyServiceFunctionUtilityCollections.getSubCollectionsString(present)
+            .equals(PropertyServiceFunctionUtilityCollections.getSubCollectionsString(merged));
+  }
+}
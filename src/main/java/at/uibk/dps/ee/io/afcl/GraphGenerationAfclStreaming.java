@@ -0,0 +1,334 @@
+package at.uibk.dps.ee.io.afcl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+import at.uibk.dps.afcl.Function;
+import at.uibk.dps.afcl.Workflow;
+import at.uibk.dps.afcl.functions.objects.DataIns;
+import at.uibk.dps.afcl.functions.objects.DataOuts;
+import at.uibk.dps.ee.io.jfr.AfclParseEvent;
+import at.uibk.dps.ee.io.report.CompilationReport;
+import at.uibk.dps.ee.io.report.CompilationReport.Phase;
+import at.uibk.dps.ee.io.validation.GraphValidation;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+
+/**
+ * Event-driven alternative to {@link GraphGenerationAfcl}. The workflow file
+ * is read with a pull parser and each top-level function of the workflow body
+ * is translated into the {@link EnactmentGraph} as soon as it has been read
+ * (and all producers it references are in the graph). Functions with forward
+ * references are kept in a pending-reference table until the referenced
+ * producers have been translated. The produced graphs are identical to the ones
+ * created by {@link GraphGenerationAfcl#generateEnactmentGraph(Workflow)}.
+ *
+ * Note that the streaming granularity is the top-level function: each entry of
+ * the workflow body is fully materialized as an AFCL {@link Function} (via
+ * {@code mapper.readValue(parser, Function.class)}) before it is translated.
+ * A workflow consisting of a single large compound is therefore held in memory
+ * as a whole, just like with {@link GraphGenerationAfcl}.
+ *
+ * @author Fedor Smirnov
+ */
+public final class GraphGenerationAfclStreaming {
+
+  // the keys of the workflow object
+  protected static final String keyName = "name";
+  protected static final String keyDataIns = "dataIns";
+  protected static final String keyDataOuts = "dataOuts";
+  protected static final String keyWfBody = "workflowBody";
+
+  protected static final ObjectMapper mapper = new ObjectMapper(new YAMLFactory())
+      .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+  /**
+   * No constructor.
+   */
+  private GraphGenerationAfclStreaming() {}
+
+  /**
+   * Generates the enactment graph while reading the given workflow data.
+   *
+   * @param wfData the bytes of the .afcl/.cfcl file (yaml or json)
+   * @return the enactment graph modeling the enactment of the workflow
+   */
+  public static EnactmentGraph generateEnactmentGraph(final byte[] wfData) {
+    return generateEnactmentGraph(wfData, new CompilationOptions(),
+        new CompilationReport(false));
+  }
+
+  /**
+   * Generates the enactment graph while reading the given workflow data,
+   * applying the transformations enabled by the given options, and validates it
+   * with the level set in the options. The phases of the generation are
+   * recorded in the given report (parsing is interleaved with the translation
+   * and not reported separately).
+   *
+   * @param wfData the bytes of the .afcl/.cfcl file (yaml or json)
+   * @param options the options of the compilation
+   * @param report the report of the compilation
+   * @return the enactment graph modeling the enactment of the workflow
+   */
+  public static EnactmentGraph generateEnactmentGraph(final byte[] wfData,
+      final CompilationOptions options, final CompilationReport report) {
+    return generateEnactmentGraph(new ByteArrayInputStream(wfData), wfData.length, options,
+        report);
+  }
+
+  /**
+   * Generates the enactment graph while reading the workflow from the given
+   * stream and records the parsing as an {@link AfclParseEvent}.
+   *
+   * @param wfStream the stream providing the .afcl/.cfcl file (yaml or json)
+   * @param size the size of the workflow description in bytes (-1 if unknown)
+   * @param options the options of the compilation
+   * @param report the report of the compilation
+   * @return the enactment graph modeling the enactment of the workflow
+   */
+  protected static EnactmentGraph generateEnactmentGraph(final InputStream wfStream,
+      final long size, final CompilationOptions options, final CompilationReport report) {
+    final AfclParseEvent event = new AfclParseEvent();
+    event.begin();
+    try (JsonParser parser = mapper.getFactory().createParser(wfStream)) {
+      final StreamState state = new StreamState(report, options);
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new IllegalArgumentException("The workflow description is not an object.");
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        final String key = parser.getCurrentName();
+        parser.nextToken();
+        processWfEntry(key, parser, state);
+      }
+      final EnactmentGraph result = finish(state);
+      if (event.shouldCommit()) {
+        event.workflowName = state.workflow.getName();
+        event.size = size;
+        event.streaming = true;
+        event.functions = state.wfBody.size();
+        event.commit();
+      }
+      return result;
+    } catch (IOException ioExc) {
+      throw new IllegalArgumentException(
+          "IOException when reading the wf input into the enactment graph.", ioExc);
+    }
+  }
+
+  /**
+   * Processes the entry of the workflow object with the given key. The parser is
+   * positioned on the first token of the entry value.
+   *
+   * @param key the key of the entry
+   * @param parser the parser
+   * @param state the state of the graph generation
+   * @throws IOException if the parsing fails
+   */
+  protected static void processWfEntry(final String key, final JsonParser parser,
+      final StreamState state) throws IOException {
+    switch (key) {
+      case keyName:
+        state.workflow.setName(parser.getValueAsString());
+        state.symbolTable = new SymbolTableAfcl(state.workflow.getName(), state.report, state.options);
+        state.wfBody.forEach(state.symbolTable::register);
+        // the functions read so far are analyzed with the new symbol table
+        state.pending.replaceAll((function, missing) -> getMissingProducers(function, state));
+        drainPending(state);
+        addWfInputs(state);
+        break;
+      case keyDataIns:
+        state.workflow.setDataIns(mapper.readValue(parser, new TypeReference<List<DataIns>>() {}));
+        addWfInputs(state);
+        break;
+      case keyDataOuts:
+        // annotated once all functions are in the graph
+        state.workflow
+            .setDataOuts(mapper.readValue(parser, new TypeReference<List<DataOuts>>() {}));
+        break;
+      case keyWfBody:
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+          throw new IllegalArgumentException("The workflow body is not a list.");
+        }
+        state.workflow.setWorkflowBody(state.wfBody);
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+          processWfFunction(mapper.readValue(parser, Function.class), state);
+        }
+        break;
+      default:
+        parser.skipChildren();
+    }
+  }
+
+  /**
+   * Adds the wf input nodes to the graph as soon as both the name and the data
+   * ins of the workflow are known.
+   *
+   * @param state the state of the graph generation
+   */
+  protected static void addWfInputs(final StreamState state) {
+    final Workflow workflow = state.workflow;
+    if (workflow.getName() == null || workflow.getDataIns() == null) {
+      return;
+    }
+    state.report.run(Phase.WorkflowInputs, state.graph, () -> GraphGenerationAfcl
+        .addWfInputNodes(state.graph, workflow.getDataIns(), workflow.getName()));
+    makeAvailable(workflow.getName(), state);
+  }
+
+  /**
+   * Processes a function of the wf body which has just been read: the function
+   * is translated if all producers it references are available. Otherwise, it
+   * is added to the pending-reference table. Functions read before the symbol
+   * table is created are pending until their references are analyzed with the
+   * symbol table.
+   *
+   * @param function the function which has just been read
+   * @param state the state of the graph generation
+   */
+  protected static void processWfFunction(final Function function, final StreamState state) {
+    // the function has to be visible for the source resolution
+    state.wfBody.add(function);
+    if (state.symbolTable == null) {
+      state.pending.put(function, new HashSet<>());
+      return;
+    }
+    state.symbolTable.register(function);
+    final Set<String> missing = getMissingProducers(function, state);
+    if (missing.isEmpty()) {
+      translate(function, state);
+    } else {
+      state.pending.put(function, missing);
+    }
+  }
+
+  /**
+   * Returns the names of the producers which are referenced by the given
+   * function and are not yet available.
+   *
+   * @param function the given function
+   * @param state the state of the graph generation
+   * @return the names of the producers which the function is waiting for
+   */
+  protected static Set<String> getMissingProducers(final Function function,
+      final StreamState state) {
+    final Set<String> result =
+        DependencyAnalysisAfcl.getExternalReferences(function, state.symbolTable);
+    result.removeAll(state.available);
+    return result;
+  }
+
+  /**
+   * Translates the given function and all pending functions which can be
+   * translated afterwards.
+   *
+   * @param function the function to translate
+   * @param state the state of the graph generation
+   */
+  protected static void translate(final Function function, final StreamState state) {
+    AfclCompounds.addFunctionCompound(state.graph, function, state.symbolTable);
+    DependencyAnalysisAfcl.getDeclaredNames(function).forEach(name -> makeAvailable(name, state));
+  }
+
+  /**
+   * Marks the producer with the given name as available and translates the
+   * pending functions which were waiting for it.
+   *
+   * @param producerName the name of the producer
+   * @param state the state of the graph generation
+   */
+  protected static void makeAvailable(final String producerName, final StreamState state) {
+    if (state.available.add(producerName)) {
+      state.pending.values().forEach(missing -> missing.remove(producerName));
+      drainPending(state);
+    }
+  }
+
+  /**
+   * Translates the pending functions which are not waiting for any producers
+   * (provided that the symbol table has already been created).
+   *
+   * @param state the state of the graph generation
+   */
+  protected static void drainPending(final StreamState state) {
+    if (state.symbolTable == null) {
+      return;
+    }
+    final List<Function> unblocked = new ArrayList<>();
+    final Iterator<Map.Entry<Function, Set<String>>> iterator =
+        state.pending.entrySet().iterator();
+    while (iterator.hasNext()) {
+      final Map.Entry<Function, Set<String>> entry = iterator.next();
+      if (entry.getValue().isEmpty()) {
+        unblocked.add(entry.getKey());
+        iterator.remove();
+      }
+    }
+    unblocked.forEach(function -> translate(function, state));
+  }
+
+  /**
+   * Finishes the graph generation once the parser reached the end of the
+   * workflow: annotates the wf outputs and validates the graph.
+   *
+   * @param state the state of the graph generation
+   * @return the generated enactment graph
+   */
+  protected static EnactmentGraph finish(final StreamState state) {
+    final Workflow workflow = state.workflow;
+    if (workflow.getName() == null) {
+      throw new IllegalArgumentException("No name set for workflow");
+    }
+    // workflow without data ins
+    makeAvailable(workflow.getName(), state);
+    if (!state.pending.isEmpty()) {
+      final Set<String> unresolved = new HashSet<>();
+      state.pending.values().forEach(unresolved::addAll);
+      throw new IllegalStateException("Unresolved source references to " + unresolved);
+    }
+    // throws if the workflow had no body
+    AfclApiWrapper.getWfBody(workflow);
+    state.report.run(Phase.WorkflowOutputs, state.graph, () -> GraphGenerationAfcl
+        .annotateWfOutputs(state.graph, AfclApiWrapper.getDataOuts(workflow), state.symbolTable));
+    GraphGenerationAfcl.optimizeGraph(state.graph, state.symbolTable);
+    GraphValidation.validateGraph(state.graph, state.report,
+        state.options.getValidationLevel());
+    return state.graph;
+  }
+
+  /**
+   * Container for the state of a streaming graph generation.
+   *
+   * @author Fedor Smirnov
+   */
+  protected static class StreamState {
+    protected final EnactmentGraph graph = new ScopeTrackingGraphAfcl();
+    protected final Workflow workflow = new Workflow();
+    protected final List<Function> wfBody = new ArrayList<>();
+    protected final Set<String> available = new HashSet<>();
+    // functions waiting for producers, in the order they were read
+    protected final Map<Function, Set<String>> pending = new LinkedHashMap<>();
+    protected final CompilationReport report;
+    protected final CompilationOptions options;
+    // created as soon as the wf name is known
+    protected SymbolTableAfcl symbolTable;
+
+    protected StreamState(final CompilationReport report, final CompilationOptions options) {
+      this.report = report;
+      this.options = options;
+    }
+  }
+}
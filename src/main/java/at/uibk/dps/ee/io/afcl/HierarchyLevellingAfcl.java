@@ -1,11 +1,12 @@
 package at.uibk.dps.ee.io.afcl;
 
+import java.util.Collection;
+import java.util.Optional;
 import at.uibk.dps.afcl.Function;
-import at.uibk.dps.afcl.Workflow;
 import at.uibk.dps.afcl.functions.AtomicFunction;
 import at.uibk.dps.afcl.functions.IfThenElse;
 import at.uibk.dps.afcl.functions.ParallelFor;
-import at.uibk.dps.afcl.functions.objects.DataOutsAtomic;
+import at.uibk.dps.ee.io.report.CompilationReport.Phase;
 
 /**
  * Static method container with methods used to flatten AFCL's compound
@@ -21,31 +22,73 @@ public final class HierarchyLevellingAfcl {
   private HierarchyLevellingAfcl() {}
 
   /**
-   * Returns the data id corresponding to the provided source string
+   * Resolves the given source strings in one step which is recorded in the
+   * report of the compilation. The compound translations resolve the sources
+   * they need with this method, so that the levelling is measured once per
+   * compound (and not per look-up); the look-ups during the translation are
+   * then answered from the cache.
+   * 
+   * @param afclSources the src strings in the afcl file
+   * @param symbolTable the symbol table of the workflow
+   */
+  public static void resolveSources(final Collection<String> afclSources,
+      final SymbolTableAfcl symbolTable) {
+    if (afclSources.isEmpty()) {
+      return;
+    }
+    symbolTable.getReport().run(Phase.HierarchyLevelling, null,
+        () -> afclSources.forEach(afclSource -> getSrcDataId(afclSource, symbolTable)));
+  }
+
+  /**
+   * Returns the data id corresponding to the provided source string. Each source
+   * string is resolved at most once per symbol table. Since the sources visited
+   * while backtracking through compounds are cached as well, every link of a
+   * resolution chain points directly to the final data id afterwards.
    * 
    * @param afclSource the src string in the afcl file
-   * @param workflow the workflow built based on the afcl file
+   * @param symbolTable the symbol table of the workflow
    * @return the data id in the flattened graph
    */
-  public static String getSrcDataId(final String afclSource, final Workflow workflow) {
+  public static String getSrcDataId(final String afclSource, final SymbolTableAfcl symbolTable) {
+    final Optional<String> cached = symbolTable.getResolvedSource(afclSource);
+    if (cached.isPresent()) {
+      return cached.get();
+    }
+    final String result = resolveSrcDataId(afclSource, symbolTable);
+    symbolTable.getReport().addItems(Phase.HierarchyLevelling, 1);
+    symbolTable.cacheResolvedSource(afclSource, result);
+    return result;
+  }
 
-    final String funcName = UtilsAfcl.getProducerId(afclSource);
-    if (funcName.equals(workflow.getName())) {
+  /**
+   * Resolves the provided source string (without looking into the cache).
+   * 
+   * @param afclSource the src string in the afcl file
+   * @param symbolTable the symbol table of the workflow
+   * @return the data id in the flattened graph
+   */
+  protected static String resolveSrcDataId(final String afclSource,
+      final SymbolTableAfcl symbolTable) {
+
+    final SourceRef sourceRef = symbolTable.getSourceRef(afclSource);
+    final String funcName = sourceRef.getProducerId();
+    if (funcName.equals(symbolTable.getWorkflowName())) {
       // pointing to a root node
       return afclSource;
     }
 
-    final String dataName = UtilsAfcl.getDataId(afclSource);
-    final Function function = AfclApiWrapper.getFunction(workflow, funcName);
+    final String dataName = sourceRef.getDataId();
+    final Function function = AfclApiWrapper.getFunction(symbolTable, funcName);
     if (function instanceof AtomicFunction) {
       // pointing to the output of an atomic function
-      checkAtomicFunctionOut((AtomicFunction) function, dataName);
+      checkAtomicFunctionOut((AtomicFunction) function, dataName, symbolTable);
       return afclSource;
     } else if (function instanceof IfThenElse) {
-      return getSrcDataIdIfThenElse(afclSource, dataName, function, workflow);
+      return getSrcDataIdIfThenElse(afclSource, dataName, function, symbolTable);
     } else if (function instanceof ParallelFor) {
       final ParallelFor parFor = (ParallelFor) function;
-      return getSrcDataIdParallelFor(parFor, afclSource, dataName, workflow);
+      return getSrcDataIdParallelFor(parFor, afclSource, dataName, symbolTable);
     } else {
       throw new IllegalStateException(
           "Not yet implemented for " + function.getClass().getCanonicalName());
@@ -59,19 +102,20 @@ public final class HierarchyLevellingAfcl {
    * @param afclSource the afcl source string
    * @param dataName the name of the data the src string points to
    * @param function the if compound
-   * @param workflow the workflow
+   * @param symbolTable the symbol table of the workflow
    * @return the corrected string for the case where the afcl string points to an
    *         IF compound
    */
   protected static String getSrcDataIdIfThenElse(final String afclSource, final String dataName,
-      final Function ifFunction, final Workflow workflow) {
-    if (AfclApiWrapper.pointsToInput(afclSource, ifFunction)) {
+      final Function ifFunction, final SymbolTableAfcl symbolTable) {
+    if (AfclApiWrapper.pointsToInput(afclSource, ifFunction, symbolTable)) {
       // points to data in
-      return getSrcDataId(AfclApiWrapper.getDataInSrc(ifFunction, dataName), workflow);
+      return getSrcDataId(AfclApiWrapper.getDataInSrc(ifFunction, dataName, symbolTable),
+          symbolTable);
     } else {
       // points to data out of if compound => there should be a data node with the
       // data out src as id
-      return AfclApiWrapper.getDataOutSrc(ifFunction, dataName);
+      return AfclApiWrapper.getDataOutSrc(ifFunction, dataName, symbolTable);
     }
   }
 
@@ -82,20 +126,21 @@ public final class HierarchyLevellingAfcl {
    * @param parFor the parallel for function
    * @param sourceString the parallel for string
    * @param dataName the name of the data the string points to
-   * @param workflow the afcl workflow object
+   * @param symbolTable the symbol table of the workflow
    * @return the correct source string for the case where the afcl string points
    *         to a parallel for compound
    */
   protected static String getSrcDataIdParallelFor(final ParallelFor parFor,
-      final String sourceString, final String dataName, final Workflow workflow) {
-    if (AfclApiWrapper.pointsToInput(sourceString, parFor)) {
+      final String sourceString, final String dataName, final SymbolTableAfcl symbolTable) {
+    if (AfclApiWrapper.pointsToInput(sourceString, parFor, symbolTable)) {
       // parallel for data in
       if (parFor.getIterators().contains(dataName)) {
         // distribution node's id should match the source
         return sourceString;
       } else {
         // backtrack to producer
-        return getSrcDataId(AfclApiWrapper.getDataInSrc(parFor, dataName), workflow);
+        return getSrcDataId(AfclApiWrapper.getDataInSrc(parFor, dataName, symbolTable),
+            symbolTable);
       }
     } else {
       // the aggregated data node's ID should match the src String
@@ -109,13 +154,12 @@ public final class HierarchyLevellingAfcl {
    * 
    * @param atomic the given atomic function
    * @param dataOutName the name of the data out
+   * @param symbolTable the symbol table of the workflow
    */
   protected static void checkAtomicFunctionOut(final AtomicFunction atomic,
-      final String dataOutName) {
-    for (final DataOutsAtomic dataOut : AfclApiWrapper.getDataOuts(atomic)) {
-      if (dataOutName.equals(dataOut.getName())) {
-        return;
-      }
+      final String dataOutName, final SymbolTableAfcl symbolTable) {
+    if (symbolTable.getSymbol(atomic.getName()).getDataOutsAtomic().containsKey(dataOutName)) {
+      return;
     }
     throw new IllegalArgumentException(
         "The atomic function " + atomic.getName() + " has no data out named " + dataOutName);
@@ -0,0 +1,71 @@
+package at.uibk.dps.ee.io.afcl;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.properties.TaskPropertyService;
+
+/**
+ * {@link EnactmentGraph} used during the graph generation. The compound
+ * translators can open a scope before adding the contents of a compound body
+ * and get the process nodes added within the scope when closing it, without
+ * scanning the graph. Scopes can be nested; the nodes added within an inner
+ * scope are also part of the enclosing scopes. Removed nodes are removed from
+ * all open scopes.
+ *
+ * @author Fedor Smirnov
+ */
+public class ScopeTrackingGraphAfcl extends EnactmentGraph {
+
+  private static final long serialVersionUID = 1L;
+
+  protected final Deque<Set<Task>> openScopes = new ArrayDeque<>();
+
+  /**
+   * Opens a new scope. All process nodes added to the graph until the scope is
+   * closed are recorded.
+   */
+  public void openScope() {
+    openScopes.push(new LinkedHashSet<>());
+  }
+
+  /**
+   * Closes the innermost open scope and returns the process nodes which were
+   * added to the graph while it was open.
+   *
+   * @return the process nodes added while the scope was open
+   */
+  public Set<Task> closeScope() {
+    if (openScopes.isEmpty()) {
+      throw new IllegalStateException("No open scope to close.");
+    }
+    final Set<Task> result = openScopes.pop();
+    if (!openScopes.isEmpty()) {
+      openScopes.peek().addAll(result);
+    }
+    return result;
+  }
+
+  @Override
+  public boolean addVertex(final Task vertex) {
+    final boolean added = super.addVertex(vertex);
+    if (added && !openScopes.isEmpty() && TaskPropertyService.isProcess(vertex)) {
+      openScopes.peek().add(vertex);
+    }
+    return added;
+  }
+
+  @Override
+  public boolean removeVertex(final Task vertex) {
+    final boolean removed = super.removeVertex(vertex);
+    if (removed) {
+      // nodes replaced during the translation (e.g., unrolled loop bodies)
+      openScopes.forEach(scope -> scope.remove(vertex));
+    }
+    return removed;
+  }
+}
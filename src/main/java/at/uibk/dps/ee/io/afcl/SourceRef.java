@@ -0,0 +1,171 @@
+package at.uibk.dps.ee.io.afcl;
+
+import java.util.Optional;
+
+/**
+ * Immutable, pre-parsed representation of an AFCL source string. A source
+ * string of the form {@code producer/data} is parsed once into its producer id
+ * and its data id. The combined source of an if data out
+ * ({@code producer1/data1,producer2/data2}) additionally carries the second
+ * source as alternative; the producer and the data id then refer to the first
+ * source. Strings which do not point to a producer (e.g., constants) are
+ * represented as well, see {@link #isSrc()}.
+ *
+ * Within a graph generation, the refs are interned by the
+ * {@link SymbolTableAfcl}.
+ *
+ * @author Fedor Smirnov
+ */
+public final class SourceRef {
+
+  protected static final char sourceAffix = ConstantsAfcl.SourceAffix.charAt(0);
+  protected static final char ifFuncSeparator = ConstantsAfcl.IfFuncSeparator.charAt(0);
+
+  protected final String string;
+  protected final boolean src;
+  protected final String producerId;
+  protected final String dataId;
+  protected final SourceRef first;
+  protected final Optional<SourceRef> alternative;
+
+  /**
+   * Parses the given string.
+   *
+   * @param string the afcl string
+   */
+  private SourceRef(final String string) {
+    this.string = string;
+    final int length = string.length();
+    final int affixIdx = string.indexOf(sourceAffix);
+    this.src = affixIdx > 0 && string.charAt(length - 1) != sourceAffix;
+    final int separatorIdx = string.indexOf(ifFuncSeparator);
+    if (separatorIdx < 0) {
+      this.first = this;
+      this.alternative = Optional.empty();
+      this.producerId = affixIdx < 0 ? string : string.substring(0, affixIdx);
+      this.dataId = readDataId(string, affixIdx);
+    } else {
+      this.first = new SourceRef(string.substring(0, separatorIdx));
+      final int secondEnd = string.indexOf(ifFuncSeparator, separatorIdx + 1);
+      this.alternative = Optional.of(new SourceRef(
+          string.substring(separatorIdx + 1, secondEnd < 0 ? length : secondEnd)));
+      this.producerId = first.producerId;
+      this.dataId = first.dataId;
+    }
+  }
+
+  /**
+   * Returns the data id of a string without if separator: the part between the
+   * first and the second source affix (null if the string has no data id).
+   *
+   * @param string the string
+   * @param affixIdx the index of the first source affix
+   * @return the data id (null if the string has no data id)
+   */
+  protected static String readDataId(final String string, final int affixIdx) {
+    if (affixIdx < 0 || affixIdx == string.length() - 1) {
+      return null;
+    }
+    final int end = string.indexOf(sourceAffix, affixIdx + 1);
+    return string.substring(affixIdx + 1, end < 0 ? string.length() : end);
+  }
+
+  /**
+   * Parses the given afcl string. Within a graph generation, use
+   * {@link SymbolTableAfcl#getSourceRef(String)} to get the interned ref.
+   *
+   * @param string the afcl string
+   * @return the parsed source ref
+   */
+  public static SourceRef parse(final String string) {
+    if (string == null) {
+      throw new IllegalArgumentException("Source string not set.");
+    }
+    return new SourceRef(string);
+  }
+
+  /**
+   * Returns the afcl string the ref was parsed from.
+   *
+   * @return the afcl string the ref was parsed from
+   */
+  public String getString() {
+    return string;
+  }
+
+  /**
+   * Returns true iff the string describes data produced by a producer.
+   *
+   * @return true iff the string describes data produced by a producer
+   */
+  public boolean isSrc() {
+    return src;
+  }
+
+  /**
+   * Returns true iff the string describes the src of a data out of an if
+   * compound.
+   *
+   * @return true iff the string describes the src of a data out of an if
+   *         compound
+   */
+  public boolean isIfOut() {
+    return alternative.isPresent();
+  }
+
+  /**
+   * Returns the id of the producer (the function, compound, or wf).
+   *
+   * @return the id of the producer
+   */
+  public String getProducerId() {
+    return producerId;
+  }
+
+  /**
+   * Returns the name of the data. Throws an exception if the string has no data
+   * part.
+   *
+   * @return the name of the data
+   */
+  public String getDataId() {
+    if (dataId == null) {
+      throw new IllegalArgumentException("The string " + string + " does not name any data.");
+    }
+    return dataId;
+  }
+
+  /**
+   * Returns the first source of an if data out (the ref itself for all other
+   * strings).
+   *
+   * @return the first source of an if data out
+   */
+  public SourceRef getFirst() {
+    return first;
+  }
+
+  /**
+   * Returns the second source of an if data out (empty for all other strings).
+   *
+   * @return the second source of an if data out
+   */
+  public Optional<SourceRef> getAlternative() {
+    return alternative;
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    return obj instanceof SourceRef && ((SourceRef) obj).string.equals(string);
+  }
+
+  @Override
+  public int hashCode() {
+    return string.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return string;
+  }
+}
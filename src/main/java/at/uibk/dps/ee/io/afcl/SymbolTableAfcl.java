@@ -0,0 +1,407 @@
+package at.uibk.dps.ee.io.afcl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import com.google.gson.JsonElement;
+
+import at.uibk.dps.afcl.Function;
+import at.uibk.dps.afcl.Workflow;
+import at.uibk.dps.afcl.functions.AtomicFunction;
+import at.uibk.dps.afcl.functions.objects.DataIns;
+import at.uibk.dps.afcl.functions.objects.DataOuts;
+import at.uibk.dps.afcl.functions.objects.DataOutsAtomic;
+import at.uibk.dps.afcl.functions.objects.PropertyConstraint;
+import at.uibk.dps.ee.io.report.CompilationReport;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceData.DataType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUtilityCollections.CollectionOperation;
+import net.sf.opendse.model.Task;
+
+/**
+ * The {@link SymbolTableAfcl} is built once per graph generation. It maps the
+ * name of each function (atomic or compound) of the workflow to its
+ * {@link Function} object, its parent compound, and its data ins and data
+ * outs. It replaces the search through the workflow body for every source
+ * resolution. Additionally, it interns the parsed {@link SourceRef}s and
+ * {@link ConstraintRef}s, as well as the shared constant nodes, and caches the
+ * data ids which the source strings of the workflow are resolved to.
+ *
+ * @author Fedor Smirnov
+ */
+public class SymbolTableAfcl {
+
+  // constant contents which are used as they are in the ids of shared constants
+  protected static final Pattern readableConstant = Pattern.compile("[A-Za-z0-9.+-]{1,16}");
+
+  protected final String workflowName;
+  protected final Map<String, Symbol> symbols = new ConcurrentHashMap<>();
+  protected final Map<String, String> resolvedSources = new ConcurrentHashMap<>();
+  protected final Map<String, SourceRef> sourceRefs = new ConcurrentHashMap<>();
+  protected final Set<String> eliminatedWfInputs = ConcurrentHashMap.newKeySet();
+  protected final Map<String, Task> sharedConstants = new ConcurrentHashMap<>();
+  protected final Map<CollectionOperation, Map<String, ConstraintRef>> constraintRefs =
+      new EnumMap<>(CollectionOperation.class);
+  protected final CompilationReport report;
+  protected final CompilationOptions options;
+
+  /**
+   * Builds the symbol table for all functions of the given workflow.
+   *
+   * @param workflow the given workflow
+   */
+  public SymbolTableAfcl(final Workflow workflow) {
+    this(workflow, new CompilationReport(false));
+  }
+
+  /**
+   * Builds the symbol table for all functions of the given workflow.
+   *
+   * @param workflow the given workflow
+   * @param report the report of the compilation using this symbol table
+   */
+  public SymbolTableAfcl(final Workflow workflow, final CompilationReport report) {
+    this(workflow, report, new CompilationOptions());
+  }
+
+  /**
+   * Builds the symbol table for all functions of the given workflow.
+   *
+   * @param workflow the given workflow
+   * @param report the report of the compilation using this symbol table
+   * @param options the options of the compilation using this symbol table
+   */
+  public SymbolTableAfcl(final Workflow workflow, final CompilationReport report,
+      final CompilationOptions options) {
+    this(AfclApiWrapper.getName(workflow), report, options);
+    report.run(CompilationReport.Phase.SymbolTable, null, () -> {
+      for (final Function function : AfclApiWrapper.getWfBody(workflow)) {
+        register(function);
+      }
+    });
+  }
+
+  /**
+   * Creates an empty symbol table for the workflow with the given name. Used
+   * when the functions are registered while the workflow is read.
+   *
+   * @param workflowName the name of the workflow
+   */
+  public SymbolTableAfcl(final String workflowName) {
+    this(workflowName, new CompilationReport(false));
+  }
+
+  /**
+   * Creates an empty symbol table for the workflow with the given name. Used
+   * when the functions are registered while the workflow is read.
+   *
+   * @param workflowName the name of the workflow
+   * @param report the report of the compilation using this symbol table
+   */
+  public SymbolTableAfcl(final String workflowName, final CompilationReport report) {
+    this(workflowName, report, new CompilationOptions());
+  }
+
+  /**
+   * Creates an empty symbol table for the workflow with the given name. Used
+   * when the functions are registered while the workflow is read.
+   *
+   * @param workflowName the name of the workflow
+   * @param report the report of the compilation using this symbol table
+   * @param options the options of the compilation using this symbol table
+   */
+  public SymbolTableAfcl(final String workflowName, final CompilationReport report,
+      final CompilationOptions options) {
+    this.workflowName = workflowName;
+    this.report = report;
+    this.options = options;
+    // filled up front so that the outer map is only read concurrently
+    for (final CollectionOperation operation : CollectionOperation.values()) {
+      constraintRefs.put(operation, new ConcurrentHashMap<>());
+    }
+  }
+
+  /**
+   * Returns the report of the compilation using this symbol table.
+   *
+   * @return the report of the compilation using this symbol table
+   */
+  public CompilationReport getReport() {
+    return report;
+  }
+
+  /**
+   * Returns the options of the compilation using this symbol table.
+   *
+   * @return the options of the compilation using this symbol table
+   */
+  public CompilationOptions getOptions() {
+    return options;
+  }
+
+  /**
+   * Registers the given top-level function and all functions nested within it.
+   *
+   * @param function the given function
+   */
+  public final void register(final Function function) {
+    register(function, null);
+  }
+
+  /**
+   * Recursively registers the given function and its nested functions. If
+   * multiple functions have the same name, the first one (in the order of the
+   * workflow description) is kept.
+   *
+   * @param function the function to register
+   * @param parent the parent compound (null for top-level functions)
+   */
+  protected final void register(final Function function, final Function parent) {
+    symbols.putIfAbsent(function.getName(), new Symbol(function, parent));
+    for (final Function nested : DependencyAnalysisAfcl.getNestedFunctions(function)) {
+      register(nested, function);
+    }
+  }
+
+  /**
+   * Returns the name of the workflow.
+   *
+   * @return the name of the workflow
+   */
+  public String getWorkflowName() {
+    return workflowName;
+  }
+
+  /**
+   * Returns true iff a function with the given name is registered.
+   *
+   * @param name the function name
+   * @return true iff a function with the given name is registered
+   */
+  public boolean contains(final String name) {
+    return symbols.containsKey(name);
+  }
+
+  /**
+   * Returns the symbol of the function with the given name. Throws an exception
+   * if no such function exists.
+   *
+   * @param name the function name
+   * @return the symbol of the function with the given name
+   */
+  public Symbol getSymbol(final String name) {
+    return Optional.ofNullable(symbols.get(name)).orElseThrow(() -> new IllegalStateException(
+        "Function " + name + " not found in WF " + workflowName));
+  }
+
+  /**
+   * Returns the function with the given name. Throws an exception if no such
+   * function exists.
+   *
+   * @param name the function name
+   * @return the function with the given name
+   */
+  public Function getFunction(final String name) {
+    return getSymbol(name).getFunction();
+  }
+
+  /**
+   * Returns the parsed ref of the given afcl string. Each distinct string is
+   * parsed once per symbol table.
+   *
+   * @param afclString the afcl string
+   * @return the parsed ref of the given afcl string
+   */
+  public SourceRef getSourceRef(final String afclString) {
+    if (afclString == null) {
+      throw new IllegalArgumentException("Source string not set.");
+    }
+    return sourceRefs.computeIfAbsent(afclString, SourceRef::parse);
+  }
+
+  /**
+   * Returns the parsed ref of the given collection constraint. Each distinct
+   * constraint is parsed once per symbol table.
+   *
+   * @param constraint the collection constraint
+   * @return the parsed ref of the given collection constraint
+   */
+  public ConstraintRef getConstraintRef(final PropertyConstraint constraint) {
+    return getConstraintRef(constraint.getValue(),
+        UtilsAfcl.getCollectionOperationType(constraint.getName(), constraint.getValue()));
+  }
+
+  /**
+   * Returns the parsed ref of the given constraint string describing the given
+   * operation. Each distinct string is parsed once per symbol table and
+   * operation.
+   *
+   * @param constraintString the value string of the constraint
+   * @param operation the operation described by the string
+   * @return the parsed ref of the given constraint string
+   */
+  public ConstraintRef getConstraintRef(final String constraintString,
+      final CollectionOperation operation) {
+    if (constraintString == null) {
+      throw new IllegalArgumentException("Constraint string not set.");
+    }
+    return constraintRefs.get(operation).computeIfAbsent(constraintString,
+        string -> ConstraintRef.parse(string, operation));
+  }
+
+  /**
+   * Returns the data id that the given afcl source was resolved to, if the
+   * source has already been resolved.
+   *
+   * @param afclSource the afcl source string
+   * @return the data id that the given source was resolved to (if already
+   *         resolved)
+   */
+  public Optional<String> getResolvedSource(final String afclSource) {
+    return Optional.ofNullable(resolvedSources.get(afclSource));
+  }
+
+  /**
+   * Remembers the data id that the given afcl source is resolved to.
+   *
+   * @param afclSource the afcl source string
+   * @param dataId the data id in the flattened graph
+   */
+  public void cacheResolvedSource(final String afclSource, final String dataId) {
+    resolvedSources.put(afclSource, dataId);
+  }
+
+  /**
+   * Returns the constant node with the given type and content which is shared
+   * by all its consumers. The node is created on the first request.
+   *
+   * @param dataType the data type of the constant
+   * @param content the content of the constant
+   * @return the shared constant node
+   */
+  public Task getSharedConstant(final DataType dataType, final JsonElement content) {
+    final String key = dataType.name() + ConstantsAfcl.SourceAffix + content.toString();
+    return sharedConstants.computeIfAbsent(key, k -> PropertyServiceData
+        .createConstantNode(getSharedConstantId(dataType, content), dataType, content));
+  }
+
+  /**
+   * Returns the id of the shared constant node with the given type and content.
+   * Short numbers and literals are used as they are; other contents (strings,
+   * collections, objects) are represented by a name-based UUID of their json
+   * representation.
+   *
+   * @param dataType the data type of the constant
+   * @param content the content of the constant
+   * @return the id of the shared constant node
+   */
+  protected static String getSharedConstantId(final DataType dataType,
+      final JsonElement content) {
+    final String contentString = content.toString();
+    final String contentId = readableConstant.matcher(contentString).matches() ? contentString
+        : UUID.nameUUIDFromBytes(contentString.getBytes(StandardCharsets.UTF_8)).toString();
+    return ConstantsAfcl.sharedConstantPrefix + ConstantsAfcl.SourceAffix + dataType.name()
+        + ConstantsAfcl.SourceAffix + contentId;
+  }
+
+  /**
+   * Remembers that the wf input with the given data id is referenced by an
+   * eliminated if branch.
+   *
+   * @param dataId the data id of the wf input
+   */
+  public void addEliminatedWfInput(final String dataId) {
+    eliminatedWfInputs.add(dataId);
+  }
+
+  /**
+   * Returns the data ids of the wf inputs referenced by eliminated if branches.
+   *
+   * @return the data ids of the wf inputs referenced by eliminated if branches
+   */
+  public Set<String> getEliminatedWfInputs() {
+    return Collections.unmodifiableSet(eliminatedWfInputs);
+  }
+
+  /**
+   * The entry of a single function in the symbol table.
+   *
+   * @author Fedor Smirnov
+   */
+  public static class Symbol {
+
+    protected final Function function;
+    protected final Optional<Function> parent;
+    protected final Map<String, DataIns> dataIns;
+    protected final Map<String, DataOuts> dataOuts;
+    protected final Map<String, DataOutsAtomic> dataOutsAtomic;
+
+    /**
+     * Creates the symbol for the given function.
+     *
+     * @param function the given function
+     * @param parent the parent compound (null for top-level functions)
+     */
+    protected Symbol(final Function function, final Function parent) {
+      this.function = function;
+      this.parent = Optional.ofNullable(parent);
+      final Map<String, DataIns> dataInMap = new HashMap<>();
+      AfclApiWrapper.getDataIns(function).forEach(dIn -> dataInMap.putIfAbsent(dIn.getName(), dIn));
+      this.dataIns = Collections.unmodifiableMap(dataInMap);
+      final Map<String, DataOuts> dataOutMap = new HashMap<>();
+      final Map<String, DataOutsAtomic> dataOutAtomicMap = new HashMap<>();
+      if (function instanceof AtomicFunction) {
+        AfclApiWrapper.getDataOuts((AtomicFunction) function)
+            .forEach(dOut -> dataOutAtomicMap.putIfAbsent(dOut.getName(), dOut));
+      } else {
+        AfclApiWrapper.getDataOuts(function)
+            .forEach(dOut -> dataOutMap.putIfAbsent(dOut.getName(), dOut));
+      }
+      this.dataOuts = Collections.unmodifiableMap(dataOutMap);
+      this.dataOutsAtomic = Collections.unmodifiableMap(dataOutAtomicMap);
+    }
+
+    public Function getFunction() {
+      return function;
+    }
+
+    public Optional<Function> getParent() {
+      return parent;
+    }
+
+    /**
+     * Returns the data ins of the function, mapped to their names.
+     *
+     * @return the data ins of the function, mapped to their names
+     */
+    public Map<String, DataIns> getDataIns() {
+      return dataIns;
+    }
+
+    /**
+     * Returns the data outs of the (compound) function, mapped to their names.
+     *
+     * @return the data outs of the (compound) function, mapped to their names
+     */
+    public Map<String, DataOuts> getDataOuts() {
+      return dataOuts;
+    }
+
+    /**
+     * Returns the data outs of the (atomic) function, mapped to their names.
+     *
+     * @return the data outs of the (atomic) function, mapped to their names
+     */
+    public Map<String, DataOutsAtomic> getDataOutsAtomic() {
+      return dataOutsAtomic;
+    }
+  }
+}
@@ -173,18 +173,20 @@ public final class UtilsAfcl {
    * @return true iff the provided string describes data produced by a producer
    */
   public static boolean isSrcString(final String srcString) {
-    final String affix = ConstantsAfcl.SourceAffix;
-    return srcString.contains(affix) && !srcString.startsWith(affix) && !srcString.endsWith(affix);
+    return srcString.indexOf(ConstantsAfcl.SourceAffix) > 0
+        && !srcString.endsWith(ConstantsAfcl.SourceAffix);
   }
 
   /**
-   * Reads the producer ID from the given srcString
+   * Reads the producer ID from the given srcString. Parses the string on every
+   * call; within a graph generation, use the interned ref provided by
+   * {@link SymbolTableAfcl#getSourceRef(String)}.
    * 
    * @param srcString the given srcString
    * @return the producer ID from the given srcString
    */
   public static String getProducerId(final String srcString) {
-    return getSrcSubString(srcString, true);
+    return SourceRef.parse(srcString).getProducerId();
   }
 
   /**
@@ -194,21 +196,7 @@ public final class UtilsAfcl {
    * @return the data ID from the given srcString
    */
   public static String getDataId(final String srcString) {
-    return getSrcSubString(srcString, false);
-  }
-
-  /**
-   * Returns a substring of the given src string correspopnding to the producer id
-   * (true) or the data id (false).
-   * 
-   * @param srcString the srcString
-   * @param producer true if asking for the producer, false for the data id
-   * @return a substring of the given src string correspopnding to the producer id
-   *         (true) or the data id (false)
-   */
-  protected static String getSrcSubString(final String srcString, final boolean producer) {
-    return producer ? srcString.split(ConstantsAfcl.SourceAffix)[0]
-        : srcString.split(ConstantsAfcl.SourceAffix)[1];
+    return SourceRef.parse(srcString).getDataId();
   }
 
   /**
@@ -231,7 +219,7 @@ public final class UtilsAfcl {
    * @return the substring of the first function read from the given if src string
    */
   public static String getFirstSubStringIfOut(final String srcString) {
-    return getIfOutSubString(srcString, true);
+    return SourceRef.parse(srcString).getFirst().getString();
   }
 
   /**
@@ -243,20 +231,9 @@ public final class UtilsAfcl {
    *         string
    */
   public static String getSecondSubStringIfOut(final String srcString) {
-    return getIfOutSubString(srcString, false);
-  }
-
-  /**
-   * Returns either the first of the second substring of the given src string of
-   * an if out.
-   * 
-   * @param srcString the given string
-   * @param first true iff asking for the first string
-   * @return either the first of the second substring of the given src string of
-   *         an if out
-   */
-  protected static String getIfOutSubString(final String srcString, final boolean first) {
-    return first ? srcString.split(ConstantsAfcl.IfFuncSeparator)[0]
-        : srcString.split(ConstantsAfcl.IfFuncSeparator)[1];
+    return SourceRef.parse(srcString).getAlternative()
+        .orElseThrow(() -> new IllegalArgumentException(
+            "The string " + srcString + " is not the src of an if data out."))
+        .getString();
   }
 }
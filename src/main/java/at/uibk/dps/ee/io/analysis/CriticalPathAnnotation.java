@@ -0,0 +1,316 @@
+package at.uibk.dps.ee.io.analysis;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+import com.google.gson.JsonElement;
+
+import at.uibk.dps.ee.io.json.FunctionTypeEntry;
+import at.uibk.dps.ee.io.json.ResourceEntry;
+import at.uibk.dps.ee.io.json.ResourceInformationJsonFile;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction.UsageType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUser;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.properties.TaskPropertyService;
+
+/**
+ * Static method container for the annotation of the enactment graph with the
+ * information used to prioritize the tasks during the enactment:
+ * <ul>
+ * <li>the index of each node in a topological order of the graph</li>
+ * <li>the level (wavefront) of each node, i.e., the number of functions on the
+ * longest path from a root to the node</li>
+ * <li>the estimated cost of each function and the bottom level of each node,
+ * i.e., the cost of the most expensive path from the node to a leaf</li>
+ * <li>whether the node is on the (estimated) critical path</li>
+ * </ul>
+ * The costs of user functions are taken from the cost hints annotated in the
+ * resource information file (see {@link #getCostHints}); utility and data-flow
+ * functions, as well as data nodes, have no cost. The annotation is linear in
+ * the size of the graph. The results are stored as (integer, double, and
+ * boolean) node attributes, so that they are persisted together with the graph.
+ *
+ * @author Fedor Smirnov
+ */
+public final class CriticalPathAnnotation {
+
+  /**
+   * The property of the resource entries annotating the estimated cost of the
+   * function type on the resource.
+   */
+  public static final String propNameCost = "cost";
+
+  /**
+   * The cost of user functions without a cost hint.
+   */
+  public static final double defaultCost = 1.0;
+
+  /**
+   * The node attributes set by the annotation.
+   *
+   * @author Fedor Smirnov
+   */
+  public enum Property {
+    /**
+     * The index of the node in the topological order.
+     */
+    TopologicalIndex,
+    /**
+     * The level (wavefront) of the node.
+     */
+    Level,
+    /**
+     * The estimated cost of the node.
+     */
+    EstimatedCost,
+    /**
+     * The cost of the most expensive path from the node to a leaf (including the
+     * node itself).
+     */
+    BottomLevel,
+    /**
+     * Whether the node is on the critical path.
+     */
+    CriticalPath
+  }
+
+  /**
+   * No constructor.
+   */
+  private CriticalPathAnnotation() {}
+
+  /**
+   * Reads the cost hints of the function types from the given resource
+   * information. The hint of a function type is the lowest cost annotated for
+   * any of its resources.
+   *
+   * @param resourceInformation the resource information
+   * @return map of function type strings to the cost hints
+   */
+  public static Map<String, Double> getCostHints(
+      final ResourceInformationJsonFile resourceInformation) {
+    final Map<String, Double> result = new HashMap<>();
+    for (final FunctionTypeEntry functionEntry : resourceInformation) {
+      for (final ResourceEntry resourceEntry : functionEntry.getResources()) {
+        final Map<String, JsonElement> properties = resourceEntry.getProperties();
+        if (properties == null || !properties.containsKey(propNameCost)) {
+          continue;
+        }
+        final double cost = properties.get(propNameCost).getAsDouble();
+        if (cost < 0) {
+          throw new IllegalArgumentException(
+              "Negative cost annotated for function type " + functionEntry.getFunctionType());
+        }
+        result.merge(functionEntry.getFunctionType(), cost, Math::min);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Annotates the nodes of the given graph with their topological index, level,
+   * cost, bottom level, and critical-path membership.
+   *
+   * @param graph the enactment graph
+   * @param costHints map of function type strings to the cost hints
+   * @return the estimated cost of the critical path
+   */
+  public static double annotate(final EnactmentGraph graph, final Map<String, Double> costHints) {
+    final List<Task> order = getTopologicalOrder(graph);
+    final Map<Task, Double> earliestFinish = new HashMap<>();
+    double criticalPathCost = 0;
+    for (int idx = 0; idx < order.size(); idx++) {
+      final Task task = order.get(idx);
+      final double cost = getCost(task, costHints);
+      int level = 0;
+      double earliestStart = 0;
+      for (final Dependency inEdge : graph.getInEdges(task)) {
+        final Task predecessor = graph.getSource(inEdge);
+        level = Math.max(level, getLevel(predecessor));
+        earliestStart = Math.max(earliestStart, earliestFinish.get(predecessor));
+      }
+      if (TaskPropertyService.isProcess(task)) {
+        level++;
+      }
+      task.setAttribute(Property.TopologicalIndex.name(), idx);
+      task.setAttribute(Property.Level.name(), level);
+      task.setAttribute(Property.EstimatedCost.name(), cost);
+      earliestFinish.put(task, earliestStart + cost);
+      criticalPathCost = Math.max(criticalPathCost, earliestStart + cost);
+    }
+    for (int idx = order.size() - 1; idx >= 0; idx--) {
+      final Task task = order.get(idx);
+      final double cost = getEstimatedCost(task);
+      double bottomLevel = cost;
+      for (final Dependency outEdge : graph.getOutEdges(task)) {
+        bottomLevel = Math.max(bottomLevel, cost + getBottomLevel(graph.getDest(outEdge)));
+      }
+      task.setAttribute(Property.BottomLevel.name(), bottomLevel);
+      final double longestPath = earliestFinish.get(task) - cost + bottomLevel;
+      task.setAttribute(Property.CriticalPath.name(),
+          isSameCost(longestPath, criticalPathCost));
+    }
+    return criticalPathCost;
+  }
+
+  /**
+   * Returns the nodes of the given graph in a topological order (Kahn's
+   * algorithm).
+   *
+   * @param graph the enactment graph
+   * @return the nodes of the given graph in a topological order
+   */
+  public static List<Task> getTopologicalOrder(final EnactmentGraph graph) {
+    final Map<Task, Integer> inDegrees = new HashMap<>();
+    final Queue<Task> ready = new ArrayDeque<>();
+    for (final Task task : graph.getVertices()) {
+      final int inDegree = graph.getInEdges(task).size();
+      inDegrees.put(task, inDegree);
+      if (inDegree == 0) {
+        ready.add(task);
+      }
+    }
+    final List<Task> result = new ArrayList<>(graph.getVertexCount());
+    while (!ready.isEmpty()) {
+      final Task task = ready.poll();
+      result.add(task);
+      for (final Dependency outEdge : graph.getOutEdges(task)) {
+        final Task successor = graph.getDest(outEdge);
+        if (inDegrees.merge(successor, -1, Integer::sum) == 0) {
+          ready.add(successor);
+        }
+      }
+    }
+    if (result.size() != graph.getVertexCount()) {
+      throw new IllegalStateException("The enactment graph contains a cycle.");
+    }
+    return result;
+  }
+
+  /**
+   * Returns the estimated cost of the given node.
+   *
+   * @param task the given node
+   * @param costHints map of function type strings to the cost hints
+   * @return the estimated cost of the given node
+   */
+  public static double getCost(final Task task, final Map<String, Double> costHints) {
+    if (!TaskPropertyService.isProcess(task)
+        || !PropertyServiceFunction.getUsageType(task).equals(UsageType.User)) {
+      return 0;
+    }
+    return costHints.getOrDefault(PropertyServiceFunctionUser.getFunctionTypeString(task),
+        defaultCost);
+  }
+
+  /**
+   * Returns true iff the two given costs are equal up to rounding errors.
+   */
+  protected static boolean isSameCost(final double first, final double second) {
+    return Math.abs(first - second) <= 1e-9 * Math.max(1.0, Math.abs(second));
+  }
+
+  /**
+   * Returns true iff the given graph is annotated, i.e., all its nodes have a
+   * topological index.
+   *
+   * @param graph the enactment graph
+   * @return true iff the given graph is annotated
+   */
+  public static boolean isAnnotated(final EnactmentGraph graph) {
+    return graph.getVertices().stream()
+        .allMatch(task -> task.getAttribute(Property.TopologicalIndex.name()) != null);
+  }
+
+  /**
+   * Returns true iff the given graph is annotated based on the given cost hints,
+   * i.e., all its nodes have a topological index and an estimated cost equal to
+   * the cost resulting from the hints. Graphs annotated with other hints (e.g.,
+   * graphs precompiled with a different resource information file) have to be
+   * annotated again.
+   *
+   * @param graph the enactment graph
+   * @param costHints map of function type strings to the cost hints
+   * @return true iff the given graph is annotated based on the given cost hints
+   */
+  public static boolean isAnnotated(final EnactmentGraph graph,
+      final Map<String, Double> costHints) {
+    return isAnnotated(graph) && graph.getVertices().stream().allMatch(
+        task -> task.getAttribute(Property.EstimatedCost.name()) != null
+            && isSameCost(getEstimatedCost(task), getCost(task, costHints)));
+  }
+
+  /**
+   * Returns the index of the given node in the topological order.
+   *
+   * @param task the given node
+   * @return the index of the given node in the topological order
+   */
+  public static int getTopologicalIndex(final Task task) {
+    return (int) getAnnotation(task, Property.TopologicalIndex);
+  }
+
+  /**
+   * Returns the level (wavefront) of the given node.
+   *
+   * @param task the given node
+   * @return the level of the given node
+   */
+  public static int getLevel(final Task task) {
+    return (int) getAnnotation(task, Property.Level);
+  }
+
+  /**
+   * Returns the estimated cost of the given node.
+   *
+   * @param task the given node
+   * @return the estimated cost of the given node
+   */
+  public static double getEstimatedCost(final Task task) {
+    return (double) getAnnotation(task, Property.EstimatedCost);
+  }
+
+  /**
+   * Returns the bottom level of the given node, i.e., the cost of the most
+   * expensive path from the node to a leaf.
+   *
+   * @param task the given node
+   * @return the bottom level of the given node
+   */
+  public static double getBottomLevel(final Task task) {
+    return (double) getAnnotation(task, Property.BottomLevel);
+  }
+
+  /**
+   * Returns true iff the given node is on the critical path.
+   *
+   * @param task the given node
+   * @return true iff the given node is on the critical path
+   */
+  public static boolean isOnCriticalPath(final Task task) {
+    return (boolean) getAnnotation(task, Property.CriticalPath);
+  }
+
+  /**
+   * Returns the value of the given property of the given node.
+   *
+   * @param task the given node
+   * @param property the property
+   * @return the value of the given property of the given node
+   */
+  protected static Object getAnnotation(final Task task, final Property property) {
+    final Object result = task.getAttribute(property.name());
+    if (result == null) {
+      throw new IllegalArgumentException(
+          "Node " + task.getId() + " is not annotated with " + property.name());
+    }
+    return result;
+  }
+}
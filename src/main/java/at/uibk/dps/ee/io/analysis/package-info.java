@@ -0,0 +1,5 @@
+/**
+ * Package for the classes used to analyze the generated enactment graphs and
+ * to annotate them with the results.
+ */
+package at.uibk.dps.ee.io.analysis;
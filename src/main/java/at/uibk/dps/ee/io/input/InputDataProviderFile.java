@@ -12,6 +12,7 @@ import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
 import at.uibk.dps.ee.core.InputDataProvider;
+import at.uibk.dps.ee.io.jfr.InputParseEvent;
 
 /**
  * The {@link InputDataProviderFile} is used to read the input data from a file
@@ -42,8 +43,18 @@ public class InputDataProviderFile implements InputDataProvider {
    * @return the jsonobject found in the file
    */
   protected final JsonObject file2JsonObject(final String filePath) {
+    final InputParseEvent event = new InputParseEvent();
+    event.begin();
     try {
-      return (JsonObject) JsonParser.parseReader(Files.newBufferedReader(Paths.get(filePath)));
+      final JsonObject result =
+          (JsonObject) JsonParser.parseReader(Files.newBufferedReader(Paths.get(filePath)));
+      if (event.shouldCommit()) {
+        event.filePath = filePath;
+        event.size = Files.size(Paths.get(filePath));
+        event.entries = result.size();
+        event.commit();
+      }
+      return result;
     } catch (IOException ioExc) {
       throw new IllegalArgumentException("IO Exception when trying to read file " + filePath,
           ioExc);
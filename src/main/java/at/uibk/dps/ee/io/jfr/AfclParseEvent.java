@@ -0,0 +1,40 @@
+package at.uibk.dps.ee.io.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Event recorded when the bytes of a workflow are parsed. In the streaming mode,
+ * the parsing is interleaved with the graph generation, so that the event
+ * covers both.
+ * 
+ * @author Fedor Smirnov
+ *
+ */
+@Name(ConstantsJfr.eventPrefix + "AfclParse")
+@Label("AFCL Parse")
+@Category({ConstantsJfr.categoryApollo, ConstantsJfr.categoryEeIo})
+@StackTrace(false)
+public class AfclParseEvent extends Event {
+
+  @Label("Workflow Name")
+  public String workflowName;
+
+  @Label("Input Size")
+  @Description("The size of the workflow description (-1 if read from a stream of unknown size).")
+  @DataAmount
+  public long size;
+
+  @Label("Streaming")
+  @Description("True iff the graph was generated while parsing.")
+  public boolean streaming;
+
+  @Label("Body Functions")
+  @Description("The number of functions on the top level of the workflow body.")
+  public int functions;
+}
@@ -0,0 +1,37 @@
+package at.uibk.dps.ee.io.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Event recorded when a function (atomic or compound) is translated into the
+ * enactment graph. The events of the functions nested into compounds are
+ * nested into the event of the compound.
+ * 
+ * @author Fedor Smirnov
+ *
+ */
+@Name(ConstantsJfr.eventPrefix + "CompoundGeneration")
+@Label("Compound Generation")
+@Category({ConstantsJfr.categoryApollo, ConstantsJfr.categoryEeIo})
+@StackTrace(false)
+public class CompoundGenerationEvent extends Event {
+
+  @Label("Function Name")
+  public String functionName;
+
+  @Label("Compound Type")
+  public String compoundType;
+
+  @Label("Added Nodes")
+  @Description("The number of nodes added to the graph (including nested functions).")
+  public int addedNodes;
+
+  @Label("Added Edges")
+  @Description("The number of edges added to the graph (including nested functions).")
+  public int addedEdges;
+}
@@ -0,0 +1,22 @@
+package at.uibk.dps.ee.io.jfr;
+
+/**
+ * Constants used to name and categorize the flight recorder events of EE-IO.
+ * 
+ * @author Fedor Smirnov
+ *
+ */
+public final class ConstantsJfr {
+
+  // the prefix of the event names (used in the JFR settings)
+  public static final String eventPrefix = "at.uibk.dps.ee.io.";
+
+  // the category path under which the events are shown in JMC
+  public static final String categoryApollo = "Apollo";
+  public static final String categoryEeIo = "EE-IO";
+
+  /**
+   * No constructor.
+   */
+  private ConstantsJfr() {}
+}
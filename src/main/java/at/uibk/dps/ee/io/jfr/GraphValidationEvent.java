@@ -0,0 +1,29 @@
+package at.uibk.dps.ee.io.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Event recorded when an enactment graph is validated.
+ * 
+ * @author Fedor Smirnov
+ *
+ */
+@Name(ConstantsJfr.eventPrefix + "GraphValidation")
+@Label("Graph Validation")
+@Category({ConstantsJfr.categoryApollo, ConstantsJfr.categoryEeIo})
+@StackTrace(false)
+public class GraphValidationEvent extends Event {
+
+  @Label("Validation Level")
+  public String level;
+
+  @Label("Nodes")
+  public int nodes;
+
+  @Label("Edges")
+  public int edges;
+}
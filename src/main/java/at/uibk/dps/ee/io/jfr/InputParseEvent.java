@@ -0,0 +1,33 @@
+package at.uibk.dps.ee.io.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Event recorded when the input data of an enactment is read from a file.
+ * 
+ * @author Fedor Smirnov
+ *
+ */
+@Name(ConstantsJfr.eventPrefix + "InputParse")
+@Label("Input Parse")
+@Category({ConstantsJfr.categoryApollo, ConstantsJfr.categoryEeIo})
+@StackTrace(false)
+public class InputParseEvent extends Event {
+
+  @Label("File Path")
+  public String filePath;
+
+  @Label("File Size")
+  @DataAmount
+  public long size;
+
+  @Label("Entries")
+  @Description("The number of top-level entries of the input object.")
+  public int entries;
+}
@@ -0,0 +1,35 @@
+package at.uibk.dps.ee.io.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Event recorded when the function-to-resource mappings are created.
+ * 
+ * @author Fedor Smirnov
+ *
+ */
+@Name(ConstantsJfr.eventPrefix + "MappingCreation")
+@Label("Mapping Creation")
+@Category({ConstantsJfr.categoryApollo, ConstantsJfr.categoryEeIo})
+@StackTrace(false)
+public class MappingCreationEvent extends Event {
+
+  @Label("File Path")
+  @Description("The path to the resource description file.")
+  public String filePath;
+
+  @Label("Tasks")
+  @Description("The number of nodes of the enactment graph.")
+  public int tasks;
+
+  @Label("Resources")
+  public int resources;
+
+  @Label("Mappings")
+  public int mappings;
+}
@@ -0,0 +1,35 @@
+package at.uibk.dps.ee.io.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Event recorded when the result (and the execution data) of an enactment is
+ * written.
+ * 
+ * @author Fedor Smirnov
+ *
+ */
+@Name(ConstantsJfr.eventPrefix + "OutputWrite")
+@Label("Output Write")
+@Category({ConstantsJfr.categoryApollo, ConstantsJfr.categoryEeIo})
+@StackTrace(false)
+public class OutputWriteEvent extends Event {
+
+  @Label("Target")
+  @Description("The path of the written file (or stdout for the console output).")
+  public String target;
+
+  @Label("Rows")
+  @Description("The number of written rows (execution records for Excel files).")
+  public int rows;
+
+  @Label("Size")
+  @DataAmount
+  public long size;
+}
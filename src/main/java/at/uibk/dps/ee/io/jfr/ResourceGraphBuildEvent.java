@@ -0,0 +1,32 @@
+package at.uibk.dps.ee.io.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Event recorded when the resource graph is built from the resource
+ * description file.
+ * 
+ * @author Fedor Smirnov
+ *
+ */
+@Name(ConstantsJfr.eventPrefix + "ResourceGraphBuild")
+@Label("Resource Graph Build")
+@Category({ConstantsJfr.categoryApollo, ConstantsJfr.categoryEeIo})
+@StackTrace(false)
+public class ResourceGraphBuildEvent extends Event {
+
+  @Label("File Path")
+  @Description("The path to the resource description file.")
+  public String filePath;
+
+  @Label("Resources")
+  public int resources;
+
+  @Label("Links")
+  public int links;
+}
@@ -0,0 +1,30 @@
+package at.uibk.dps.ee.io.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Event recorded when an .afcl/.cfcl workflow file is read.
+ * 
+ * @author Fedor Smirnov
+ *
+ */
+@Name(ConstantsJfr.eventPrefix + "WorkflowFileRead")
+@Label("Workflow File Read")
+@Category({ConstantsJfr.categoryApollo, ConstantsJfr.categoryEeIo})
+@StackTrace(false)
+public class WorkflowFileReadEvent extends Event {
+
+  @Label("File Path")
+  @Description("The path to the workflow file.")
+  public String filePath;
+
+  @Label("File Size")
+  @DataAmount
+  public long size;
+}
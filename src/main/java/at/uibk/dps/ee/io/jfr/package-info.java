@@ -0,0 +1,5 @@
+/**
+ * Package for the Java Flight Recorder events emitted while reading and
+ * compiling workflows and while processing the enactment input and output.
+ */
+package at.uibk.dps.ee.io.jfr;
@@ -7,6 +7,7 @@ import org.opt4j.core.start.Constant;
 
 import at.uibk.dps.ee.guice.modules.InputModule;
 import at.uibk.dps.ee.io.afcl.AfclReader;
+import at.uibk.dps.ee.io.validation.ValidationLevel;
 import at.uibk.dps.ee.model.graph.EnactmentGraphProvider;
 
 /**
@@ -24,6 +25,37 @@ public class AfclReaderFileModule extends InputModule {
   @Constant(value = "filePath", namespace = AfclReader.class)
   public String filePath = "";
 
+  @Order(2)
+  @Info("The directory where compiled graphs are cached. No caching if left empty.")
+  @Constant(value = "cacheDirectory", namespace = AfclReader.class)
+  public String cacheDirectory = "";
+
+  @Order(3)
+  @Info("The maximal size of the compiled-graph cache in MB.")
+  @Constant(value = "cacheSizeMb", namespace = AfclReader.class)
+  public int cacheSizeMb = 256;
+
+  @Order(4)
+  @Info("If checked, the graph is generated while the .afcl file is parsed.")
+  @Constant(value = "streaming", namespace = AfclReader.class)
+  public boolean streaming = false;
+
+  @Order(5)
+  @Info("If checked, independent compounds of the workflow are translated in parallel.")
+  @Constant(value = "parallel", namespace = AfclReader.class)
+  public boolean parallel = false;
+
+  @Order(6)
+  @Info("If checked, the time, allocations, and graph sizes of each compilation phase are logged.")
+  @Constant(value = "logReport", namespace = AfclReader.class)
+  public boolean logReport = false;
+
+  @Order(7)
+  @Info("The validation of the generated graph (cached graphs stored with a lower level are "
+      + "validated again).")
+  @Constant(value = "validationLevel", namespace = AfclReader.class)
+  public ValidationLevel validationLevel = ValidationLevel.FULL;
+
   public String getFilePath() {
     return filePath;
   }
@@ -32,6 +64,54 @@ public class AfclReaderFileModule extends InputModule {
     this.filePath = filePath;
   }
 
+  public String getCacheDirectory() {
+    return cacheDirectory;
+  }
+
+  public void setCacheDirectory(final String cacheDirectory) {
+    this.cacheDirectory = cacheDirectory;
+  }
+
+  public int getCacheSizeMb() {
+    return cacheSizeMb;
+  }
+
+  public void setCacheSizeMb(final int cacheSizeMb) {
+    this.cacheSizeMb = cacheSizeMb;
+  }
+
+  public boolean isStreaming() {
+    return streaming;
+  }
+
+  public void setStreaming(final boolean streaming) {
+    this.streaming = streaming;
+  }
+
+  public boolean isParallel() {
+    return parallel;
+  }
+
+  public void setParallel(final boolean parallel) {
+    this.parallel = parallel;
+  }
+
+  public boolean isLogReport() {
+    return logReport;
+  }
+
+  public void setLogReport(final boolean logReport) {
+    this.logReport = logReport;
+  }
+
+  public ValidationLevel getValidationLevel() {
+    return validationLevel;
+  }
+
+  public void setValidationLevel(final ValidationLevel validationLevel) {
+    this.validationLevel = validationLevel;
+  }
+
   @Override
   protected void config() {
     bind(EnactmentGraphProvider.class).to(AfclReader.class);
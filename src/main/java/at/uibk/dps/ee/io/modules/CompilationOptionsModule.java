@@ -0,0 +1,89 @@
+package at.uibk.dps.ee.io.modules;
+
+import org.opt4j.core.config.annotations.Info;
+import org.opt4j.core.config.annotations.Order;
+
+import at.uibk.dps.ee.guice.modules.InputModule;
+import at.uibk.dps.ee.io.afcl.AfclReader;
+import at.uibk.dps.ee.io.afcl.CompilationOptions;
+
+/**
+ * The {@link CompilationOptionsModule} configures the optional transformations
+ * applied by the {@link AfclReader} while generating the enactment graph. It
+ * is used together with the module reading the workflow; without it, all
+ * transformations are disabled.
+ * 
+ * @author Fedor Smirnov
+ *
+ */
+public class CompilationOptionsModule extends InputModule {
+
+  @Order(1)
+  @Info("The maximal iteration number of parallelFor compounds with a constant int iterator "
+      + "(and without data outs) which are unrolled at compile time. No unrolling if set to 0.")
+  public int unrollThreshold = 0;
+
+  @Order(2)
+  @Info("If checked, chained collection operations (e.g., consecutive element-index "
+      + "constraints) are fused into single operations.")
+  public boolean fuseCollectionOperations = false;
+
+  @Order(3)
+  @Info("If checked, only the taken branch of if compounds whose conditions compare "
+      + "constants is translated.")
+  public boolean eliminateDeadBranches = false;
+
+  @Order(4)
+  @Info("If checked, constant nodes with the same type and content are merged into single "
+      + "nodes.")
+  public boolean shareConstants = false;
+
+  public int getUnrollThreshold() {
+    return unrollThreshold;
+  }
+
+  public void setUnrollThreshold(final int unrollThreshold) {
+    this.unrollThreshold = unrollThreshold;
+  }
+
+  public boolean isFuseCollectionOperations() {
+    return fuseCollectionOperations;
+  }
+
+  public void setFuseCollectionOperations(final boolean fuseCollectionOperations) {
+    this.fuseCollectionOperations = fuseCollectionOperations;
+  }
+
+  public boolean isEliminateDeadBranches() {
+    return eliminateDeadBranches;
+  }
+
+  public void setEliminateDeadBranches(final boolean eliminateDeadBranches) {
+    this.eliminateDeadBranches = eliminateDeadBranches;
+  }
+
+  public boolean isShareConstants() {
+    return shareConstants;
+  }
+
+  public void setShareConstants(final boolean shareConstants) {
+    this.shareConstants = shareConstants;
+  }
+
+  @Override
+  protected void config() {
+    bind(CompilationOptions.class).toInstance(buildOptions());
+  }
+
+  /**
+   * Returns the compilation options configured in this module.
+   *
+   * @return the compilation options configured in this module
+   */
+  protected CompilationOptions buildOptions() {
+    return new CompilationOptions().setUnrollThreshold(unrollThreshold)
+        .setFuseCollectionOperations(fuseCollectionOperations)
+        .setEliminateDeadBranches(eliminateDeadBranches)
+        .setShareConstants(shareConstants);
+  }
+}
@@ -0,0 +1,40 @@
+package at.uibk.dps.ee.io.modules;
+
+import org.opt4j.core.config.annotations.File;
+import org.opt4j.core.config.annotations.Info;
+import org.opt4j.core.config.annotations.Order;
+import org.opt4j.core.start.Constant;
+
+import at.uibk.dps.ee.guice.modules.InputModule;
+import at.uibk.dps.ee.io.persistance.GraphSnapshotProvider;
+import at.uibk.dps.ee.model.graph.EnactmentGraphProvider;
+
+/**
+ * The {@link GraphSnapshotModule} is used to read the WF from a graph snapshot
+ * (a graph stored in the binary format), which is memory-mapped and decoded
+ * lazily.
+ * 
+ * @author Fedor Smirnov
+ *
+ */
+public class GraphSnapshotModule extends InputModule {
+
+  @Order(1)
+  @Info("The path to the graph snapshot (.eeg file).")
+  @File
+  @Constant(value = "filePath", namespace = GraphSnapshotProvider.class)
+  public String filePath = "";
+
+  public String getFilePath() {
+    return filePath;
+  }
+
+  public void setFilePath(final String filePath) {
+    this.filePath = filePath;
+  }
+
+  @Override
+  protected void config() {
+    bind(EnactmentGraphProvider.class).to(GraphSnapshotProvider.class);
+  }
+}
@@ -0,0 +1,55 @@
+package at.uibk.dps.ee.io.modules;
+
+import org.opt4j.core.config.annotations.File;
+import org.opt4j.core.config.annotations.Info;
+import org.opt4j.core.config.annotations.Order;
+import org.opt4j.core.start.Constant;
+
+import at.uibk.dps.ee.guice.modules.InputModule;
+import at.uibk.dps.ee.io.persistance.PrecompiledGraphProvider;
+import at.uibk.dps.ee.io.validation.ValidationLevel;
+import at.uibk.dps.ee.model.graph.EnactmentGraphProvider;
+
+/**
+ * The {@link PrecompiledGraphModule} is used to read the WF from a graph file
+ * which was compiled from an .afcl file beforehand (see
+ * {@link at.uibk.dps.ee.io.afcl.AfclCompiler}).
+ * 
+ * @author Fedor Smirnov
+ *
+ */
+public class PrecompiledGraphModule extends InputModule {
+
+  @Order(1)
+  @Info("The path to the precompiled graph (.xml or .eeg file).")
+  @File
+  @Constant(value = "filePath", namespace = PrecompiledGraphProvider.class)
+  public String filePath = "";
+
+  @Order(2)
+  @Info("The validation required for the graph. Graphs stored with (at least) this level "
+      + "are not validated again.")
+  @Constant(value = "validationLevel", namespace = PrecompiledGraphProvider.class)
+  public ValidationLevel validationLevel = ValidationLevel.FULL;
+
+  public String getFilePath() {
+    return filePath;
+  }
+
+  public void setFilePath(final String filePath) {
+    this.filePath = filePath;
+  }
+
+  public ValidationLevel getValidationLevel() {
+    return validationLevel;
+  }
+
+  public void setValidationLevel(final ValidationLevel validationLevel) {
+    this.validationLevel = validationLevel;
+  }
+
+  @Override
+  protected void config() {
+    bind(EnactmentGraphProvider.class).to(PrecompiledGraphProvider.class);
+  }
+}
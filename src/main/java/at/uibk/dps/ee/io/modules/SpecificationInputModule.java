@@ -6,8 +6,10 @@ import org.opt4j.core.config.annotations.Order;
 import org.opt4j.core.start.Constant;
 import at.uibk.dps.ee.guice.modules.InputModule;
 import at.uibk.dps.ee.io.afcl.AfclReader;
+import at.uibk.dps.ee.io.persistance.PrecompiledGraphProvider;
 import at.uibk.dps.ee.io.resources.ResourceGraphProviderFile;
 import at.uibk.dps.ee.io.spec.SpecificationProviderFile;
+import at.uibk.dps.ee.io.validation.ValidationLevel;
 import at.uibk.dps.ee.model.graph.EnactmentGraphProvider;
 import at.uibk.dps.ee.model.graph.ResourceGraphProvider;
 import at.uibk.dps.ee.model.graph.SpecificationProvider;
@@ -32,6 +34,49 @@ public class SpecificationInputModule extends InputModule {
   @Constant(value = "filePath", namespace = ResourceGraphProviderFile.class)
   public String filePathMappingFile = "";
 
+  @Order(3)
+  @Info("The directory where compiled graphs are cached. No caching if left empty.")
+  @Constant(value = "cacheDirectory", namespace = AfclReader.class)
+  public String cacheDirectory = "";
+
+  @Order(4)
+  @Info("The maximal size of the compiled-graph cache in MB.")
+  @Constant(value = "cacheSizeMb", namespace = AfclReader.class)
+  public int cacheSizeMb = 256;
+
+  @Order(5)
+  @Info("If checked, the graph is generated while the .afcl file is parsed.")
+  @Constant(value = "streaming", namespace = AfclReader.class)
+  public boolean streaming = false;
+
+  @Order(6)
+  @Info("If checked, independent compounds of the workflow are translated in parallel.")
+  @Constant(value = "parallel", namespace = AfclReader.class)
+  public boolean parallel = false;
+
+  @Order(7)
+  @Info("The path to a precompiled graph (.xml or .eeg file). If set, the graph is "
+      + "read from this file instead of the .afcl file.")
+  @File
+  @Constant(value = "filePath", namespace = PrecompiledGraphProvider.class)
+  public String filePathPrecompiledGraph = "";
+
+  @Order(8)
+  @Info("If checked, the time, allocations, and graph sizes of each compilation phase are logged.")
+  @Constant(value = "logReport", namespace = AfclReader.class)
+  public boolean logReport = false;
+
+  @Order(9)
+  @Info("The validation of the graph generated from the .afcl file.")
+  @Constant(value = "validationLevel", namespace = AfclReader.class)
+  public ValidationLevel validationLevel = ValidationLevel.FULL;
+
+  @Order(10)
+  @Info("The validation required for the precompiled graph. Graphs stored with (at least) this "
+      + "level are not validated again.")
+  @Constant(value = "validationLevel", namespace = PrecompiledGraphProvider.class)
+  public ValidationLevel validationLevelPrecompiled = ValidationLevel.FULL;
+
   public String getFilePathAfcl() {
     return filePathAfcl;
   }
@@ -48,9 +93,77 @@ public class SpecificationInputModule extends InputModule {
     this.filePathMappingFile = filePathMappingFile;
   }
 
+  public String getCacheDirectory() {
+    return cacheDirectory;
+  }
+
+  public void setCacheDirectory(final String cacheDirectory) {
+    this.cacheDirectory = cacheDirectory;
+  }
+
+  public int getCacheSizeMb() {
+    return cacheSizeMb;
+  }
+
+  public void setCacheSizeMb(final int cacheSizeMb) {
+    this.cacheSizeMb = cacheSizeMb;
+  }
+
+  public boolean isStreaming() {
+    return streaming;
+  }
+
+  public void setStreaming(final boolean streaming) {
+    this.streaming = streaming;
+  }
+
+  public boolean isParallel() {
+    return parallel;
+  }
+
+  public void setParallel(final boolean parallel) {
+    this.parallel = parallel;
+  }
+
+  public String getFilePathPrecompiledGraph() {
+    return filePathPrecompiledGraph;
+  }
+
+  public void setFilePathPrecompiledGraph(final String filePathPrecompiledGraph) {
+    this.filePathPrecompiledGraph = filePathPrecompiledGraph;
+  }
+
+  public boolean isLogReport() {
+    return logReport;
+  }
+
+  public void setLogReport(final boolean logReport) {
+    this.logReport = logReport;
+  }
+
+  public ValidationLevel getValidationLevel() {
+    return validationLevel;
+  }
+
+  public void setValidationLevel(final ValidationLevel validationLevel) {
+    this.validationLevel = validationLevel;
+  }
+
+  public ValidationLevel getValidationLevelPrecompiled() {
+    return validationLevelPrecompiled;
+  }
+
+  public void setValidationLevelPrecompiled(final ValidationLevel validationLevelPrecompiled) {
+    this.validationLevelPrecompiled = validationLevelPrecompiled;
+  }
+
   @Override
   protected void config() {
-    bind(EnactmentGraphProvider.class).to(AfclReader.class);
+    if (filePathPrecompiledGraph.isEmpty()) {
+      bind(EnactmentGraphProvider.class).to(AfclReader.class);
+    } else {
+      bind(EnactmentGraphProvider.class).to(PrecompiledGraphProvider.class);
+    }
     bind(ResourceGraphProvider.class).to(ResourceGraphProviderFile.class);
     bind(SpecificationProvider.class).to(SpecificationProviderFile.class);
   }
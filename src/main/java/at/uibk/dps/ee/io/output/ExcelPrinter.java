@@ -17,6 +17,7 @@ import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import at.uibk.dps.ee.core.ExecutionData;
 import at.uibk.dps.ee.core.ExecutionData.ResourceType;
+import at.uibk.dps.ee.io.jfr.OutputWriteEvent;
 
 /**
  * The {@link ExcelPrinter} creates an Excel(.xlsx) file using the data in {@link ExecutionData}.
@@ -30,6 +31,8 @@ public class ExcelPrinter {
       "resource","region", "failRate", "schedulingType", "workflowName", "timestamp"};
 
   public static void createExcelFile() {
+    OutputWriteEvent event = new OutputWriteEvent();
+    event.begin();
     Workbook workbook = new XSSFWorkbook();
     Sheet sheet = workbook.createSheet("Executions");
     Font headerFont = workbook.createFont();
@@ -71,12 +74,19 @@ public class ExcelPrinter {
       if (!directory.exists()) {
         directory.mkdir();
       }
-      fileOut = new FileOutputStream("executions/" + ExecutionData.workflowName + "-" + 
+      String filePath = "executions/" + ExecutionData.workflowName + "-" + 
     ExecutionData.schedulingType + "-" + ExecutionData.failRate + "-" + 
-    timestamp + ".xlsx");
+    timestamp + ".xlsx";
+      fileOut = new FileOutputStream(filePath);
       workbook.write(fileOut);
       fileOut.close();
       workbook.close();
+      if (event.shouldCommit()) {
+        event.target = filePath;
+        event.rows = rowNum - 1;
+        event.size = new File(filePath).length();
+        event.commit();
+      }
     } catch (FileNotFoundException e) {
       e.printStackTrace();
     } catch (IOException e) {
@@ -4,6 +4,7 @@ import com.google.gson.JsonObject;
 import com.google.inject.Singleton;
 
 import at.uibk.dps.ee.core.OutputDataHandler;
+import at.uibk.dps.ee.io.jfr.OutputWriteEvent;
 
 /**
  * The {@link OutputDataPrinter} simply prints the enactment result to the
@@ -17,8 +18,17 @@ public class OutputDataPrinter implements OutputDataHandler {
   
   @Override
   public void handleOutputData(final JsonObject outputData) {
+    final OutputWriteEvent event = new OutputWriteEvent();
+    event.begin();
+    final String result = outputData.toString();
     System.out.println("Enactment finished");
-    System.out.println("Enactment result: " + outputData.toString());
+    System.out.println("Enactment result: " + result);
+    if (event.shouldCommit()) {
+      event.target = "stdout";
+      event.rows = 1;
+      event.size = result.length();
+      event.commit();
+    }
     ExcelPrinter.createExcelFile();
   }
 }
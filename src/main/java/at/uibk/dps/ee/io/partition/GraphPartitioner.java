@@ -0,0 +1,508 @@
+package at.uibk.dps.ee.io.partition;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import at.uibk.dps.ee.io.UtilsGraph;
+import at.uibk.dps.ee.io.analysis.CriticalPathAnnotation;
+import at.uibk.dps.ee.io.partition.PartitionManifest.BoundaryEntry;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections.OperationType;
+import edu.uci.ics.jung.graph.util.EdgeType;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.properties.TaskPropertyService;
+
+/**
+ * Static method container for the partitioning of an {@link EnactmentGraph},
+ * so that one enactment can be distributed over several engine instances. The
+ * graph is cut at data nodes: each function is assigned to exactly one
+ * partition, and data produced in one partition and consumed in another is
+ * exchanged between the partitions (as a leaf of the producing and a root of
+ * the consuming partition, see {@link PartitionManifest}). The body of a
+ * parallelFor (from the distribution to the aggregation) and an if compound
+ * (from the condition function to the multiplexers) are never cut.
+ *
+ * <p>
+ * The partitions cover topological ranges of the graph: data is only exchanged
+ * from a partition to partitions with a higher index, so that the partitions
+ * form an acyclic pipeline. The units are assigned in topological order, each
+ * to the partition (not below the partitions of its producers) with the most
+ * data dependencies to it, weighted by the remaining capacity of the partition
+ * (linear deterministic greedy). The capacity of each partition is the average
+ * function load plus the {@link #balanceTolerance}. A refinement pass then
+ * moves units to the partition they exchange the most data with, as long as
+ * the capacity is not exceeded and the move stays between the partitions of
+ * the producers and the consumers of the unit. The function load is estimated
+ * with the cost hints used by {@link CriticalPathAnnotation}.
+ *
+ * @author Fedor Smirnov
+ */
+public final class GraphPartitioner {
+
+  /**
+   * The load by which a partition may exceed the average load (relative to the
+   * average load).
+   */
+  public static final double balanceTolerance = 0.1;
+
+  /**
+   * No constructor.
+   */
+  private GraphPartitioner() {}
+
+  /**
+   * Partitions the given graph into the given number of partitions.
+   *
+   * @param graph the enactment graph
+   * @param partitionNumber the number of partitions
+   * @param costHints map of function type strings to the cost hints
+   * @return the partitions and the manifest describing their boundaries
+   */
+  public static PartitionedGraph partition(final EnactmentGraph graph, final int partitionNumber,
+      final Map<String, Double> costHints) {
+    if (partitionNumber < 1) {
+      throw new IllegalArgumentException("The number of partitions has to be positive.");
+    }
+    final List<Task> functions = CriticalPathAnnotation.getTopologicalOrder(graph).stream()
+        .filter(TaskPropertyService::isProcess).collect(Collectors.toList());
+    final Map<Task, Task> representatives = getUnitRepresentatives(graph, functions);
+    // the units in the topological order of their first function
+    final Map<Task, List<Task>> units = new LinkedHashMap<>();
+    final Map<Task, Double> unitWeights = new HashMap<>();
+    for (final Task function : functions) {
+      final Task representative = find(representatives, function);
+      units.computeIfAbsent(representative, rep -> new ArrayList<>()).add(function);
+      unitWeights.merge(representative, CriticalPathAnnotation.getCost(function, costHints),
+          Double::sum);
+    }
+    final double totalLoad = unitWeights.values().stream().mapToDouble(Double::doubleValue).sum();
+    final double maxUnitLoad =
+        unitWeights.values().stream().mapToDouble(Double::doubleValue).max().orElse(0);
+    final double capacity =
+        Math.max(totalLoad / partitionNumber * (1 + balanceTolerance), maxUnitLoad);
+    final Map<Task, Set<Task>> unitProducers = getUnitProducers(graph, units, representatives);
+    final Map<Task, Set<Task>> unitConsumers = new HashMap<>();
+    units.keySet().forEach(unit -> unitConsumers.put(unit, new LinkedHashSet<>()));
+    unitProducers.forEach((unit, producers) -> producers
+        .forEach(producer -> unitConsumers.get(producer).add(unit)));
+    final List<Task> unitOrder = getUnitOrder(units.keySet(), unitProducers, unitConsumers);
+    final Map<Task, Integer> assignment = new HashMap<>();
+    final double[] loads = new double[partitionNumber];
+    for (final Task representative : unitOrder) {
+      final List<Task> unit = units.get(representative);
+      final double weight = unitWeights.get(representative);
+      final double[] connections = getConnections(graph, unit, assignment, partitionNumber);
+      final int lowest = getLowestPartition(unitProducers.get(representative), assignment);
+      final int partition =
+          selectPartition(connections, loads, weight, capacity, lowest, partitionNumber - 1);
+      unit.forEach(function -> assignment.put(function, partition));
+      loads[partition] += weight;
+    }
+    for (final Task representative : unitOrder) {
+      refine(graph, units.get(representative), unitWeights.get(representative),
+          getLowestPartition(unitProducers.get(representative), assignment),
+          getHighestPartition(unitConsumers.get(representative), assignment, partitionNumber),
+          assignment, loads, capacity);
+    }
+    return createPartitions(graph, partitionNumber, assignment, loads);
+  }
+
+  /**
+   * Returns the map of the representative of each unit to the representatives
+   * of the units producing its inputs.
+   *
+   * @param graph the enactment graph
+   * @param units map of the representatives to the functions of their units
+   * @param representatives map of each function to the representative of its
+   *        unit
+   * @return map of each unit representative to the representatives of its
+   *         producer units
+   */
+  protected static Map<Task, Set<Task>> getUnitProducers(final EnactmentGraph graph,
+      final Map<Task, List<Task>> units, final Map<Task, Task> representatives) {
+    final Map<Task, Set<Task>> result = new HashMap<>();
+    units.forEach((representative, unit) -> {
+      final Set<Task> producers = new LinkedHashSet<>();
+      for (final Task function : unit) {
+        for (final Task input : graph.getPredecessors(function)) {
+          for (final Task producer : graph.getPredecessors(input)) {
+            producers.add(find(representatives, producer));
+          }
+        }
+      }
+      producers.remove(representative);
+      result.put(representative, producers);
+    });
+    return result;
+  }
+
+  /**
+   * Returns the unit representatives in a topological order of the units.
+   *
+   * @param units the unit representatives (in the order used for ties)
+   * @param unitProducers map of each unit to its producer units
+   * @param unitConsumers map of each unit to its consumer units
+   * @return the unit representatives in topological order
+   */
+  protected static List<Task> getUnitOrder(final Set<Task> units,
+      final Map<Task, Set<Task>> unitProducers, final Map<Task, Set<Task>> unitConsumers) {
+    final List<Task> result = new ArrayList<>();
+    final Map<Task, Integer> missingProducers = new HashMap<>();
+    final Queue<Task> ready = new ArrayDeque<>();
+    for (final Task unit : units) {
+      missingProducers.put(unit, unitProducers.get(unit).size());
+      if (unitProducers.get(unit).isEmpty()) {
+        ready.add(unit);
+      }
+    }
+    while (!ready.isEmpty()) {
+      final Task unit = ready.poll();
+      result.add(unit);
+      for (final Task consumer : unitConsumers.get(unit)) {
+        if (missingProducers.merge(consumer, -1, Integer::sum) == 0) {
+          ready.add(consumer);
+        }
+      }
+    }
+    if (result.size() < units.size()) {
+      throw new IllegalStateException("The units of the graph form a cycle.");
+    }
+    return result;
+  }
+
+  /**
+   * Returns the lowest partition a unit with the given producers may be
+   * assigned to (the highest partition of its producers).
+   */
+  protected static int getLowestPartition(final Set<Task> producers,
+      final Map<Task, Integer> assignment) {
+    return producers.stream().mapToInt(assignment::get).max().orElse(0);
+  }
+
+  /**
+   * Returns the highest partition a unit with the given consumers may be
+   * assigned to (the lowest partition of its consumers).
+   */
+  protected static int getHighestPartition(final Set<Task> consumers,
+      final Map<Task, Integer> assignment, final int partitionNumber) {
+    return consumers.stream().mapToInt(assignment::get).min().orElse(partitionNumber - 1);
+  }
+
+  /**
+   * Groups the functions which have to be in the same partition into units and
+   * returns the map of each function to the representative of its unit. All
+   * functions of a parallelFor body (including the distribution and the
+   * aggregation) form one unit, as do the functions of an if compound (the
+   * condition function, the functions of both branches, and the multiplexers).
+   *
+   * @param graph the enactment graph
+   * @param functions the functions of the graph
+   * @return map of each function to the representative of its unit
+   */
+  protected static Map<Task, Task> getUnitRepresentatives(final EnactmentGraph graph,
+      final List<Task> functions) {
+    final Map<Task, Task> result = new HashMap<>();
+    functions.forEach(function -> result.put(function, function));
+    for (final Task distribution : functions) {
+      if (!UtilsGraph.isCollectionDataFlow(distribution, OperationType.Distribution)) {
+        continue;
+      }
+      final String scope = PropertyServiceFunctionDataFlowCollections.getScope(distribution);
+      final Set<Task> visited = new HashSet<>();
+      final Queue<Task> queue = new ArrayDeque<>(graph.getSuccessors(distribution));
+      while (!queue.isEmpty()) {
+        final Task task = queue.poll();
+        if (!visited.add(task)) {
+          continue;
+        }
+        if (TaskPropertyService.isProcess(task)) {
+          union(result, distribution, task);
+          if (UtilsGraph.isCollectionDataFlow(task, OperationType.Aggregation)
+              && PropertyServiceFunctionDataFlowCollections.getScope(task).equals(scope)) {
+            // end of the loop body
+            continue;
+          }
+        }
+        queue.addAll(graph.getSuccessors(task));
+      }
+    }
+    for (final Task condition : functions) {
+      if (!UtilsGraph.isConditionFunction(condition)) {
+        continue;
+      }
+      // the branch functions and the multiplexers depend on the decision variable
+      for (final Task decisionVariable : graph.getSuccessors(condition)) {
+        graph.getSuccessors(decisionVariable).forEach(task -> union(result, condition, task));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the number of data dependencies between the given unit and each
+   * partition, i.e., the number of data nodes produced in the partition and
+   * consumed by the unit and vice versa. Roots (workflow inputs and constants)
+   * are available to all partitions and are not counted.
+   *
+   * @param graph the enactment graph
+   * @param unit the functions of the unit
+   * @param assignment map of the functions to their partitions
+   * @param partitionNumber the number of partitions
+   * @return the number of data dependencies to each partition
+   */
+  protected static double[] getConnections(final EnactmentGraph graph, final List<Task> unit,
+      final Map<Task, Integer> assignment, final int partitionNumber) {
+    final double[] result = new double[partitionNumber];
+    final Set<Task> members = new HashSet<>(unit);
+    for (final Task function : unit) {
+      for (final Task input : graph.getPredecessors(function)) {
+        for (final Task producer : graph.getPredecessors(input)) {
+          addConnection(result, producer, members, assignment);
+        }
+      }
+      for (final Task output : graph.getSuccessors(function)) {
+        for (final Task consumer : graph.getSuccessors(output)) {
+          addConnection(result, consumer, members, assignment);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Counts the connection to the partition of the given neighbor (if the
+   * neighbor is already assigned and not a member of the processed unit).
+   */
+  protected static void addConnection(final double[] connections, final Task neighbor,
+      final Set<Task> members, final Map<Task, Integer> assignment) {
+    if (!members.contains(neighbor) && assignment.containsKey(neighbor)) {
+      connections[assignment.get(neighbor)]++;
+    }
+  }
+
+  /**
+   * Selects the partition (out of the given range) for a unit with the given
+   * connections and weight: the partition with the highest number of
+   * connections weighted by its remaining capacity (ties broken by the load).
+   * If the unit fits in no partition of the range, the partition of the range
+   * with the lowest load is selected.
+   *
+   * @param connections the connections of the unit to each partition
+   * @param loads the loads of the partitions
+   * @param weight the weight of the unit
+   * @param capacity the capacity of each partition
+   * @param lowest the lowest partition of the range
+   * @param highest the highest partition of the range
+   * @return the index of the selected partition
+   */
+  protected static int selectPartition(final double[] connections, final double[] loads,
+      final double weight, final double capacity, final int lowest, final int highest) {
+    int result = -1;
+    double bestScore = -1;
+    for (int partition = lowest; partition <= highest; partition++) {
+      if (!fits(loads[partition], weight, capacity)) {
+        continue;
+      }
+      final double score =
+          capacity > 0 ? connections[partition] * (1 - loads[partition] / capacity)
+              : connections[partition];
+      if (score > bestScore || score == bestScore && loads[partition] < loads[result]) {
+        result = partition;
+        bestScore = score;
+      }
+    }
+    if (result < 0) {
+      result = lowest;
+      for (int partition = lowest + 1; partition <= highest; partition++) {
+        if (loads[partition] < loads[result]) {
+          result = partition;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Moves the given unit to the partition (out of the given range) it has the
+   * most connections to, if this reduces the number of cut data edges and the
+   * capacity of the partition is not exceeded. Restricting the moves to the
+   * range between the partitions of the producers and the consumers of the
+   * unit keeps the partitions acyclic.
+   *
+   * @param graph the enactment graph
+   * @param unit the functions of the unit
+   * @param weight the weight of the unit
+   * @param lowest the lowest partition of the range
+   * @param highest the highest partition of the range
+   * @param assignment map of the functions to their partitions
+   * @param loads the loads of the partitions
+   * @param capacity the capacity of each partition
+   */
+  protected static void refine(final EnactmentGraph graph, final List<Task> unit,
+      final double weight, final int lowest, final int highest,
+      final Map<Task, Integer> assignment, final double[] loads, final double capacity) {
+    final int current = assignment.get(unit.get(0));
+    final double[] connections = getConnections(graph, unit, assignment, loads.length);
+    int target = current;
+    for (int partition = lowest; partition <= highest; partition++) {
+      if (connections[partition] > connections[target]
+          && fits(loads[partition], weight, capacity)) {
+        target = partition;
+      }
+    }
+    if (target != current) {
+      final int newPartition = target;
+      unit.forEach(function -> assignment.put(function, newPartition));
+      loads[current] -= weight;
+      loads[target] += weight;
+    }
+  }
+
+  /**
+   * Returns true iff a unit with the given weight fits into a partition with
+   * the given load.
+   */
+  protected static boolean fits(final double load, final double weight, final double capacity) {
+    return load + weight <= capacity * (1 + 1e-9);
+  }
+
+  /**
+   * Creates the subgraphs of the partitions and the manifest describing their
+   * boundaries.
+   *
+   * @param graph the enactment graph
+   * @param partitionNumber the number of partitions
+   * @param assignment map of the functions to their partitions
+   * @param loads the loads of the partitions
+   * @return the partitions and the manifest describing their boundaries
+   */
+  protected static PartitionedGraph createPartitions(final EnactmentGraph graph,
+      final int partitionNumber, final Map<Task, Integer> assignment, final double[] loads) {
+    final List<EnactmentGraph> partitions = new ArrayList<>();
+    for (int idx = 0; idx < partitionNumber; idx++) {
+      partitions.add(new EnactmentGraph());
+    }
+    final List<BoundaryEntry> boundaries = new ArrayList<>();
+    for (final Task task : graph.getVertices()) {
+      if (TaskPropertyService.isProcess(task)) {
+        partitions.get(assignment.get(task)).addVertex(UtilsGraph.copyElement(task));
+      } else {
+        addDataNode(graph, task, assignment, partitions).ifPresent(boundaries::add);
+      }
+    }
+    for (final Dependency dependency : graph.getEdges()) {
+      final Task src = graph.getSource(dependency);
+      final Task dst = graph.getDest(dependency);
+      final EnactmentGraph partition =
+          partitions.get(assignment.get(TaskPropertyService.isProcess(src) ? src : dst));
+      partition.addEdge(UtilsGraph.copyElement(dependency),
+          partition.getVertex(src.getId()), partition.getVertex(dst.getId()),
+          EdgeType.DIRECTED);
+    }
+    boundaries.sort((first, second) -> first.getDataId().compareTo(second.getDataId()));
+    final List<Double> loadList = Arrays.stream(loads).boxed().collect(Collectors.toList());
+    return new PartitionedGraph(partitions,
+        new PartitionManifest(new ArrayList<>(), loadList, boundaries));
+  }
+
+  /**
+   * Adds the given data node to the partitions of its producer and consumers.
+   * Data nodes without producer are copied to each consuming partition. Data
+   * exchanged between partitions is made a leaf of the producing partition and
+   * a root of the consuming ones.
+   *
+   * @param graph the enactment graph
+   * @param data the data node
+   * @param assignment map of the functions to their partitions
+   * @param partitions the subgraphs of the partitions
+   * @return the boundary entry if the data is exchanged between partitions
+   */
+  protected static Optional<BoundaryEntry> addDataNode(final EnactmentGraph graph,
+      final Task data, final Map<Task, Integer> assignment,
+      final List<EnactmentGraph> partitions) {
+    final SortedSet<Integer> consumers = graph.getSuccessors(data).stream()
+        .map(assignment::get).collect(Collectors.toCollection(TreeSet::new));
+    if (graph.getPredecessorCount(data) == 0) {
+      if (consumers.isEmpty()) {
+        consumers.add(0);
+      }
+      consumers.forEach(
+          partition -> partitions.get(partition).addVertex(UtilsGraph.copyElement(data)));
+      return Optional.empty();
+    }
+    final int producer = assignment.get(graph.getPredecessors(data).iterator().next());
+    final Task producerCopy = UtilsGraph.copyElement(data);
+    partitions.get(producer).addVertex(producerCopy);
+    consumers.remove(producer);
+    if (consumers.isEmpty()) {
+      return Optional.empty();
+    }
+    if (!PropertyServiceData.isLeaf(producerCopy)) {
+      PropertyServiceData.makeLeaf(producerCopy);
+      PropertyServiceData.setJsonKey(producerCopy, data.getId());
+    }
+    final String jsonKey = PropertyServiceData.getJsonKey(producerCopy);
+    for (final int consumer : consumers) {
+      final Task consumerCopy;
+      if (PropertyServiceData.isLeaf(data)) {
+        // the wf output is provided by the producing partition
+        consumerCopy = new Communication(data.getId());
+        PropertyServiceData.setDataType(consumerCopy, PropertyServiceData.getDataType(data));
+      } else {
+        consumerCopy = UtilsGraph.copyElement(data);
+      }
+      PropertyServiceData.makeRoot(consumerCopy);
+      PropertyServiceData.setJsonKey(consumerCopy, jsonKey);
+      partitions.get(consumer).addVertex(consumerCopy);
+    }
+    return Optional
+        .of(new BoundaryEntry(data.getId(), jsonKey, producer, new ArrayList<>(consumers)));
+  }
+
+  /**
+   * Returns the representative of the unit of the given function (with path
+   * compression).
+   */
+  protected static Task find(final Map<Task, Task> representatives, final Task function) {
+    Task root = function;
+    while (!representatives.get(root).equals(root)) {
+      root = representatives.get(root);
+    }
+    Task current = function;
+    while (!current.equals(root)) {
+      final Task next = representatives.get(current);
+      representatives.put(current, root);
+      current = next;
+    }
+    return root;
+  }
+
+  /**
+   * Merges the units of the given functions.
+   */
+  protected static void union(final Map<Task, Task> representatives, final Task first,
+      final Task second) {
+    final Task firstRoot = find(representatives, first);
+    final Task secondRoot = find(representatives, second);
+    if (!firstRoot.equals(secondRoot)) {
+      representatives.put(secondRoot, firstRoot);
+    }
+  }
+}
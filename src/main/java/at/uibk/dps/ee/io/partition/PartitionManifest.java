@@ -0,0 +1,145 @@
+package at.uibk.dps.ee.io.partition;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@link PartitionManifest} describes how the partitions of an enactment
+ * graph (see {@link GraphPartitioner}) are connected: For each data node
+ * produced in one partition and consumed in others, it lists the producing
+ * partition, the consuming partitions, and the json key under which the data is
+ * exchanged (the key of the leaf in the producing partition and of the roots
+ * in the consuming partitions).
+ *
+ * @author Fedor Smirnov
+ */
+public class PartitionManifest {
+
+  protected List<String> partitionFiles;
+  protected List<Double> loads;
+  protected List<BoundaryEntry> boundaries;
+
+  /**
+   * Default constructor used by Gson.
+   */
+  public PartitionManifest() {
+    this(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+  }
+
+  /**
+   * Creates a manifest with the given content.
+   *
+   * @param partitionFiles the names of the files the partitions are stored in
+   *        (empty if not persisted)
+   * @param loads the estimated function load of each partition
+   * @param boundaries the data exchanged between the partitions
+   */
+  public PartitionManifest(final List<String> partitionFiles, final List<Double> loads,
+      final List<BoundaryEntry> boundaries) {
+    this.partitionFiles = partitionFiles;
+    this.loads = loads;
+    this.boundaries = boundaries;
+  }
+
+  /**
+   * Returns the number of the data edges between the partitions, i.e., the
+   * number of transfers of data from one partition to another.
+   *
+   * @return the number of the data edges between the partitions
+   */
+  public int getCutEdgeNumber() {
+    return boundaries.stream().mapToInt(boundary -> boundary.getConsumers().size()).sum();
+  }
+
+  public List<String> getPartitionFiles() {
+    return partitionFiles;
+  }
+
+  public void setPartitionFiles(final List<String> partitionFiles) {
+    this.partitionFiles = partitionFiles;
+  }
+
+  public List<Double> getLoads() {
+    return loads;
+  }
+
+  public void setLoads(final List<Double> loads) {
+    this.loads = loads;
+  }
+
+  public List<BoundaryEntry> getBoundaries() {
+    return boundaries;
+  }
+
+  public void setBoundaries(final List<BoundaryEntry> boundaries) {
+    this.boundaries = boundaries;
+  }
+
+  /**
+   * A data node exchanged between partitions.
+   *
+   * @author Fedor Smirnov
+   */
+  public static class BoundaryEntry {
+
+    protected String dataId;
+    protected String jsonKey;
+    protected int producer;
+    protected List<Integer> consumers;
+
+    /**
+     * Default constructor used by Gson.
+     */
+    public BoundaryEntry() {
+      this("", "", 0, new ArrayList<>());
+    }
+
+    /**
+     * Creates an entry for the given data node.
+     *
+     * @param dataId the id of the data node
+     * @param jsonKey the key under which the data is exchanged
+     * @param producer the index of the partition producing the data
+     * @param consumers the indices of the partitions consuming the data
+     */
+    public BoundaryEntry(final String dataId, final String jsonKey, final int producer,
+        final List<Integer> consumers) {
+      this.dataId = dataId;
+      this.jsonKey = jsonKey;
+      this.producer = producer;
+      this.consumers = consumers;
+    }
+
+    public String getDataId() {
+      return dataId;
+    }
+
+    public void setDataId(final String dataId) {
+      this.dataId = dataId;
+    }
+
+    public String getJsonKey() {
+      return jsonKey;
+    }
+
+    public void setJsonKey(final String jsonKey) {
+      this.jsonKey = jsonKey;
+    }
+
+    public int getProducer() {
+      return producer;
+    }
+
+    public void setProducer(final int producer) {
+      this.producer = producer;
+    }
+
+    public List<Integer> getConsumers() {
+      return consumers;
+    }
+
+    public void setConsumers(final List<Integer> consumers) {
+      this.consumers = consumers;
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package at.uibk.dps.ee.io.partition;
+
+import java.util.List;
+
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+
+/**
+ * The {@link PartitionedGraph} contains the partitions of an enactment graph,
+ * each of which can be enacted by a separate engine instance, and the manifest
+ * describing the data exchanged between them.
+ *
+ * @author Fedor Smirnov
+ */
+public class PartitionedGraph {
+
+  protected final List<EnactmentGraph> partitions;
+  protected final PartitionManifest manifest;
+
+  /**
+   * Default constructor.
+   *
+   * @param partitions the subgraphs of the partitions
+   * @param manifest the manifest describing the boundaries of the partitions
+   */
+  public PartitionedGraph(final List<EnactmentGraph> partitions,
+      final PartitionManifest manifest) {
+    this.partitions = partitions;
+    this.manifest = manifest;
+  }
+
+  public List<EnactmentGraph> getPartitions() {
+    return partitions;
+  }
+
+  public PartitionManifest getManifest() {
+    return manifest;
+  }
+}
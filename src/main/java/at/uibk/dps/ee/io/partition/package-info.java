@@ -0,0 +1,5 @@
+/**
+ * Package for the classes used to partition the generated enactment graphs so
+ * that their enactment can be distributed over several engine instances.
+ */
+package at.uibk.dps.ee.io.partition;
@@ -0,0 +1,737 @@
+package at.uibk.dps.ee.io.persistance;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+
+import at.uibk.dps.ee.io.persistance.EnactmentGraphSnapshot.LazyAttributes;
+import at.uibk.dps.ee.io.persistance.EnactmentGraphSnapshot.LazyCommunication;
+import at.uibk.dps.ee.io.persistance.EnactmentGraphSnapshot.LazyDependency;
+import at.uibk.dps.ee.io.persistance.EnactmentGraphSnapshot.LazyTask;
+import at.uibk.dps.ee.io.validation.ValidationLevel;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.objects.Condition;
+import at.uibk.dps.ee.model.objects.Condition.CombinedWith;
+import at.uibk.dps.ee.model.objects.Condition.Operator;
+import at.uibk.dps.ee.model.properties.PropertyServiceData.DataType;
+import edu.uci.ics.jung.graph.util.EdgeType;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Element;
+import net.sf.opendse.model.Task;
+
+/**
+ * The {@link EnactmentGraphBinaryIO} is a static method container for reading
+ * and writing {@link EnactmentGraph}s in a compact, versioned binary format
+ * (an alternative to the XML format of {@link EnactmentGraphIO}).
+ *
+ * Layout: magic number, format version, the {@link ValidationLevel} the graph
+ * was validated with, string dictionary (ids, attribute
+ * names, string values), vertices (kind, id, attributes), and edges (id,
+ * source and destination as vertex indices, attributes). All counts and
+ * indices are varint-encoded. The attribute block of each element is prefixed
+ * by its length, so that it can be skipped when reading the topology (see
+ * {@link EnactmentGraphSnapshot}). Attribute values are typed (the conditions
+ * of condition functions have a dedicated tag); values of other serializable
+ * types are stored in their Java-serialized form and can only be read if their
+ * classes are part of the JDK or the enactment model (see
+ * {@link #serializationFilter}).
+ *
+ * @author Fedor Smirnov
+ */
+public final class EnactmentGraphBinaryIO {
+
+  /**
+   * The suffix of files in the binary format.
+   */
+  public static final String fileSuffix = ".eeg";
+
+  protected static final int magicNumber = 0x45454742; // "EEGB"
+  protected static final int formatVersion = 1;
+  // upper bound for the size of the header (magic number, version, level)
+  protected static final int maxHeaderSize = 32;
+
+  // vertex kinds
+  protected static final byte kindTask = 0;
+  protected static final byte kindCommunication = 1;
+
+  // attribute value tags
+  protected static final byte tagString = 0;
+  protected static final byte tagBoolean = 1;
+  protected static final byte tagInteger = 2;
+  protected static final byte tagLong = 3;
+  protected static final byte tagDouble = 4;
+  protected static final byte tagEnum = 5;
+  protected static final byte tagJson = 6;
+  protected static final byte tagSerializable = 7;
+  protected static final byte tagConditions = 8;
+
+  // the classes which may be deserialized from attributes without a dedicated tag
+  protected static final ObjectInputFilter serializationFilter =
+      ObjectInputFilter.Config.createFilter("java.base/*;at.uibk.dps.ee.model.**;!*");
+
+  /**
+   * No constructor.
+   */
+  private EnactmentGraphBinaryIO() {}
+
+  /**
+   * Writes the given enactment graph to the location indicated by the file path.
+   *
+   * @param graph the enactment graph to store
+   * @param filePath the filepath indicating the storage location
+   */
+  public static void writeEnactmentGraph(final EnactmentGraph graph, final String filePath) {
+    writeEnactmentGraph(graph, filePath, ValidationLevel.NONE);
+  }
+
+  /**
+   * Writes the given enactment graph, together with the level it was validated
+   * with, to the location indicated by the file path.
+   *
+   * @param graph the enactment graph to store
+   * @param filePath the filepath indicating the storage location
+   * @param validationLevel the level the graph was validated with
+   */
+  public static void writeEnactmentGraph(final EnactmentGraph graph, final String filePath,
+      final ValidationLevel validationLevel) {
+    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(Paths.get(filePath)))) {
+      writeEnactmentGraph(graph, out, validationLevel);
+    } catch (IOException ioExc) {
+      throw new IllegalStateException("IOException when writing the graph to " + filePath, ioExc);
+    }
+  }
+
+  /**
+   * Reads the level the graph stored at the indicated position was validated
+   * with (only the header of the file is read).
+   *
+   * @param filePath the filepath where the graph is stored
+   * @return the level the stored graph was validated with
+   */
+  public static ValidationLevel readValidationLevel(final String filePath) {
+    try (InputStream in = Files.newInputStream(Paths.get(filePath))) {
+      final ByteBuffer header = ByteBuffer.wrap(in.readNBytes(maxHeaderSize));
+      return readHeader(header);
+    } catch (IOException | BufferUnderflowException exc) {
+      throw new IllegalStateException("Exception when reading the header of " + filePath, exc);
+    }
+  }
+
+  /**
+   * Reads and returns the enactment graph stored at the indicated position.
+   *
+   * @param filePath the filepath where the graph is stored
+   * @return the enactment graph stored at the indicated position
+   */
+  public static EnactmentGraph readEnactmentGraph(final String filePath) {
+    try (InputStream in = new BufferedInputStream(Files.newInputStream(Paths.get(filePath)))) {
+      return readEnactmentGraph(in);
+    } catch (IOException ioExc) {
+      throw new IllegalStateException("IOException when reading the graph from " + filePath,
+          ioExc);
+    }
+  }
+
+  /**
+   * Writes the given enactment graph to the given stream.
+   *
+   * @param graph the enactment graph to store
+   * @param out the output stream
+   * @throws IOException if writing fails
+   */
+  public static void writeEnactmentGraph(final EnactmentGraph graph, final OutputStream out)
+      throws IOException {
+    writeEnactmentGraph(graph, out, ValidationLevel.NONE);
+  }
+
+  /**
+   * Writes the given enactment graph, together with the level it was validated
+   * with, to the given stream.
+   *
+   * @param graph the enactment graph to store
+   * @param out the output stream
+   * @param validationLevel the level the graph was validated with
+   * @throws IOException if writing fails
+   */
+  public static void writeEnactmentGraph(final EnactmentGraph graph, final OutputStream out,
+      final ValidationLevel validationLevel) throws IOException {
+    // the body is written first, so that the dictionary is built on the way
+    final Map<String, Integer> dictionary = new LinkedHashMap<>();
+    final ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream();
+    final DataOutputStream body = new DataOutputStream(bodyBytes);
+    final Map<Task, Integer> vertexIndices = new HashMap<>();
+    writeVarInt(body, graph.getVertexCount());
+    for (final Task task : graph) {
+      vertexIndices.put(task, vertexIndices.size());
+      body.writeByte(task instanceof Communication ? kindCommunication : kindTask);
+      writeString(body, task.getId(), dictionary);
+      writeAttributes(body, task, dictionary);
+    }
+    writeVarInt(body, graph.getEdgeCount());
+    for (final Dependency dependency : graph.getEdges()) {
+      writeString(body, dependency.getId(), dictionary);
+      writeVarInt(body, vertexIndices.get(graph.getSource(dependency)));
+      writeVarInt(body, vertexIndices.get(graph.getDest(dependency)));
+      writeAttributes(body, dependency, dictionary);
+    }
+    body.flush();
+
+    final DataOutputStream data = new DataOutputStream(out);
+    data.writeInt(magicNumber);
+    writeVarInt(data, formatVersion);
+    writeBytes(data, validationLevel.name().getBytes(StandardCharsets.UTF_8));
+    writeVarInt(data, dictionary.size());
+    for (final String entry : dictionary.keySet()) {
+      writeBytes(data, entry.getBytes(StandardCharsets.UTF_8));
+    }
+    bodyBytes.writeTo(data);
+    data.flush();
+  }
+
+  /**
+   * Reads an enactment graph from the given stream.
+   *
+   * @param in the input stream
+   * @return the enactment graph read from the stream
+   * @throws IOException if reading fails or the data is not in the binary format
+   */
+  public static EnactmentGraph readEnactmentGraph(final InputStream in) throws IOException {
+    return readEnactmentGraph(ByteBuffer.wrap(in.readAllBytes()), false);
+  }
+
+  /**
+   * Reads an enactment graph from the given buffer. In the lazy mode, only the
+   * topology is read; the attributes of each element are decoded from the
+   * buffer when they are first accessed.
+   *
+   * @param buffer the buffer containing the graph in the binary format
+   * @param lazy true iff the attributes are to be decoded lazily
+   * @return the enactment graph read from the buffer
+   * @throws IOException if the data is not in the binary format
+   */
+  public static EnactmentGraph readEnactmentGraph(final ByteBuffer buffer, final boolean lazy)
+      throws IOException {
+    try {
+      readHeader(buffer);
+      final StringDictionary dictionary = new StringDictionary(buffer);
+      final EnactmentGraph result = new EnactmentGraph();
+      final int vertexCount = readVarInt(buffer);
+      final List<Task> vertices = new ArrayList<>(vertexCount);
+      for (int idx = 0; idx < vertexCount; idx++) {
+        final byte kind = buffer.get();
+        final String id = dictionary.get(readVarInt(buffer));
+        final Task task;
+        if (lazy) {
+          final LazyAttributes attributes = skipAttributes(buffer, dictionary);
+          task = kind == kindCommunication ? new LazyCommunication(id, attributes)
+              : new LazyTask(id, attributes);
+        } else {
+          task = kind == kindCommunication ? new Communication(id) : new Task(id);
+          readAttributeBlock(buffer, task, dictionary);
+        }
+        vertices.add(task);
+        result.addVertex(task);
+      }
+      final int edgeCount = readVarInt(buffer);
+      for (int idx = 0; idx < edgeCount; idx++) {
+        final String id = dictionary.get(readVarInt(buffer));
+        final Task src = vertices.get(readVarInt(buffer));
+        final Task dst = vertices.get(readVarInt(buffer));
+        final Dependency dependency;
+        if (lazy) {
+          dependency = new LazyDependency(id, skipAttributes(buffer, dictionary));
+        } else {
+          dependency = new Dependency(id);
+          readAttributeBlock(buffer, dependency, dictionary);
+        }
+        result.addEdge(dependency, src, dst, EdgeType.DIRECTED);
+      }
+      return result;
+    } catch (BufferUnderflowException | IndexOutOfBoundsException
+        | IllegalArgumentException exc) {
+      throw new IOException("Truncated or corrupted binary enactment graph.", exc);
+    }
+  }
+
+  /**
+   * Skips the attribute block at the current position of the buffer and returns
+   * the source for its lazy decoding.
+   *
+   * @param buffer the buffer
+   * @param dictionary the string dictionary
+   * @return the source for the lazy decoding of the skipped block
+   * @throws IOException if the block length cannot be read
+   */
+  protected static LazyAttributes skipAttributes(final ByteBuffer buffer,
+      final StringDictionary dictionary) throws IOException {
+    final int length = readVarInt(buffer);
+    final int offset = buffer.position();
+    buffer.position(offset + length);
+    return new LazyAttributes(buffer, offset, dictionary);
+  }
+
+  /**
+   * Writes the attributes of the given element.
+   *
+   * @param out the output
+   * @param element the element
+   * @param dictionary the string dictionary
+   * @throws IOException if writing fails
+   */
+  protected static void writeAttributes(final DataOutputStream out, final Element element,
+      final Map<String, Integer> dictionary) throws IOException {
+    final Map<String, Object> attributes = new LinkedHashMap<>();
+    for (final String name : element.getAttributeNames()) {
+      final Object value = element.getAttribute(name);
+      if (value != null) {
+        attributes.put(name, value);
+      }
+    }
+    final ByteArrayOutputStream blockBytes = new ByteArrayOutputStream();
+    final DataOutputStream block = new DataOutputStream(blockBytes);
+    writeVarInt(block, attributes.size());
+    for (final Map.Entry<String, Object> entry : attributes.entrySet()) {
+      writeString(block, entry.getKey(), dictionary);
+      writeValue(block, entry.getKey(), entry.getValue(), dictionary);
+    }
+    block.flush();
+    writeBytes(out, blockBytes.toByteArray());
+  }
+
+  /**
+   * Writes the given typed attribute value.
+   *
+   * @param out the output
+   * @param name the attribute name (for error messages)
+   * @param value the attribute value
+   * @param dictionary the string dictionary
+   * @throws IOException if writing fails
+   */
+  protected static void writeValue(final DataOutputStream out, final String name,
+      final Object value, final Map<String, Integer> dictionary) throws IOException {
+    if (value instanceof String) {
+      out.writeByte(tagString);
+      writeString(out, (String) value, dictionary);
+    } else if (value instanceof Boolean) {
+      out.writeByte(tagBoolean);
+      out.writeBoolean((Boolean) value);
+    } else if (value instanceof Integer) {
+      out.writeByte(tagInteger);
+      writeVarLong(out, zigZag((Integer) value));
+    } else if (value instanceof Long) {
+      out.writeByte(tagLong);
+      writeVarLong(out, zigZag((Long) value));
+    } else if (value instanceof Double) {
+      out.writeByte(tagDouble);
+      out.writeDouble((Double) value);
+    } else if (value instanceof Enum) {
+      out.writeByte(tagEnum);
+      final Enum<?> enumValue = (Enum<?>) value;
+      writeString(out, enumValue.getDeclaringClass().getName(), dictionary);
+      writeString(out, enumValue.name(), dictionary);
+    } else if (value instanceof JsonElement) {
+      // constants are not worth a dictionary entry
+      out.writeByte(tagJson);
+      writeBytes(out, value.toString().getBytes(StandardCharsets.UTF_8));
+    } else if (isConditionList(value)) {
+      out.writeByte(tagConditions);
+      writeConditions(out, (List<?>) value, dictionary);
+    } else if (value instanceof Serializable) {
+      out.writeByte(tagSerializable);
+      final ByteArrayOutputStream objectBytes = new ByteArrayOutputStream();
+      try (ObjectOutputStream objectOut = new ObjectOutputStream(objectBytes)) {
+        objectOut.writeObject(value);
+      }
+      writeBytes(out, objectBytes.toByteArray());
+    } else {
+      throw new IllegalArgumentException("Attribute " + name + " has the unsupported type "
+          + value.getClass().getCanonicalName());
+    }
+  }
+
+  /**
+   * Returns true iff the given attribute value is a non-empty list of
+   * {@link Condition}s.
+   *
+   * @param value the attribute value
+   * @return true iff the given attribute value is a non-empty list of conditions
+   */
+  protected static boolean isConditionList(final Object value) {
+    return value instanceof List && !((List<?>) value).isEmpty()
+        && ((List<?>) value).stream().allMatch(Condition.class::isInstance);
+  }
+
+  /**
+   * Writes the given list of {@link Condition}s.
+   *
+   * @param out the output
+   * @param conditions the conditions
+   * @param dictionary the string dictionary
+   * @throws IOException if writing fails
+   */
+  protected static void writeConditions(final DataOutputStream out, final List<?> conditions,
+      final Map<String, Integer> dictionary) throws IOException {
+    writeVarInt(out, conditions.size());
+    for (final Object entry : conditions) {
+      final Condition condition = (Condition) entry;
+      writeString(out, condition.getFirstInputId(), dictionary);
+      writeString(out, condition.getSecondInputId(), dictionary);
+      writeString(out, condition.getOperator().name(), dictionary);
+      out.writeBoolean(condition.isNegation());
+      writeString(out, condition.getType().name(), dictionary);
+      writeString(out, condition.getCombinedWith().name(), dictionary);
+    }
+  }
+
+  /**
+   * Reads a list of {@link Condition}s.
+   *
+   * @param buffer the buffer
+   * @param dictionary the string dictionary
+   * @return the list of conditions
+   * @throws IOException if reading fails
+   */
+  protected static List<Condition> readConditions(final ByteBuffer buffer,
+      final StringDictionary dictionary) throws IOException {
+    final int conditionCount = readVarInt(buffer);
+    final List<Condition> result = new ArrayList<>(conditionCount);
+    for (int idx = 0; idx < conditionCount; idx++) {
+      final String firstInputId = dictionary.get(readVarInt(buffer));
+      final String secondInputId = dictionary.get(readVarInt(buffer));
+      final String operator = dictionary.get(readVarInt(buffer));
+      final boolean negation = buffer.get() != 0;
+      final String type = dictionary.get(readVarInt(buffer));
+      final String combinedWith = dictionary.get(readVarInt(buffer));
+      try {
+        result.add(new Condition(firstInputId, secondInputId, Operator.valueOf(operator),
+            negation, DataType.valueOf(type), CombinedWith.valueOf(combinedWith)));
+      } catch (IllegalArgumentException argExc) {
+        throw new IOException("Unknown constant in the condition of " + firstInputId, argExc);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Reads the length-prefixed attribute block at the current position of the
+   * buffer into the given element.
+   *
+   * @param buffer the buffer
+   * @param element the element
+   * @param dictionary the string dictionary
+   * @throws IOException if reading fails
+   */
+  protected static void readAttributeBlock(final ByteBuffer buffer, final Element element,
+      final StringDictionary dictionary) throws IOException {
+    readVarInt(buffer);
+    readAttributes(buffer, element, dictionary);
+  }
+
+  /**
+   * Reads the attributes at the current position of the buffer into the given
+   * element.
+   *
+   * @param buffer the buffer
+   * @param element the element
+   * @param dictionary the string dictionary
+   * @throws IOException if reading fails
+   */
+  protected static void readAttributes(final ByteBuffer buffer, final Element element,
+      final StringDictionary dictionary) throws IOException {
+    final int attributeCount = readVarInt(buffer);
+    for (int idx = 0; idx < attributeCount; idx++) {
+      final String name = dictionary.get(readVarInt(buffer));
+      element.setAttribute(name, readValue(buffer, dictionary));
+    }
+  }
+
+  /**
+   * Reads a typed attribute value.
+   *
+   * @param buffer the buffer
+   * @param dictionary the string dictionary
+   * @return the attribute value
+   * @throws IOException if reading fails
+   */
+  protected static Object readValue(final ByteBuffer buffer, final StringDictionary dictionary)
+      throws IOException {
+    final byte tag = buffer.get();
+    switch (tag) {
+      case tagString:
+        return dictionary.get(readVarInt(buffer));
+      case tagBoolean:
+        return buffer.get() != 0;
+      case tagInteger:
+        return (int) unZigZag(readVarLong(buffer));
+      case tagLong:
+        return unZigZag(readVarLong(buffer));
+      case tagDouble:
+        return buffer.getDouble();
+      case tagEnum:
+        return readEnum(dictionary.get(readVarInt(buffer)), dictionary.get(readVarInt(buffer)));
+      case tagJson:
+        return JsonParser.parseString(new String(readBytes(buffer), StandardCharsets.UTF_8));
+      case tagConditions:
+        return readConditions(buffer, dictionary);
+      case tagSerializable:
+        try (ObjectInputStream objectIn =
+            new ObjectInputStream(new ByteArrayInputStream(readBytes(buffer)))) {
+          objectIn.setObjectInputFilter(serializationFilter);
+          return objectIn.readObject();
+        } catch (ClassNotFoundException exc) {
+          throw new IOException("Unknown class of a serialized attribute.", exc);
+        }
+      default:
+        throw new IOException("Unknown attribute tag " + tag);
+    }
+  }
+
+  /**
+   * Returns the constant of the enum with the given class name.
+   *
+   * @param className the name of the enum class
+   * @param constantName the name of the constant
+   * @return the enum constant
+   * @throws IOException if the enum class is not known
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  protected static Object readEnum(final String className, final String constantName)
+      throws IOException {
+    try {
+      return Enum.valueOf((Class<? extends Enum>) Class.forName(className), constantName);
+    } catch (ClassNotFoundException exc) {
+      throw new IOException("Unknown enum class " + className, exc);
+    }
+  }
+
+  /**
+   * Writes the dictionary index of the given string (adding it to the
+   * dictionary if necessary).
+   *
+   * @param out the output
+   * @param string the string
+   * @param dictionary the string dictionary
+   * @throws IOException if writing fails
+   */
+  protected static void writeString(final DataOutputStream out, final String string,
+      final Map<String, Integer> dictionary) throws IOException {
+    Integer index = dictionary.get(string);
+    if (index == null) {
+      index = dictionary.size();
+      dictionary.put(string, index);
+    }
+    writeVarInt(out, index);
+  }
+
+  /**
+   * Reads the header (magic number, format version, and validation level) from
+   * the given buffer.
+   *
+   * @param buffer the buffer positioned at the start of the graph data
+   * @return the level the graph was validated with
+   * @throws IOException if the data is not in the binary format
+   */
+  protected static ValidationLevel readHeader(final ByteBuffer buffer) throws IOException {
+    if (buffer.getInt() != magicNumber) {
+      throw new IOException("The data is not a binary enactment graph.");
+    }
+    final int version = readVarInt(buffer);
+    if (version != formatVersion) {
+      throw new IOException("Unsupported format version " + version);
+    }
+    final String levelName = new String(readBytes(buffer), StandardCharsets.UTF_8);
+    try {
+      return ValidationLevel.valueOf(levelName);
+    } catch (IllegalArgumentException argExc) {
+      throw new IOException("Unknown validation level " + levelName, argExc);
+    }
+  }
+
+  /**
+   * Writes the given bytes prefixed by their length.
+   *
+   * @param out the output
+   * @param bytes the bytes
+   * @throws IOException if writing fails
+   */
+  protected static void writeBytes(final DataOutputStream out, final byte[] bytes)
+      throws IOException {
+    writeVarInt(out, bytes.length);
+    out.write(bytes);
+  }
+
+  /**
+   * Reads bytes prefixed by their length.
+   *
+   * @param buffer the buffer
+   * @return the read bytes
+   * @throws IOException if reading fails
+   */
+  protected static byte[] readBytes(final ByteBuffer buffer) throws IOException {
+    final byte[] result = new byte[readVarInt(buffer)];
+    buffer.get(result);
+    return result;
+  }
+
+  /**
+   * Writes the given non-negative int as varint.
+   *
+   * @param out the output
+   * @param value the value
+   * @throws IOException if writing fails
+   */
+  protected static void writeVarInt(final DataOutputStream out, final int value)
+      throws IOException {
+    writeVarLong(out, value & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Writes the given long as unsigned varint (7 bits per byte, least
+   * significant group first).
+   *
+   * @param out the output
+   * @param value the value
+   * @throws IOException if writing fails
+   */
+  protected static void writeVarLong(final DataOutputStream out, final long value)
+      throws IOException {
+    long remaining = value;
+    while ((remaining & ~0x7FL) != 0) {
+      out.writeByte((int) ((remaining & 0x7F) | 0x80));
+      remaining >>>= 7;
+    }
+    out.writeByte((int) remaining);
+  }
+
+  /**
+   * Reads a varint which fits into an int.
+   *
+   * @param buffer the buffer
+   * @return the read value
+   * @throws IOException if reading fails
+   */
+  protected static int readVarInt(final ByteBuffer buffer) throws IOException {
+    final long result = readVarLong(buffer);
+    if (result > Integer.MAX_VALUE) {
+      throw new IOException("Varint out of the int range.");
+    }
+    return (int) result;
+  }
+
+  /**
+   * Reads an unsigned varint.
+   *
+   * @param buffer the buffer
+   * @return the read value
+   * @throws IOException if reading fails
+   */
+  protected static long readVarLong(final ByteBuffer buffer) throws IOException {
+    long result = 0;
+    for (int shift = 0; shift < Long.SIZE; shift += 7) {
+      final byte current = buffer.get();
+      result |= (long) (current & 0x7F) << shift;
+      if ((current & 0x80) == 0) {
+        return result;
+      }
+    }
+    throw new IOException("Malformed varint.");
+  }
+
+  /**
+   * Zigzag-encodes the given signed value, so that small negative values have
+   * short varints.
+   *
+   * @param value the signed value
+   * @return the encoded value
+   */
+  protected static long zigZag(final long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  /**
+   * Decodes a zigzag-encoded value.
+   *
+   * @param value the encoded value
+   * @return the signed value
+   */
+  protected static long unZigZag(final long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  /**
+   * The string dictionary of a binary graph. The strings are only located when
+   * the dictionary is read; each string is decoded when it is first requested.
+   *
+   * @author Fedor Smirnov
+   */
+  protected static class StringDictionary {
+
+    protected final ByteBuffer buffer;
+    protected final int[] offsets;
+    protected final int[] lengths;
+    protected final String[] strings;
+
+    /**
+     * Locates the strings of the dictionary at the current position of the
+     * buffer and moves the position behind the dictionary.
+     *
+     * @param buffer the buffer
+     * @throws IOException if the dictionary cannot be read
+     */
+    protected StringDictionary(final ByteBuffer buffer) throws IOException {
+      this.buffer = buffer;
+      final int size = readVarInt(buffer);
+      this.offsets = new int[size];
+      this.lengths = new int[size];
+      this.strings = new String[size];
+      for (int idx = 0; idx < size; idx++) {
+        lengths[idx] = readVarInt(buffer);
+        offsets[idx] = buffer.position();
+        buffer.position(offsets[idx] + lengths[idx]);
+      }
+    }
+
+    /**
+     * Returns the string with the given index.
+     *
+     * @param index the index
+     * @return the string with the given index
+     */
+    protected String get(final int index) {
+      String result = strings[index];
+      if (result == null) {
+        final byte[] bytes = new byte[lengths[index]];
+        final ByteBuffer view = buffer.duplicate();
+        view.position(offsets[index]);
+        view.get(bytes);
+        result = new String(bytes, StandardCharsets.UTF_8);
+        // racing threads decode the same string
+        strings[index] = result;
+      }
+      return result;
+    }
+  }
+}
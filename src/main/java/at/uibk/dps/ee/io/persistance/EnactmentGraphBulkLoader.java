@@ -0,0 +1,85 @@
+package at.uibk.dps.ee.io.persistance;
+
+import java.util.Collection;
+import java.util.stream.IntStream;
+
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import edu.uci.ics.jung.graph.util.EdgeType;
+import edu.uci.ics.jung.graph.util.Pair;
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+/**
+ * The {@link EnactmentGraphBulkLoader} creates {@link EnactmentGraph}s from
+ * complete applications (e.g., read from an XML file) in bulk: the vertices and
+ * edges are copied into pre-sized arrays, the endpoints of all edges are
+ * resolved once, in parallel chunks, and the graph is published afterwards
+ * without any further lookups in the source application.
+ *
+ * @author Fedor Smirnov
+ */
+public final class EnactmentGraphBulkLoader {
+
+  /**
+   * The number of edges resolved by a single parallel task. Graphs with fewer
+   * edges are resolved sequentially.
+   */
+  protected static final int chunkSize = 1 << 13;
+
+  /**
+   * No constructor.
+   */
+  private EnactmentGraphBulkLoader() {}
+
+  /**
+   * Creates an enactment graph corresponding to the given application.
+   *
+   * @param application the given application
+   * @return an enactment graph corresponding to the given application
+   */
+  public static EnactmentGraph load(final Application<Task, Dependency> application) {
+    final Task[] tasks = application.getVertices().toArray(new Task[0]);
+    final Collection<Dependency> edgeCollection = application.getEdges();
+    final Dependency[] edges = edgeCollection.toArray(new Dependency[0]);
+    final Task[] sources = new Task[edges.length];
+    final Task[] destinations = new Task[edges.length];
+    resolveEndpoints(application, edges, sources, destinations);
+    // the JUNG graph is not thread-safe => published by a single thread
+    final EnactmentGraph result = new EnactmentGraph();
+    for (final Task task : tasks) {
+      result.addVertex(task);
+    }
+    for (int idx = 0; idx < edges.length; idx++) {
+      result.addEdge(edges[idx], sources[idx], destinations[idx], EdgeType.DIRECTED);
+    }
+    return result;
+  }
+
+  /**
+   * Resolves the endpoints of the given edges (each endpoint pair is looked up
+   * exactly once). The application is only read, so that the chunks can be
+   * resolved concurrently.
+   *
+   * @param application the application containing the edges
+   * @param edges the edges
+   * @param sources the array filled with the edge sources
+   * @param destinations the array filled with the edge destinations
+   */
+  protected static void resolveEndpoints(final Application<Task, Dependency> application,
+      final Dependency[] edges, final Task[] sources, final Task[] destinations) {
+    final int chunkNumber = (edges.length + chunkSize - 1) / chunkSize;
+    final IntStream chunks = IntStream.range(0, chunkNumber);
+    (chunkNumber > 1 ? chunks.parallel() : chunks).forEach(chunk -> {
+      final int end = Math.min(edges.length, (chunk + 1) * chunkSize);
+      for (int idx = chunk * chunkSize; idx < end; idx++) {
+        final Pair<Task> endpoints = application.getEndpoints(edges[idx]);
+        if (endpoints == null) {
+          throw new IllegalArgumentException("No endpoints for the edge " + edges[idx].getId());
+        }
+        sources[idx] = endpoints.getFirst();
+        destinations[idx] = endpoints.getSecond();
+      }
+    });
+  }
+}
@@ -0,0 +1,339 @@
+package at.uibk.dps.ee.io.persistance;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import at.uibk.dps.ee.io.validation.ValidationLevel;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+
+/**
+ * The {@link EnactmentGraphCache} stores compiled {@link EnactmentGraph}s on
+ * the disk (in the binary format of {@link EnactmentGraphBinaryIO}). Entries are
+ * addressed by a hash over the bytes of the workflow file and the version of
+ * EE-IO which compiled it. The size of the cache is bounded; the least recently
+ * used entries are evicted first.
+ *
+ * @author Fedor Smirnov
+ */
+public class EnactmentGraphCache {
+
+  /**
+   * The prefix of the version used when EE-IO is not run from a jar with a
+   * manifest version (followed by the hash of the compiled classes).
+   */
+  protected static final String developmentVersionPrefix = "dev-";
+  protected static final String classFileSuffix = ".class";
+  protected static final String entrySuffix = EnactmentGraphBinaryIO.fileSuffix;
+  protected static final String tmpSuffix = ".tmp";
+  protected static final String hashAlgorithm = "SHA-256";
+
+  protected final Path cacheDirectory;
+  protected final long maxSizeBytes;
+  protected final String version;
+
+  /**
+   * Default constructor.
+   *
+   * @param cacheDirectory the directory where the cached graphs are stored
+   * @param maxSizeBytes the maximal size (in bytes) of all cache entries
+   */
+  public EnactmentGraphCache(final String cacheDirectory, final long maxSizeBytes) {
+    this(cacheDirectory, maxSizeBytes, getImplementationVersion());
+  }
+
+  /**
+   * Constructor with an explicitly provided version string.
+   *
+   * @param cacheDirectory the directory where the cached graphs are stored
+   * @param maxSizeBytes the maximal size (in bytes) of all cache entries
+   * @param version the version string which is part of the entry key
+   */
+  public EnactmentGraphCache(final String cacheDirectory, final long maxSizeBytes,
+      final String version) {
+    if (maxSizeBytes <= 0) {
+      throw new IllegalArgumentException("The cache size has to be positive.");
+    }
+    this.cacheDirectory = Paths.get(cacheDirectory);
+    this.maxSizeBytes = maxSizeBytes;
+    this.version = version;
+    try {
+      Files.createDirectories(this.cacheDirectory);
+    } catch (IOException ioExc) {
+      throw new IllegalStateException("Cannot create the cache directory " + cacheDirectory,
+          ioExc);
+    }
+  }
+
+  /**
+   * Returns the version of EE-IO which is, by default, part of the entry keys.
+   * Outside of a jar with a manifest version (during development and tests),
+   * the version is derived from a hash over the compiled classes of EE-IO, so
+   * that changes of the compiler invalidate the cached graphs.
+   *
+   * @return the version of EE-IO
+   */
+  public static String getImplementationVersion() {
+    return Optional.ofNullable(EnactmentGraphCache.class.getPackage().getImplementationVersion())
+        .orElseGet(() -> DevelopmentVersion.version);
+  }
+
+  /**
+   * Lazily computed version used outside of a jar with a manifest version.
+   *
+   * @author Fedor Smirnov
+   */
+  protected static final class DevelopmentVersion {
+
+    protected static final String version = computeDevelopmentVersion();
+
+    /**
+     * No constructor.
+     */
+    private DevelopmentVersion() {}
+  }
+
+  /**
+   * Returns the version derived from the hash over the code of EE-IO (the class
+   * files in the directory or the jar EE-IO is loaded from). If the code cannot
+   * be read, a random version is returned, so that cache entries are only
+   * reused within the current process.
+   *
+   * @return the version derived from the code of EE-IO
+   */
+  protected static String computeDevelopmentVersion() {
+    try {
+      final MessageDigest digest = MessageDigest.getInstance(hashAlgorithm);
+      final Path codeLocation = Paths.get(EnactmentGraphCache.class.getProtectionDomain()
+          .getCodeSource().getLocation().toURI());
+      if (Files.isDirectory(codeLocation)) {
+        final List<Path> classFiles;
+        try (Stream<Path> files = Files.walk(codeLocation)) {
+          classFiles = files.filter(file -> file.toString().endsWith(classFileSuffix)).sorted()
+              .collect(Collectors.toList());
+        }
+        for (final Path classFile : classFiles) {
+          digest.update(codeLocation.relativize(classFile).toString()
+              .getBytes(StandardCharsets.UTF_8));
+          digest.update(Files.readAllBytes(classFile));
+        }
+      } else {
+        digest.update(Files.readAllBytes(codeLocation));
+      }
+      return developmentVersionPrefix + toHexString(digest.digest());
+    } catch (IOException | URISyntaxException | NoSuchAlgorithmException
+        | RuntimeException exc) {
+      return developmentVersionPrefix + UUID.randomUUID();
+    }
+  }
+
+  /**
+   * Returns the graph compiled from the given workflow data, if it is in the
+   * cache. Otherwise, an empty optional is returned.
+   *
+   * @param wfData the bytes of the workflow file
+   * @return the cached graph or an empty optional in case of a cache miss
+   */
+  public Optional<EnactmentGraph> lookUp(final byte[] wfData) {
+    return lookUp(wfData, ValidationLevel.NONE);
+  }
+
+  /**
+   * Returns the graph compiled from the given workflow data, if it is in the
+   * cache. Cached graphs stored with a validation level below the required one
+   * are validated; entries failing the validation are treated as misses (and
+   * deleted).
+   *
+   * @param wfData the bytes of the workflow file
+   * @param requiredLevel the required validation level
+   * @return the cached graph or an empty optional in case of a cache miss
+   */
+  public Optional<EnactmentGraph> lookUp(final byte[] wfData,
+      final ValidationLevel requiredLevel) {
+    final Path entry = getEntryPath(wfData);
+    if (!Files.isRegularFile(entry)) {
+      return Optional.empty();
+    }
+    try {
+      final EnactmentGraph result =
+          EnactmentGraphIO.readEnactmentGraph(entry.toString(), requiredLevel);
+      // mark the entry as recently used
+      Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+      return Optional.of(result);
+    } catch (IOException | RuntimeException exc) {
+      // corrupted or concurrently evicted entry => treat as miss
+      deleteEntry(entry);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Stores the graph compiled from the given workflow data and evicts the least
+   * recently used entries if the size bound is exceeded.
+   *
+   * @param wfData the bytes of the workflow file
+   * @param graph the graph compiled from the workflow data
+   */
+  public void store(final byte[] wfData, final EnactmentGraph graph) {
+    store(wfData, graph, ValidationLevel.NONE);
+  }
+
+  /**
+   * Stores the graph compiled from the given workflow data, together with the
+   * level it was validated with, and evicts the least recently used entries if
+   * the size bound is exceeded.
+   *
+   * @param wfData the bytes of the workflow file
+   * @param graph the graph compiled from the workflow data
+   * @param validationLevel the level the graph was validated with
+   */
+  public void store(final byte[] wfData, final EnactmentGraph graph,
+      final ValidationLevel validationLevel) {
+    final Path entry = getEntryPath(wfData);
+    final Path tmpFile = entry.resolveSibling(entry.getFileName() + tmpSuffix);
+    try {
+      // write to a tmp file first, so that concurrent readers never see a partial
+      // entry
+      EnactmentGraphBinaryIO.writeEnactmentGraph(graph, tmpFile.toString(), validationLevel);
+      Files.move(tmpFile, entry, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException ioExc) {
+      deleteEntry(tmpFile);
+      throw new IllegalStateException("IOException when storing cache entry " + entry, ioExc);
+    }
+    evict(entry);
+  }
+
+  /**
+   * Deletes the least recently used entries until the size of the cache is
+   * within the bound. The entry which was just written is never evicted.
+   *
+   * @param protectedEntry the entry which was just written
+   */
+  protected void evict(final Path protectedEntry) {
+    final List<Path> entries = getEntries();
+    long totalSize = entries.stream().mapToLong(this::getSize).sum();
+    for (final Path entry : entries) {
+      if (totalSize <= maxSizeBytes) {
+        return;
+      }
+      if (entry.equals(protectedEntry)) {
+        continue;
+      }
+      totalSize -= getSize(entry);
+      deleteEntry(entry);
+    }
+  }
+
+  /**
+   * Returns the cache entries, ordered from the least to the most recently used.
+   *
+   * @return the cache entries, ordered from the least to the most recently used
+   */
+  protected List<Path> getEntries() {
+    try (Stream<Path> files = Files.list(cacheDirectory)) {
+      return files.filter(file -> file.getFileName().toString().endsWith(entrySuffix))
+          .sorted(Comparator.comparingLong(this::getLastUsed)).collect(Collectors.toList());
+    } catch (IOException ioExc) {
+      return new ArrayList<>();
+    }
+  }
+
+  /**
+   * Returns the path of the cache entry for the given workflow data.
+   *
+   * @param wfData the bytes of the workflow file
+   * @return the path of the cache entry for the given workflow data
+   */
+  protected Path getEntryPath(final byte[] wfData) {
+    return cacheDirectory.resolve(getKey(wfData) + entrySuffix);
+  }
+
+  /**
+   * Returns the key of the given workflow data, i.e., the hex string of the hash
+   * over the EE-IO version and the workflow bytes.
+   *
+   * @param wfData the bytes of the workflow file
+   * @return the key of the given workflow data
+   */
+  protected String getKey(final byte[] wfData) {
+    try {
+      final MessageDigest digest = MessageDigest.getInstance(hashAlgorithm);
+      digest.update(version.getBytes(StandardCharsets.UTF_8));
+      digest.update(wfData);
+      return toHexString(digest.digest());
+    } catch (NoSuchAlgorithmException exc) {
+      throw new IllegalStateException("Hash algorithm " + hashAlgorithm + " not available.", exc);
+    }
+  }
+
+  /**
+   * Returns the hex string of the given hash.
+   *
+   * @param hash the given hash
+   * @return the hex string of the given hash
+   */
+  protected static String toHexString(final byte[] hash) {
+    final StringBuilder result = new StringBuilder();
+    for (final byte hashByte : hash) {
+      result.append(String.format("%02x", hashByte));
+    }
+    return result.toString();
+  }
+
+  /**
+   * Returns the size of the given entry (0 if the entry cannot be accessed).
+   *
+   * @param entry the given entry
+   * @return the size of the given entry
+   */
+  protected long getSize(final Path entry) {
+    try {
+      return Files.size(entry);
+    } catch (IOException ioExc) {
+      return 0L;
+    }
+  }
+
+  /**
+   * Returns the time the given entry was last used (0 if the entry cannot be
+   * accessed).
+   *
+   * @param entry the given entry
+   * @return the time the given entry was last used
+   */
+  protected long getLastUsed(final Path entry) {
+    try {
+      return Files.getLastModifiedTime(entry).toMillis();
+    } catch (IOException ioExc) {
+      return 0L;
+    }
+  }
+
+  /**
+   * Deletes the given entry (if present).
+   *
+   * @param entry the given entry
+   */
+  protected void deleteEntry(final Path entry) {
+    try {
+      Files.deleteIfExists(entry);
+    } catch (IOException ioExc) {
+      // entry used by another process, will be evicted later
+    }
+  }
+}
@@ -1,13 +1,23 @@
 package at.uibk.dps.ee.io.persistance;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gson.Gson;
+
+import at.uibk.dps.ee.io.partition.GraphPartitioner;
+import at.uibk.dps.ee.io.partition.PartitionManifest;
+import at.uibk.dps.ee.io.partition.PartitionedGraph;
+import at.uibk.dps.ee.io.validation.GraphValidation;
+import at.uibk.dps.ee.io.validation.ValidationLevel;
 import at.uibk.dps.ee.model.graph.EnactmentGraph;
-import edu.uci.ics.jung.graph.util.EdgeType;
 import net.sf.opendse.io.SpecificationReader;
-import net.sf.opendse.io.SpecificationWriter;
 import net.sf.opendse.model.Application;
-import net.sf.opendse.model.Architecture;
 import net.sf.opendse.model.Dependency;
-import net.sf.opendse.model.Mappings;
 import net.sf.opendse.model.Specification;
 import net.sf.opendse.model.Task;
 
@@ -20,6 +30,11 @@ import net.sf.opendse.model.Task;
  */
 public final class EnactmentGraphIO {
 
+  /**
+   * The name of the file the manifest of a partitioned graph is stored in.
+   */
+  public static final String manifestFileName = "manifest.json";
+
   /**
    * No constructor.
    */
@@ -27,47 +42,178 @@ public final class EnactmentGraphIO {
 
   /**
    * Writes the given enactment graph to the location indicated by the file path.
+   * Files with the suffix {@value EnactmentGraphBinaryIO#fileSuffix} are written
+   * in the binary format, all other files in the XML format (streamed, see
+   * {@link EnactmentGraphXmlIO}).
    * 
    * @param graph the enactment graph to store
    * @param filePath the filepath indicating the storage location.
    */
   public static void writeEnactmentGraph(final EnactmentGraph graph, final String filePath) {
-    final Specification spec = new Specification(graph, new Architecture<>(), new Mappings<>());
-    final SpecificationWriter writer = new SpecificationWriter();
-    writer.write(spec, filePath);
+    writeEnactmentGraph(graph, filePath, ValidationLevel.NONE);
+  }
+
+  /**
+   * Writes the given enactment graph, together with the level it was validated
+   * with, to the location indicated by the file path (format chosen as in
+   * {@link #writeEnactmentGraph(EnactmentGraph, String)}).
+   * 
+   * @param graph the enactment graph to store
+   * @param filePath the filepath indicating the storage location.
+   * @param validationLevel the level the graph was validated with
+   */
+  public static void writeEnactmentGraph(final EnactmentGraph graph, final String filePath,
+      final ValidationLevel validationLevel) {
+    if (filePath.endsWith(EnactmentGraphBinaryIO.fileSuffix)) {
+      EnactmentGraphBinaryIO.writeEnactmentGraph(graph, filePath, validationLevel);
+      return;
+    }
+    EnactmentGraphXmlIO.writeEnactmentGraph(graph, filePath, validationLevel);
+  }
+
+  /**
+   * Reads the level the graph stored at the indicated position was validated
+   * with. Only the header (binary format) or the prolog (XML format) of the file
+   * is read; graphs written without a level are treated as not validated.
+   * 
+   * @param filePath the filepath where the graph is stored
+   * @return the level the stored graph was validated with
+   */
+  public static ValidationLevel readValidationLevel(final String filePath) {
+    if (filePath.endsWith(EnactmentGraphBinaryIO.fileSuffix)) {
+      return EnactmentGraphBinaryIO.readValidationLevel(filePath);
+    }
+    return EnactmentGraphXmlIO.readValidationLevel(filePath);
+  }
+
+  /**
+   * Reads the enactment graph stored at the indicated position and validates it
+   * with the required level, unless it was stored with a level covering the
+   * required one.
+   * 
+   * @param filePath the filepath where the graph is stored
+   * @param requiredLevel the required validation level
+   * @return the enactment graph stored at the indicated position
+   */
+  public static EnactmentGraph readEnactmentGraph(final String filePath,
+      final ValidationLevel requiredLevel) {
+    final boolean trusted = requiredLevel.equals(ValidationLevel.NONE)
+        || readValidationLevel(filePath).covers(requiredLevel);
+    final EnactmentGraph result = readEnactmentGraph(filePath);
+    if (!trusted) {
+      GraphValidation.validateGraph(result, requiredLevel);
+    }
+    return result;
   }
 
   /**
-   * Reads and returns the enactment graph stored at the indicated position.
+   * Reads and returns the enactment graph stored at the indicated position. Files
+   * with the suffix {@value EnactmentGraphBinaryIO#fileSuffix} are read in the
+   * binary format, all other files in the XML format (streamed, see
+   * {@link EnactmentGraphXmlIO}).
    * 
    * @param filePath the filepath where the graph is stored
    * @return the enactment graph stored at the indicated position
    */
   public static EnactmentGraph readEnactmentGraph(final String filePath) {
+    if (filePath.endsWith(EnactmentGraphBinaryIO.fileSuffix)) {
+      return EnactmentGraphBinaryIO.readEnactmentGraph(filePath);
+    }
+    return EnactmentGraphXmlIO.readEnactmentGraph(filePath);
+  }
+
+  /**
+   * Reads the enactment graph from the XML file at the indicated position with
+   * the OpenDSE {@link SpecificationReader} (builds the complete specification
+   * before creating the graph).
+   * 
+   * @param filePath the filepath where the graph is stored
+   * @return the enactment graph stored at the indicated position
+   */
+  public static EnactmentGraph readEnactmentGraphSpecification(final String filePath) {
     final SpecificationReader reader = new SpecificationReader();
     final Specification spec = reader.read(filePath);
     return application2EnactmentGraph(spec.getApplication());
   }
 
   /**
-   * Creates an enactment graph corresponding to the given application.
+   * Opens the graph snapshot (a graph stored in the binary format) at the
+   * indicated position. The file is memory-mapped; the attributes of the graph
+   * elements are decoded when they are first accessed.
+   * 
+   * @param filePath the filepath where the snapshot is stored
+   * @return the enactment graph backed by the snapshot
+   */
+  public static EnactmentGraph openSnapshot(final String filePath) {
+    return EnactmentGraphSnapshot.open(filePath);
+  }
+
+  /**
+   * Creates an enactment graph corresponding to the given application (bulk
+   * construction, see {@link EnactmentGraphBulkLoader}).
    * 
    * @param application the given application
    * @return an enactment graph corresponding to the given application
    */
   protected static EnactmentGraph application2EnactmentGraph(
       final Application<Task, Dependency> application) {
-    final EnactmentGraph result = new EnactmentGraph();
-    // add the nodes
-    for (final Task task : application) {
-      result.addVertex(task);
+    return EnactmentGraphBulkLoader.load(application);
+  }
+
+  /**
+   * Writes the partitions of a graph (see {@link GraphPartitioner}) to the
+   * given directory: each partition is written to an own graph file (format
+   * chosen by the given suffix as in
+   * {@link #writeEnactmentGraph(EnactmentGraph, String)}), and the manifest,
+   * listing the files, to the file {@value #manifestFileName}.
+   * 
+   * @param partitionedGraph the partitioned graph
+   * @param directoryPath the path to the directory the partitions are written
+   *        to
+   * @param fileSuffix the suffix of the graph files
+   */
+  public static void writePartitions(final PartitionedGraph partitionedGraph,
+      final String directoryPath, final String fileSuffix) {
+    final Path directory = Paths.get(directoryPath);
+    final List<String> partitionFiles = new ArrayList<>();
+    try {
+      Files.createDirectories(directory);
+      for (int idx = 0; idx < partitionedGraph.getPartitions().size(); idx++) {
+        final String fileName = "partition" + idx + fileSuffix;
+        writeEnactmentGraph(partitionedGraph.getPartitions().get(idx),
+            directory.resolve(fileName).toString());
+        partitionFiles.add(fileName);
+      }
+      final PartitionManifest manifest = partitionedGraph.getManifest();
+      manifest.setPartitionFiles(partitionFiles);
+      Files.writeString(directory.resolve(manifestFileName), new Gson().toJson(manifest));
+    } catch (IOException ioExc) {
+      throw new IllegalStateException("IOException when trying to write the partitions.", ioExc);
     }
-    // add the edges
-    for (final Dependency dep : application.getEdges()) {
-      final Task src = application.getEndpoints(dep).getFirst();
-      final Task dst = application.getEndpoints(dep).getSecond();
-      result.addEdge(dep, src, dst, EdgeType.DIRECTED);
+  }
+
+  /**
+   * Reads the partitions of a graph written with
+   * {@link #writePartitions(PartitionedGraph, String, String)} from the given
+   * directory.
+   * 
+   * @param directoryPath the path to the directory the partitions are stored in
+   * @return the partitioned graph
+   */
+  public static PartitionedGraph readPartitions(final String directoryPath) {
+    final Path directory = Paths.get(directoryPath);
+    final PartitionManifest manifest;
+    try {
+      manifest = new Gson().fromJson(Files.readString(directory.resolve(manifestFileName)),
+          PartitionManifest.class);
+    } catch (IOException ioExc) {
+      throw new IllegalStateException("IOException when trying to read the partition manifest.",
+          ioExc);
     }
-    return result;
+    final List<EnactmentGraph> partitions = new ArrayList<>();
+    for (final String fileName : manifest.getPartitionFiles()) {
+      partitions.add(readEnactmentGraph(directory.resolve(fileName).toString()));
+    }
+    return new PartitionedGraph(partitions, manifest);
   }
 }
@@ -0,0 +1,269 @@
+package at.uibk.dps.ee.io.persistance;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import at.uibk.dps.ee.io.persistance.EnactmentGraphBinaryIO.StringDictionary;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import net.sf.opendse.model.Attributes;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Element;
+import net.sf.opendse.model.Task;
+
+/**
+ * The {@link EnactmentGraphSnapshot} opens graphs stored in the binary format
+ * of {@link EnactmentGraphBinaryIO} as read-only snapshots: the file is mapped
+ * into memory, the topology is read immediately, and the attributes of each
+ * element are decoded from the mapped file when they are first accessed. The
+ * mapping is backed by the page cache, so that processes opening the same
+ * snapshot share its memory.
+ *
+ * @author Fedor Smirnov
+ */
+public final class EnactmentGraphSnapshot {
+
+  /**
+   * No constructor.
+   */
+  private EnactmentGraphSnapshot() {}
+
+  /**
+   * Opens the graph snapshot stored at the given path.
+   *
+   * @param filePath the path to the snapshot file (binary format)
+   * @return the graph with lazily decoded attributes
+   */
+  public static EnactmentGraph open(final String filePath) {
+    try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+      // the mapping stays valid after the channel is closed
+      final MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+      return EnactmentGraphBinaryIO.readEnactmentGraph(buffer, true);
+    } catch (IOException ioExc) {
+      throw new IllegalStateException("IOException when opening the snapshot " + filePath,
+          ioExc);
+    }
+  }
+
+  /**
+   * The not yet decoded attributes of an element of a snapshot.
+   *
+   * @author Fedor Smirnov
+   */
+  protected static class LazyAttributes {
+
+    protected final ByteBuffer buffer;
+    protected final int offset;
+    protected final StringDictionary dictionary;
+    protected volatile boolean decoded;
+    protected boolean decoding;
+
+    /**
+     * Default constructor.
+     *
+     * @param buffer the buffer containing the snapshot
+     * @param offset the offset of the attributes within the buffer
+     * @param dictionary the string dictionary of the snapshot
+     */
+    protected LazyAttributes(final ByteBuffer buffer, final int offset,
+        final StringDictionary dictionary) {
+      this.buffer = buffer;
+      this.offset = offset;
+      this.dictionary = dictionary;
+    }
+
+    /**
+     * Decodes the given attributes into the given element (if not done yet)
+     * and then performs the given access to the attributes of the element. The
+     * lazy elements route all their attribute accesses through this method.
+     * Nothing is decoded if the lazy attributes are not set yet (attribute
+     * access during the construction of the element).
+     *
+     * @param <O> the type of the access result
+     * @param attributes the lazy attributes of the element
+     * @param element the element
+     * @param access the access to the (decoded) attributes of the element
+     * @return the result of the access
+     */
+    protected static <O> O access(final LazyAttributes attributes, final Element element,
+        final Supplier<O> access) {
+      if (attributes != null) {
+        attributes.decodeInto(element);
+      }
+      return access.get();
+    }
+
+    /**
+     * Decodes the attributes into the given element (if not done yet). Threads
+     * accessing the element during the decoding wait until it is finished.
+     *
+     * @param element the element which the attributes belong to
+     */
+    protected void decodeInto(final Element element) {
+      if (decoded) {
+        return;
+      }
+      synchronized (this) {
+        // decoding => the element is setting its own attributes
+        if (decoded || decoding) {
+          return;
+        }
+        decoding = true;
+        try {
+          final ByteBuffer view = buffer.duplicate();
+          view.position(offset);
+          EnactmentGraphBinaryIO.readAttributes(view, element, dictionary);
+        } catch (IOException ioExc) {
+          throw new UncheckedIOException(
+              "IOException when decoding the attributes of " + element.getId(), ioExc);
+        } finally {
+          decoding = false;
+        }
+        decoded = true;
+      }
+    }
+  }
+
+  /**
+   * Task (process node) of a snapshot.
+   *
+   * @author Fedor Smirnov
+   */
+  protected static class LazyTask extends Task {
+
+    private static final long serialVersionUID = 1L;
+
+    protected final transient LazyAttributes lazyAttributes;
+
+    protected LazyTask(final String id, final LazyAttributes lazyAttributes) {
+      super(id);
+      this.lazyAttributes = lazyAttributes;
+    }
+
+    @Override
+    public <O> O getAttribute(final String identifier) {
+      return LazyAttributes.access(lazyAttributes, this, () -> super.<O>getAttribute(identifier));
+    }
+
+    @Override
+    public Set<String> getAttributeNames() {
+      return LazyAttributes.access(lazyAttributes, this, super::getAttributeNames);
+    }
+
+    @Override
+    public Attributes getAttributes() {
+      return LazyAttributes.access(lazyAttributes, this, super::getAttributes);
+    }
+
+    @Override
+    public boolean isDefined(final String identifier) {
+      return LazyAttributes.access(lazyAttributes, this, () -> super.isDefined(identifier));
+    }
+
+    @Override
+    public void setAttribute(final String identifier, final Object object) {
+      LazyAttributes.access(lazyAttributes, this, () -> {
+        super.setAttribute(identifier, object);
+        return null;
+      });
+    }
+  }
+
+  /**
+   * Communication (data node) of a snapshot.
+   *
+   * @author Fedor Smirnov
+   */
+  protected static class LazyCommunication extends Communication {
+
+    private static final long serialVersionUID = 1L;
+
+    protected final transient LazyAttributes lazyAttributes;
+
+    protected LazyCommunication(final String id, final LazyAttributes lazyAttributes) {
+      super(id);
+      this.lazyAttributes = lazyAttributes;
+    }
+
+    @Override
+    public <O> O getAttribute(final String identifier) {
+      return LazyAttributes.access(lazyAttributes, this, () -> super.<O>getAttribute(identifier));
+    }
+
+    @Override
+    public Set<String> getAttributeNames() {
+      return LazyAttributes.access(lazyAttributes, this, super::getAttributeNames);
+    }
+
+    @Override
+    public Attributes getAttributes() {
+      return LazyAttributes.access(lazyAttributes, this, super::getAttributes);
+    }
+
+    @Override
+    public boolean isDefined(final String identifier) {
+      return LazyAttributes.access(lazyAttributes, this, () -> super.isDefined(identifier));
+    }
+
+    @Override
+    public void setAttribute(final String identifier, final Object object) {
+      LazyAttributes.access(lazyAttributes, this, () -> {
+        super.setAttribute(identifier, object);
+        return null;
+      });
+    }
+  }
+
+  /**
+   * Dependency (edge) of a snapshot.
+   *
+   * @author Fedor Smirnov
+   */
+  protected static class LazyDependency extends Dependency {
+
+    private static final long serialVersionUID = 1L;
+
+    protected final transient LazyAttributes lazyAttributes;
+
+    protected LazyDependency(final String id, final LazyAttributes lazyAttributes) {
+      super(id);
+      this.lazyAttributes = lazyAttributes;
+    }
+
+    @Override
+    public <O> O getAttribute(final String identifier) {
+      return LazyAttributes.access(lazyAttributes, this, () -> super.<O>getAttribute(identifier));
+    }
+
+    @Override
+    public Set<String> getAttributeNames() {
+      return LazyAttributes.access(lazyAttributes, this, super::getAttributeNames);
+    }
+
+    @Override
+    public Attributes getAttributes() {
+      return LazyAttributes.access(lazyAttributes, this, super::getAttributes);
+    }
+
+    @Override
+    public boolean isDefined(final String identifier) {
+      return LazyAttributes.access(lazyAttributes, this, () -> super.isDefined(identifier));
+    }
+
+    @Override
+    public void setAttribute(final String identifier, final Object object) {
+      LazyAttributes.access(lazyAttributes, this, () -> {
+        super.setAttribute(identifier, object);
+        return null;
+      });
+    }
+  }
+}
@@ -0,0 +1,773 @@
+package at.uibk.dps.ee.io.persistance;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+
+import at.uibk.dps.ee.io.validation.ValidationLevel;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import edu.uci.ics.jung.graph.util.EdgeType;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Element;
+import net.sf.opendse.model.Task;
+
+/**
+ * The {@link EnactmentGraphXmlIO} is a static method container for reading
+ * and writing {@link EnactmentGraph}s in the XML format of OpenDSE
+ * specifications with a streaming (StAX) parser. In contrast to the
+ * {@link net.sf.opendse.io.SpecificationReader}, no DOM and no intermediate
+ * specification are created: vertices are added to the graph as soon as
+ * their element is closed, and edges are wired as soon as both of their
+ * endpoints are known.
+ *
+ * Only the application part of the specification is considered (the
+ * architecture, mappings, and routings of enactment graphs are empty);
+ * function annotations are skipped when reading and not written, since
+ * OpenDSE derives them from the graph.
+ *
+ * @author Fedor Smirnov
+ */
+public final class EnactmentGraphXmlIO {
+
+  protected static final String namespace = "http://opendse.sourceforge.net";
+  protected static final String schemaNamespace = "http://www.w3.org/2001/XMLSchema-instance";
+  protected static final String schemaLocation =
+      "http://opendse.sourceforge.net http://opendse.sourceforge.net/schema.xsd";
+
+  // element names
+  protected static final String elemSpecification = "specification";
+  protected static final String elemArchitecture = "architecture";
+  protected static final String elemApplication = "application";
+  protected static final String elemMappings = "mappings";
+  protected static final String elemRoutings = "routings";
+  protected static final String elemRouting = "routing";
+  protected static final String elemTask = "task";
+  protected static final String elemCommunication = "communication";
+  protected static final String elemDependency = "dependency";
+  protected static final String elemAttributes = "attributes";
+  protected static final String elemAttribute = "attribute";
+
+  // type names of the primitive attribute types
+  protected static final String typeString = "STRING";
+  protected static final String typeBoolean = "BOOL";
+  protected static final String typeInteger = "INT";
+  protected static final String typeDouble = "DOUBLE";
+
+  protected static final String orientationDirected = "DIRECTED";
+
+  // processing instruction recording the validation level (ignored by OpenDSE)
+  protected static final String piTarget = "ee-io";
+  protected static final String piValidation = "validation";
+
+  /**
+   * No constructor.
+   */
+  private EnactmentGraphXmlIO() {}
+
+  /**
+   * Writes the given enactment graph to the given file.
+   *
+   * @param graph the enactment graph
+   * @param filePath the path of the file
+   */
+  public static void writeEnactmentGraph(final EnactmentGraph graph, final String filePath) {
+    writeEnactmentGraph(graph, filePath, ValidationLevel.NONE);
+  }
+
+  /**
+   * Writes the given enactment graph, together with the level it was validated
+   * with, to the given file.
+   *
+   * @param graph the enactment graph
+   * @param filePath the path of the file
+   * @param validationLevel the level the graph was validated with
+   */
+  public static void writeEnactmentGraph(final EnactmentGraph graph, final String filePath,
+      final ValidationLevel validationLevel) {
+    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(Paths.get(filePath)))) {
+      writeEnactmentGraph(graph, out, validationLevel);
+    } catch (IOException ioExc) {
+      throw new IllegalStateException("IOException when writing the graph to " + filePath,
+          ioExc);
+    }
+  }
+
+  /**
+   * Writes the given enactment graph to the given output stream (the stream is
+   * not closed).
+   *
+   * @param graph the enactment graph
+   * @param out the output stream
+   * @throws IOException if writing fails
+   */
+  public static void writeEnactmentGraph(final EnactmentGraph graph, final OutputStream out)
+      throws IOException {
+    writeEnactmentGraph(graph, out, ValidationLevel.NONE);
+  }
+
+  /**
+   * Writes the given enactment graph to the given output stream (the stream is
+   * not closed). The level the graph was validated with is written as a
+   * processing instruction before the specification element.
+   *
+   * @param graph the enactment graph
+   * @param out the output stream
+   * @param validationLevel the level the graph was validated with
+   * @throws IOException if writing fails
+   */
+  public static void writeEnactmentGraph(final EnactmentGraph graph, final OutputStream out,
+      final ValidationLevel validationLevel) throws IOException {
+    try {
+      final XMLStreamWriter writer = XMLOutputFactory.newInstance()
+          .createXMLStreamWriter(out, StandardCharsets.UTF_8.name());
+      final IndentingWriter indenting = new IndentingWriter(writer);
+      writer.setDefaultNamespace(namespace);
+      writer.setPrefix("xsi", schemaNamespace);
+      writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+      indenting.processingInstruction(piTarget,
+          piValidation + "=\"" + validationLevel.name() + "\"");
+      indenting.start(elemSpecification);
+      writer.writeDefaultNamespace(namespace);
+      writer.writeNamespace("xsi", schemaNamespace);
+      writer.writeAttribute(schemaNamespace, "schemaLocation", schemaLocation);
+      indenting.empty(elemArchitecture);
+      indenting.start(elemApplication);
+      for (final Task task : graph) {
+        indenting.start(task instanceof Communication ? elemCommunication : elemTask);
+        writer.writeAttribute("id", task.getId());
+        writeAttributes(indenting, task);
+        indenting.end();
+      }
+      for (final Dependency dependency : graph.getEdges()) {
+        indenting.start(elemDependency);
+        writer.writeAttribute("id", dependency.getId());
+        writer.writeAttribute("source", graph.getSource(dependency).getId());
+        writer.writeAttribute("destination", graph.getDest(dependency).getId());
+        writer.writeAttribute("orientation", orientationDirected);
+        writeAttributes(indenting, dependency);
+        indenting.end();
+      }
+      indenting.end();
+      indenting.empty(elemMappings);
+      indenting.start(elemRoutings);
+      for (final Task task : graph) {
+        if (task instanceof Communication) {
+          indenting.empty(elemRouting);
+          writer.writeAttribute("source", task.getId());
+        }
+      }
+      indenting.end();
+      indenting.end();
+      writer.writeEndDocument();
+      writer.flush();
+      writer.close();
+    } catch (XMLStreamException xmlExc) {
+      throw new IOException("XML exception when writing the graph", xmlExc);
+    }
+  }
+
+  /**
+   * Reads the enactment graph stored in the given file.
+   *
+   * @param filePath the path to the file
+   * @return the enactment graph stored in the file
+   */
+  public static EnactmentGraph readEnactmentGraph(final String filePath) {
+    try (InputStream in = new BufferedInputStream(Files.newInputStream(Paths.get(filePath)))) {
+      return readEnactmentGraph(in);
+    } catch (IOException ioExc) {
+      throw new IllegalStateException("IOException when reading the graph from " + filePath,
+          ioExc);
+    }
+  }
+
+  /**
+   * Reads the level the graph stored in the given file was validated with (only
+   * the prolog of the file is read). Files without the level are treated as not
+   * validated.
+   *
+   * @param filePath the path to the file
+   * @return the level the stored graph was validated with
+   */
+  public static ValidationLevel readValidationLevel(final String filePath) {
+    try (InputStream in = new BufferedInputStream(Files.newInputStream(Paths.get(filePath)))) {
+      final XMLInputFactory factory = XMLInputFactory.newInstance();
+      factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+      factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+      final XMLStreamReader reader = factory.createXMLStreamReader(in);
+      try {
+        while (reader.hasNext()) {
+          final int event = reader.next();
+          if (event == XMLStreamConstants.START_ELEMENT) {
+            break;
+          }
+          if (event == XMLStreamConstants.PROCESSING_INSTRUCTION
+              && piTarget.equals(reader.getPITarget())) {
+            return parseValidationLevel(reader.getPIData());
+          }
+        }
+        return ValidationLevel.NONE;
+      } finally {
+        reader.close();
+      }
+    } catch (IOException | XMLStreamException exc) {
+      throw new IllegalStateException("Exception when reading the prolog of " + filePath, exc);
+    }
+  }
+
+  /**
+   * Parses the validation level from the data of the processing instruction.
+   *
+   * @param data the data of the processing instruction
+   * @return the validation level
+   */
+  protected static ValidationLevel parseValidationLevel(final String data) {
+    final String prefix = piValidation + "=\"";
+    final int start = data.indexOf(prefix);
+    if (start < 0) {
+      return ValidationLevel.NONE;
+    }
+    final int valueStart = start + prefix.length();
+    final int valueEnd = data.indexOf('"', valueStart);
+    if (valueEnd < 0) {
+      throw new IllegalArgumentException("Malformed processing instruction: " + data);
+    }
+    return ValidationLevel.valueOf(data.substring(valueStart, valueEnd));
+  }
+
+  /**
+   * Reads the enactment graph from the given input stream (the stream is not
+   * closed).
+   *
+   * @param in the input stream
+   * @return the enactment graph read from the stream
+   * @throws IOException if reading fails or the content does not describe an
+   *         enactment graph
+   */
+  public static EnactmentGraph readEnactmentGraph(final InputStream in) throws IOException {
+    final XMLInputFactory factory = XMLInputFactory.newInstance();
+    // no external entities in graph files
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    try {
+      final XMLStreamReader reader = factory.createXMLStreamReader(in);
+      final EnactmentGraph result = new EnactmentGraph();
+      final List<PendingEdge> pendingEdges = new ArrayList<>();
+      boolean inApplication = false;
+      while (reader.hasNext()) {
+        final int event = reader.next();
+        if (event == XMLStreamConstants.START_ELEMENT) {
+          final String name = reader.getLocalName();
+          if (elemApplication.equals(name)) {
+            inApplication = true;
+          } else if (!inApplication) {
+            continue;
+          } else if (elemTask.equals(name)) {
+            result.addVertex(readElement(reader, new Task(getRequired(reader, "id"))));
+          } else if (elemCommunication.equals(name)) {
+            result.addVertex(readElement(reader, new Communication(getRequired(reader, "id"))));
+          } else if (elemDependency.equals(name)) {
+            readDependency(reader, result, pendingEdges);
+          } else {
+            // functions and unknown content
+            skipElement(reader);
+          }
+        } else if (event == XMLStreamConstants.END_ELEMENT
+            && elemApplication.equals(reader.getLocalName())) {
+          inApplication = false;
+        }
+      }
+      reader.close();
+      for (final PendingEdge pending : pendingEdges) {
+        addEdge(result, pending);
+      }
+      return result;
+    } catch (XMLStreamException xmlExc) {
+      throw new IOException("XML exception when reading the graph", xmlExc);
+    }
+  }
+
+  /**
+   * Reads the dependency element at the current position of the reader and
+   * adds it to the graph (or remembers it, if its endpoints are not read yet).
+   *
+   * @param reader the reader positioned at the start of the dependency element
+   * @param graph the graph being built
+   * @param pendingEdges the edges which are added after the whole graph is read
+   * @throws XMLStreamException if reading fails
+   * @throws IOException if the dependency is malformed
+   */
+  protected static void readDependency(final XMLStreamReader reader, final EnactmentGraph graph,
+      final List<PendingEdge> pendingEdges) throws XMLStreamException, IOException {
+    final Dependency dependency = new Dependency(getRequired(reader, "id"));
+    final String orientation = reader.getAttributeValue(null, "orientation");
+    if (orientation != null && !orientationDirected.equals(orientation)) {
+      throw new IOException("Undirected dependency " + dependency.getId());
+    }
+    final PendingEdge edge = new PendingEdge(dependency, getRequired(reader, "source"),
+        getRequired(reader, "destination"));
+    readElement(reader, dependency);
+    if (graph.getVertex(edge.sourceId) == null || graph.getVertex(edge.destinationId) == null) {
+      pendingEdges.add(edge);
+    } else {
+      addEdge(graph, edge);
+    }
+  }
+
+  /**
+   * Adds the given edge to the graph.
+   *
+   * @param graph the graph
+   * @param edge the edge
+   * @throws IOException if an endpoint of the edge is not in the graph
+   */
+  protected static void addEdge(final EnactmentGraph graph, final PendingEdge edge)
+      throws IOException {
+    final Task source = graph.getVertex(edge.sourceId);
+    final Task destination = graph.getVertex(edge.destinationId);
+    if (source == null || destination == null) {
+      throw new IOException("Unknown endpoint of the dependency " + edge.dependency.getId());
+    }
+    graph.addEdge(edge.dependency, source, destination, EdgeType.DIRECTED);
+  }
+
+  /**
+   * Reads the content of the graph element at the current position of the
+   * reader (until its end tag) and sets the attributes it describes.
+   *
+   * @param <E> the element type
+   * @param reader the reader positioned at the start of the element
+   * @param element the (new) graph element
+   * @return the graph element
+   * @throws XMLStreamException if reading fails
+   * @throws IOException if an attribute is malformed
+   */
+  protected static <E extends Element> E readElement(final XMLStreamReader reader,
+      final E element) throws XMLStreamException, IOException {
+    while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+      if (elemAttributes.equals(reader.getLocalName())) {
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+          final String name = getRequired(reader, "name");
+          element.setAttribute(name, readValue(reader));
+        }
+      } else {
+        skipElement(reader);
+      }
+    }
+    return element;
+  }
+
+  /**
+   * Reads the value of the attribute element at the current position of the
+   * reader (until its end tag).
+   *
+   * @param reader the reader positioned at the start of the attribute element
+   * @return the attribute value
+   * @throws XMLStreamException if reading fails
+   * @throws IOException if the value is malformed or of an unsupported type
+   */
+  protected static Object readValue(final XMLStreamReader reader)
+      throws XMLStreamException, IOException {
+    final String type = getRequired(reader, "type");
+    if (reader.getAttributeValue(null, "parameter") != null) {
+      throw new IOException("Parameter attributes are not supported in enactment graphs.");
+    }
+    switch (type) {
+      case typeString:
+        return reader.getElementText();
+      case typeBoolean:
+        return Boolean.valueOf(reader.getElementText().trim());
+      case typeInteger:
+        return Integer.valueOf(reader.getElementText().trim());
+      case typeDouble:
+        return Double.valueOf(reader.getElementText().trim());
+      default:
+        return readObject(reader, loadClass(type));
+    }
+  }
+
+  /**
+   * Reads a value of a non-primitive type.
+   *
+   * @param reader the reader positioned at the start of the attribute element
+   * @param type the class of the value
+   * @return the attribute value
+   * @throws XMLStreamException if reading fails
+   * @throws IOException if the value is malformed or of an unsupported type
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  protected static Object readObject(final XMLStreamReader reader, final Class<?> type)
+      throws XMLStreamException, IOException {
+    if (Collection.class.isAssignableFrom(type)) {
+      // collections are written either as nested attributes or serialized
+      final StringBuilder text = new StringBuilder();
+      final List<Object> entries = new ArrayList<>();
+      int event = reader.next();
+      while (event != XMLStreamConstants.END_ELEMENT) {
+        if (event == XMLStreamConstants.START_ELEMENT) {
+          entries.add(readValue(reader));
+        } else if (event == XMLStreamConstants.CHARACTERS
+            || event == XMLStreamConstants.CDATA) {
+          text.append(reader.getText());
+        }
+        event = reader.next();
+      }
+      if (entries.isEmpty() && !text.toString().isBlank()) {
+        return deserialize(text.toString().trim());
+      }
+      final Collection collection = (Collection) newInstance(type);
+      collection.addAll(entries);
+      return collection;
+    }
+    final String text = reader.getElementText().trim();
+    if (type.isEnum()) {
+      return Enum.valueOf((Class<Enum>) type, text);
+    } else if (JsonElement.class.isAssignableFrom(type)) {
+      return JsonParser.parseString(text);
+    } else if (Number.class.isAssignableFrom(type) || Character.class.equals(type)) {
+      return fromString(type, text);
+    } else {
+      // the format of OpenDSE: String constructor if present, serialized otherwise
+      try {
+        return fromString(type, text);
+      } catch (IOException noStringConstructor) {
+        return deserialize(text);
+      }
+    }
+  }
+
+  /**
+   * Creates an instance of the given type from the given string, using the
+   * static valueOf method or the string constructor of the type.
+   *
+   * @param type the type
+   * @param text the string
+   * @return the created instance
+   * @throws IOException if the type cannot be created from a string
+   */
+  protected static Object fromString(final Class<?> type, final String text) throws IOException {
+    if (Character.class.equals(type)) {
+      if (text.length() != 1) {
+        throw new IOException("Malformed character " + text);
+      }
+      return text.charAt(0);
+    }
+    try {
+      return type.getMethod("valueOf", String.class).invoke(null, text);
+    } catch (NoSuchMethodException noValueOf) {
+      try {
+        return type.getConstructor(String.class).newInstance(text);
+      } catch (NoSuchMethodException | InstantiationException | IllegalAccessException
+          | InvocationTargetException exc) {
+        throw new IOException("Cannot create " + type.getName() + " from " + text, exc);
+      }
+    } catch (IllegalAccessException | InvocationTargetException exc) {
+      throw new IOException("Cannot create " + type.getName() + " from " + text, exc);
+    }
+  }
+
+  /**
+   * Creates an instance of the given type with its default constructor.
+   *
+   * @param type the type
+   * @return the created instance
+   * @throws IOException if the type has no accessible default constructor
+   */
+  protected static Object newInstance(final Class<?> type) throws IOException {
+    try {
+      return type.getConstructor().newInstance();
+    } catch (NoSuchMethodException | InstantiationException | IllegalAccessException
+        | InvocationTargetException exc) {
+      throw new IOException("Cannot instantiate " + type.getName(), exc);
+    }
+  }
+
+  /**
+   * Deserializes the object from the given Base64 string.
+   *
+   * @param text the Base64 string
+   * @return the deserialized object
+   * @throws IOException if deserialization fails
+   */
+  protected static Object deserialize(final String text) throws IOException {
+    final byte[] bytes;
+    try {
+      bytes = Base64.getMimeDecoder().decode(text);
+    } catch (IllegalArgumentException argExc) {
+      throw new IOException("Malformed serialized attribute value", argExc);
+    }
+    try (ObjectInputStream objectIn = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+      return objectIn.readObject();
+    } catch (ClassNotFoundException classExc) {
+      throw new IOException("Unknown class of serialized attribute value", classExc);
+    }
+  }
+
+  /**
+   * Loads the class with the given name.
+   *
+   * @param name the class name
+   * @return the class
+   * @throws IOException if the class is unknown
+   */
+  protected static Class<?> loadClass(final String name) throws IOException {
+    try {
+      return Class.forName(name);
+    } catch (ClassNotFoundException classExc) {
+      throw new IOException("Unknown attribute type " + name, classExc);
+    }
+  }
+
+  /**
+   * Skips the element at the current position of the reader (including its
+   * content).
+   *
+   * @param reader the reader positioned at the start of the element
+   * @throws XMLStreamException if reading fails
+   */
+  protected static void skipElement(final XMLStreamReader reader) throws XMLStreamException {
+    int depth = 1;
+    while (depth > 0) {
+      final int event = reader.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        depth++;
+      } else if (event == XMLStreamConstants.END_ELEMENT) {
+        depth--;
+      }
+    }
+  }
+
+  /**
+   * Returns the value of the required XML attribute of the current element.
+   *
+   * @param reader the reader positioned at the start of an element
+   * @param name the name of the XML attribute
+   * @return the value of the XML attribute
+   * @throws IOException if the XML attribute is missing
+   */
+  protected static String getRequired(final XMLStreamReader reader, final String name)
+      throws IOException {
+    final String value = reader.getAttributeValue(null, name);
+    if (value == null) {
+      throw new IOException(
+          "Element " + reader.getLocalName() + " without the required attribute " + name);
+    }
+    return value;
+  }
+
+  /**
+   * Writes the attributes of the given graph element (sorted by name, as done
+   * by OpenDSE).
+   *
+   * @param writer the writer
+   * @param element the graph element
+   * @throws XMLStreamException if writing fails
+   * @throws IOException if an attribute value cannot be written
+   */
+  protected static void writeAttributes(final IndentingWriter writer, final Element element)
+      throws XMLStreamException, IOException {
+    final Collection<String> names = new TreeSet<>(element.getAttributeNames());
+    if (names.isEmpty()) {
+      return;
+    }
+    writer.start(elemAttributes);
+    for (final String name : names) {
+      final Object value = element.getAttribute(name);
+      if (value != null) {
+        writeValue(writer, name, value);
+      }
+    }
+    writer.end();
+  }
+
+  /**
+   * Writes the attribute element for the given value.
+   *
+   * @param writer the writer
+   * @param name the attribute name
+   * @param value the attribute value
+   * @throws XMLStreamException if writing fails
+   * @throws IOException if the value cannot be written
+   */
+  protected static void writeValue(final IndentingWriter writer, final String name,
+      final Object value) throws XMLStreamException, IOException {
+    writer.startInline(elemAttribute);
+    writer.writer.writeAttribute("name", name);
+    final String type;
+    final String text;
+    if (value instanceof String) {
+      type = typeString;
+      text = (String) value;
+    } else if (value instanceof Boolean) {
+      type = typeBoolean;
+      text = value.toString();
+    } else if (value instanceof Integer) {
+      type = typeInteger;
+      text = value.toString();
+    } else if (value instanceof Double) {
+      type = typeDouble;
+      text = value.toString();
+    } else if (value instanceof Enum) {
+      type = ((Enum<?>) value).getDeclaringClass().getName();
+      text = ((Enum<?>) value).name();
+    } else if (value instanceof Number || value instanceof Character
+        || value instanceof JsonElement) {
+      type = value.getClass().getName();
+      text = value.toString();
+    } else if (value instanceof Serializable) {
+      type = value.getClass().getName();
+      text = serialize((Serializable) value);
+    } else {
+      throw new IOException("Attribute " + name + " has the unsupported type "
+          + value.getClass().getCanonicalName());
+    }
+    writer.writer.writeAttribute("type", type);
+    writer.writer.writeCharacters(text);
+    writer.endInline();
+  }
+
+  /**
+   * Serializes the given object into a Base64 string.
+   *
+   * @param value the object
+   * @return the Base64 string
+   * @throws IOException if serialization fails
+   */
+  protected static String serialize(final Serializable value) throws IOException {
+    final ByteArrayOutputStream objectBytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream objectOut = new ObjectOutputStream(objectBytes)) {
+      objectOut.writeObject(value);
+    }
+    return Base64.getEncoder().encodeToString(objectBytes.toByteArray());
+  }
+
+  /**
+   * A dependency whose endpoints were not yet read.
+   *
+   * @author Fedor Smirnov
+   */
+  protected static class PendingEdge {
+    protected final Dependency dependency;
+    protected final String sourceId;
+    protected final String destinationId;
+
+    protected PendingEdge(final Dependency dependency, final String sourceId,
+        final String destinationId) {
+      this.dependency = dependency;
+      this.sourceId = sourceId;
+      this.destinationId = destinationId;
+    }
+  }
+
+  /**
+   * Wrapper of the stream writer which indents the elements of the
+   * specification (as done by OpenDSE).
+   *
+   * @author Fedor Smirnov
+   */
+  protected static class IndentingWriter {
+    protected static final String indent = "  ";
+
+    protected final XMLStreamWriter writer;
+    protected int depth;
+    protected boolean hasChildren;
+
+    protected IndentingWriter(final XMLStreamWriter writer) {
+      this.writer = writer;
+    }
+
+    /**
+     * Writes a processing instruction.
+     */
+    protected void processingInstruction(final String target, final String data)
+        throws XMLStreamException {
+      newLine();
+      writer.writeProcessingInstruction(target, data);
+    }
+
+    /**
+     * Starts an element which has element children.
+     */
+    protected void start(final String name) throws XMLStreamException {
+      newLine();
+      writer.writeStartElement(namespace, name);
+      depth++;
+      hasChildren = false;
+    }
+
+    /**
+     * Starts an element with text content.
+     */
+    protected void startInline(final String name) throws XMLStreamException {
+      newLine();
+      writer.writeStartElement(namespace, name);
+    }
+
+    /**
+     * Writes an empty element (attributes can be written afterwards).
+     */
+    protected void empty(final String name) throws XMLStreamException {
+      newLine();
+      writer.writeEmptyElement(namespace, name);
+      hasChildren = true;
+    }
+
+    /**
+     * Ends an element started with {@link #startInline(String)}.
+     */
+    protected void endInline() throws XMLStreamException {
+      writer.writeEndElement();
+      hasChildren = true;
+    }
+
+    /**
+     * Ends an element started with {@link #start(String)}.
+     */
+    protected void end() throws XMLStreamException {
+      depth--;
+      if (hasChildren) {
+        newLine();
+      }
+      writer.writeEndElement();
+      hasChildren = true;
+    }
+
+    protected void newLine() throws XMLStreamException {
+      if (depth == 0) {
+        // no content outside of the root element
+        return;
+      }
+      writer.writeCharacters(System.lineSeparator());
+      for (int i = 0; i < depth; i++) {
+        writer.writeCharacters(indent);
+      }
+    }
+  }
+}
@@ -0,0 +1,39 @@
+package at.uibk.dps.ee.io.persistance;
+
+import org.opt4j.core.start.Constant;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.graph.EnactmentGraphProvider;
+
+/**
+ * The {@link GraphSnapshotProvider} provides the {@link EnactmentGraph} from a
+ * memory-mapped graph snapshot (see {@link EnactmentGraphSnapshot}). The
+ * topology is available as soon as the provider is constructed; the attributes
+ * are decoded when they are first accessed.
+ * 
+ * @author Fedor Smirnov
+ */
+@Singleton
+public class GraphSnapshotProvider implements EnactmentGraphProvider {
+
+  protected final EnactmentGraph enactmentGraph;
+
+  /**
+   * Injection constructor.
+   * 
+   * @param filePath the path to the snapshot file
+   */
+  @Inject
+  public GraphSnapshotProvider(@Constant(value = "filePath",
+      namespace = GraphSnapshotProvider.class) final String filePath) {
+    this.enactmentGraph = EnactmentGraphIO.openSnapshot(filePath);
+  }
+
+  @Override
+  public EnactmentGraph getEnactmentGraph() {
+    return enactmentGraph;
+  }
+}
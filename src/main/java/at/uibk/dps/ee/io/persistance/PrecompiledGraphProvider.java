@@ -0,0 +1,52 @@
+package at.uibk.dps.ee.io.persistance;
+
+import org.opt4j.core.start.Constant;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+import at.uibk.dps.ee.io.validation.ValidationLevel;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.graph.EnactmentGraphProvider;
+
+/**
+ * The {@link PrecompiledGraphProvider} provides an {@link EnactmentGraph} which
+ * was compiled beforehand and written with {@link EnactmentGraphIO} (XML or
+ * binary format). The AFCL front-end is skipped entirely; the graph is only
+ * validated if it was stored with a validation level below the required one.
+ * 
+ * @author Fedor Smirnov
+ */
+@Singleton
+public class PrecompiledGraphProvider implements EnactmentGraphProvider {
+
+  protected final EnactmentGraph enactmentGraph;
+
+  /**
+   * Injection constructor.
+   * 
+   * @param filePath the path to the file with the precompiled graph
+   * @param validationLevel the validation level required for the graph
+   */
+  @Inject
+  public PrecompiledGraphProvider(
+      @Constant(value = "filePath", namespace = PrecompiledGraphProvider.class) final String filePath,
+      @Constant(value = "validationLevel",
+          namespace = PrecompiledGraphProvider.class) final ValidationLevel validationLevel) {
+    this.enactmentGraph = EnactmentGraphIO.readEnactmentGraph(filePath, validationLevel);
+  }
+
+  /**
+   * Constructor requiring the full validation of the graph.
+   * 
+   * @param filePath the path to the file with the precompiled graph
+   */
+  public PrecompiledGraphProvider(final String filePath) {
+    this(filePath, ValidationLevel.FULL);
+  }
+
+  @Override
+  public EnactmentGraph getEnactmentGraph() {
+    return enactmentGraph;
+  }
+}
@@ -0,0 +1,411 @@
+package at.uibk.dps.ee.io.report;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+
+/**
+ * The {@link CompilationReport} records, for each phase of the compilation of a
+ * workflow, the wall time, the bytes allocated by the compiling thread(s), the
+ * number of invocations, the number of nodes and edges added to the enactment
+ * graph, and a phase-specific item count (e.g., the bytes of the read file or
+ * the number of created mappings).
+ *
+ * Phases may be nested into each other (e.g., the hierarchy levelling is done
+ * during the compound translation); the numbers of the outer phase include
+ * those of the inner one. Recursive invocations of the same phase (nested
+ * compounds) are only measured once. The report is thread-safe, so that it can
+ * be used by parallel compilations. A disabled report records nothing: the
+ * actions are executed without any measurement.
+ *
+ * @author Fedor Smirnov
+ */
+public class CompilationReport {
+
+  /**
+   * The phases of the compilation.
+   *
+   * @author Fedor Smirnov
+   */
+  public enum Phase {
+    /**
+     * Reading the workflow file (items: bytes).
+     */
+    FileRead,
+    /**
+     * Parsing the workflow description (YAML/JSON).
+     */
+    Parsing,
+    /**
+     * Building the symbol table of the workflow.
+     */
+    SymbolTable,
+    /**
+     * Creating the nodes of the workflow inputs.
+     */
+    WorkflowInputs,
+    /**
+     * Translating the (atomic and compound) functions (items: translated
+     * functions, including the nested ones).
+     */
+    CompoundTranslation,
+    /**
+     * Resolving the sources of the workflow data, measured once per compound
+     * step (items: resolved sources).
+     */
+    HierarchyLevelling,
+    /**
+     * Annotating the workflow outputs.
+     */
+    WorkflowOutputs,
+    /**
+     * Applying the optional transformations to the complete graph (items:
+     * transformed nodes).
+     */
+    Optimization,
+    /**
+     * Validating the enactment graph.
+     */
+    Validation,
+    /**
+     * Creating the function-to-resource mappings (items: mappings).
+     */
+    MappingCreation,
+    /**
+     * Annotating the levels and the critical path of the graph (items: nodes on
+     * the critical path).
+     */
+    CriticalPathAnnotation
+  }
+
+  protected static final Logger logger = Logger.getLogger(CompilationReport.class.getName());
+
+  protected static final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+  protected final Map<Phase, PhaseRecord> records = new EnumMap<>(Phase.class);
+  protected final ThreadLocal<int[]> nestingDepths =
+      ThreadLocal.withInitial(() -> new int[Phase.values().length]);
+  protected final boolean enabled;
+  protected final boolean logging;
+
+  /**
+   * Default constructor (the report is enabled).
+   */
+  public CompilationReport() {
+    this(true);
+  }
+
+  /**
+   * Constructor to create an enabled or a disabled report.
+   *
+   * @param enabled true iff the report records the compilation
+   */
+  public CompilationReport(final boolean enabled) {
+    this(enabled, false);
+  }
+
+  /**
+   * Constructor to create an enabled or a disabled report which is or is not to
+   * be logged by the components compiling the workflow.
+   *
+   * @param enabled true iff the report records the compilation
+   * @param logging true iff the report is to be logged
+   */
+  public CompilationReport(final boolean enabled, final boolean logging) {
+    this.enabled = enabled;
+    this.logging = logging;
+    for (final Phase phase : Phase.values()) {
+      records.put(phase, new PhaseRecord());
+    }
+  }
+
+  /**
+   * Executes the given action and records it as an invocation of the given
+   * phase.
+   *
+   * @param <T> the type of the result of the action
+   * @param phase the phase
+   * @param graph the graph modified by the phase (null if the phase does not
+   *        modify an enactment graph)
+   * @param action the action
+   * @return the result of the action
+   */
+  public <T> T measure(final Phase phase, final EnactmentGraph graph, final Supplier<T> action) {
+    if (!enabled) {
+      return action.get();
+    }
+    final int[] depths = nestingDepths.get();
+    final PhaseRecord phaseRecord = records.get(phase);
+    phaseRecord.invocations.increment();
+    if (depths[phase.ordinal()]++ > 0) {
+      // recursive invocation => measured by the outermost one
+      try {
+        return action.get();
+      } finally {
+        depths[phase.ordinal()]--;
+      }
+    }
+    final int nodesBefore = graph == null ? 0 : graph.getVertexCount();
+    final int edgesBefore = graph == null ? 0 : graph.getEdgeCount();
+    final long allocatedBefore = getAllocatedBytes();
+    final long start = System.nanoTime();
+    try {
+      return action.get();
+    } finally {
+      phaseRecord.wallTime.add(System.nanoTime() - start);
+      if (allocatedBefore >= 0) {
+        phaseRecord.allocatedBytes.add(getAllocatedBytes() - allocatedBefore);
+      }
+      if (graph != null) {
+        phaseRecord.nodes.add(graph.getVertexCount() - nodesBefore);
+        phaseRecord.edges.add(graph.getEdgeCount() - edgesBefore);
+      }
+      depths[phase.ordinal()]--;
+    }
+  }
+
+  /**
+   * Executes the given action and records it as an invocation of the given
+   * phase.
+   *
+   * @param phase the phase
+   * @param graph the graph modified by the phase (null if the phase does not
+   *        modify an enactment graph)
+   * @param action the action
+   */
+  public void run(final Phase phase, final EnactmentGraph graph, final Runnable action) {
+    if (!enabled) {
+      action.run();
+      return;
+    }
+    measure(phase, graph, () -> {
+      action.run();
+      return null;
+    });
+  }
+
+  /**
+   * Adds the given number of processed items to the given phase.
+   *
+   * @param phase the phase
+   * @param items the number of processed items
+   */
+  public void addItems(final Phase phase, final long items) {
+    if (enabled) {
+      records.get(phase).items.add(items);
+    }
+  }
+
+  /**
+   * Returns the statistics of the given phase (empty if the phase was not
+   * executed).
+   *
+   * @param phase the phase
+   * @return the statistics of the given phase
+   */
+  public Optional<PhaseStatistics> getStatistics(final Phase phase) {
+    final PhaseRecord phaseRecord = records.get(phase);
+    if (phaseRecord.invocations.sum() == 0) {
+      return Optional.empty();
+    }
+    return Optional.of(phaseRecord.snapshot(phase));
+  }
+
+  /**
+   * Returns the statistics of all executed phases (in the order of the phases).
+   *
+   * @return the statistics of all executed phases
+   */
+  public Map<Phase, PhaseStatistics> getStatistics() {
+    final Map<Phase, PhaseStatistics> result = new EnumMap<>(Phase.class);
+    for (final Phase phase : Phase.values()) {
+      getStatistics(phase).ifPresent(stats -> result.put(phase, stats));
+    }
+    return Collections.unmodifiableMap(result);
+  }
+
+  /**
+   * Returns true iff the report records the compilation.
+   *
+   * @return true iff the report records the compilation
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns true iff the report is to be logged by the components compiling the
+   * workflow.
+   *
+   * @return true iff the report is to be logged
+   */
+  public boolean isLogging() {
+    return logging;
+  }
+
+  /**
+   * Logs the statistics of the given phases (all phases if none are provided).
+   *
+   * @param phases the phases to log
+   */
+  public void log(final Phase... phases) {
+    if (!logger.isLoggable(Level.INFO)) {
+      return;
+    }
+    final StringBuilder message = new StringBuilder("Compilation report:");
+    final Map<Phase, PhaseStatistics> stats = getStatistics();
+    for (final Phase phase : phases.length == 0 ? Phase.values() : phases) {
+      if (stats.containsKey(phase)) {
+        message.append(System.lineSeparator()).append(stats.get(phase));
+      }
+    }
+    logger.info(message.toString());
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder result = new StringBuilder();
+    for (final PhaseStatistics stats : getStatistics().values()) {
+      if (result.length() > 0) {
+        result.append(System.lineSeparator());
+      }
+      result.append(stats);
+    }
+    return result.toString();
+  }
+
+  /**
+   * Returns the number of bytes allocated by the current thread so far (-1 if
+   * not supported by the JVM).
+   *
+   * @return the number of bytes allocated by the current thread so far
+   */
+  protected static long getAllocatedBytes() {
+    if (threadBean instanceof com.sun.management.ThreadMXBean) {
+      final com.sun.management.ThreadMXBean allocationBean =
+          (com.sun.management.ThreadMXBean) threadBean;
+      if (allocationBean.isThreadAllocatedMemorySupported()
+          && allocationBean.isThreadAllocatedMemoryEnabled()) {
+        return allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * The (concurrently updated) numbers of a phase.
+   *
+   * @author Fedor Smirnov
+   */
+  protected static class PhaseRecord {
+    protected final LongAdder wallTime = new LongAdder();
+    protected final LongAdder allocatedBytes = new LongAdder();
+    protected final LongAdder invocations = new LongAdder();
+    protected final LongAdder nodes = new LongAdder();
+    protected final LongAdder edges = new LongAdder();
+    protected final LongAdder items = new LongAdder();
+
+    protected PhaseStatistics snapshot(final Phase phase) {
+      return new PhaseStatistics(phase, wallTime.sum(), allocatedBytes.sum(),
+          invocations.sum(), nodes.sum(), edges.sum(), items.sum());
+    }
+  }
+
+  /**
+   * The statistics of a phase.
+   *
+   * @author Fedor Smirnov
+   */
+  public static class PhaseStatistics {
+    protected final Phase phase;
+    protected final long wallTimeNanos;
+    protected final long allocatedBytes;
+    protected final long invocations;
+    protected final long nodes;
+    protected final long edges;
+    protected final long items;
+
+    protected PhaseStatistics(final Phase phase, final long wallTimeNanos,
+        final long allocatedBytes, final long invocations, final long nodes, final long edges,
+        final long items) {
+      this.phase = phase;
+      this.wallTimeNanos = wallTimeNanos;
+      this.allocatedBytes = allocatedBytes;
+      this.invocations = invocations;
+      this.nodes = nodes;
+      this.edges = edges;
+      this.items = items;
+    }
+
+    public Phase getPhase() {
+      return phase;
+    }
+
+    /**
+     * Returns the wall time of the phase in ns (summed over all threads for
+     * parallel compilations).
+     *
+     * @return the wall time of the phase in ns
+     */
+    public long getWallTimeNanos() {
+      return wallTimeNanos;
+    }
+
+    /**
+     * Returns the number of bytes allocated during the phase (0 if the JVM does
+     * not support the per-thread allocation accounting).
+     *
+     * @return the number of bytes allocated during the phase
+     */
+    public long getAllocatedBytes() {
+      return allocatedBytes;
+    }
+
+    public long getInvocations() {
+      return invocations;
+    }
+
+    /**
+     * Returns the number of nodes added to the enactment graph during the phase.
+     *
+     * @return the number of nodes added to the enactment graph during the phase
+     */
+    public long getNodes() {
+      return nodes;
+    }
+
+    /**
+     * Returns the number of edges added to the enactment graph during the phase.
+     *
+     * @return the number of edges added to the enactment graph during the phase
+     */
+    public long getEdges() {
+      return edges;
+    }
+
+    /**
+     * Returns the number of items processed during the phase (see
+     * {@link Phase}).
+     *
+     * @return the number of items processed during the phase
+     */
+    public long getItems() {
+      return items;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%-20s %10.3f ms %12d B alloc %8d calls %8d nodes %8d edges %10d items",
+          phase, wallTimeNanos / 1e6, allocatedBytes, invocations, nodes, edges, items);
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package at.uibk.dps.ee.io.report;
+
+/**
+ * Interface for the providers which compile (parts of) the specification and
+ * report on the compilation.
+ *
+ * @author Fedor Smirnov
+ */
+public interface CompilationReportProvider {
+
+  /**
+   * Returns the report on the compilation done by the provider.
+   *
+   * @return the report on the compilation done by the provider
+   */
+  CompilationReport getCompilationReport();
+}
@@ -0,0 +1,5 @@
+/**
+ * Package for the classes used to report on the compilation of workflows
+ * (time, allocations, and graph sizes of the compilation phases).
+ */
+package at.uibk.dps.ee.io.report;
@@ -4,6 +4,7 @@ import java.util.Optional;
 import org.opt4j.core.start.Constant;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import at.uibk.dps.ee.io.jfr.ResourceGraphBuildEvent;
 import at.uibk.dps.ee.io.json.ResourceEntry;
 import at.uibk.dps.ee.io.json.ResourceInformationJsonFile;
 import at.uibk.dps.ee.model.constants.ConstantsEEModel;
@@ -52,6 +53,8 @@ public class ResourceGraphProviderFile implements ResourceGraphProvider {
    * @return the resource graph built based on the information in the file
    */
   protected final ResourceGraph readResourceGraph(final String filePath) {
+    final ResourceGraphBuildEvent event = new ResourceGraphBuildEvent();
+    event.begin();
     final ResourceGraph result = new ResourceGraph();
     final ResourceInformationJsonFile resourceInformation =
         ResourceInformationJsonFile.readFromFile(filePath);
@@ -62,6 +65,12 @@ public class ResourceGraphProviderFile implements ResourceGraphProvider {
     resourceInformation.stream()
         .flatMap(functionTypeEntry -> functionTypeEntry.getResources().stream())
         .forEach(resourceEntry -> processResourceEntry(result, eeRes, resourceEntry));
+    if (event.shouldCommit()) {
+      event.filePath = filePath;
+      event.resources = result.getVertexCount();
+      event.links = result.getEdgeCount();
+      event.commit();
+    }
     return result;
   }
 
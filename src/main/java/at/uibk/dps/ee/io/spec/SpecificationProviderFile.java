@@ -1,14 +1,20 @@
 package at.uibk.dps.ee.io.spec;
 
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import org.opt4j.core.start.Constant;
 import com.google.inject.Inject;
 
+import at.uibk.dps.ee.io.analysis.CriticalPathAnnotation;
+import at.uibk.dps.ee.io.jfr.MappingCreationEvent;
 import at.uibk.dps.ee.io.json.FunctionTypeEntry;
 import at.uibk.dps.ee.io.json.ResourceEntry;
 import at.uibk.dps.ee.io.json.ResourceInformationJsonFile;
+import at.uibk.dps.ee.io.report.CompilationReport;
+import at.uibk.dps.ee.io.report.CompilationReport.Phase;
+import at.uibk.dps.ee.io.report.CompilationReportProvider;
 import at.uibk.dps.ee.io.resources.ResourceGraphProviderFile;
 import at.uibk.dps.ee.model.constants.ConstantsEEModel;
 import at.uibk.dps.ee.model.graph.EnactmentGraph;
@@ -37,12 +43,14 @@ import net.sf.opendse.model.properties.TaskPropertyService;
  * @author Fedor Smirnov
  *
  */
-public class SpecificationProviderFile implements SpecificationProvider {
+public class SpecificationProviderFile
+    implements SpecificationProvider, CompilationReportProvider {
 
   protected final EnactmentGraphProvider enactmentGraphProvider;
   protected final ResourceGraphProvider resourceGraphProvider;
   protected final Mappings<Task, Resource> mappings;
   protected final EnactmentSpecification specification;
+  protected final CompilationReport report;
 
   /**
    * Injection constructor.
@@ -58,10 +66,75 @@ public class SpecificationProviderFile implements SpecificationProvider {
       @Constant(value = "filePath", namespace = ResourceGraphProviderFile.class) final String filePath) {
     this.enactmentGraphProvider = enactmentGraphProvider;
     this.resourceGraphProvider = resourceGraphProvider;
-    this.mappings = createMappings(getEnactmentGraph(), getResourceGraph(), filePath);
+    this.report = getReport(enactmentGraphProvider);
+    final ResourceInformationJsonFile resInfo = ResourceInformationJsonFile.readFromFile(filePath);
+    this.mappings = createMappings(resInfo, filePath);
+    annotateCriticalPath(resInfo);
+    logReport();
     this.specification = new EnactmentSpecification(getEnactmentGraph(), getResourceGraph(), getMappings());
   }
 
+  /**
+   * Returns the report of the compilation of the given provider (a disabled
+   * report if the provider does not record the compilation).
+   * 
+   * @param enactmentGraphProvider class providing the {@link EnactmentGraph}
+   * @return the report of the compilation
+   */
+  protected static CompilationReport getReport(final EnactmentGraphProvider enactmentGraphProvider) {
+    return enactmentGraphProvider instanceof CompilationReportProvider
+        ? ((CompilationReportProvider) enactmentGraphProvider).getCompilationReport()
+        : new CompilationReport(false);
+  }
+
+  /**
+   * Creates the mappings based on the given resource information, recording the
+   * creation in the report and as a {@link MappingCreationEvent}.
+   * 
+   * @param resInfo  the resource information
+   * @param filePath the path to the resource information
+   * @return the mappings connecting the enactment and the resource graph
+   */
+  protected final Mappings<Task, Resource> createMappings(final ResourceInformationJsonFile resInfo,
+      final String filePath) {
+    final MappingCreationEvent event = new MappingCreationEvent();
+    event.begin();
+    final Mappings<Task, Resource> result = report.measure(Phase.MappingCreation, null,
+        () -> createMappings(getEnactmentGraph(), getResourceGraph(), resInfo));
+    report.addItems(Phase.MappingCreation, result.size());
+    if (event.shouldCommit()) {
+      event.filePath = filePath;
+      event.tasks = getEnactmentGraph().getVertexCount();
+      event.resources = getResourceGraph().getVertexCount();
+      event.mappings = result.size();
+      event.commit();
+    }
+    return result;
+  }
+
+  /**
+   * Annotates the enactment graph with the levels and the critical path, unless
+   * it was precompiled with an annotation based on the same cost hints.
+   * 
+   * @param resInfo the resource information
+   */
+  protected final void annotateCriticalPath(final ResourceInformationJsonFile resInfo) {
+    final Map<String, Double> costHints = CriticalPathAnnotation.getCostHints(resInfo);
+    if (!CriticalPathAnnotation.isAnnotated(getEnactmentGraph(), costHints)) {
+      annotateCriticalPath(getEnactmentGraph(), costHints);
+    }
+  }
+
+  /**
+   * Logs the phases of the compilation performed by this class if the report is
+   * to be logged.
+   */
+  protected final void logReport() {
+    if (report.isLogging()) {
+      report.log(Phase.MappingCreation, Phase.CriticalPathAnnotation);
+    }
+  }
+
   @Override
   public final ResourceGraph getResourceGraph() {
     return resourceGraphProvider.getResourceGraph();
@@ -88,8 +161,20 @@ public class SpecificationProviderFile implements SpecificationProvider {
    */
   protected final Mappings<Task, Resource> createMappings(final EnactmentGraph eGraph, final ResourceGraph rGraph,
       final String filePath) {
+    return createMappings(eGraph, rGraph, ResourceInformationJsonFile.readFromFile(filePath));
+  }
+
+  /**
+   * Uses the given resource information to create the mappings.
+   * 
+   * @param eGraph  the enactment graph
+   * @param rGraph  the resource graph
+   * @param resInfo the resource information
+   * @return the mappings connected the eGraph and the rGraph
+   */
+  protected final Mappings<Task, Resource> createMappings(final EnactmentGraph eGraph, final ResourceGraph rGraph,
+      final ResourceInformationJsonFile resInfo) {
     final Mappings<Task, Resource> result = new Mappings<>();
-    final ResourceInformationJsonFile resInfo = ResourceInformationJsonFile.readFromFile(filePath);
     //  eGraph.getVertices().stream().filter(task -> TaskPropertyService.isProcess(task))
     //  .filter(task -> PropertyServiceFunction.getUsageType(task).equals(UsageType.User))
     //  .flatMap(task -> getMappingsForTask(task, resInfo, rGraph).stream())
@@ -115,6 +200,21 @@ public class SpecificationProviderFile implements SpecificationProvider {
     return result;
   }
 
+  /**
+   * Annotates the enactment graph with the levels and the critical path, using
+   * the given cost hints (see {@link CriticalPathAnnotation}).
+   * 
+   * @param eGraph    the enactment graph
+   * @param costHints map of function type strings to the cost hints
+   */
+  protected void annotateCriticalPath(final EnactmentGraph eGraph,
+      final Map<String, Double> costHints) {
+    report.run(Phase.CriticalPathAnnotation, null,
+        () -> CriticalPathAnnotation.annotate(eGraph, costHints));
+    report.addItems(Phase.CriticalPathAnnotation, eGraph.getVertices().stream()
+        .filter(CriticalPathAnnotation::isOnCriticalPath).count());
+  }
+
   /**
    * Creates the mappings for the provided task based on the given resource
    * information.
@@ -181,4 +281,9 @@ public class SpecificationProviderFile implements SpecificationProvider {
   public EnactmentSpecification getSpecification() {
     return specification;
   }
+
+  @Override
+  public CompilationReport getCompilationReport() {
+    return report;
+  }
 }
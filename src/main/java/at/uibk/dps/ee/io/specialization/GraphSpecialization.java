@@ -0,0 +1,465 @@
+package at.uibk.dps.ee.io.specialization;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import at.uibk.dps.ee.io.UtilsGraph;
+import at.uibk.dps.ee.io.afcl.AfclConstantConditions;
+import at.uibk.dps.ee.io.afcl.UtilsAfcl;
+import at.uibk.dps.ee.model.constants.ConstantsEEModel;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.objects.Condition;
+import at.uibk.dps.ee.model.objects.Condition.CombinedWith;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceData.DataType;
+import at.uibk.dps.ee.model.properties.PropertyServiceData.NodeType;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency.TypeDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependencyControlIf;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction.UsageType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlow;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlow.DataFlowType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUtilityCollections;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUtilityCondition;
+import edu.uci.ics.jung.graph.util.EdgeType;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.properties.TaskPropertyService;
+
+/**
+ * Static method container for the specialization of an enactment graph for a
+ * known workflow input. The wf inputs which influence the structure of the
+ * enactment (the relevant inputs) are replaced by constants:
+ * <ul>
+ * <li>inputs compared by condition functions: conditions comparing constants
+ * are evaluated, the dead branch is removed, and the data of the taken branch
+ * replaces the outputs of the multiplexers</li>
+ * <li>inputs defining the arguments of collection operations: the references
+ * in the subcollection strings are replaced by the input values</li>
+ * <li>inputs defining the iteration number of int iterators: the distribution
+ * nodes read the iteration number from a constant</li>
+ * </ul>
+ * All other wf inputs stay roots of the specialized graph, so that the
+ * specialized graph can be reused for all inputs with the same values of the
+ * relevant inputs (see {@link SpecializedGraphCache}).
+ *
+ * @author Fedor Smirnov
+ */
+public final class GraphSpecialization {
+
+  /**
+   * No constructor.
+   */
+  private GraphSpecialization() {}
+
+  /**
+   * Returns the graph specialized for the given wf input. The given graph is
+   * not modified.
+   *
+   * @param graph the enactment graph
+   * @param input the wf input
+   * @return the graph specialized for the given input
+   */
+  public static EnactmentGraph specialize(final EnactmentGraph graph, final JsonObject input) {
+    final EnactmentGraph result = copyGraph(graph);
+    final Set<String> relevantKeys = getRelevantInputKeys(result);
+    for (final Task root : getInputNodes(result)) {
+      final String jsonKey = PropertyServiceData.getJsonKey(root);
+      final DataType dataType = PropertyServiceData.getDataType(root);
+      if (relevantKeys.contains(jsonKey) && input.has(jsonKey)
+          && UtilsGraph.matchesType(input.get(jsonKey), dataType)) {
+        replaceNode(result, root,
+            PropertyServiceData.createConstantNode(root.getId(), dataType, input.get(jsonKey)));
+      }
+    }
+    resolveOperationInputs(result);
+    final List<Task> decisionVariables = result.getVertices().stream()
+        .filter(task -> TaskPropertyService.isCommunication(task)
+            && PropertyServiceData.getNodeType(task).equals(NodeType.Decision))
+        .collect(Collectors.toList());
+    for (final Task decisionVariable : decisionVariables) {
+      if (result.containsVertex(decisionVariable)) {
+        eliminateDeadBranch(result, decisionVariable);
+      }
+    }
+    removeDisconnectedData(result);
+    return result;
+  }
+
+  /**
+   * Returns the json keys of the wf inputs which influence the structure of the
+   * enactment, i.e., the inputs compared by condition functions, the inputs
+   * used as arguments of collection operations, and the inputs defining the
+   * iteration number of int iterators.
+   *
+   * @param graph the enactment graph
+   * @return the (sorted) json keys of the relevant wf inputs
+   */
+  public static Set<String> getRelevantInputKeys(final EnactmentGraph graph) {
+    final Set<String> result = new TreeSet<>();
+    for (final Task root : getInputNodes(graph)) {
+      for (final Dependency outEdge : graph.getOutEdges(root)) {
+        final Task consumer = graph.getDest(outEdge);
+        final String jsonKey = PropertyServiceDependency.getJsonKey(outEdge);
+        final boolean operationArgument =
+            UtilsGraph.isCollectionOperation(consumer) && UtilsAfcl.isSrcString(jsonKey)
+                && PropertyServiceData.getDataType(root).equals(DataType.Number);
+        final boolean iterationNumber = jsonKey.equals(ConstantsEEModel.JsonKeyConstantIterator);
+        if (UtilsGraph.isConditionFunction(consumer) || operationArgument || iterationNumber) {
+          result.add(PropertyServiceData.getJsonKey(root));
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Replaces the references to constant numbers in the subcollection strings of
+   * the collection operations by the numbers.
+   *
+   * @param graph the enactment graph
+   * @return the number of resolved operation arguments
+   */
+  protected static int resolveOperationInputs(final EnactmentGraph graph) {
+    int result = 0;
+    final List<Task> operations = graph.getVertices().stream()
+        .filter(UtilsGraph::isCollectionOperation).collect(Collectors.toList());
+    for (final Task operation : operations) {
+      String subCollections =
+          PropertyServiceFunctionUtilityCollections.getSubCollectionsString(operation);
+      final List<Dependency> resolvedEdges = new ArrayList<>();
+      Task original = null;
+      for (final Dependency inEdge : graph.getInEdges(operation)) {
+        final Task src = graph.getSource(inEdge);
+        final String jsonKey = PropertyServiceDependency.getJsonKey(inEdge);
+        final Optional<Integer> value = getConstantInt(src);
+        if (value.isPresent() && UtilsAfcl.isSrcString(jsonKey)) {
+          subCollections = replaceReference(subCollections, jsonKey, value.get());
+          resolvedEdges.add(inEdge);
+        } else if (PropertyServiceData.getDataType(src).equals(DataType.Collection)) {
+          original = src;
+        }
+      }
+      if (resolvedEdges.isEmpty() || original == null) {
+        continue;
+      }
+      final Task resolved = PropertyServiceFunctionUtilityCollections.createCollectionOperation(
+          original.getId(), subCollections,
+          PropertyServiceFunctionUtilityCollections.getCollectionOperation(operation));
+      if (graph.getVertex(resolved.getId()) != null) {
+        // the resolved operation is already applied to the original data
+        continue;
+      }
+      resolvedEdges.forEach(graph::removeEdge);
+      replaceNode(graph, operation, resolved);
+      result += resolvedEdges.size();
+    }
+    return result;
+  }
+
+  /**
+   * Removes the dead branch of the if compound with the given decision variable
+   * if its conditions compare constants. The outputs of the multiplexers are
+   * replaced by the data of the taken branch. Returns true iff the branch was
+   * eliminated.
+   *
+   * @param graph the enactment graph
+   * @param decisionVariable the decision variable of the if compound
+   * @return true iff the dead branch was eliminated
+   */
+  protected static boolean eliminateDeadBranch(final EnactmentGraph graph,
+      final Task decisionVariable) {
+    if (graph.getPredecessorCount(decisionVariable) != 1) {
+      return false;
+    }
+    final Task conditionFunction = graph.getPredecessors(decisionVariable).iterator().next();
+    final Optional<Boolean> decision = evaluateConditions(graph,
+        PropertyServiceFunctionUtilityCondition.getConditions(conditionFunction));
+    if (decision.isEmpty()) {
+      return false;
+    }
+    final List<Task> liveFunctions = new ArrayList<>();
+    final List<Task> deadFunctions = new ArrayList<>();
+    final Map<Task, Task> muxerInputs = new HashMap<>();
+    for (final Dependency outEdge : graph.getOutEdges(decisionVariable)) {
+      final Task dest = graph.getDest(outEdge);
+      if (PropertyServiceDependency.getType(outEdge).equals(TypeDependency.ControlIf)) {
+        if (PropertyServiceDependencyControlIf.getActivation(outEdge) == decision.get()
+            .booleanValue()) {
+          liveFunctions.add(dest);
+        } else {
+          deadFunctions.add(dest);
+        }
+      } else if (isMultiplexer(dest)) {
+        final Optional<Task> takenData = getTakenData(graph, dest, decision.get());
+        if (takenData.isEmpty()) {
+          return false;
+        }
+        muxerInputs.put(dest, takenData.get());
+      } else {
+        return false;
+      }
+    }
+    // functions only triggered by the decision variable cannot be kept
+    final boolean untriggeredFunction = liveFunctions.stream().anyMatch(function -> graph
+        .getInEdges(function).stream().allMatch(inEdge -> graph.getSource(inEdge)
+            .equals(decisionVariable)));
+    if (untriggeredFunction) {
+      return false;
+    }
+    muxerInputs.forEach((muxer, takenData) -> bypassMultiplexer(graph, muxer, takenData));
+    for (final Task deadFunction : deadFunctions) {
+      for (final Task output : new ArrayList<>(graph.getSuccessors(deadFunction))) {
+        if (graph.getPredecessorCount(output) == 1) {
+          graph.removeVertex(output);
+        }
+      }
+      graph.removeVertex(deadFunction);
+    }
+    graph.removeVertex(decisionVariable);
+    graph.removeVertex(conditionFunction);
+    return true;
+  }
+
+  /**
+   * Returns the data which is forwarded by the given multiplexer for the given
+   * decision. Returns an empty optional if the output of the multiplexer cannot
+   * be replaced by this data.
+   *
+   * @param graph the enactment graph
+   * @param muxer the multiplexer
+   * @param decision the result of the condition evaluation
+   * @return the data forwarded by the multiplexer
+   */
+  protected static Optional<Task> getTakenData(final EnactmentGraph graph, final Task muxer,
+      final boolean decision) {
+    if (graph.getSuccessorCount(muxer) != 1) {
+      return Optional.empty();
+    }
+    final Task muxerOutput = graph.getSuccessors(muxer).iterator().next();
+    final Optional<Task> result = graph.getInEdges(muxer).stream()
+        .filter(inEdge -> PropertyServiceDependency.getType(inEdge).equals(TypeDependency.ControlIf)
+            && PropertyServiceDependencyControlIf.getActivation(inEdge) == decision)
+        .map(graph::getSource).findAny();
+    // the json key of a wf output cannot be moved to another input or output
+    final boolean keyConflict = result.isPresent() && PropertyServiceData.isLeaf(muxerOutput)
+        && (PropertyServiceData.isLeaf(result.get()) || PropertyServiceData.isRoot(result.get()));
+    return keyConflict ? Optional.empty() : result;
+  }
+
+  /**
+   * Removes the given multiplexer and its output. The consumers of the output
+   * read the given data instead.
+   *
+   * @param graph the enactment graph
+   * @param muxer the multiplexer
+   * @param takenData the data forwarded by the multiplexer
+   */
+  protected static void bypassMultiplexer(final EnactmentGraph graph, final Task muxer,
+      final Task takenData) {
+    final Task muxerOutput = graph.getSuccessors(muxer).iterator().next();
+    for (final Dependency outEdge : new ArrayList<>(graph.getOutEdges(muxerOutput))) {
+      final Task consumer = graph.getDest(outEdge);
+      graph.removeEdge(outEdge);
+      graph.addEdge(outEdge, takenData, consumer, EdgeType.DIRECTED);
+    }
+    if (PropertyServiceData.isLeaf(muxerOutput)) {
+      PropertyServiceData.makeLeaf(takenData);
+      PropertyServiceData.setJsonKey(takenData, PropertyServiceData.getJsonKey(muxerOutput));
+    }
+    graph.removeVertex(muxerOutput);
+    graph.removeVertex(muxer);
+  }
+
+  /**
+   * Evaluates the given conditions if all compared data are constants. Returns
+   * an empty optional otherwise.
+   *
+   * @param graph the enactment graph
+   * @param conditions the conditions of a condition function
+   * @return the result of the condition evaluation
+   */
+  protected static Optional<Boolean> evaluateConditions(final EnactmentGraph graph,
+      final List<Condition> conditions) {
+    if (conditions.isEmpty()) {
+      return Optional.empty();
+    }
+    final CombinedWith combinedWith =
+        conditions.size() == 1 ? CombinedWith.And : conditions.get(0).getCombinedWith();
+    boolean result = combinedWith.equals(CombinedWith.And);
+    for (final Condition condition : conditions) {
+      if (conditions.size() > 1 && !condition.getCombinedWith().equals(combinedWith)) {
+        return Optional.empty();
+      }
+      final Optional<JsonElement> first = getConstantContent(graph, condition.getFirstInputId());
+      final Optional<JsonElement> second =
+          getConstantContent(graph, condition.getSecondInputId());
+      if (first.isEmpty() || second.isEmpty()) {
+        return Optional.empty();
+      }
+      final Optional<Boolean> conditionResult = AfclConstantConditions.compareConstants(
+          first.get(), second.get(), condition.getOperator(), condition.getType(),
+          condition.isNegation());
+      if (conditionResult.isEmpty()) {
+        return Optional.empty();
+      }
+      result = combinedWith.equals(CombinedWith.And) ? result && conditionResult.get()
+          : result || conditionResult.get();
+    }
+    return Optional.of(result);
+  }
+
+  /**
+   * Removes the data nodes which are neither connected to any function nor wf
+   * outputs.
+   *
+   * @param graph the enactment graph
+   * @return the number of removed data nodes
+   */
+  protected static int removeDisconnectedData(final EnactmentGraph graph) {
+    final List<Task> disconnected = graph.getVertices().stream()
+        .filter(task -> TaskPropertyService.isCommunication(task)
+            && !PropertyServiceData.isLeaf(task) && graph.getInEdges(task).isEmpty()
+            && graph.getOutEdges(task).isEmpty())
+        .collect(Collectors.toList());
+    disconnected.forEach(graph::removeVertex);
+    return disconnected.size();
+  }
+
+  /**
+   * Returns a copy of the given graph. The copied elements have the same ids and
+   * attributes as the original ones.
+   *
+   * @param graph the given graph
+   * @return a copy of the given graph
+   */
+  public static EnactmentGraph copyGraph(final EnactmentGraph graph) {
+    final EnactmentGraph result = new EnactmentGraph();
+    for (final Task task : graph.getVertices()) {
+      result.addVertex(UtilsGraph.copyElement(task));
+    }
+    for (final Dependency dependency : graph.getEdges()) {
+      result.addEdge(UtilsGraph.copyElement(dependency),
+          result.getVertex(graph.getSource(dependency).getId()),
+          result.getVertex(graph.getDest(dependency).getId()), EdgeType.DIRECTED);
+    }
+    return result;
+  }
+
+  /**
+   * Replaces the given node by the given replacement, which takes over all
+   * edges of the node.
+   *
+   * @param graph the enactment graph
+   * @param original the replaced node
+   * @param replacement the replacement
+   */
+  protected static void replaceNode(final EnactmentGraph graph, final Task original,
+      final Task replacement) {
+    final List<Dependency> inEdges = new ArrayList<>(graph.getInEdges(original));
+    final List<Task> sources = inEdges.stream().map(graph::getSource).collect(Collectors.toList());
+    final List<Dependency> outEdges = new ArrayList<>(graph.getOutEdges(original));
+    final List<Task> dests = outEdges.stream().map(graph::getDest).collect(Collectors.toList());
+    graph.removeVertex(original);
+    graph.addVertex(replacement);
+    for (int idx = 0; idx < inEdges.size(); idx++) {
+      graph.addEdge(inEdges.get(idx), sources.get(idx), replacement, EdgeType.DIRECTED);
+    }
+    for (int idx = 0; idx < outEdges.size(); idx++) {
+      graph.addEdge(outEdges.get(idx), replacement, dests.get(idx), EdgeType.DIRECTED);
+    }
+  }
+
+  /**
+   * Replaces the given source reference in the given subcollection string by
+   * the given value. Only complete entries are replaced (a reference is
+   * delimited by the separators of the subcollection strings).
+   *
+   * @param subCollections the subcollection string
+   * @param reference the source reference
+   * @param value the value of the referenced data
+   * @return the subcollection string with the value in place of the reference
+   */
+  protected static String replaceReference(final String subCollections, final String reference,
+      final int value) {
+    final String delimited = "(?<![^,:\\s])" + Pattern.quote(reference) + "(?![^,:\\s])";
+    return subCollections.replaceAll(delimited, Matcher.quoteReplacement(String.valueOf(value)));
+  }
+
+  /**
+   * Returns the wf input nodes of the given graph (roots which are not wf
+   * outputs).
+   *
+   * @param graph the enactment graph
+   * @return the wf input nodes of the given graph
+   */
+  protected static List<Task> getInputNodes(final EnactmentGraph graph) {
+    return graph.getVertices().stream()
+        .filter(task -> TaskPropertyService.isCommunication(task)
+            && PropertyServiceData.isRoot(task) && !PropertyServiceData.isLeaf(task))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Returns the content of the constant node with the given id (or an empty
+   * optional if there is no such constant node).
+   *
+   * @param graph the enactment graph
+   * @param nodeId the node id
+   * @return the content of the constant node with the given id
+   */
+  protected static Optional<JsonElement> getConstantContent(final EnactmentGraph graph,
+      final String nodeId) {
+    final Task node = graph.getVertex(nodeId);
+    if (node == null || !PropertyServiceData.getNodeType(node).equals(NodeType.Constant)) {
+      return Optional.empty();
+    }
+    return Optional.of(PropertyServiceData.getContent(node));
+  }
+
+  /**
+   * Returns the int value of the given node if it is a constant integral number
+   * (an empty optional otherwise).
+   *
+   * @param node the given node
+   * @return the int value of the given node
+   */
+  protected static Optional<Integer> getConstantInt(final Task node) {
+    if (!TaskPropertyService.isCommunication(node)
+        || !PropertyServiceData.getNodeType(node).equals(NodeType.Constant)
+        || !PropertyServiceData.getDataType(node).equals(DataType.Number)) {
+      return Optional.empty();
+    }
+    final JsonElement content = PropertyServiceData.getContent(node);
+    if (!content.isJsonPrimitive() || !content.getAsJsonPrimitive().isNumber()) {
+      return Optional.empty();
+    }
+    final double value = content.getAsDouble();
+    return value == Math.rint(value) ? Optional.of((int) value) : Optional.empty();
+  }
+
+  /**
+   * Returns true iff the given node models a multiplexer.
+   *
+   * @param task the given node
+   * @return true iff the given node models a multiplexer
+   */
+  protected static boolean isMultiplexer(final Task task) {
+    return TaskPropertyService.isProcess(task)
+        && PropertyServiceFunction.getUsageType(task).equals(UsageType.DataFlow)
+        && PropertyServiceFunctionDataFlow.getDataFlowType(task)
+            .equals(DataFlowType.Multiplexer);
+  }
+}
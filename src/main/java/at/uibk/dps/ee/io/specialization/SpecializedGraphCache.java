@@ -0,0 +1,138 @@
+package at.uibk.dps.ee.io.specialization;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import com.google.gson.JsonObject;
+
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+
+/**
+ * The {@link SpecializedGraphCache} keeps the graphs specialized (see
+ * {@link GraphSpecialization}) for the inputs of repeated enactments of the
+ * same workflow. Entries are addressed by the values of the relevant wf inputs
+ * only, so that inputs which differ in other values share the specialized
+ * graph. The number of entries is bounded; the least recently used entries are
+ * evicted first. The specialization is performed outside of the lock guarding
+ * the entries, so that requests for other inputs are not blocked by it;
+ * concurrent requests for the same input wait for the same specialization.
+ *
+ * @author Fedor Smirnov
+ */
+public class SpecializedGraphCache {
+
+  protected final EnactmentGraph graph;
+  protected final Set<String> relevantKeys;
+  protected final Map<String, CompletableFuture<EnactmentGraph>> entries;
+
+  /**
+   * Default constructor.
+   *
+   * @param graph the (unspecialized) enactment graph of the workflow
+   * @param maxEntries the maximal number of cached specialized graphs
+   */
+  public SpecializedGraphCache(final EnactmentGraph graph, final int maxEntries) {
+    if (maxEntries <= 0) {
+      throw new IllegalArgumentException("The number of cache entries has to be positive.");
+    }
+    this.graph = graph;
+    this.relevantKeys = GraphSpecialization.getRelevantInputKeys(graph);
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(
+          final Map.Entry<String, CompletableFuture<EnactmentGraph>> eldest) {
+        return size() > maxEntries;
+      }
+    };
+  }
+
+  /**
+   * Returns the graph specialized for the given wf input. The returned graph is
+   * a copy of the cached entry, so that it can be modified by the enactment.
+   *
+   * @param input the wf input
+   * @return the graph specialized for the given wf input
+   */
+  public EnactmentGraph getSpecializedGraph(final JsonObject input) {
+    final String key = getEntryKey(input);
+    final CompletableFuture<EnactmentGraph> newEntry = new CompletableFuture<>();
+    final CompletableFuture<EnactmentGraph> entry;
+    synchronized (entries) {
+      entry = entries.putIfAbsent(key, newEntry);
+    }
+    if (entry != null) {
+      return GraphSpecialization.copyGraph(awaitEntry(entry));
+    }
+    try {
+      newEntry.complete(GraphSpecialization.specialize(graph, input));
+    } catch (RuntimeException exc) {
+      // failed specializations are not cached
+      synchronized (entries) {
+        entries.remove(key, newEntry);
+      }
+      newEntry.completeExceptionally(exc);
+      throw exc;
+    }
+    return GraphSpecialization.copyGraph(newEntry.join());
+  }
+
+  /**
+   * Waits for the specialization of the given entry and returns the specialized
+   * graph.
+   *
+   * @param entry the entry
+   * @return the specialized graph
+   */
+  protected static EnactmentGraph awaitEntry(final CompletableFuture<EnactmentGraph> entry) {
+    try {
+      return entry.join();
+    } catch (CompletionException exc) {
+      if (exc.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) exc.getCause();
+      }
+      throw exc;
+    }
+  }
+
+  /**
+   * Returns the key of the entry for the given wf input, i.e., the json object
+   * with the values of the relevant inputs.
+   *
+   * @param input the wf input
+   * @return the key of the entry for the given wf input
+   */
+  protected String getEntryKey(final JsonObject input) {
+    final JsonObject result = new JsonObject();
+    for (final String relevantKey : relevantKeys) {
+      if (input.has(relevantKey)) {
+        result.add(relevantKey, input.get(relevantKey));
+      }
+    }
+    return result.toString();
+  }
+
+  /**
+   * Returns the json keys of the wf inputs which the specialization depends on.
+   *
+   * @return the json keys of the relevant wf inputs
+   */
+  public Set<String> getRelevantKeys() {
+    return relevantKeys;
+  }
+
+  /**
+   * Returns the number of cached specialized graphs.
+   *
+   * @return the number of cached specialized graphs
+   */
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+}
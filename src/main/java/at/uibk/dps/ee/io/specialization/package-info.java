@@ -0,0 +1,5 @@
+/**
+ * Package for the classes used to specialize enactment graphs for a known
+ * workflow input.
+ */
+package at.uibk.dps.ee.io.specialization;
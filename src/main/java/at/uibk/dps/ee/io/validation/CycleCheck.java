@@ -0,0 +1,62 @@
+package at.uibk.dps.ee.io.validation;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+/**
+ * Checks that the graph is acyclic. The in-degrees of the tasks are gathered
+ * during the traversal; after the traversal, the tasks are removed in
+ * topological order (Kahn's algorithm). The tasks which cannot be removed lie
+ * on or behind a cycle.
+ * 
+ * @author Fedor Smirnov
+ *
+ */
+public class CycleCheck implements GraphCheck {
+
+  protected final Map<Task, AtomicInteger> inDegrees = new ConcurrentHashMap<>();
+
+  @Override
+  public void checkTask(final EnactmentGraph graph, final Task task,
+      final Collection<Dependency> inEdges, final Collection<Dependency> outEdges,
+      final List<Violation> violations) {
+    inDegrees.put(task, new AtomicInteger(inEdges.size()));
+  }
+
+  @Override
+  public void finish(final EnactmentGraph graph, final List<Violation> violations) {
+    final Deque<Task> free = new ArrayDeque<>();
+    inDegrees.forEach((task, degree) -> {
+      if (degree.get() == 0) {
+        free.add(task);
+      }
+    });
+    int removed = 0;
+    while (!free.isEmpty()) {
+      final Task task = free.poll();
+      removed++;
+      for (final Dependency outEdge : graph.getOutEdges(task)) {
+        final Task dest = graph.getDest(outEdge);
+        if (inDegrees.get(dest).decrementAndGet() == 0) {
+          free.add(dest);
+        }
+      }
+    }
+    if (removed < inDegrees.size()) {
+      inDegrees.forEach((task, degree) -> {
+        if (degree.get() > 0) {
+          violations.add(new Violation(getName(), task.getId(), "task on or behind a cycle"));
+        }
+      });
+    }
+  }
+}
@@ -0,0 +1,112 @@
+package at.uibk.dps.ee.io.validation;
+
+import java.util.Collection;
+import java.util.List;
+
+import at.uibk.dps.ee.io.UtilsGraph;
+import at.uibk.dps.ee.model.constants.ConstantsEEModel;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceData.DataType;
+import at.uibk.dps.ee.model.properties.PropertyServiceData.NodeType;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections.OperationType;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.properties.TaskPropertyService;
+
+/**
+ * Checks the agreement of the types along the edges: each edge connects a data
+ * node with a function node, the content of constant data nodes (which are
+ * consumed without a producer) matches their data type, and the data types of
+ * the data consumed by collection operations and distributions, as well as the
+ * data produced by aggregations, match the types required by these functions.
+ * 
+ * @author Fedor Smirnov
+ *
+ */
+public class DataTypeCheck implements GraphCheck {
+
+  @Override
+  public void checkTask(final EnactmentGraph graph, final Task task,
+      final Collection<Dependency> inEdges, final Collection<Dependency> outEdges,
+      final List<Violation> violations) {
+    final boolean communication = TaskPropertyService.isCommunication(task);
+    // each edge is checked at its source
+    for (final Dependency edge : outEdges) {
+      final Task dest = graph.getDest(edge);
+      if (communication == TaskPropertyService.isCommunication(dest)) {
+        violations.add(new Violation(getName(), task.getId(),
+            "edge " + edge.getId() + " connects two " + (communication ? "data" : "function")
+                + " nodes"));
+      }
+    }
+    // constants are the only data nodes which are neither roots nor produced
+    if (communication && inEdges.isEmpty() && !PropertyServiceData.isRoot(task)
+        && PropertyServiceData.getNodeType(task).equals(NodeType.Constant)) {
+      final DataType dataType = PropertyServiceData.getDataType(task);
+      if (!UtilsGraph.matchesType(PropertyServiceData.getContent(task), dataType)) {
+        violations.add(new Violation(getName(), task.getId(),
+            "constant content does not match the data type " + dataType));
+      }
+    }
+    if (!communication) {
+      checkFunctionTypes(graph, task, inEdges, outEdges, violations);
+    }
+  }
+
+  /**
+   * Checks that the types of the data consumed and produced by the given
+   * function match the types required by the function. Collection operations
+   * and distributions process collections (indices and iteration numbers are
+   * numbers), while aggregations produce collections.
+   * 
+   * @param graph the enactment graph
+   * @param function the checked function node
+   * @param inEdges the in edges of the function
+   * @param outEdges the out edges of the function
+   * @param violations the list of violations to add to
+   */
+  protected void checkFunctionTypes(final EnactmentGraph graph, final Task function,
+      final Collection<Dependency> inEdges, final Collection<Dependency> outEdges,
+      final List<Violation> violations) {
+    if (UtilsGraph.isCollectionOperation(function)) {
+      for (final Dependency inEdge : inEdges) {
+        final Task data = graph.getSource(inEdge);
+        // the indices read from data nodes are keyed by the id of the data
+        final DataType required =
+            PropertyServiceDependency.getJsonKey(inEdge).equals(data.getId()) ? DataType.Number
+                : DataType.Collection;
+        checkDataType(data, required, function, violations);
+      }
+    } else if (UtilsGraph.isCollectionDataFlow(function, OperationType.Distribution)) {
+      for (final Dependency inEdge : inEdges) {
+        final DataType required = PropertyServiceDependency.getJsonKey(inEdge)
+            .equals(ConstantsEEModel.JsonKeyConstantIterator) ? DataType.Number
+                : DataType.Collection;
+        checkDataType(graph.getSource(inEdge), required, function, violations);
+      }
+    } else if (UtilsGraph.isCollectionDataFlow(function, OperationType.Aggregation)) {
+      for (final Dependency outEdge : outEdges) {
+        checkDataType(graph.getDest(outEdge), DataType.Collection, function, violations);
+      }
+    }
+  }
+
+  /**
+   * Adds a violation if the given data node does not have the required type.
+   * 
+   * @param data the data node
+   * @param required the type required by the function
+   * @param function the function consuming or producing the data
+   * @param violations the list of violations to add to
+   */
+  protected void checkDataType(final Task data, final DataType required, final Task function,
+      final List<Violation> violations) {
+    final DataType dataType = PropertyServiceData.getDataType(data);
+    if (!dataType.equals(required)) {
+      violations.add(new Violation(getName(), function.getId(), "data " + data.getId()
+          + " has the type " + dataType + " while the function requires " + required));
+    }
+  }
+}
@@ -0,0 +1,27 @@
+package at.uibk.dps.ee.io.validation;
+
+import java.util.Collection;
+import java.util.List;
+
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.properties.TaskPropertyService;
+
+/**
+ * Checks that no data node is disconnected from the rest of the graph.
+ * 
+ * @author Fedor Smirnov
+ *
+ */
+public class DisconnectedDataCheck implements GraphCheck {
+
+  @Override
+  public void checkTask(final EnactmentGraph graph, final Task task,
+      final Collection<Dependency> inEdges, final Collection<Dependency> outEdges,
+      final List<Violation> violations) {
+    if (TaskPropertyService.isCommunication(task) && inEdges.isEmpty() && outEdges.isEmpty()) {
+      violations.add(new Violation(getName(), task.getId(), "disconnected data node"));
+    }
+  }
+}
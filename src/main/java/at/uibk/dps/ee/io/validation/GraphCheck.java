@@ -0,0 +1,53 @@
+package at.uibk.dps.ee.io.validation;
+
+import java.util.Collection;
+import java.util.List;
+
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+/**
+ * Interface for the checks run by the {@link GraphValidator}. The validator
+ * traverses the graph once and passes each task, together with its in- and
+ * out-edges, to all checks. Tasks are processed concurrently for large graphs,
+ * so that implementations of {@link #checkTask} have to be thread-safe. A check
+ * object carries the state of a single validation run.
+ * 
+ * @author Fedor Smirnov
+ *
+ */
+public interface GraphCheck {
+
+  /**
+   * Returns the name of the check (used to label the violations).
+   * 
+   * @return the name of the check
+   */
+  default String getName() {
+    return getClass().getSimpleName();
+  }
+
+  /**
+   * Checks the given task and adds the found violations to the given list.
+   * 
+   * @param graph the checked graph
+   * @param task the checked task
+   * @param inEdges the in-edges of the task
+   * @param outEdges the out-edges of the task
+   * @param violations the list to add the found violations to
+   */
+  void checkTask(EnactmentGraph graph, Task task, Collection<Dependency> inEdges,
+      Collection<Dependency> outEdges, List<Violation> violations);
+
+  /**
+   * Called after all tasks have been checked. Used by checks which need
+   * information gathered from all tasks.
+   * 
+   * @param graph the checked graph
+   * @param violations the list to add the found violations to
+   */
+  default void finish(final EnactmentGraph graph, final List<Violation> violations) {
+    // no graph-level check by default
+  }
+}
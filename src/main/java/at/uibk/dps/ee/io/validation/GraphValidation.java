@@ -1,8 +1,10 @@
 package at.uibk.dps.ee.io.validation;
 
+import java.util.List;
+
+import at.uibk.dps.ee.io.jfr.GraphValidationEvent;
+import at.uibk.dps.ee.io.report.CompilationReport;
 import at.uibk.dps.ee.model.graph.EnactmentGraph;
-import net.sf.opendse.model.Task;
-import net.sf.opendse.model.properties.TaskPropertyService;
 
 /**
  * Static container for the methods used to validate the created graphs.
@@ -17,25 +19,92 @@ public final class GraphValidation {
   private GraphValidation() {}
 
   /**
-   * Validates the given graph. Throws an exception if graph is invalid.
+   * Validates the given graph with all checks. Throws a
+   * {@link GraphValidationException} listing all violations if graph is invalid.
    * 
    * @param graph the given graph
    */
   public static void validateGraph(final EnactmentGraph graph) {
-    checkForDisconnectedDataNodes(graph);
+    validateGraph(graph, ValidationLevel.FULL);
+  }
+
+  /**
+   * Validates the given graph with the checks of the given level. Throws a
+   * {@link GraphValidationException} listing all violations if graph is invalid.
+   * 
+   * @param graph the given graph
+   * @param level the validation level
+   */
+  public static void validateGraph(final EnactmentGraph graph, final ValidationLevel level) {
+    if (level.equals(ValidationLevel.NONE)) {
+      return;
+    }
+    final GraphValidationEvent event = new GraphValidationEvent();
+    event.begin();
+    new GraphValidator(createChecks(level)).validate(graph);
+    if (event.shouldCommit()) {
+      event.level = level.name();
+      event.nodes = graph.getVertexCount();
+      event.edges = graph.getEdgeCount();
+      event.commit();
+    }
+  }
+
+  /**
+   * Creates (fresh instances of) the checks run during the validation of the
+   * generated graphs.
+   * 
+   * @return the checks run during the validation of the generated graphs
+   */
+  public static List<GraphCheck> createDefaultChecks() {
+    return createChecks(ValidationLevel.FULL);
   }
 
   /**
-   * Throws an exception if any disconnected nodes are found.
+   * Creates (fresh instances of) the checks run on the given validation level.
    * 
-   * @param graph the graph to check
+   * @param level the validation level
+   * @return the checks run on the given validation level
+   */
+  public static List<GraphCheck> createChecks(final ValidationLevel level) {
+    switch (level) {
+      case FULL:
+        return List.of(new DisconnectedDataCheck(), new OrphanFunctionCheck(),
+            new RootLeafCheck(), new DataTypeCheck(), new CycleCheck());
+      case STRUCTURAL:
+        return List.of(new DisconnectedDataCheck(), new OrphanFunctionCheck(), new CycleCheck());
+      case NONE:
+        return List.of();
+      default:
+        throw new IllegalArgumentException("Unknown validation level " + level);
+    }
+  }
+
+  /**
+   * Validates the given graph with all checks and records the validation in the
+   * given report. Throws an exception if graph is invalid.
+   * 
+   * @param graph the given graph
+   * @param report the report of the compilation
+   */
+  public static void validateGraph(final EnactmentGraph graph, final CompilationReport report) {
+    validateGraph(graph, report, ValidationLevel.FULL);
+  }
+
+  /**
+   * Validates the given graph with the checks of the given level and records
+   * the validation in the given report. Throws an exception if graph is
+   * invalid.
+   * 
+   * @param graph the given graph
+   * @param report the report of the compilation
+   * @param level the validation level
    */
-  protected static void checkForDisconnectedDataNodes(final EnactmentGraph graph) {
-    for (final Task task : graph) {
-      if (TaskPropertyService.isCommunication(task) && graph.getIncidentEdges(task).isEmpty()) {
-        throw new IllegalStateException(
-            "The generated graph contains a disconnected data node: " + task.getId());
-      }
+  public static void validateGraph(final EnactmentGraph graph, final CompilationReport report,
+      final ValidationLevel level) {
+    if (level.equals(ValidationLevel.NONE)) {
+      return;
     }
+    report.run(CompilationReport.Phase.Validation, graph, () -> validateGraph(graph, level));
   }
 }
@@ -0,0 +1,47 @@
+package at.uibk.dps.ee.io.validation;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Exception thrown if the validation of an enactment graph finds violations.
+ * Lists all violations found during the validation.
+ * 
+ * @author Fedor Smirnov
+ *
+ */
+public class GraphValidationException extends IllegalStateException {
+
+  private static final long serialVersionUID = 1L;
+
+  protected final transient List<Violation> violations;
+
+  /**
+   * Default constructor.
+   * 
+   * @param violations the violations found during the validation
+   */
+  public GraphValidationException(final List<Violation> violations) {
+    super(createMessage(violations));
+    this.violations = Collections.unmodifiableList(violations);
+  }
+
+  public List<Violation> getViolations() {
+    return violations;
+  }
+
+  /**
+   * Creates the exception message listing all violations.
+   * 
+   * @param violations the violations
+   * @return the exception message
+   */
+  protected static String createMessage(final List<Violation> violations) {
+    final StringBuilder result = new StringBuilder("The generated graph is invalid (")
+        .append(violations.size()).append(" violation(s)):");
+    for (final Violation violation : violations) {
+      result.append(System.lineSeparator()).append(violation);
+    }
+    return result.toString();
+  }
+}
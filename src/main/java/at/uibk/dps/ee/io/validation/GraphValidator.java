@@ -0,0 +1,127 @@
+package at.uibk.dps.ee.io.validation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+/**
+ * The {@link GraphValidator} validates enactment graphs by traversing them once
+ * and running a set of {@link GraphCheck}s on each task. The edges of each task
+ * are looked up only once and shared by all checks. For large graphs, the tasks
+ * are checked in parallel chunks on a {@link ForkJoinPool} (the graph is only
+ * read). All violations are gathered and reported together.
+ * 
+ * @author Fedor Smirnov
+ *
+ */
+public class GraphValidator {
+
+  /**
+   * The number of tasks checked by a single parallel task. Graphs with fewer
+   * tasks are checked sequentially.
+   */
+  protected static final int chunkSize = 1 << 12;
+
+  protected final List<GraphCheck> checks;
+  protected final ForkJoinPool pool;
+
+  /**
+   * Constructs a validator running the given checks on the common pool.
+   * 
+   * @param checks the checks (carrying the state of a single validation run)
+   */
+  public GraphValidator(final List<GraphCheck> checks) {
+    this(checks, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Constructs a validator running the given checks on the given pool.
+   * 
+   * @param checks the checks (carrying the state of a single validation run)
+   * @param pool the pool used to check large graphs
+   */
+  public GraphValidator(final List<GraphCheck> checks, final ForkJoinPool pool) {
+    this.checks = checks;
+    this.pool = pool;
+  }
+
+  /**
+   * Validates the given graph. Throws a {@link GraphValidationException} listing
+   * all violations if the graph is invalid.
+   * 
+   * @param graph the graph to validate
+   */
+  public void validate(final EnactmentGraph graph) {
+    final List<Violation> violations = getViolations(graph);
+    if (!violations.isEmpty()) {
+      throw new GraphValidationException(violations);
+    }
+  }
+
+  /**
+   * Runs all checks on the given graph and returns the found violations (in the
+   * order of the checked tasks, followed by the graph-level violations).
+   * 
+   * @param graph the graph to check
+   * @return the violations found in the graph
+   */
+  public List<Violation> getViolations(final EnactmentGraph graph) {
+    final Task[] tasks = graph.getVertices().toArray(new Task[0]);
+    final int chunkNumber = (tasks.length + chunkSize - 1) / chunkSize;
+    final List<Violation> result = new ArrayList<>();
+    if (chunkNumber > 1) {
+      final List<List<Violation>> chunkViolations =
+          pool.submit(() -> IntStream.range(0, chunkNumber).parallel()
+              .mapToObj(chunk -> checkChunk(graph, tasks, chunk)).collect(Collectors.toList()))
+              .join();
+      chunkViolations.forEach(result::addAll);
+    } else if (chunkNumber == 1) {
+      result.addAll(checkChunk(graph, tasks, 0));
+    }
+    for (final GraphCheck check : checks) {
+      check.finish(graph, result);
+    }
+    return result;
+  }
+
+  /**
+   * Runs all checks on the tasks of the given chunk.
+   * 
+   * @param graph the checked graph
+   * @param tasks all tasks of the graph
+   * @param chunk the index of the chunk
+   * @return the violations found in the chunk
+   */
+  protected List<Violation> checkChunk(final EnactmentGraph graph, final Task[] tasks,
+      final int chunk) {
+    final List<Violation> result = new ArrayList<>();
+    final int end = Math.min(tasks.length, (chunk + 1) * chunkSize);
+    for (int idx = chunk * chunkSize; idx < end; idx++) {
+      final Task task = tasks[idx];
+      final Collection<Dependency> inEdges = nonNull(graph.getInEdges(task));
+      final Collection<Dependency> outEdges = nonNull(graph.getOutEdges(task));
+      for (final GraphCheck check : checks) {
+        check.checkTask(graph, task, inEdges, outEdges, result);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the given edges or an empty collection if null.
+   * 
+   * @param edges the edges
+   * @return the given edges or an empty collection if null
+   */
+  protected static Collection<Dependency> nonNull(final Collection<Dependency> edges) {
+    return edges == null ? Collections.emptyList() : edges;
+  }
+}
@@ -0,0 +1,29 @@
+package at.uibk.dps.ee.io.validation;
+
+import java.util.Collection;
+import java.util.List;
+
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.properties.TaskPropertyService;
+
+/**
+ * Checks that each function node is connected to at least one data node (a
+ * function without any data is neither triggered nor does it produce
+ * anything).
+ * 
+ * @author Fedor Smirnov
+ *
+ */
+public class OrphanFunctionCheck implements GraphCheck {
+
+  @Override
+  public void checkTask(final EnactmentGraph graph, final Task task,
+      final Collection<Dependency> inEdges, final Collection<Dependency> outEdges,
+      final List<Violation> violations) {
+    if (TaskPropertyService.isProcess(task) && inEdges.isEmpty() && outEdges.isEmpty()) {
+      violations.add(new Violation(getName(), task.getId(), "orphan function"));
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package at.uibk.dps.ee.io.validation;
+
+import java.util.Collection;
+import java.util.List;
+
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceData.NodeType;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.properties.TaskPropertyService;
+
+/**
+ * Checks that the root and leaf annotations are consistent with the graph
+ * structure: roots (workflow inputs) have no producers, data nodes without
+ * producers are either roots or constants, and leaves (workflow outputs) are
+ * produced by a function or are roots themselves.
+ * 
+ * @author Fedor Smirnov
+ *
+ */
+public class RootLeafCheck implements GraphCheck {
+
+  @Override
+  public void checkTask(final EnactmentGraph graph, final Task task,
+      final Collection<Dependency> inEdges, final Collection<Dependency> outEdges,
+      final List<Violation> violations) {
+    if (!TaskPropertyService.isCommunication(task)) {
+      return;
+    }
+    final boolean root = PropertyServiceData.isRoot(task);
+    if (root && !inEdges.isEmpty()) {
+      violations.add(new Violation(getName(), task.getId(), "root data node with a producer"));
+    }
+    if (!root && inEdges.isEmpty() && !outEdges.isEmpty()
+        && !PropertyServiceData.getNodeType(task).equals(NodeType.Constant)) {
+      violations.add(new Violation(getName(), task.getId(),
+          "data node without producer which is neither a root nor a constant"));
+    }
+    if (PropertyServiceData.isLeaf(task) && !root && inEdges.isEmpty()) {
+      violations.add(new Violation(getName(), task.getId(), "unreachable leaf data node"));
+    }
+  }
+}
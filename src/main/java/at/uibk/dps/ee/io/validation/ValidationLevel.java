@@ -0,0 +1,37 @@
+package at.uibk.dps.ee.io.validation;
+
+/**
+ * The levels of the validation of enactment graphs. The levels are ordered by
+ * their strictness; each level includes the checks of the levels declared
+ * before it.
+ * 
+ * @author Fedor Smirnov
+ *
+ */
+public enum ValidationLevel {
+  /**
+   * No validation (for trusted graphs).
+   */
+  NONE,
+  /**
+   * Checks of the graph structure (disconnected data, orphan functions, and
+   * cycles).
+   */
+  STRUCTURAL,
+  /**
+   * All checks, including the annotations of the nodes (roots, leaves, data
+   * types).
+   */
+  FULL;
+
+  /**
+   * Returns true iff a graph validated with this level does not have to be
+   * validated again to meet the given level.
+   * 
+   * @param required the required level
+   * @return true iff this level includes the required level
+   */
+  public boolean covers(final ValidationLevel required) {
+    return compareTo(required) >= 0;
+  }
+}
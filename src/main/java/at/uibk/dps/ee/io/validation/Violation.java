@@ -0,0 +1,44 @@
+package at.uibk.dps.ee.io.validation;
+
+/**
+ * A violation of a {@link GraphCheck} found in an enactment graph.
+ * 
+ * @author Fedor Smirnov
+ *
+ */
+public class Violation {
+
+  protected final String check;
+  protected final String taskId;
+  protected final String message;
+
+  /**
+   * Default constructor.
+   * 
+   * @param check the name of the violated check
+   * @param taskId the id of the task where the violation was found
+   * @param message the description of the violation
+   */
+  public Violation(final String check, final String taskId, final String message) {
+    this.check = check;
+    this.taskId = taskId;
+    this.message = message;
+  }
+
+  public String getCheck() {
+    return check;
+  }
+
+  public String getTaskId() {
+    return taskId;
+  }
+
+  public String getMessage() {
+    return message;
+  }
+
+  @Override
+  public String toString() {
+    return "[" + check + "] " + taskId + ": " + message;
+  }
+}
@@ -9,17 +9,9 @@ import org.junit.Test;
 
 import at.uibk.dps.afcl.functions.objects.DataIns;
 import at.uibk.dps.afcl.functions.objects.PropertyConstraint;
-import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUtilityCollections.CollectionOperation;
 
 public class AfclCollectionOperationsTest {
 
-	@Test
-	public void testGetSubstrings() {
-		String input = "1, 3, 1:3, src/name:3:src2/name";
-		List<String> result = AfclCollectionOperations.getSubstrings(input, CollectionOperation.ElementIndex);
-		assertEquals(7, result.size());
-	}
-
 	@Test
 	public void testHasCollectionOperators() {
 		DataIns in = new DataIns("input", "type");
@@ -34,7 +34,8 @@ public class AfclCompoundsParallelForTest {
 
 		String iteratorString = "5";
 
-		AfclCompoundsParallelFor.processIterator(iteratorString, graph, dataIns, distributionNode, parForName);
+		AfclCompoundsParallelFor.processIterator(iteratorString, graph, dataIns, distributionNode, parForName,
+				new SymbolTableAfcl(parForName));
 
 		assertEquals(2, graph.getVertexCount());
 		assertEquals(1, graph.getPredecessorCount(distributionNode));
@@ -28,7 +28,7 @@ public class AfclCompoundsTest {
 		dataIn.setType("number");
 		dataIn.setSource("5");
 
-		AfclCompounds.addDataInConstant(graph, function, dataIn, DataType.Number);
+		AfclCompounds.addDataInConstant(graph, function, dataIn, DataType.Number, new SymbolTableAfcl("wf"));
 
 		assertEquals(1, graph.getEdgeCount());
 		assertEquals(2, graph.getVertexCount());
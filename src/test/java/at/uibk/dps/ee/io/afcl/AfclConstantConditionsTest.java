@@ -0,0 +1,63 @@
+package at.uibk.dps.ee.io.afcl;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import at.uibk.dps.afcl.functions.objects.Condition;
+
+public class AfclConstantConditionsTest {
+
+	@Test
+	public void testSingleConditions() {
+		assertTrue(AfclConstantConditions.evaluate(condition("5", "3", "number", ">", false, "and")).get());
+		assertFalse(AfclConstantConditions.evaluate(condition("5", "3", "number", ">", true, "and")).get());
+		assertTrue(AfclConstantConditions.evaluate(condition("2.5", "2.5", "number", "<=", false, "and")).get());
+		assertTrue(AfclConstantConditions.evaluate(condition("true", "false", "boolean", "!=", false, "and")).get());
+		assertTrue(
+				AfclConstantConditions.evaluate(condition("abcd", "abc", "string", "startsWith", false, "and")).get());
+		assertFalse(AfclConstantConditions.evaluate(condition("abcd", "bc", "string", "endsWith", false, "and")).get());
+	}
+
+	@Test
+	public void testNotEvaluable() {
+		// source reference
+		assertFalse(AfclConstantConditions.evaluate(condition("wf/in", "3", "number", ">", false, "and")).isPresent());
+		// operator not applicable to the type
+		assertFalse(
+				AfclConstantConditions.evaluate(condition("true", "false", "boolean", "<", false, "and")).isPresent());
+		// content not matching the type
+		assertFalse(AfclConstantConditions.evaluate(condition("abc", "3", "number", ">", false, "and")).isPresent());
+		assertFalse(
+				AfclConstantConditions.evaluate(condition("yes", "true", "boolean", "==", false, "and")).isPresent());
+	}
+
+	@Test
+	public void testConditionLists() {
+		List<Condition> conditions = new ArrayList<>();
+		assertFalse(AfclConstantConditions.evaluate(conditions).isPresent());
+		conditions.add(condition("5", "3", "number", ">", false, "or"));
+		conditions.add(condition("5", "3", "number", "<", false, "or"));
+		assertTrue(AfclConstantConditions.evaluate(conditions).get());
+		conditions.forEach(condition -> condition.setCombinedWith("and"));
+		assertFalse(AfclConstantConditions.evaluate(conditions).get());
+		// mixed combinations are left to the condition function
+		conditions.get(0).setCombinedWith("or");
+		assertFalse(AfclConstantConditions.evaluate(conditions).isPresent());
+	}
+
+	protected static Condition condition(String data1, String data2, String type, String operator,
+			boolean negation, String combinedWith) {
+		Condition result = new Condition();
+		result.setData1(data1);
+		result.setData2(data2);
+		result.setType(type);
+		result.setOperator(operator);
+		result.setNegation(negation);
+		result.setCombinedWith(combinedWith);
+		return result;
+	}
+}
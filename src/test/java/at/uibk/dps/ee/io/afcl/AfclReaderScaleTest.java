@@ -0,0 +1,86 @@
+package at.uibk.dps.ee.io.afcl;
+
+import static org.junit.Assert.*;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import at.uibk.dps.ee.io.testclasses.ScaleTests;
+import at.uibk.dps.ee.io.testclasses.WorkflowGenerator;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+
+/**
+ * Checks that the compile time and the heap occupied by the compiled graph grow
+ * (at most) linearly with the number of workflow functions. The largest
+ * checked workflow size is set with the system property
+ * {@value #maxFunctionsProperty} (default: {@value #maxFunctionsDefault}). Not
+ * part of the default test task; run with gradle scaleTest
+ * [-PscaleMaxFunctions=10000].
+ */
+@Category(ScaleTests.class)
+public class AfclReaderScaleTest {
+
+	protected static final String maxFunctionsProperty = "scaleMaxFunctions";
+	protected static final int maxFunctionsDefault = 100000;
+
+	// tolerance w.r.t. the per-function cost of the reference size (noise, JIT,
+	// GC); a quadratic behavior exceeds it by far
+	protected static final double timeTolerance = 4.0;
+	protected static final double heapTolerance = 2.0;
+	// smaller sizes are dominated by constant costs
+	protected static final int referenceFunctions = 1000;
+
+	@Test
+	public void testLinearScaling() {
+		int maxFunctions = Integer.getInteger(maxFunctionsProperty, maxFunctionsDefault);
+		// warm up
+		compile(generate(referenceFunctions));
+		double referenceTime = 0;
+		double referenceHeap = 0;
+		for (int functions = 100; functions <= maxFunctions; functions *= 10) {
+			byte[] afcl = generate(functions);
+			long time = Long.MAX_VALUE;
+			// repeat small sizes to get a stable measurement
+			int repetitions = Math.max(1, 3000 / functions);
+			for (int rep = 0; rep < repetitions; rep++) {
+				long start = System.nanoTime();
+				compile(afcl);
+				time = Math.min(time, System.nanoTime() - start);
+			}
+			long heapBefore = usedHeap();
+			EnactmentGraph graph = compile(afcl);
+			long heap = usedHeap() - heapBefore;
+			assertTrue(graph.getVertexCount() > functions);
+			double timePerFunction = (double) time / functions;
+			double heapPerFunction = (double) heap / functions;
+			if (functions == referenceFunctions) {
+				referenceTime = timePerFunction;
+				referenceHeap = heapPerFunction;
+			} else if (functions > referenceFunctions) {
+				assertTrue("Compile time of " + functions + " functions grows super-linearly",
+						timePerFunction <= timeTolerance * referenceTime);
+				assertTrue("Heap of " + functions + " functions grows super-linearly",
+						heapPerFunction <= heapTolerance * referenceHeap);
+			}
+		}
+	}
+
+	protected static byte[] generate(int functions) {
+		return new WorkflowGenerator().setFunctionNumber(functions).setDepth(2).setWidth(2).generateAfcl()
+				.getBytes(StandardCharsets.UTF_8);
+	}
+
+	protected static EnactmentGraph compile(byte[] afcl) {
+		return new AfclReader(afcl).getEnactmentGraph();
+	}
+
+	protected static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
@@ -0,0 +1,79 @@
+package at.uibk.dps.ee.io.afcl;
+
+import static org.junit.Assert.*;
+
+import java.util.Optional;
+
+import org.junit.Test;
+
+import at.uibk.dps.ee.io.UtilsGraph;
+import at.uibk.dps.ee.io.afcl.CollectionOperationFusion.FusedOperation;
+import at.uibk.dps.ee.io.report.CompilationReport;
+import at.uibk.dps.ee.io.report.CompilationReport.Phase;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUtilityCollections;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUtilityCollections.CollectionOperation;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+public class CollectionOperationFusionTest {
+
+	@Test
+	public void testFusedGraph() {
+		EnactmentGraph unfused = Graphs.generateGraph(Graphs.getChainedOperationsWf(), new CompilationOptions(),
+				new CompilationReport());
+		assertEquals(7, countOperations(unfused));
+		CompilationReport report = new CompilationReport();
+		EnactmentGraph fused = Graphs.generateGraph(Graphs.getChainedOperationsWf(),
+				new CompilationOptions().setFuseCollectionOperations(true), report);
+		assertEquals(4, countOperations(fused));
+		assertEquals(3, report.getStatistics(Phase.Optimization).get().getItems());
+		Task func = fused.getVertex("func");
+		assertOperation(fused, func, "eidx", CollectionOperation.ElementIndex, "5");
+		assertOperation(fused, func, "repl", CollectionOperation.Replicate, "2");
+		assertOperation(fused, func, "block", CollectionOperation.ElementIndex, "1");
+	}
+
+	@Test
+	public void testFuse() {
+		Optional<FusedOperation> eidx = CollectionOperationFusion.fuse(ref(CollectionOperation.ElementIndex, "4, 5, 6"),
+				ref(CollectionOperation.ElementIndex, "2,0"));
+		assertEquals(CollectionOperation.ElementIndex, eidx.get().operation);
+		assertEquals("6,4", eidx.get().subCollectionString);
+		// index out of bounds
+		assertFalse(CollectionOperationFusion
+				.fuse(ref(CollectionOperation.ElementIndex, "4,5"), ref(CollectionOperation.ElementIndex, "2")).isPresent());
+		// ranges and sources
+		assertFalse(CollectionOperationFusion
+				.fuse(ref(CollectionOperation.ElementIndex, "1:5"), ref(CollectionOperation.ElementIndex, "0")).isPresent());
+		assertFalse(CollectionOperationFusion
+				.fuse(ref(CollectionOperation.ElementIndex, "1,2"), ref(CollectionOperation.ElementIndex, "wf/idx")).isPresent());
+		// replicate
+		assertEquals("3", CollectionOperationFusion
+				.fuse(ref(CollectionOperation.Replicate, "5"), ref(CollectionOperation.ElementIndex, "0,1,4")).get().subCollectionString);
+		assertFalse(CollectionOperationFusion
+				.fuse(ref(CollectionOperation.Replicate, "5"), ref(CollectionOperation.ElementIndex, "3")).isPresent());
+		// block
+		assertFalse(CollectionOperationFusion
+				.fuse(ref(CollectionOperation.Block, "2,0"), ref(CollectionOperation.ElementIndex, "1")).isPresent());
+	}
+
+	protected static ConstraintRef ref(CollectionOperation operation, String string) {
+		return ConstraintRef.parse(string, operation);
+	}
+
+	protected static void assertOperation(EnactmentGraph graph, Task func, String jsonKey,
+			CollectionOperation expectedOperation, String expectedString) {
+		Dependency inEdge = graph.getInEdges(func).stream()
+				.filter(edge -> PropertyServiceDependency.getJsonKey(edge).equals(jsonKey)).findAny().get();
+		Task processed = graph.getSource(inEdge);
+		Task operation = graph.getPredecessors(processed).iterator().next();
+		assertEquals(expectedOperation, PropertyServiceFunctionUtilityCollections.getCollectionOperation(operation));
+		assertEquals(expectedString, PropertyServiceFunctionUtilityCollections.getSubCollectionsString(operation));
+	}
+
+	protected static long countOperations(EnactmentGraph graph) {
+		return graph.getVertices().stream().filter(UtilsGraph::isCollectionOperation).count();
+	}
+}
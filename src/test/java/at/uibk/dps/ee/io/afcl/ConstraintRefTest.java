@@ -0,0 +1,46 @@
+package at.uibk.dps.ee.io.afcl;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUtilityCollections.CollectionOperation;
+
+public class ConstraintRefTest {
+
+	@Test
+	public void testElementIndex() {
+		ConstraintRef tested = ConstraintRef.parse("1, 3, 1:3, src/name:3:src2/name", CollectionOperation.ElementIndex);
+		assertEquals(7, tested.getEntries().size());
+		assertEquals(List.of("src/name", "src2/name"), tested.getSrcEntries());
+		assertTrue(tested.isLegal());
+		// ranges are not constant indices
+		assertFalse(tested.getConstants().isPresent());
+		assertEquals(List.of(4, 5, 6),
+				ConstraintRef.parse("4, 5, 6", CollectionOperation.ElementIndex).getConstants().get());
+	}
+
+	@Test
+	public void testBlockAndReplicate() {
+		ConstraintRef block = ConstraintRef.parse("2, wf/overlap", CollectionOperation.Block);
+		assertEquals(2, block.getEntries().size());
+		assertEquals(List.of("wf/overlap"), block.getSrcEntries());
+		assertEquals(List.of(5), ConstraintRef.parse("5", CollectionOperation.Replicate).getConstants().get());
+		assertFalse(ConstraintRef.parse("abc", CollectionOperation.Replicate).isLegal());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testIncorrectBlock() {
+		ConstraintRef.parse("5", CollectionOperation.Block);
+	}
+
+	@Test
+	public void testInterning() {
+		SymbolTableAfcl symbolTable = new SymbolTableAfcl("wf");
+		ConstraintRef first = symbolTable.getConstraintRef("1,2", CollectionOperation.ElementIndex);
+		assertSame(first, symbolTable.getConstraintRef("1,2", CollectionOperation.ElementIndex));
+		assertNotSame(first, symbolTable.getConstraintRef("1,2", CollectionOperation.Block));
+	}
+}
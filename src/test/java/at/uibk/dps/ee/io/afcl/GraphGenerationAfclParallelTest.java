@@ -0,0 +1,110 @@
+package at.uibk.dps.ee.io.afcl;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import at.uibk.dps.afcl.Function;
+import at.uibk.dps.afcl.Workflow;
+import at.uibk.dps.ee.io.report.CompilationReport;
+import at.uibk.dps.ee.io.testclasses.GraphComparison;
+import at.uibk.dps.ee.io.testconstants.ConstantsTestCoreEEiO;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.socketutils.UtilsSocket;
+
+public class GraphGenerationAfclParallelTest {
+
+	protected static final String independentWf = "---\n" //
+			+ "name: \"independent\"\n" //
+			+ "dataIns:\n" //
+			+ "  - name: \"input\"\n" //
+			+ "    type: \"number\"\n" //
+			+ "    source: \"input\"\n" //
+			+ "workflowBody:\n" //
+			+ "  - function:\n" //
+			+ "      name: \"first\"\n" //
+			+ "      type: \"addition\"\n" //
+			+ "      dataIns:\n" //
+			+ "        - name: \"in\"\n" //
+			+ "          type: \"number\"\n" //
+			+ "          source: \"independent/input\"\n" //
+			+ "      dataOuts:\n" //
+			+ "        - name: \"out\"\n" //
+			+ "          type: \"number\"\n" //
+			+ "  - function:\n" //
+			+ "      name: \"second\"\n" //
+			+ "      type: \"addition\"\n" //
+			+ "      dataIns:\n" //
+			+ "        - name: \"in\"\n" //
+			+ "          type: \"number\"\n" //
+			+ "          source: \"independent/input\"\n" //
+			+ "      dataOuts:\n" //
+			+ "        - name: \"out\"\n" //
+			+ "          type: \"number\"\n" //
+			+ "  - function:\n" //
+			+ "      name: \"third\"\n" //
+			+ "      type: \"addition\"\n" //
+			+ "      dataIns:\n" //
+			+ "        - name: \"in\"\n" //
+			+ "          type: \"number\"\n" //
+			+ "          source: \"first/out\"\n" //
+			+ "      dataOuts:\n" //
+			+ "        - name: \"out\"\n" //
+			+ "          type: \"number\"\n" //
+			+ "dataOuts:\n" //
+			+ "  - name: \"result1\"\n" //
+			+ "    type: \"number\"\n" //
+			+ "    source: \"second/out\"\n" //
+			+ "  - name: \"result2\"\n" //
+			+ "    type: \"number\"\n" //
+			+ "    source: \"third/out\"\n";
+
+	@Test
+	public void testSameGraphs() throws IOException {
+		String[] files = { ConstantsTestCoreEEiO.cfclFileSingleAtomic, ConstantsTestCoreEEiO.cfclFileIf,
+				ConstantsTestCoreEEiO.cfclFileIfMulti, ConstantsTestCoreEEiO.cfclFileIfNoElse,
+				ConstantsTestCoreEEiO.cfclFileElementIndex, ConstantsTestCoreEEiO.cfclFileParallelFor,
+				ConstantsTestCoreEEiO.cfclFileParallelForConstIterator,
+				ConstantsTestCoreEEiO.cfclFileParallelForIntIterator,
+				ConstantsTestCoreEEiO.cfclFileParallelForNoInput };
+		for (String file : files) {
+			byte[] wfData = UtilsSocket.readFileToBytes(file);
+			EnactmentGraph expected = GraphGenerationAfcl.generateEnactmentGraph(AfclReader.bytes2Workflow(wfData));
+			EnactmentGraph result = GraphGenerationAfclParallel.generateEnactmentGraph(AfclReader.bytes2Workflow(wfData));
+			GraphComparison.assertEqualGraphs(expected, result);
+		}
+	}
+
+	@Test
+	public void testIndependentGroups() {
+		Workflow wf = AfclReader.bytes2Workflow(independentWf.getBytes(StandardCharsets.UTF_8));
+		List<List<Function>> groups = GraphGenerationAfclParallel.getIndependentGroups(wf.getWorkflowBody(),
+				new SymbolTableAfcl(wf));
+		assertEquals(2, groups.size());
+		assertEquals(2, groups.get(0).size());
+		assertEquals("first", groups.get(0).get(0).getName());
+		assertEquals("third", groups.get(0).get(1).getName());
+		assertEquals(1, groups.get(1).size());
+		assertEquals("second", groups.get(1).get(0).getName());
+	}
+
+	@Test
+	public void testMergeSharedInputs() {
+		byte[] wfData = independentWf.getBytes(StandardCharsets.UTF_8);
+		EnactmentGraph expected = GraphGenerationAfcl.generateEnactmentGraph(AfclReader.bytes2Workflow(wfData));
+		ForkJoinPool pool = new ForkJoinPool(2);
+		try {
+			EnactmentGraph result = GraphGenerationAfclParallel
+					.generateEnactmentGraph(AfclReader.bytes2Workflow(wfData),
+							new CompilationOptions().setPool(pool), new CompilationReport());
+			GraphComparison.assertEqualGraphs(expected, result);
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
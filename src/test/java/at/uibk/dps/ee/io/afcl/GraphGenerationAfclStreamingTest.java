@@ -0,0 +1,49 @@
+package at.uibk.dps.ee.io.afcl;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import at.uibk.dps.ee.io.testclasses.GraphComparison;
+import at.uibk.dps.ee.io.testconstants.ConstantsTestCoreEEiO;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.socketutils.UtilsSocket;
+
+public class GraphGenerationAfclStreamingTest {
+
+	@Test
+	public void testSameGraphs() throws IOException {
+		String[] files = { ConstantsTestCoreEEiO.cfclFileSingleAtomic, ConstantsTestCoreEEiO.cfclFileIf,
+				ConstantsTestCoreEEiO.cfclFileIfMulti, ConstantsTestCoreEEiO.cfclFileIfNoElse,
+				ConstantsTestCoreEEiO.cfclFileElementIndex, ConstantsTestCoreEEiO.cfclFileParallelFor,
+				ConstantsTestCoreEEiO.cfclFileParallelForConstIterator,
+				ConstantsTestCoreEEiO.cfclFileParallelForIntIterator,
+				ConstantsTestCoreEEiO.cfclFileParallelForNoInput };
+		for (String file : files) {
+			byte[] wfData = UtilsSocket.readFileToBytes(file);
+			EnactmentGraph expected = GraphGenerationAfcl.generateEnactmentGraph(AfclReader.bytes2Workflow(wfData));
+			EnactmentGraph result = GraphGenerationAfclStreaming.generateEnactmentGraph(wfData);
+			GraphComparison.assertEqualGraphs(expected, result);
+		}
+	}
+
+	@Test
+	public void testForwardReference() {
+		byte[] wfData = UtilsSocket.readFileToBytes(ConstantsTestCoreEEiO.cfclFileForwardReference);
+		EnactmentGraph expected = GraphGenerationAfcl.generateEnactmentGraph(AfclReader.bytes2Workflow(wfData));
+		EnactmentGraph result = GraphGenerationAfclStreaming.generateEnactmentGraph(wfData);
+		GraphComparison.assertEqualGraphs(expected, result);
+		assertNotNull(result.getVertex("forward/input"));
+		assertNotNull(result.getVertex("first/out"));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testUnresolvedReference() {
+		String wf = new String(UtilsSocket.readFileToBytes(ConstantsTestCoreEEiO.cfclFileForwardReference),
+				StandardCharsets.UTF_8).replace("forward/input", "missing/input");
+		GraphGenerationAfclStreaming.generateEnactmentGraph(wf.getBytes(StandardCharsets.UTF_8));
+	}
+}
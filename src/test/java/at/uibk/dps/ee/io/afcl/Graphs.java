@@ -5,7 +5,9 @@ import static org.junit.Assert.fail;
 import java.io.IOException;
 
 import at.uibk.dps.afcl.Workflow;
+import at.uibk.dps.ee.io.report.CompilationReport;
 import at.uibk.dps.ee.io.testconstants.ConstantsTestCoreEEiO;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
 import at.uibk.dps.socketutils.UtilsSocket;
 
 /**
@@ -35,6 +37,18 @@ public class Graphs {
       return getWf(ConstantsTestCoreEEiO.cfclFileIfNoElse);
   }
 
+	public static Workflow getIfConstantThenWf() {
+		return getWf(ConstantsTestCoreEEiO.cfclFileIfConstantThen);
+	}
+
+	public static Workflow getIfConstantElseWf() {
+		return getWf(ConstantsTestCoreEEiO.cfclFileIfConstantElse);
+	}
+
+	public static Workflow getIfConstantUnusedInputWf() {
+		return getWf(ConstantsTestCoreEEiO.cfclFileIfConstantUnusedInput);
+	}
+
 	public static Workflow getElementIndexWf() {
 		return getWf(ConstantsTestCoreEEiO.cfclFileElementIndex);
 	}
@@ -55,6 +69,30 @@ public class Graphs {
 	  return getWf(ConstantsTestCoreEEiO.cfclFileParallelForNoInput);
 	}
 
+	public static Workflow getParallelForUnrollWf() {
+		return getWf(ConstantsTestCoreEEiO.cfclFileParallelForUnroll);
+	}
+
+	public static Workflow getParallelForUnrollNoOutputWf() {
+		return getWf(ConstantsTestCoreEEiO.cfclFileParallelForUnrollNoOutput);
+	}
+
+	public static Workflow getChainedOperationsWf() {
+		return getWf(ConstantsTestCoreEEiO.cfclFileChainedOperations);
+	}
+
+	public static Workflow getSharedNodesWf() {
+		return getWf(ConstantsTestCoreEEiO.cfclFileSharedNodes);
+	}
+
+	/**
+	 * Generates the graph of the given workflow with the given options.
+	 */
+	public static EnactmentGraph generateGraph(Workflow workflow, CompilationOptions options,
+			CompilationReport report) {
+		return GraphGenerationAfcl.generateEnactmentGraph(workflow, options, report);
+	}
+
 	protected static Workflow getWf(String fileName) {
 		try {
 			byte[] data = UtilsSocket.readFileToBytes(fileName);
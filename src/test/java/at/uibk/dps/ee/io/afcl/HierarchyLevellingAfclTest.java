@@ -0,0 +1,29 @@
+package at.uibk.dps.ee.io.afcl;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class HierarchyLevellingAfclTest {
+
+	@Test
+	public void testMemoizedResolution() {
+		SymbolTableAfcl symbolTable = new SymbolTableAfcl(Graphs.getIfWf());
+		assertFalse(symbolTable.getResolvedSource("ifCompound/c1").isPresent());
+		assertEquals("simple_if/cond1", HierarchyLevellingAfcl.getSrcDataId("ifCompound/c1", symbolTable));
+		assertEquals("simple_if/cond1", symbolTable.getResolvedSource("ifCompound/c1").get());
+		assertEquals("simple_if/cond1", symbolTable.getResolvedSource("simple_if/cond1").get());
+
+		// the cached result is used for all later resolutions
+		symbolTable.cacheResolvedSource("ifCompound/c1", "cached");
+		assertEquals("cached", HierarchyLevellingAfcl.getSrcDataId("ifCompound/c1", symbolTable));
+	}
+
+	@Test
+	public void testIfOutResolution() {
+		SymbolTableAfcl symbolTable = new SymbolTableAfcl(Graphs.getIfWf());
+		String expected = "func1/output,func2/out";
+		assertEquals(expected, HierarchyLevellingAfcl.getSrcDataId("ifCompound/res", symbolTable));
+		assertEquals(expected, symbolTable.getResolvedSource("ifCompound/res").get());
+	}
+}
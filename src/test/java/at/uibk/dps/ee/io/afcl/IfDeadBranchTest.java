@@ -0,0 +1,76 @@
+package at.uibk.dps.ee.io.afcl;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import at.uibk.dps.afcl.Workflow;
+import at.uibk.dps.ee.io.report.CompilationReport;
+import at.uibk.dps.ee.io.validation.DisconnectedDataCheck;
+import at.uibk.dps.ee.io.validation.GraphValidationException;
+import at.uibk.dps.ee.io.validation.Violation;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import net.sf.opendse.model.Task;
+
+public class IfDeadBranchTest {
+
+	protected static final String muxerId = "func1/output,func2/out";
+
+	@Test
+	public void testThenBranch() {
+		EnactmentGraph graph = generate(Graphs.getIfConstantThenWf(), true);
+		assertNull(graph.getVertex("ifCompound"));
+		assertNull(graph.getVertex(muxerId));
+		assertNull(graph.getVertex("func2"));
+		Task func1 = graph.getVertex("func1");
+		assertNotNull(func1);
+		assertTrue(graph.getInEdges(func1).size() > 0);
+		Task result = graph.getVertex("func1/output");
+		assertTrue(PropertyServiceData.isLeaf(result));
+		// the input only used in the else branch is removed
+		assertNull(graph.getVertex("simple_if/input2"));
+		assertEquals(4, graph.getVertexCount());
+	}
+
+	@Test
+	public void testElseBranch() {
+		EnactmentGraph graph = generate(Graphs.getIfConstantElseWf(), true);
+		assertNull(graph.getVertex("ifCompound"));
+		assertNull(graph.getVertex(muxerId));
+		assertNull(graph.getVertex("func1"));
+		Task func2 = graph.getVertex("func2");
+		// the if data ins are resolved to the wf inputs
+		assertTrue(graph.getPredecessors(func2).contains(graph.getVertex("simple_if/input1")));
+		assertTrue(graph.getPredecessors(func2).contains(graph.getVertex("simple_if/input2")));
+		assertTrue(PropertyServiceData.isLeaf(graph.getVertex("func2/out")));
+	}
+
+	@Test
+	public void testDisabled() {
+		EnactmentGraph graph = generate(Graphs.getIfConstantThenWf(), false);
+		assertNotNull(graph.getVertex("ifCompound"));
+		assertNotNull(graph.getVertex("func1"));
+		assertNotNull(graph.getVertex("func2"));
+		assertTrue(PropertyServiceData.isLeaf(graph.getVertex(muxerId)));
+	}
+
+	@Test
+	public void testUnusedInputReported() {
+		try {
+			generate(Graphs.getIfConstantUnusedInputWf(), true);
+			fail();
+		} catch (GraphValidationException exc) {
+			// only the input used in the eliminated branch is removed
+			assertEquals(1, exc.getViolations().size());
+			Violation violation = exc.getViolations().get(0);
+			assertEquals("simple_if/input3", violation.getTaskId());
+			assertEquals(DisconnectedDataCheck.class.getSimpleName(), violation.getCheck());
+		}
+	}
+
+	protected static EnactmentGraph generate(Workflow workflow, boolean eliminate) {
+		return Graphs.generateGraph(workflow, new CompilationOptions().setEliminateDeadBranches(eliminate),
+				new CompilationReport());
+	}
+}
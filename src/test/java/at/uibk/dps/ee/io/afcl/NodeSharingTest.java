@@ -0,0 +1,85 @@
+package at.uibk.dps.ee.io.afcl;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+
+import at.uibk.dps.ee.io.UtilsGraph;
+import at.uibk.dps.ee.io.report.CompilationReport;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData.DataType;
+import net.sf.opendse.model.Task;
+
+public class NodeSharingTest {
+
+	protected static final String sharedFactorId = "constant/Number/5";
+
+	@Test
+	public void testSharedOperation() {
+		EnactmentGraph graph = Graphs.generateGraph(Graphs.getSharedNodesWf(), new CompilationOptions(),
+				new CompilationReport());
+		assertEquals(1, CollectionOperationFusionTest.countOperations(graph));
+		Task operation = graph.getVertices().stream().filter(UtilsGraph::isCollectionOperation)
+				.findAny().get();
+		Task processed = graph.getSuccessors(operation).iterator().next();
+		assertTrue(graph.getSuccessors(processed).contains(graph.getVertex("func1")));
+		assertTrue(graph.getSuccessors(processed).contains(graph.getVertex("func2")));
+		// constants are not shared by default
+		assertNotNull(graph.getVertex("func1/factor"));
+		assertNotNull(graph.getVertex("func2/factor"));
+		assertNull(graph.getVertex(sharedFactorId));
+	}
+
+	@Test
+	public void testSharedOperationParallel() {
+		EnactmentGraph sequential = GraphGenerationAfcl.generateEnactmentGraph(Graphs.getSharedNodesWf());
+		EnactmentGraph parallel = GraphGenerationAfclParallel.generateEnactmentGraph(Graphs.getSharedNodesWf());
+		assertEquals(1, CollectionOperationFusionTest.countOperations(parallel));
+		assertEquals(sequential.getVertexCount(), parallel.getVertexCount());
+		assertEquals(sequential.getEdgeCount(), parallel.getEdgeCount());
+	}
+
+	@Test
+	public void testSharedConstants() {
+		EnactmentGraph graph = Graphs.generateGraph(Graphs.getSharedNodesWf(),
+				new CompilationOptions().setShareConstants(true), new CompilationReport());
+		Task constant = graph.getVertex(sharedFactorId);
+		assertNull(graph.getVertex("func1/factor"));
+		assertNull(graph.getVertex("func2/factor"));
+		assertEquals(2, graph.getSuccessorCount(constant));
+		assertTrue(graph.getSuccessors(constant).contains(graph.getVertex("func1")));
+		assertTrue(graph.getSuccessors(constant).contains(graph.getVertex("func2")));
+		// different content => not shared
+		assertNotNull(graph.getVertex("constant/Number/1"));
+		assertNotNull(graph.getVertex("constant/Number/2"));
+	}
+
+	@Test
+	public void testSharedConstantIds() {
+		JsonElement content = JsonParser.parseString("{\"path\": \"a/b c\"}");
+		String id = SymbolTableAfcl.getSharedConstantId(DataType.Object, content);
+		assertTrue(id.startsWith("constant/Object/"));
+		assertEquals(2, id.length() - id.replace("/", "").length());
+		assertEquals(id, SymbolTableAfcl.getSharedConstantId(DataType.Object, content.deepCopy()));
+		assertNotEquals(id, SymbolTableAfcl.getSharedConstantId(DataType.Object,
+				JsonParser.parseString("{\"path\": \"a/b d\"}")));
+		assertEquals("constant/Number/2.5",
+				SymbolTableAfcl.getSharedConstantId(DataType.Number, new JsonPrimitive(2.5)));
+	}
+
+	@Test
+	public void testSharedConstantsParallel() {
+		CompilationOptions options = new CompilationOptions().setShareConstants(true);
+		EnactmentGraph sequential = Graphs.generateGraph(Graphs.getSharedNodesWf(), options,
+				new CompilationReport());
+		EnactmentGraph parallel = GraphGenerationAfclParallel.generateEnactmentGraph(Graphs.getSharedNodesWf(),
+				options, new CompilationReport());
+		assertEquals(sequential.getVertexCount(), parallel.getVertexCount());
+		assertEquals(sequential.getEdgeCount(), parallel.getEdgeCount());
+		assertEquals(2, parallel.getSuccessorCount(parallel.getVertex(sharedFactorId)));
+	}
+}
@@ -0,0 +1,89 @@
+package at.uibk.dps.ee.io.afcl;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import at.uibk.dps.afcl.Workflow;
+import at.uibk.dps.ee.io.report.CompilationReport;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import net.sf.opendse.model.Task;
+
+public class ParallelForUnrollTest {
+
+	protected static final String distributionId = "parallelFor--Distribution";
+	protected static final String aggregationId = "parallelFor--Aggregation--result_collection";
+
+	@Test
+	public void testNoUnrollingByDefault() {
+		EnactmentGraph result = GraphGenerationAfcl.generateEnactmentGraph(Graphs.getParallelForUnrollWf());
+		assertNotNull(result.getVertex(distributionId));
+		assertNotNull(result.getVertex("atomicFunctionFirst"));
+		assertEquals(1, result.getPredecessorCount(result.getVertex(aggregationId)));
+	}
+
+	@Test
+	public void testAboveThreshold() {
+		EnactmentGraph result = generate(2);
+		assertNotNull(result.getVertex(distributionId));
+		assertNull(result.getVertex("atomicFunctionFirst--0"));
+	}
+
+	@Test
+	public void testDataOutsNotUnrolled() {
+		EnactmentGraph result = generate(Graphs.getParallelForUnrollWf(), 3);
+		assertNotNull(result.getVertex(distributionId));
+		assertNull(result.getVertex("atomicFunctionFirst--0"));
+		assertEquals(1, result.getPredecessorCount(result.getVertex(aggregationId)));
+	}
+
+	@Test
+	public void testUnrolled() {
+		EnactmentGraph result = generate(3);
+		assertNull(result.getVertex(distributionId));
+		assertNull(result.getVertex("atomicFunctionFirst"));
+		assertNull(result.getVertex("atomicFunctionSecond/myOutput2"));
+		Task coll = result.getVertex("single Atomic/wf_coll");
+		// no function claims the scope of the parallelFor
+		for (Task task : result) {
+			assertFalse(task.getId().startsWith("parallelFor--"));
+		}
+		for (int iteration = 0; iteration < 3; iteration++) {
+			Task first = result.getVertex("atomicFunctionFirst--" + iteration);
+			Task second = result.getVertex("atomicFunctionSecond--" + iteration);
+			Task secondOut = result.getVertex("atomicFunctionSecond/myOutput2--" + iteration);
+			assertNotNull(first);
+			assertNotNull(second);
+			// direct edges from the wf inputs, no trigger from a distribution node
+			assertTrue(result.getPredecessors(first).contains(coll));
+			assertEquals(2, result.getPredecessorCount(first));
+			assertEquals(1, result.getPredecessorCount(second));
+			assertNotNull(secondOut);
+			assertEquals(0, result.getSuccessorCount(secondOut));
+		}
+	}
+
+	@Test
+	public void testUnrolledParallel() {
+		CompilationOptions options = new CompilationOptions().setUnrollThreshold(3);
+		EnactmentGraph sequential = generate(3);
+		EnactmentGraph parallel = GraphGenerationAfclParallel.generateEnactmentGraph(
+				Graphs.getParallelForUnrollNoOutputWf(), options, new CompilationReport());
+		assertEquals(sequential.getVertexCount(), parallel.getVertexCount());
+		assertEquals(sequential.getEdgeCount(), parallel.getEdgeCount());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeThreshold() {
+		new CompilationOptions().setUnrollThreshold(-1);
+	}
+
+	protected static EnactmentGraph generate(int threshold) {
+		return generate(Graphs.getParallelForUnrollNoOutputWf(), threshold);
+	}
+
+	protected static EnactmentGraph generate(Workflow workflow, int threshold) {
+		return GraphGenerationAfcl.generateEnactmentGraph(workflow,
+				new CompilationOptions().setUnrollThreshold(threshold), new CompilationReport());
+	}
+}
@@ -0,0 +1,54 @@
+package at.uibk.dps.ee.io.afcl;
+
+import static org.junit.Assert.*;
+
+import java.util.Set;
+
+import org.junit.Test;
+
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Task;
+
+public class ScopeTrackingGraphAfclTest {
+
+	@Test
+	public void testNestedScopes() {
+		ScopeTrackingGraphAfcl tested = new ScopeTrackingGraphAfcl();
+		Task before = new Task("before");
+		tested.addVertex(before);
+
+		tested.openScope();
+		Task outerTask = new Task("outer");
+		Task data = new Communication("data");
+		PropertyServiceDependency.addDataDependency(outerTask, data, "key", tested);
+
+		tested.openScope();
+		Task innerTask = new Task("inner");
+		PropertyServiceDependency.addDataDependency(data, innerTask, "key", tested);
+		Set<Task> inner = tested.closeScope();
+		assertEquals(1, inner.size());
+		assertTrue(inner.contains(innerTask));
+
+		Set<Task> outer = tested.closeScope();
+		assertEquals(2, outer.size());
+		assertTrue(outer.contains(outerTask));
+		assertTrue(outer.contains(innerTask));
+		assertEquals(4, tested.getVertexCount());
+	}
+
+	@Test
+	public void testSameNodesAsDiff() {
+		ScopeTrackingGraphAfcl tested = new ScopeTrackingGraphAfcl();
+		Set<Task> added = AfclCompounds.getAddedFunctionNodes(tested, () -> {
+			tested.addVertex(new Task("task"));
+			tested.addVertex(new Communication("comm"));
+		});
+		assertEquals(AfclCompounds.getFunctionNodes(tested), added);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testCloseWithoutOpen() {
+		new ScopeTrackingGraphAfcl().closeScope();
+	}
+}
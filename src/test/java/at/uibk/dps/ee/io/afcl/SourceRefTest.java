@@ -0,0 +1,53 @@
+package at.uibk.dps.ee.io.afcl;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class SourceRefTest {
+
+	@Test
+	public void testSrcString() {
+		SourceRef tested = SourceRef.parse("producer/data");
+		assertTrue(tested.isSrc());
+		assertFalse(tested.isIfOut());
+		assertEquals("producer", tested.getProducerId());
+		assertEquals("data", tested.getDataId());
+		assertSame(tested, tested.getFirst());
+		assertFalse(tested.getAlternative().isPresent());
+	}
+
+	@Test
+	public void testIfOutString() {
+		SourceRef tested = SourceRef.parse("func1/output,func2/out");
+		assertTrue(tested.isIfOut());
+		assertEquals("func1", tested.getProducerId());
+		assertEquals("output", tested.getDataId());
+		assertEquals("func1/output", tested.getFirst().getString());
+		SourceRef alternative = tested.getAlternative().get();
+		assertEquals("func2", alternative.getProducerId());
+		assertEquals("out", alternative.getDataId());
+	}
+
+	@Test
+	public void testNoSrcStrings() {
+		assertFalse(SourceRef.parse("5").isSrc());
+		assertFalse(SourceRef.parse("/data").isSrc());
+		assertFalse(SourceRef.parse("producer/").isSrc());
+		assertFalse(SourceRef.parse("").isSrc());
+		assertEquals("5", SourceRef.parse("5").getProducerId());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoDataId() {
+		SourceRef.parse("5").getDataId();
+	}
+
+	@Test
+	public void testInterning() {
+		SymbolTableAfcl symbolTable = new SymbolTableAfcl("wf");
+		SourceRef first = symbolTable.getSourceRef("wf/input");
+		assertSame(first, symbolTable.getSourceRef("wf/input"));
+		assertEquals(SourceRef.parse("wf/input"), first);
+	}
+}
@@ -0,0 +1,39 @@
+package at.uibk.dps.ee.io.afcl;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import at.uibk.dps.afcl.Workflow;
+import at.uibk.dps.afcl.functions.IfThenElse;
+import at.uibk.dps.ee.io.testconstants.ConstantsTestCoreEEiO;
+
+public class SymbolTableAfclTest {
+
+	@Test
+	public void testLookUp() {
+		Workflow wf = Graphs.getIfWf();
+		SymbolTableAfcl tested = new SymbolTableAfcl(wf);
+		assertEquals("simple_if", tested.getWorkflowName());
+
+		SymbolTableAfcl.Symbol ifSymbol = tested.getSymbol(ConstantsTestCoreEEiO.simpleIfIfName);
+		assertTrue(ifSymbol.getFunction() instanceof IfThenElse);
+		assertFalse(ifSymbol.getParent().isPresent());
+		assertEquals(4, ifSymbol.getDataIns().size());
+		assertEquals("simple_if/input1", ifSymbol.getDataIns().get("num1").getSource());
+		assertEquals("func1/output,func2/out", ifSymbol.getDataOuts().get("res").getSource());
+
+		SymbolTableAfcl.Symbol func1Symbol = tested.getSymbol("func1");
+		assertEquals(ifSymbol.getFunction(), func1Symbol.getParent().get());
+		assertTrue(func1Symbol.getDataOutsAtomic().containsKey("output"));
+		assertTrue(func1Symbol.getDataOuts().isEmpty());
+		assertTrue(tested.contains("func2"));
+		assertFalse(tested.contains("func3"));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testUnknownFunction() {
+		SymbolTableAfcl tested = new SymbolTableAfcl(Graphs.getIfWf());
+		tested.getFunction("func3");
+	}
+}
@@ -0,0 +1,78 @@
+package at.uibk.dps.ee.io.afcl;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+import com.google.gson.JsonObject;
+
+import at.uibk.dps.ee.io.input.InputDataProviderFile;
+import at.uibk.dps.ee.io.resources.ResourceGraphProviderFile;
+import at.uibk.dps.ee.io.spec.SpecificationProviderFile;
+import at.uibk.dps.ee.io.testclasses.WorkflowGenerator;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction.UsageType;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.properties.TaskPropertyService;
+
+public class SyntheticWorkflowTest {
+
+	@Test
+	public void testGeneratedWorkflowsCompile() {
+		WorkflowGenerator[] generators = { new WorkflowGenerator().setDepth(0).setFunctionNumber(20),
+				new WorkflowGenerator().setDepth(2).setWidth(2).setFunctionNumber(50),
+				new WorkflowGenerator().setDepth(3).setWidth(1).setChainLength(1).setCollectionConstraints(false),
+				new WorkflowGenerator().setDepth(1).setWidth(3).setFunctionTypes(1) };
+		for (WorkflowGenerator generator : generators) {
+			byte[] afcl = generator.generateAfcl().getBytes(StandardCharsets.UTF_8);
+			EnactmentGraph graph = new AfclReader(afcl).getEnactmentGraph();
+			assertTrue(generator.getGeneratedFunctions() >= 20);
+			assertEquals(generator.getGeneratedFunctions(), countUserFunctions(graph));
+			// the modes generate the same graph
+			EnactmentGraph streamed = GraphGenerationAfclStreaming.generateEnactmentGraph(afcl);
+			assertEquals(graph.getVertexCount(), streamed.getVertexCount());
+			assertEquals(graph.getEdgeCount(), streamed.getEdgeCount());
+		}
+	}
+
+	@Test
+	public void testMappingAndInput() throws IOException {
+		Path directory = Files.createTempDirectory("synthetic");
+		WorkflowGenerator generator = new WorkflowGenerator().setFunctionNumber(40).setFunctionTypes(3);
+		Path[] files = generator.writeFiles(directory);
+		try {
+			EnactmentGraph graph = new AfclReader(files[0].toString()).getEnactmentGraph();
+			String mappingPath = files[1].toString();
+			SpecificationProviderFile spec = new SpecificationProviderFile(() -> graph,
+					new ResourceGraphProviderFile(mappingPath), mappingPath);
+			// serverless and local resource for each user function
+			assertEquals(2 * generator.getGeneratedFunctions(), spec.getMappings().size());
+			JsonObject input = new InputDataProviderFile(files[2].toString()).getInputData();
+			assertTrue(input.has(WorkflowGenerator.inputKeyNumber));
+			assertTrue(input.get(WorkflowGenerator.inputKeyCollection).isJsonArray());
+			assertTrue(input.get(WorkflowGenerator.inputKeyCondition).getAsBoolean());
+		} finally {
+			for (Path file : files) {
+				Files.delete(file);
+			}
+			Files.delete(directory);
+		}
+	}
+
+	protected static int countUserFunctions(EnactmentGraph graph) {
+		int result = 0;
+		for (Task task : graph) {
+			if (TaskPropertyService.isProcess(task)
+					&& PropertyServiceFunction.getUsageType(task).equals(UsageType.User)) {
+				result++;
+			}
+		}
+		return result;
+	}
+}
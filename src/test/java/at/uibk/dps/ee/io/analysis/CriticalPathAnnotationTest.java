@@ -0,0 +1,152 @@
+package at.uibk.dps.ee.io.analysis;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+
+import at.uibk.dps.ee.io.json.FunctionTypeEntry;
+import at.uibk.dps.ee.io.json.ResourceEntry;
+import at.uibk.dps.ee.io.json.ResourceInformationJsonFile;
+import at.uibk.dps.ee.io.persistance.EnactmentGraphBinaryIO;
+import at.uibk.dps.ee.io.persistance.EnactmentGraphIO;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceData.DataType;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUser;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Task;
+
+public class CriticalPathAnnotationTest {
+
+	@Test
+	public void testAnnotate() {
+		EnactmentGraph graph = generateGraph();
+		Map<String, Double> costHints = new HashMap<>();
+		costHints.put("addition", 2.0);
+		costHints.put("subtraction", 5.0);
+		assertEquals(7.0, CriticalPathAnnotation.annotate(graph, costHints), 0.0);
+		assertTrue(CriticalPathAnnotation.isAnnotated(graph));
+
+		Task input = graph.getVertex("input");
+		Task f1 = graph.getVertex("f1");
+		Task d1 = graph.getVertex("f1/out");
+		Task f2 = graph.getVertex("f2");
+		Task f3 = graph.getVertex("f3");
+		assertEquals(0, CriticalPathAnnotation.getLevel(input));
+		assertEquals(1, CriticalPathAnnotation.getLevel(f1));
+		assertEquals(1, CriticalPathAnnotation.getLevel(d1));
+		assertEquals(2, CriticalPathAnnotation.getLevel(f2));
+		assertEquals(1, CriticalPathAnnotation.getLevel(f3));
+		assertEquals(7.0, CriticalPathAnnotation.getBottomLevel(input), 0.0);
+		assertEquals(5.0, CriticalPathAnnotation.getBottomLevel(d1), 0.0);
+		assertEquals(2.0, CriticalPathAnnotation.getBottomLevel(f3), 0.0);
+		assertEquals(0.0, CriticalPathAnnotation.getEstimatedCost(d1), 0.0);
+		assertTrue(CriticalPathAnnotation.isOnCriticalPath(input));
+		assertTrue(CriticalPathAnnotation.isOnCriticalPath(f1));
+		assertTrue(CriticalPathAnnotation.isOnCriticalPath(f2));
+		assertFalse(CriticalPathAnnotation.isOnCriticalPath(f3));
+		// the topological order respects the dependencies
+		assertTrue(CriticalPathAnnotation.getTopologicalIndex(f1) < CriticalPathAnnotation.getTopologicalIndex(d1));
+		assertTrue(CriticalPathAnnotation.getTopologicalIndex(d1) < CriticalPathAnnotation.getTopologicalIndex(f2));
+	}
+
+	@Test
+	public void testAnnotatedWithHints() {
+		EnactmentGraph graph = generateGraph();
+		Map<String, Double> costHints = new HashMap<>();
+		costHints.put("addition", 2.0);
+		assertFalse(CriticalPathAnnotation.isAnnotated(graph, costHints));
+		CriticalPathAnnotation.annotate(graph, costHints);
+		assertTrue(CriticalPathAnnotation.isAnnotated(graph, costHints));
+		assertFalse(CriticalPathAnnotation.isAnnotated(graph, new HashMap<>()));
+		Map<String, Double> otherHints = new HashMap<>(costHints);
+		otherHints.put("addition", 3.0);
+		assertFalse(CriticalPathAnnotation.isAnnotated(graph, otherHints));
+	}
+
+	@Test
+	public void testDefaultCost() {
+		EnactmentGraph graph = generateGraph();
+		assertEquals(2 * CriticalPathAnnotation.defaultCost,
+				CriticalPathAnnotation.annotate(graph, new HashMap<>()), 0.0);
+		assertTrue(CriticalPathAnnotation.isOnCriticalPath(graph.getVertex("f2")));
+		assertFalse(CriticalPathAnnotation.isOnCriticalPath(graph.getVertex("f3")));
+	}
+
+	@Test
+	public void testGetCostHints() {
+		Map<String, JsonElement> expensive = new HashMap<>();
+		expensive.put(CriticalPathAnnotation.propNameCost, new JsonPrimitive(3));
+		Map<String, JsonElement> cheap = new HashMap<>();
+		cheap.put(CriticalPathAnnotation.propNameCost, new JsonPrimitive(1.5));
+		ResourceInformationJsonFile resInfo = new ResourceInformationJsonFile();
+		resInfo.add(new FunctionTypeEntry("addition",
+				List.of(new ResourceEntry("Local", expensive), new ResourceEntry("Serverless", cheap))));
+		resInfo.add(new FunctionTypeEntry("subtraction", List.of(new ResourceEntry("Local", new HashMap<>()))));
+		Map<String, Double> result = CriticalPathAnnotation.getCostHints(resInfo);
+		assertEquals(1, result.size());
+		assertEquals(1.5, result.get("addition"), 0.0);
+	}
+
+	@Test
+	public void testPersisted() throws IOException {
+		EnactmentGraph graph = generateGraph();
+		CriticalPathAnnotation.annotate(graph, new HashMap<>());
+		File file = File.createTempFile("annotated", EnactmentGraphBinaryIO.fileSuffix);
+		try {
+			EnactmentGraphIO.writeEnactmentGraph(graph, file.getAbsolutePath());
+			EnactmentGraph restored = EnactmentGraphIO.readEnactmentGraph(file.getAbsolutePath());
+			assertTrue(CriticalPathAnnotation.isAnnotated(restored));
+			assertEquals(2, CriticalPathAnnotation.getLevel(restored.getVertex("f2")));
+			assertFalse(CriticalPathAnnotation.isOnCriticalPath(restored.getVertex("f3")));
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNotAnnotated() {
+		CriticalPathAnnotation.getLevel(generateGraph().getVertex("f1"));
+	}
+
+	/**
+	 * input -> f1 -> f1/out -> f2 -> f2/out; input -> f3 -> f3/out
+	 */
+	protected static EnactmentGraph generateGraph() {
+		EnactmentGraph result = new EnactmentGraph();
+		Task input = new Communication("input");
+		PropertyServiceData.setDataType(input, DataType.Number);
+		PropertyServiceData.makeRoot(input);
+		PropertyServiceData.setJsonKey(input, "input");
+		Task f1 = PropertyServiceFunctionUser.createUserTask("f1", "addition");
+		Task f2 = PropertyServiceFunctionUser.createUserTask("f2", "subtraction");
+		Task f3 = PropertyServiceFunctionUser.createUserTask("f3", "addition");
+		Task d1 = new Communication("f1/out");
+		PropertyServiceData.setDataType(d1, DataType.Number);
+		PropertyServiceDependency.addDataDependency(input, f1, "in", result);
+		PropertyServiceDependency.addDataDependency(f1, d1, "out", result);
+		PropertyServiceDependency.addDataDependency(d1, f2, "in", result);
+		PropertyServiceDependency.addDataDependency(f2, leaf("f2/out"), "out", result);
+		PropertyServiceDependency.addDataDependency(input, f3, "in", result);
+		PropertyServiceDependency.addDataDependency(f3, leaf("f3/out"), "out", result);
+		return result;
+	}
+
+	protected static Task leaf(String id) {
+		Task result = new Communication(id);
+		PropertyServiceData.setDataType(result, DataType.Number);
+		PropertyServiceData.makeLeaf(result);
+		PropertyServiceData.setJsonKey(result, id);
+		return result;
+	}
+}
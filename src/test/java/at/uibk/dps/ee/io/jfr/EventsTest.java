@@ -0,0 +1,70 @@
+package at.uibk.dps.ee.io.jfr;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import at.uibk.dps.ee.io.afcl.AfclReader;
+import at.uibk.dps.ee.io.testconstants.ConstantsTestCoreEEiO;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class EventsTest {
+
+	@Test
+	public void testCompilationEvents() throws IOException {
+		List<RecordedEvent> events;
+		EnactmentGraph graph;
+		Path dump = File.createTempFile("events", ".jfr").toPath();
+		try (Recording recording = new Recording()) {
+			recording.enable(ConstantsJfr.eventPrefix + "WorkflowFileRead");
+			recording.enable(ConstantsJfr.eventPrefix + "AfclParse");
+			recording.enable(ConstantsJfr.eventPrefix + "CompoundGeneration");
+			recording.enable(ConstantsJfr.eventPrefix + "GraphValidation");
+			recording.start();
+			graph = new AfclReader(ConstantsTestCoreEEiO.cfclFileParallelFor).getEnactmentGraph();
+			recording.stop();
+			recording.dump(dump);
+			events = RecordingFile.readAllEvents(dump);
+		} finally {
+			dump.toFile().delete();
+		}
+		RecordedEvent fileRead = getSingleEvent(events, "WorkflowFileRead");
+		assertEquals(ConstantsTestCoreEEiO.cfclFileParallelFor, fileRead.getString("filePath"));
+		assertEquals(new File(ConstantsTestCoreEEiO.cfclFileParallelFor).length(), fileRead.getLong("size"));
+		RecordedEvent parse = getSingleEvent(events, "AfclParse");
+		assertFalse(parse.getBoolean("streaming"));
+		assertEquals(fileRead.getLong("size"), parse.getLong("size"));
+		RecordedEvent validation = getSingleEvent(events, "GraphValidation");
+		assertEquals(graph.getVertexCount(), validation.getInt("nodes"));
+		assertEquals(graph.getEdgeCount(), validation.getInt("edges"));
+		assertFalse(getEvents(events, "CompoundGeneration").isEmpty());
+	}
+
+	@Test
+	public void testNoEventsWithoutRecording() {
+		CompoundGenerationEvent event = new CompoundGenerationEvent();
+		assertFalse(event.isEnabled());
+		assertFalse(event.shouldCommit());
+	}
+
+	protected static RecordedEvent getSingleEvent(List<RecordedEvent> events, String name) {
+		List<RecordedEvent> result = getEvents(events, name);
+		assertEquals(1, result.size());
+		return result.get(0);
+	}
+
+	protected static List<RecordedEvent> getEvents(List<RecordedEvent> events, String name) {
+		return events.stream()
+				.filter(event -> event.getEventType().getName().equals(ConstantsJfr.eventPrefix + name))
+				.collect(Collectors.toList());
+	}
+}
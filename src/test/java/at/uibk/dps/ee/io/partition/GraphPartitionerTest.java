@@ -0,0 +1,204 @@
+package at.uibk.dps.ee.io.partition;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+
+import org.junit.Test;
+
+import at.uibk.dps.ee.io.UtilsGraph;
+import at.uibk.dps.ee.io.afcl.AfclReader;
+import at.uibk.dps.ee.io.partition.PartitionManifest.BoundaryEntry;
+import at.uibk.dps.ee.io.persistance.EnactmentGraphBinaryIO;
+import at.uibk.dps.ee.io.persistance.EnactmentGraphIO;
+import at.uibk.dps.ee.io.testconstants.ConstantsTestCoreEEiO;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceData.DataType;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections.OperationType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUser;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.properties.TaskPropertyService;
+
+public class GraphPartitionerTest {
+
+	@Test
+	public void testIndependentChains() {
+		EnactmentGraph graph = new EnactmentGraph();
+		Task input = root("input");
+		addChain(graph, input, "a", 2);
+		addChain(graph, input, "b", 2);
+		PartitionedGraph result = GraphPartitioner.partition(graph, 2, new HashMap<>());
+		assertEquals(0, result.getManifest().getCutEdgeNumber());
+		assertEquals(2.0, result.getManifest().getLoads().get(0), 0.0);
+		assertEquals(2.0, result.getManifest().getLoads().get(1), 0.0);
+		int partitionA1 = getPartition(result, "a1");
+		assertEquals(partitionA1, getPartition(result, "a2"));
+		assertEquals(1 - partitionA1, getPartition(result, "b1"));
+		assertEquals(1 - partitionA1, getPartition(result, "b2"));
+		// the wf input is available in both partitions
+		assertNotNull(result.getPartitions().get(0).getVertex("input"));
+		assertNotNull(result.getPartitions().get(1).getVertex("input"));
+	}
+
+	@Test
+	public void testCutChain() {
+		EnactmentGraph graph = new EnactmentGraph();
+		addChain(graph, root("input"), "f", 4);
+		PartitionedGraph result = GraphPartitioner.partition(graph, 2, new HashMap<>());
+		assertEquals(1, result.getManifest().getCutEdgeNumber());
+		BoundaryEntry boundary = result.getManifest().getBoundaries().get(0);
+		assertEquals("f2/out", boundary.getDataId());
+		assertEquals(0, boundary.getProducer());
+		assertEquals(List.of(1), boundary.getConsumers());
+		Task produced = result.getPartitions().get(0).getVertex("f2/out");
+		Task consumed = result.getPartitions().get(1).getVertex("f2/out");
+		assertTrue(PropertyServiceData.isLeaf(produced));
+		assertTrue(PropertyServiceData.isRoot(consumed));
+		assertEquals(boundary.getJsonKey(), PropertyServiceData.getJsonKey(produced));
+		assertEquals(boundary.getJsonKey(), PropertyServiceData.getJsonKey(consumed));
+		// all edges are kept
+		int edgeNumber = result.getPartitions().stream().mapToInt(EnactmentGraph::getEdgeCount).sum();
+		assertEquals(graph.getEdgeCount(), edgeNumber);
+	}
+
+	@Test
+	public void testParallelForNotCut() {
+		EnactmentGraph graph = new AfclReader(ConstantsTestCoreEEiO.cfclFileParallelFor).getEnactmentGraph();
+		PartitionedGraph result = GraphPartitioner.partition(graph, 2, new HashMap<>());
+		Task distribution = graph.getVertices().stream()
+				.filter(task -> UtilsGraph.isCollectionDataFlow(task, OperationType.Distribution)).findAny()
+				.get();
+		Task aggregation = graph.getVertices().stream()
+				.filter(task -> UtilsGraph.isCollectionDataFlow(task, OperationType.Aggregation)).findAny()
+				.get();
+		assertEquals(getPartition(result, distribution.getId()), getPartition(result, aggregation.getId()));
+	}
+
+	@Test
+	public void testIfNotCut() {
+		EnactmentGraph graph = new AfclReader(ConstantsTestCoreEEiO.cfclFileIf).getEnactmentGraph();
+		PartitionedGraph result = GraphPartitioner.partition(graph, 2, new HashMap<>());
+		Task condition = graph.getVertices().stream().filter(UtilsGraph::isConditionFunction).findAny().get();
+		int conditionPartition = getPartition(result, condition.getId());
+		for (Task decisionVariable : graph.getSuccessors(condition)) {
+			for (Task dependent : graph.getSuccessors(decisionVariable)) {
+				assertEquals(conditionPartition, getPartition(result, dependent.getId()));
+			}
+		}
+	}
+
+	@Test
+	public void testZigZagAcyclic() {
+		// a1 -> b1 -> a2 -> b2 -> a3 -> b3, with a(i) -> a(i+1) and b(i) -> b(i+1)
+		EnactmentGraph graph = new EnactmentGraph();
+		Task previousA = root("inputA");
+		Task previousB = root("inputB");
+		for (int idx = 1; idx <= 3; idx++) {
+			Task outA = addFunction(graph, "a" + idx, previousA, previousB);
+			Task outB = addFunction(graph, "b" + idx, outA, previousB);
+			previousA = outA;
+			previousB = outB;
+		}
+		PartitionedGraph result = GraphPartitioner.partition(graph, 2, new HashMap<>());
+		assertTrue(result.getManifest().getCutEdgeNumber() > 0);
+		// data only flows to partitions with a higher index
+		for (BoundaryEntry boundary : result.getManifest().getBoundaries()) {
+			for (int consumer : boundary.getConsumers()) {
+				assertTrue(boundary.getProducer() < consumer);
+			}
+		}
+		int functionNumber = result.getPartitions().stream()
+				.mapToInt(partition -> (int) partition.getVertices().stream().filter(TaskPropertyService::isProcess)
+						.count())
+				.sum();
+		assertEquals(6, functionNumber);
+	}
+
+	@Test
+	public void testPersistPartitions() throws IOException {
+		EnactmentGraph graph = new EnactmentGraph();
+		addChain(graph, root("input"), "f", 4);
+		PartitionedGraph partitioned = GraphPartitioner.partition(graph, 2, new HashMap<>());
+		Path directory = Files.createTempDirectory("partitions");
+		try {
+			EnactmentGraphIO.writePartitions(partitioned, directory.toString(), EnactmentGraphBinaryIO.fileSuffix);
+			PartitionedGraph restored = EnactmentGraphIO.readPartitions(directory.toString());
+			assertEquals(2, restored.getPartitions().size());
+			for (int idx = 0; idx < 2; idx++) {
+				assertEquals(partitioned.getPartitions().get(idx).getVertexCount(),
+						restored.getPartitions().get(idx).getVertexCount());
+			}
+			assertEquals(1, restored.getManifest().getCutEdgeNumber());
+			assertEquals("f2/out", restored.getManifest().getBoundaries().get(0).getDataId());
+		} finally {
+			for (File file : directory.toFile().listFiles()) {
+				file.delete();
+			}
+			Files.delete(directory);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoPartitions() {
+		GraphPartitioner.partition(new EnactmentGraph(), 0, new HashMap<>());
+	}
+
+	protected static int getPartition(PartitionedGraph partitioned, String functionId) {
+		for (int idx = 0; idx < partitioned.getPartitions().size(); idx++) {
+			if (partitioned.getPartitions().get(idx).getVertex(functionId) != null) {
+				return idx;
+			}
+		}
+		throw new IllegalArgumentException("Function " + functionId + " not found.");
+	}
+
+	/**
+	 * Adds a chain of user functions (prefix1 -> prefix1/out -> prefix2 -> ...)
+	 * processing the given input.
+	 */
+	protected static void addChain(EnactmentGraph graph, Task input, String prefix, int length) {
+		Task data = input;
+		for (int idx = 1; idx <= length; idx++) {
+			Task function = PropertyServiceFunctionUser.createUserTask(prefix + idx, "addition");
+			Task output = new Communication(prefix + idx + "/out");
+			PropertyServiceData.setDataType(output, DataType.Number);
+			if (idx == length) {
+				PropertyServiceData.makeLeaf(output);
+				PropertyServiceData.setJsonKey(output, prefix);
+			}
+			PropertyServiceDependency.addDataDependency(data, function, "in", graph);
+			PropertyServiceDependency.addDataDependency(function, output, "out", graph);
+			data = output;
+		}
+	}
+
+	/**
+	 * Adds a user function processing the given inputs and returns its output.
+	 */
+	protected static Task addFunction(EnactmentGraph graph, String id, Task... inputs) {
+		Task function = PropertyServiceFunctionUser.createUserTask(id, "addition");
+		Task output = new Communication(id + "/out");
+		PropertyServiceData.setDataType(output, DataType.Number);
+		for (int idx = 0; idx < inputs.length; idx++) {
+			PropertyServiceDependency.addDataDependency(inputs[idx], function, "in" + idx, graph);
+		}
+		PropertyServiceDependency.addDataDependency(function, output, "out", graph);
+		return output;
+	}
+
+	protected static Task root(String id) {
+		Task result = new Communication(id);
+		PropertyServiceData.setDataType(result, DataType.Number);
+		PropertyServiceData.makeRoot(result);
+		PropertyServiceData.setJsonKey(result, id);
+		return result;
+	}
+}
@@ -0,0 +1,97 @@
+package at.uibk.dps.ee.io.persistance;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+
+import org.junit.Test;
+
+import at.uibk.dps.ee.io.afcl.AfclReader;
+import at.uibk.dps.ee.io.testclasses.AtomicEGGenerator;
+import at.uibk.dps.ee.io.testclasses.GraphComparison;
+import at.uibk.dps.ee.io.testconstants.ConstantsTestCoreEEiO;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import net.sf.opendse.model.Task;
+
+public class EnactmentGraphBinaryIOTest {
+
+	@Test
+	public void testRoundTripEquivalentToXml() throws IOException {
+		String[] files = { ConstantsTestCoreEEiO.cfclFileSingleAtomic, ConstantsTestCoreEEiO.cfclFileIf,
+				ConstantsTestCoreEEiO.cfclFileIfMulti, ConstantsTestCoreEEiO.cfclFileIfNoElse,
+				ConstantsTestCoreEEiO.cfclFileElementIndex, ConstantsTestCoreEEiO.cfclFileParallelFor,
+				ConstantsTestCoreEEiO.cfclFileParallelForConstIterator,
+				ConstantsTestCoreEEiO.cfclFileParallelForIntIterator,
+				ConstantsTestCoreEEiO.cfclFileParallelForNoInput };
+		File xmlFile = File.createTempFile("graph", ".xml");
+		File binaryFile = File.createTempFile("graph", EnactmentGraphBinaryIO.fileSuffix);
+		try {
+			for (String file : files) {
+				EnactmentGraph original = new AfclReader(file).getEnactmentGraph();
+				EnactmentGraphIO.writeEnactmentGraph(original, xmlFile.getAbsolutePath());
+				EnactmentGraphIO.writeEnactmentGraph(original, binaryFile.getAbsolutePath());
+				EnactmentGraph fromXml = EnactmentGraphIO.readEnactmentGraph(xmlFile.getAbsolutePath());
+				EnactmentGraph fromBinary = EnactmentGraphIO.readEnactmentGraph(binaryFile.getAbsolutePath());
+				GraphComparison.assertEqualGraphs(original, fromBinary);
+				GraphComparison.assertEqualGraphs(fromXml, fromBinary);
+				assertTrue(binaryFile.length() < xmlFile.length());
+			}
+		} finally {
+			xmlFile.delete();
+			binaryFile.delete();
+		}
+	}
+
+	@Test
+	public void testStreamRoundTrip() throws IOException {
+		EnactmentGraph original = AtomicEGGenerator.generateGraph();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		EnactmentGraphBinaryIO.writeEnactmentGraph(original, out);
+		EnactmentGraph restored = EnactmentGraphBinaryIO
+				.readEnactmentGraph(new ByteArrayInputStream(out.toByteArray()));
+		GraphComparison.assertEqualGraphs(original, restored);
+	}
+
+	protected static class NotAllowed implements Serializable {
+		private static final long serialVersionUID = 1L;
+	}
+
+	@Test(expected = IOException.class)
+	public void testSerializationFilter() throws IOException {
+		EnactmentGraph original = AtomicEGGenerator.generateGraph();
+		Task task = original.getVertices().iterator().next();
+		task.setAttribute("notAllowed", new NotAllowed());
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		EnactmentGraphBinaryIO.writeEnactmentGraph(original, out);
+		EnactmentGraphBinaryIO.readEnactmentGraph(new ByteArrayInputStream(out.toByteArray()));
+	}
+
+	@Test(expected = IOException.class)
+	public void testWrongMagicNumber() throws IOException {
+		EnactmentGraphBinaryIO.readEnactmentGraph(new ByteArrayInputStream(new byte[] { 1, 2, 3, 4, 5 }));
+	}
+
+	@Test
+	public void testVarInts() throws IOException {
+		long[] values = { 0, 1, 127, 128, 300, Integer.MAX_VALUE, -1, Long.MIN_VALUE };
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		for (long value : values) {
+			EnactmentGraphBinaryIO.writeVarLong(out, EnactmentGraphBinaryIO.zigZag(value));
+		}
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		for (long value : values) {
+			assertEquals(value, EnactmentGraphBinaryIO.unZigZag(EnactmentGraphBinaryIO.readVarLong(in)));
+		}
+		// small values take a single byte
+		ByteArrayOutputStream small = new ByteArrayOutputStream();
+		EnactmentGraphBinaryIO.writeVarInt(new DataOutputStream(small), 100);
+		assertEquals(1, small.size());
+	}
+}
@@ -0,0 +1,44 @@
+package at.uibk.dps.ee.io.persistance;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import at.uibk.dps.ee.io.testclasses.AtomicEGGenerator;
+import at.uibk.dps.ee.io.testclasses.GraphComparison;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import edu.uci.ics.jung.graph.util.EdgeType;
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+public class EnactmentGraphBulkLoaderTest {
+
+	@Test
+	public void testSmallGraph() {
+		EnactmentGraph original = AtomicEGGenerator.generateGraph();
+		GraphComparison.assertEqualGraphs(original, EnactmentGraphBulkLoader.load(original));
+	}
+
+	@Test
+	public void testChunkedGraph() {
+		// more edges than in a single chunk
+		int edgeNumber = 3 * EnactmentGraphBulkLoader.chunkSize + 5;
+		Application<Task, Dependency> application = new Application<>();
+		Task previous = new Task("task0");
+		application.addVertex(previous);
+		for (int idx = 0; idx < edgeNumber; idx++) {
+			Task next = idx % 2 == 0 ? new Communication("data" + idx) : new Task("task" + idx);
+			application.addEdge(new Dependency("dep" + idx), previous, next, EdgeType.DIRECTED);
+			previous = next;
+		}
+		EnactmentGraph result = EnactmentGraphBulkLoader.load(application);
+		assertEquals(edgeNumber, result.getEdgeCount());
+		assertEquals(edgeNumber + 1, result.getVertexCount());
+		for (Dependency dep : application.getEdges()) {
+			assertEquals(application.getSource(dep), result.getSource(dep));
+			assertEquals(application.getDest(dep), result.getDest(dep));
+		}
+	}
+}
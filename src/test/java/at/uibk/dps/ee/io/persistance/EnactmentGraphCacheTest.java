@@ -0,0 +1,89 @@
+package at.uibk.dps.ee.io.persistance;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import at.uibk.dps.ee.io.testclasses.AtomicEGGenerator;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import net.sf.opendse.model.Task;
+
+public class EnactmentGraphCacheTest {
+
+	protected Path cacheDir;
+
+	@Before
+	public void setUp() throws IOException {
+		cacheDir = Files.createTempDirectory("graphCache");
+	}
+
+	@After
+	public void tearDown() {
+		for (File file : cacheDir.toFile().listFiles()) {
+			file.delete();
+		}
+		cacheDir.toFile().delete();
+	}
+
+	@Test
+	public void testHitAndMiss() {
+		EnactmentGraphCache tested = new EnactmentGraphCache(cacheDir.toString(), 1024 * 1024, "1.0");
+		byte[] wfData = "workflow".getBytes(StandardCharsets.UTF_8);
+		byte[] otherWfData = "other workflow".getBytes(StandardCharsets.UTF_8);
+		EnactmentGraph original = AtomicEGGenerator.generateGraph();
+
+		assertFalse(tested.lookUp(wfData).isPresent());
+		tested.store(wfData, original);
+		assertTrue(tested.getEntryPath(wfData).toString().endsWith(EnactmentGraphBinaryIO.fileSuffix));
+		assertFalse(tested.lookUp(otherWfData).isPresent());
+		Optional<EnactmentGraph> result = tested.lookUp(wfData);
+		assertTrue(result.isPresent());
+		assertEquals(original.getVertexCount(), result.get().getVertexCount());
+		assertEquals(original.getEdgeCount(), result.get().getEdgeCount());
+		for (Task task : original) {
+			assertNotNull(result.get().getVertex(task.getId()));
+		}
+	}
+
+	@Test
+	public void testVersionInKey() {
+		byte[] wfData = "workflow".getBytes(StandardCharsets.UTF_8);
+		EnactmentGraphCache oldVersion = new EnactmentGraphCache(cacheDir.toString(), 1024 * 1024, "1.0");
+		EnactmentGraphCache newVersion = new EnactmentGraphCache(cacheDir.toString(), 1024 * 1024, "1.1");
+		oldVersion.store(wfData, AtomicEGGenerator.generateGraph());
+		assertTrue(oldVersion.lookUp(wfData).isPresent());
+		assertFalse(newVersion.lookUp(wfData).isPresent());
+	}
+
+	@Test
+	public void testDevelopmentVersion() {
+		// no manifest version outside of the jar => hash over the compiled classes
+		String version = EnactmentGraphCache.getImplementationVersion();
+		assertTrue(version.startsWith(EnactmentGraphCache.developmentVersionPrefix));
+		assertEquals(version, EnactmentGraphCache.computeDevelopmentVersion());
+	}
+
+	@Test
+	public void testEviction() throws IOException {
+		byte[] firstData = "first".getBytes(StandardCharsets.UTF_8);
+		byte[] secondData = "second".getBytes(StandardCharsets.UTF_8);
+		EnactmentGraphCache unbounded = new EnactmentGraphCache(cacheDir.toString(), 1024 * 1024, "1.0");
+		unbounded.store(firstData, AtomicEGGenerator.generateGraph());
+		long entrySize = Files.size(unbounded.getEntryPath(firstData));
+
+		// room for a single entry => storing the second evicts the first
+		EnactmentGraphCache tested = new EnactmentGraphCache(cacheDir.toString(), entrySize + 1, "1.0");
+		tested.store(secondData, AtomicEGGenerator.generateGraph());
+		assertFalse(tested.lookUp(firstData).isPresent());
+		assertTrue(tested.lookUp(secondData).isPresent());
+	}
+}
@@ -0,0 +1,59 @@
+package at.uibk.dps.ee.io.persistance;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import at.uibk.dps.ee.io.afcl.AfclReader;
+import at.uibk.dps.ee.io.testclasses.GraphComparison;
+import at.uibk.dps.ee.io.testconstants.ConstantsTestCoreEEiO;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import net.sf.opendse.model.Task;
+
+public class EnactmentGraphSnapshotTest {
+
+	@Test
+	public void testLazyDecoding() throws IOException {
+		EnactmentGraph original = new AfclReader(ConstantsTestCoreEEiO.cfclFileIf).getEnactmentGraph();
+		File snapshot = File.createTempFile("snapshot", EnactmentGraphBinaryIO.fileSuffix);
+		try {
+			EnactmentGraphIO.writeEnactmentGraph(original, snapshot.getAbsolutePath());
+			EnactmentGraph opened = new GraphSnapshotProvider(snapshot.getAbsolutePath()).getEnactmentGraph();
+			assertEquals(original.getVertexCount(), opened.getVertexCount());
+			Task task = opened.getVertices().iterator().next();
+			EnactmentGraphSnapshot.LazyAttributes lazy = getLazyAttributes(task);
+			assertFalse(lazy.decoded);
+			task.getAttributeNames();
+			assertTrue(lazy.decoded);
+			GraphComparison.assertEqualGraphs(original, opened);
+		} finally {
+			snapshot.delete();
+		}
+	}
+
+	@Test
+	public void testSetAttributeKeepsStoredOnes() throws IOException {
+		EnactmentGraph original = new AfclReader(ConstantsTestCoreEEiO.cfclFileSingleAtomic).getEnactmentGraph();
+		File snapshot = File.createTempFile("snapshot", EnactmentGraphBinaryIO.fileSuffix);
+		try {
+			EnactmentGraphIO.writeEnactmentGraph(original, snapshot.getAbsolutePath());
+			EnactmentGraph opened = EnactmentGraphIO.openSnapshot(snapshot.getAbsolutePath());
+			Task task = opened.getVertices().iterator().next();
+			int attrNumber = original.getVertex(task.getId()).getAttributeNames().size();
+			task.setAttribute("newAttribute", "value");
+			assertEquals(attrNumber + 1, task.getAttributeNames().size());
+		} finally {
+			snapshot.delete();
+		}
+	}
+
+	protected static EnactmentGraphSnapshot.LazyAttributes getLazyAttributes(Task task) {
+		if (task instanceof EnactmentGraphSnapshot.LazyTask) {
+			return ((EnactmentGraphSnapshot.LazyTask) task).lazyAttributes;
+		}
+		return ((EnactmentGraphSnapshot.LazyCommunication) task).lazyAttributes;
+	}
+}
@@ -0,0 +1,78 @@
+package at.uibk.dps.ee.io.persistance;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import at.uibk.dps.ee.io.afcl.AfclReader;
+import at.uibk.dps.ee.io.testclasses.AtomicEGGenerator;
+import at.uibk.dps.ee.io.testclasses.GraphComparison;
+import at.uibk.dps.ee.io.testconstants.ConstantsTestCoreEEiO;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+
+public class EnactmentGraphXmlIOTest {
+
+	@Test
+	public void testReadOpenDseFile() {
+		EnactmentGraph expected = EnactmentGraphIO
+				.readEnactmentGraphSpecification(ConstantsTestCoreEEiO.xmlFileTestAtomic);
+		EnactmentGraph actual = EnactmentGraphXmlIO.readEnactmentGraph(ConstantsTestCoreEEiO.xmlFileTestAtomic);
+		GraphComparison.assertEqualGraphs(expected, actual);
+	}
+
+	@Test
+	public void testWrittenFilesReadableByOpenDse() throws IOException {
+		String[] files = { ConstantsTestCoreEEiO.cfclFileSingleAtomic, ConstantsTestCoreEEiO.cfclFileIf,
+				ConstantsTestCoreEEiO.cfclFileElementIndex, ConstantsTestCoreEEiO.cfclFileParallelFor,
+				ConstantsTestCoreEEiO.cfclFileParallelForConstIterator };
+		File xmlFile = File.createTempFile("graph", ".xml");
+		try {
+			for (String file : files) {
+				EnactmentGraph original = new AfclReader(file).getEnactmentGraph();
+				EnactmentGraphXmlIO.writeEnactmentGraph(original, xmlFile.getAbsolutePath());
+				GraphComparison.assertEqualGraphs(original,
+						EnactmentGraphIO.readEnactmentGraphSpecification(xmlFile.getAbsolutePath()));
+				GraphComparison.assertEqualGraphs(original,
+						EnactmentGraphXmlIO.readEnactmentGraph(xmlFile.getAbsolutePath()));
+			}
+		} finally {
+			xmlFile.delete();
+		}
+	}
+
+	@Test
+	public void testStreamRoundTrip() throws IOException {
+		EnactmentGraph original = AtomicEGGenerator.generateGraph();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		EnactmentGraphXmlIO.writeEnactmentGraph(original, out);
+		EnactmentGraph restored = EnactmentGraphXmlIO.readEnactmentGraph(new ByteArrayInputStream(out.toByteArray()));
+		GraphComparison.assertEqualGraphs(original, restored);
+	}
+
+	@Test
+	public void testEdgeBeforeEndpoints() throws IOException {
+		String xml = "<specification xmlns=\"http://opendse.sourceforge.net\"><application>"
+				+ "<dependency id=\"a--b\" source=\"a\" destination=\"b\" orientation=\"DIRECTED\"/>"
+				+ "<task id=\"a\"/><communication id=\"b\"><attributes>"
+				+ "<attribute name=\"Root\" type=\"BOOL\">true</attribute></attributes></communication>"
+				+ "</application></specification>";
+		EnactmentGraph graph = EnactmentGraphXmlIO
+				.readEnactmentGraph(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+		assertEquals("a", graph.getSource(graph.getEdge("a--b")).getId());
+		assertEquals(Boolean.TRUE, graph.getVertex("b").getAttribute("Root"));
+	}
+
+	@Test(expected = IOException.class)
+	public void testUnknownEndpoint() throws IOException {
+		String xml = "<specification xmlns=\"http://opendse.sourceforge.net\"><application>"
+				+ "<task id=\"a\"/><dependency id=\"a--b\" source=\"a\" destination=\"b\"/>"
+				+ "</application></specification>";
+		EnactmentGraphXmlIO.readEnactmentGraph(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+	}
+}
@@ -0,0 +1,38 @@
+package at.uibk.dps.ee.io.persistance;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import at.uibk.dps.ee.io.afcl.AfclCompiler;
+import at.uibk.dps.ee.io.afcl.AfclReader;
+import at.uibk.dps.ee.io.testclasses.GraphComparison;
+import at.uibk.dps.ee.io.testconstants.ConstantsTestCoreEEiO;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+
+public class PrecompiledGraphProviderTest {
+
+	@Test
+	public void testCompileAndLoad() throws IOException {
+		String[] suffixes = { EnactmentGraphBinaryIO.fileSuffix, ".xml" };
+		for (String suffix : suffixes) {
+			File graphFile = File.createTempFile("precompiled", suffix);
+			try {
+				AfclCompiler.compile(ConstantsTestCoreEEiO.cfclFileParallelFor, graphFile.getAbsolutePath());
+				EnactmentGraph loaded = new PrecompiledGraphProvider(graphFile.getAbsolutePath())
+						.getEnactmentGraph();
+				EnactmentGraph expected = new AfclReader(ConstantsTestCoreEEiO.cfclFileParallelFor)
+						.getEnactmentGraph();
+				GraphComparison.assertEqualGraphs(expected, loaded);
+			} finally {
+				graphFile.delete();
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testCompilerUsage() {
+		AfclCompiler.main(new String[] { "only one argument" });
+	}
+}
@@ -0,0 +1,73 @@
+package at.uibk.dps.ee.io.persistance;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import at.uibk.dps.ee.io.testclasses.AtomicEGGenerator;
+import at.uibk.dps.ee.io.validation.GraphValidationException;
+import at.uibk.dps.ee.io.validation.ValidationLevel;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import net.sf.opendse.model.Communication;
+
+public class ValidationLevelIOTest {
+
+	@Test
+	public void testLevelStoredXml() throws IOException {
+		checkLevelStored(".xml");
+	}
+
+	@Test
+	public void testLevelStoredBinary() throws IOException {
+		checkLevelStored(EnactmentGraphBinaryIO.fileSuffix);
+	}
+
+	@Test
+	public void testCovers() {
+		assertTrue(ValidationLevel.FULL.covers(ValidationLevel.STRUCTURAL));
+		assertTrue(ValidationLevel.STRUCTURAL.covers(ValidationLevel.STRUCTURAL));
+		assertFalse(ValidationLevel.STRUCTURAL.covers(ValidationLevel.FULL));
+		assertTrue(ValidationLevel.NONE.covers(ValidationLevel.NONE));
+	}
+
+	@Test
+	public void testTrustedGraphNotValidated() throws IOException {
+		EnactmentGraph invalid = AtomicEGGenerator.generateGraph();
+		invalid.addVertex(new Communication("disconnected"));
+		File file = File.createTempFile("graph", EnactmentGraphBinaryIO.fileSuffix);
+		try {
+			EnactmentGraphIO.writeEnactmentGraph(invalid, file.getAbsolutePath(), ValidationLevel.FULL);
+			EnactmentGraph trusted = new PrecompiledGraphProvider(file.getAbsolutePath()).getEnactmentGraph();
+			assertEquals(invalid.getVertexCount(), trusted.getVertexCount());
+			EnactmentGraphIO.writeEnactmentGraph(invalid, file.getAbsolutePath(), ValidationLevel.STRUCTURAL);
+			try {
+				new PrecompiledGraphProvider(file.getAbsolutePath(), ValidationLevel.FULL);
+				fail();
+			} catch (GraphValidationException exc) {
+				assertEquals(1, exc.getViolations().size());
+			}
+			assertNotNull(new PrecompiledGraphProvider(file.getAbsolutePath(), ValidationLevel.NONE).getEnactmentGraph());
+		} finally {
+			file.delete();
+		}
+	}
+
+	protected void checkLevelStored(String suffix) throws IOException {
+		EnactmentGraph graph = AtomicEGGenerator.generateGraph();
+		File file = File.createTempFile("graph", suffix);
+		try {
+			EnactmentGraphIO.writeEnactmentGraph(graph, file.getAbsolutePath());
+			assertEquals(ValidationLevel.NONE, EnactmentGraphIO.readValidationLevel(file.getAbsolutePath()));
+			EnactmentGraphIO.writeEnactmentGraph(graph, file.getAbsolutePath(), ValidationLevel.STRUCTURAL);
+			assertEquals(ValidationLevel.STRUCTURAL, EnactmentGraphIO.readValidationLevel(file.getAbsolutePath()));
+			EnactmentGraph restored = EnactmentGraphIO.readEnactmentGraph(file.getAbsolutePath());
+			assertEquals(graph.getVertexCount(), restored.getVertexCount());
+			assertEquals(graph.getEdgeCount(), restored.getEdgeCount());
+		} finally {
+			file.delete();
+		}
+	}
+}
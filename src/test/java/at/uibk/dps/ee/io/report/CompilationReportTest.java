@@ -0,0 +1,72 @@
+package at.uibk.dps.ee.io.report;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.Map;
+
+import org.junit.Test;
+
+import at.uibk.dps.ee.io.afcl.AfclReader;
+import at.uibk.dps.ee.io.report.CompilationReport.Phase;
+import at.uibk.dps.ee.io.report.CompilationReport.PhaseStatistics;
+import at.uibk.dps.ee.io.testconstants.ConstantsTestCoreEEiO;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import net.sf.opendse.model.Task;
+
+public class CompilationReportTest {
+
+	@Test
+	public void testAfclReaderReport() {
+		AfclReader reader = new AfclReader(ConstantsTestCoreEEiO.cfclFileParallelFor);
+		EnactmentGraph graph = reader.getEnactmentGraph();
+		Map<Phase, PhaseStatistics> stats = reader.getCompilationReport().getStatistics();
+		assertTrue(stats.containsKey(Phase.FileRead));
+		assertTrue(stats.containsKey(Phase.Parsing));
+		assertTrue(stats.containsKey(Phase.SymbolTable));
+		assertTrue(stats.containsKey(Phase.CompoundTranslation));
+		assertTrue(stats.containsKey(Phase.Validation));
+		assertFalse(stats.containsKey(Phase.MappingCreation));
+		assertEquals(new File(ConstantsTestCoreEEiO.cfclFileParallelFor).length(),
+				stats.get(Phase.FileRead).getItems());
+		long nodes = stats.get(Phase.WorkflowInputs).getNodes() + stats.get(Phase.CompoundTranslation).getNodes()
+				+ stats.get(Phase.WorkflowOutputs).getNodes();
+		assertEquals(graph.getVertexCount(), nodes);
+		assertEquals(0, stats.get(Phase.Validation).getNodes());
+	}
+
+	@Test
+	public void testRecursionMeasuredOnce() {
+		CompilationReport tested = new CompilationReport();
+		EnactmentGraph graph = new EnactmentGraph();
+		tested.run(Phase.CompoundTranslation, graph, () -> {
+			graph.addVertex(new Task("outer"));
+			tested.run(Phase.CompoundTranslation, graph, () -> graph.addVertex(new Task("inner")));
+		});
+		PhaseStatistics stats = tested.getStatistics(Phase.CompoundTranslation).get();
+		assertEquals(2, stats.getInvocations());
+		assertEquals(2, stats.getNodes());
+		assertFalse(tested.getStatistics(Phase.Validation).isPresent());
+	}
+
+	@Test
+	public void testMeasureReturnsResult() {
+		CompilationReport tested = new CompilationReport();
+		assertEquals("result", tested.measure(Phase.Parsing, null, () -> "result"));
+		tested.addItems(Phase.Parsing, 3);
+		assertEquals(3, tested.getStatistics(Phase.Parsing).get().getItems());
+		assertTrue(tested.toString().contains(Phase.Parsing.name()));
+	}
+
+	@Test
+	public void testDisabledReport() {
+		CompilationReport tested = new CompilationReport(false);
+		EnactmentGraph graph = new EnactmentGraph();
+		assertEquals("result", tested.measure(Phase.Parsing, graph, () -> "result"));
+		tested.run(Phase.CompoundTranslation, graph, () -> graph.addVertex(new Task("task")));
+		tested.addItems(Phase.Parsing, 3);
+		assertFalse(tested.isEnabled());
+		assertEquals(1, graph.getVertexCount());
+		assertTrue(tested.getStatistics().isEmpty());
+	}
+}
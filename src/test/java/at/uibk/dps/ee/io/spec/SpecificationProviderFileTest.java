@@ -4,6 +4,7 @@ import static org.junit.Assert.*;
 
 import org.junit.Test;
 
+import at.uibk.dps.ee.io.analysis.CriticalPathAnnotation;
 import at.uibk.dps.ee.io.resources.ResourceGraphProviderFile;
 import at.uibk.dps.ee.io.testconstants.ConstantsTestCoreEEiO;
 import at.uibk.dps.ee.model.graph.EnactmentGraph;
@@ -39,5 +40,8 @@ public class SpecificationProviderFileTest {
 		assertEquals(4, result.size());
 		assertEquals(2, result.get(t1).size());
 		assertEquals(2, result.get(t2).size());
+		// no cost hints => default cost for both functions
+		assertTrue(CriticalPathAnnotation.isAnnotated(eGraph));
+		assertTrue(CriticalPathAnnotation.isOnCriticalPath(t1));
 	}
 }
@@ -0,0 +1,102 @@
+package at.uibk.dps.ee.io.specialization;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import at.uibk.dps.ee.io.UtilsGraph;
+import at.uibk.dps.ee.io.afcl.AfclReader;
+import at.uibk.dps.ee.io.testconstants.ConstantsTestCoreEEiO;
+import at.uibk.dps.ee.io.validation.GraphValidation;
+import at.uibk.dps.ee.model.constants.ConstantsEEModel;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUtilityCollections;
+import net.sf.opendse.model.Task;
+
+public class GraphSpecializationTest {
+
+	@Test
+	public void testThenBranch() {
+		EnactmentGraph graph = getGraph();
+		EnactmentGraph specialized = GraphSpecialization.specialize(graph, getInput(1, 2));
+		GraphValidation.validateGraph(specialized);
+		assertNull(specialized.getVertex("ifCompound"));
+		assertNull(specialized.getVertex("ifCompound" + ConstantsEEModel.DecisionVariableSuffix));
+		assertNull(specialized.getVertex("func2"));
+		assertNull(specialized.getVertex("wf/mode"));
+		assertNull(specialized.getVertex("wf/idx"));
+		assertTrue(PropertyServiceData.isRoot(specialized.getVertex("wf/data")));
+		Task result = specialized.getVertex("func1/out");
+		assertTrue(PropertyServiceData.isLeaf(result));
+		assertEquals("result", PropertyServiceData.getJsonKey(result));
+		List<Task> operations = getOperations(specialized);
+		assertEquals(1, operations.size());
+		assertEquals("2", PropertyServiceFunctionUtilityCollections.getSubCollectionsString(operations.get(0)));
+		assertEquals(5, specialized.getVertexCount());
+		// the original graph is not modified
+		assertNotNull(graph.getVertex("ifCompound"));
+		assertNotNull(graph.getVertex("wf/idx"));
+	}
+
+	@Test
+	public void testElseBranch() {
+		EnactmentGraph specialized = GraphSpecialization.specialize(getGraph(), getInput(2, 2));
+		GraphValidation.validateGraph(specialized);
+		assertNull(specialized.getVertex("func1"));
+		assertTrue(getOperations(specialized).isEmpty());
+		assertTrue(PropertyServiceData.isLeaf(specialized.getVertex("func2/out")));
+		assertEquals(3, specialized.getVertexCount());
+	}
+
+	@Test
+	public void testUnknownCondition() {
+		JsonObject input = getInput(1, 3);
+		input.remove("mode");
+		EnactmentGraph specialized = GraphSpecialization.specialize(getGraph(), input);
+		GraphValidation.validateGraph(specialized);
+		assertNotNull(specialized.getVertex("ifCompound"));
+		assertNotNull(specialized.getVertex("func2"));
+		assertTrue(PropertyServiceData.isRoot(specialized.getVertex("wf/mode")));
+		assertEquals("3",
+				PropertyServiceFunctionUtilityCollections.getSubCollectionsString(getOperations(specialized).get(0)));
+	}
+
+	@Test
+	public void testRelevantKeys() {
+		assertEquals(List.of("idx", "mode"), List.copyOf(GraphSpecialization.getRelevantInputKeys(getGraph())));
+	}
+
+	@Test
+	public void testReplaceReference() {
+		assertEquals("1,3:wf/idx2", GraphSpecialization.replaceReference("1,wf/idx:wf/idx2", "wf/idx", 3));
+	}
+
+	protected static List<Task> getOperations(EnactmentGraph graph) {
+		return graph.getVertices().stream().filter(UtilsGraph::isCollectionOperation)
+				.collect(Collectors.toList());
+	}
+
+	protected static EnactmentGraph getGraph() {
+		return new AfclReader(ConstantsTestCoreEEiO.cfclFileSpecialization).getEnactmentGraph();
+	}
+
+	protected static JsonObject getInput(int mode, int idx) {
+		JsonObject result = new JsonObject();
+		result.addProperty("mode", mode);
+		result.addProperty("idx", idx);
+		JsonArray data = new JsonArray();
+		data.add(10);
+		data.add(11);
+		data.add(12);
+		data.add(13);
+		result.add("data", data);
+		return result;
+	}
+}
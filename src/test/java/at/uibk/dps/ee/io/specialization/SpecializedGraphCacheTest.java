@@ -0,0 +1,64 @@
+package at.uibk.dps.ee.io.specialization;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+
+public class SpecializedGraphCacheTest {
+
+	@Test
+	public void testEntries() {
+		SpecializedGraphCache tested = new SpecializedGraphCache(GraphSpecializationTest.getGraph(), 2);
+		EnactmentGraph first = tested.getSpecializedGraph(GraphSpecializationTest.getInput(1, 2));
+		JsonObject otherData = GraphSpecializationTest.getInput(1, 2);
+		otherData.add("data", new JsonArray());
+		EnactmentGraph second = tested.getSpecializedGraph(otherData);
+		// same relevant values => same entry, but separate copies
+		assertEquals(1, tested.size());
+		assertNotSame(first, second);
+		assertEquals(first.getVertexCount(), second.getVertexCount());
+		tested.getSpecializedGraph(GraphSpecializationTest.getInput(2, 2));
+		assertEquals(2, tested.size());
+		tested.getSpecializedGraph(GraphSpecializationTest.getInput(1, 3));
+		assertEquals(2, tested.size());
+	}
+
+	@Test
+	public void testConcurrentRequests() throws InterruptedException, ExecutionException {
+		SpecializedGraphCache tested = new SpecializedGraphCache(GraphSpecializationTest.getGraph(), 4);
+		EnactmentGraph expected = GraphSpecialization.specialize(GraphSpecializationTest.getGraph(),
+				GraphSpecializationTest.getInput(1, 2));
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<EnactmentGraph>> results = new ArrayList<>();
+			for (int idx = 0; idx < 16; idx++) {
+				final int second = 2 + idx % 2;
+				results.add(executor
+						.submit(() -> tested.getSpecializedGraph(GraphSpecializationTest.getInput(1, second))));
+			}
+			for (int idx = 0; idx < results.size(); idx += 2) {
+				assertEquals(expected.getVertexCount(), results.get(idx).get().getVertexCount());
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(2, tested.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidSize() {
+		new SpecializedGraphCache(new EnactmentGraph(), 0);
+	}
+}
@@ -0,0 +1,58 @@
+package at.uibk.dps.ee.io.testclasses;
+
+import static org.junit.Assert.*;
+
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Element;
+import net.sf.opendse.model.Task;
+
+/**
+ * Assertions used to check that two {@link EnactmentGraph}s are identical.
+ * 
+ * @author Fedor Smirnov
+ *
+ */
+public final class GraphComparison {
+
+	private GraphComparison() {
+	}
+
+	/**
+	 * Asserts that the given graphs have the same vertices and edges (same ids,
+	 * same attributes, same endpoints).
+	 * 
+	 * @param expected the expected graph
+	 * @param actual   the actual graph
+	 */
+	public static void assertEqualGraphs(EnactmentGraph expected, EnactmentGraph actual) {
+		assertEquals(expected.getVertexCount(), actual.getVertexCount());
+		assertEquals(expected.getEdgeCount(), actual.getEdgeCount());
+		for (Task task : expected) {
+			Task actualTask = actual.getVertex(task.getId());
+			assertNotNull("Missing vertex " + task.getId(), actualTask);
+			assertEqualAttributes(task, actualTask);
+		}
+		for (Dependency dep : expected.getEdges()) {
+			Dependency actualDep = actual.getEdge(dep.getId());
+			assertNotNull("Missing edge " + dep.getId(), actualDep);
+			assertEqualAttributes(dep, actualDep);
+			assertEquals(expected.getSource(dep).getId(), actual.getSource(actualDep).getId());
+			assertEquals(expected.getDest(dep).getId(), actual.getDest(actualDep).getId());
+		}
+	}
+
+	/**
+	 * Asserts that the given elements have the same attributes.
+	 * 
+	 * @param expected the expected element
+	 * @param actual   the actual element
+	 */
+	public static void assertEqualAttributes(Element expected, Element actual) {
+		assertEquals(expected.getId(), actual.getId());
+		assertEquals(expected.getAttributeNames(), actual.getAttributeNames());
+		for (String attrName : expected.getAttributeNames()) {
+			assertEquals((Object) expected.getAttribute(attrName), (Object) actual.getAttribute(attrName));
+		}
+	}
+}
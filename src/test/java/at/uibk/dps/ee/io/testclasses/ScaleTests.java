@@ -0,0 +1,11 @@
+package at.uibk.dps.ee.io.testclasses;
+
+/**
+ * JUnit category of the long-running scale tests. They are excluded from the
+ * default test task and run with gradle scaleTest.
+ *
+ * @author Fedor Smirnov
+ *
+ */
+public interface ScaleTests {
+}
@@ -0,0 +1,359 @@
+package at.uibk.dps.ee.io.testclasses;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+/**
+ * Generates synthetic AFCL workflows (together with the matching
+ * function-type-to-resource mapping and the workflow input) for scale tests and
+ * benchmarks.
+ *
+ * The workflow body is a sequence of units. Each unit is a block: a chain of
+ * atomic functions, followed (up to the configured nesting depth) by
+ * {@link #width} compounds (alternately parallelFor and if) with nested blocks,
+ * whose results are combined by a join function. Units are added until the
+ * requested number of functions is reached.
+ *
+ * @author Fedor Smirnov
+ *
+ */
+public class WorkflowGenerator {
+
+	public static final String wfName = "synthetic";
+	public static final String inputKeyNumber = "in";
+	public static final String inputKeyCollection = "coll";
+	public static final String inputKeyCondition = "cond";
+
+	protected static final String typeNumber = "number";
+	protected static final String typeCollection = "collection";
+
+	protected int functionNumber = 100;
+	protected int depth = 1;
+	protected int width = 2;
+	protected int chainLength = 3;
+	protected boolean collectionConstraints = true;
+	protected int functionTypes = 4;
+	protected int collectionSize = 4;
+
+	protected StringBuilder builder;
+	protected int generatedFunctions;
+	protected int idCounter;
+
+	/**
+	 * Sets the (minimal) number of functions of the generated workflow.
+	 */
+	public WorkflowGenerator setFunctionNumber(int functionNumber) {
+		this.functionNumber = functionNumber;
+		return this;
+	}
+
+	/**
+	 * Sets the maximal nesting depth of compounds (0: chains of atomics only).
+	 */
+	public WorkflowGenerator setDepth(int depth) {
+		this.depth = depth;
+		return this;
+	}
+
+	/**
+	 * Sets the number of compounds following each chain (above the maximal
+	 * depth).
+	 */
+	public WorkflowGenerator setWidth(int width) {
+		this.width = width;
+		return this;
+	}
+
+	/**
+	 * Sets the number of atomics in each chain (at least 1).
+	 */
+	public WorkflowGenerator setChainLength(int chainLength) {
+		if (chainLength < 1) {
+			throw new IllegalArgumentException("Chains must contain at least one function.");
+		}
+		this.chainLength = chainLength;
+		return this;
+	}
+
+	/**
+	 * Sets whether collection constraints (block, element-index) are used.
+	 */
+	public WorkflowGenerator setCollectionConstraints(boolean collectionConstraints) {
+		this.collectionConstraints = collectionConstraints;
+		return this;
+	}
+
+	/**
+	 * Sets the number of different function types.
+	 */
+	public WorkflowGenerator setFunctionTypes(int functionTypes) {
+		this.functionTypes = functionTypes;
+		return this;
+	}
+
+	/**
+	 * Sets the size of the collection in the workflow input.
+	 */
+	public WorkflowGenerator setCollectionSize(int collectionSize) {
+		this.collectionSize = collectionSize;
+		return this;
+	}
+
+	/**
+	 * Returns the number of functions (atomics) of the last generated workflow.
+	 */
+	public int getGeneratedFunctions() {
+		return generatedFunctions;
+	}
+
+	/**
+	 * Returns the name of the i-th function type.
+	 */
+	public static String getFunctionType(int idx) {
+		return "type" + idx;
+	}
+
+	/**
+	 * Generates the workflow and writes the workflow (.yaml), the mapping
+	 * (mapping.json), and the input (input.json) into the given directory.
+	 *
+	 * @param directory the directory
+	 * @return the paths of the workflow, the mapping, and the input file
+	 */
+	public Path[] writeFiles(Path directory) throws IOException {
+		Path afcl = directory.resolve(wfName + ".yaml");
+		Path mapping = directory.resolve("mapping.json");
+		Path input = directory.resolve("input.json");
+		Files.write(afcl, generateAfcl().getBytes(StandardCharsets.UTF_8));
+		Files.write(mapping, generateMappingJson().getBytes(StandardCharsets.UTF_8));
+		Files.write(input, generateInputJson().getBytes(StandardCharsets.UTF_8));
+		return new Path[] { afcl, mapping, input };
+	}
+
+	/**
+	 * Generates the AFCL workflow (yaml).
+	 */
+	public String generateAfcl() {
+		builder = new StringBuilder();
+		generatedFunctions = 0;
+		idCounter = 0;
+		line(0, "---");
+		line(0, "name: " + quote(wfName));
+		line(0, "dataIns:");
+		dataIn(1, inputKeyNumber, typeNumber, inputKeyNumber, null);
+		dataIn(1, inputKeyCollection, typeCollection, inputKeyCollection, null);
+		dataIn(1, inputKeyCondition, "boolean", inputKeyCondition, null);
+		line(0, "workflowBody:");
+		Data current = new Data(wfName + "/" + inputKeyNumber, false);
+		while (generatedFunctions < functionNumber) {
+			current = block(1, 0, List.of(current));
+		}
+		line(0, "dataOuts:");
+		dataOut(1, "result", current);
+		return builder.toString();
+	}
+
+	/**
+	 * Generates the function-type-to-resource mapping (a serverless and a local
+	 * resource per function type).
+	 */
+	public String generateMappingJson() {
+		JsonArray result = new JsonArray();
+		for (int idx = 0; idx < functionTypes; idx++) {
+			JsonObject entry = new JsonObject();
+			entry.addProperty("functionType", getFunctionType(idx));
+			JsonArray resources = new JsonArray();
+			JsonObject serverless = new JsonObject();
+			serverless.addProperty("type", "Serverless");
+			JsonObject properties = new JsonObject();
+			properties.addProperty("Uri", "www.synthetic.org/" + getFunctionType(idx));
+			properties.addProperty("provider", "Amazon");
+			properties.addProperty("region", "US");
+			properties.addProperty("memory", 128);
+			properties.addProperty("timeout", 20);
+			serverless.add("properties", properties);
+			resources.add(serverless);
+			JsonObject local = new JsonObject();
+			local.addProperty("type", "Local");
+			local.add("properties", new JsonObject());
+			resources.add(local);
+			entry.add("resources", resources);
+			result.add(entry);
+		}
+		return result.toString();
+	}
+
+	/**
+	 * Generates the workflow input.
+	 */
+	public String generateInputJson() {
+		JsonObject result = new JsonObject();
+		result.addProperty(inputKeyNumber, 1);
+		JsonArray collection = new JsonArray();
+		for (int idx = 0; idx < collectionSize; idx++) {
+			collection.add(idx);
+		}
+		result.add(inputKeyCollection, collection);
+		result.addProperty(inputKeyCondition, true);
+		return result.toString();
+	}
+
+	/**
+	 * Generates a block (list element entries at the given indentation) and
+	 * returns its result.
+	 */
+	protected Data block(int indent, int level, List<Data> inputs) {
+		Data current = atomic(indent, inputs);
+		for (int idx = 1; idx < chainLength; idx++) {
+			current = atomic(indent, List.of(current));
+		}
+		if (level >= depth) {
+			return current;
+		}
+		List<Data> compoundResults = new ArrayList<>();
+		for (int idx = 0; idx < width; idx++) {
+			compoundResults.add((level + idx) % 2 == 0 ? parallelFor(indent, level, current)
+					: ifCompound(indent, level, current));
+		}
+		// join function
+		return atomic(indent, compoundResults);
+	}
+
+	/**
+	 * Generates an atomic function processing the given inputs.
+	 */
+	protected Data atomic(int indent, List<Data> inputs) {
+		String name = "f" + idCounter++;
+		String type = getFunctionType(generatedFunctions % functionTypes);
+		generatedFunctions++;
+		line(indent, "- function:");
+		line(indent + 2, "name: " + quote(name));
+		line(indent + 2, "type: " + quote(type));
+		line(indent + 2, "dataIns:");
+		for (int idx = 0; idx < inputs.size(); idx++) {
+			consumerDataIn(indent + 3, "in" + idx, inputs.get(idx));
+		}
+		line(indent + 2, "dataOuts:");
+		line(indent + 3, "- name: " + quote("out"));
+		line(indent + 4, "type: " + quote(typeNumber));
+		return new Data(name + "/out", false);
+	}
+
+	/**
+	 * Generates a parallelFor iterating over the workflow collection.
+	 */
+	protected Data parallelFor(int indent, int level, Data input) {
+		String name = "pf" + idCounter++;
+		line(indent, "- parallelFor:");
+		line(indent + 2, "name: " + quote(name));
+		line(indent + 2, "dataIns:");
+		String blockConstraint = collectionConstraints ? "1,0" : null;
+		dataIn(indent + 3, "iterated", typeNumber, wfName + "/" + inputKeyCollection, blockConstraint);
+		consumerDataIn(indent + 3, "num", input);
+		line(indent + 2, "iterators: [" + quote("iterated") + "]");
+		line(indent + 2, "loopBody:");
+		Data bodyResult = block(indent + 3, level + 1,
+				List.of(new Data(name + "/iterated", false), new Data(name + "/num", false)));
+		line(indent + 2, "dataOuts:");
+		line(indent + 3, "- name: " + quote("res"));
+		line(indent + 4, "type: " + quote(typeCollection));
+		line(indent + 4, "source: " + quote(bodyResult.src));
+		return new Data(name + "/res", true);
+	}
+
+	/**
+	 * Generates an if compound with the same block structure in both branches.
+	 */
+	protected Data ifCompound(int indent, int level, Data input) {
+		String name = "if" + idCounter++;
+		line(indent, "- if:");
+		line(indent + 2, "name: " + quote(name));
+		line(indent + 2, "dataIns:");
+		consumerDataIn(indent + 3, "num", input);
+		dataIn(indent + 3, "cond", "boolean", wfName + "/" + inputKeyCondition, null);
+		line(indent + 2, "condition:");
+		line(indent + 3, "- data1: " + quote(name + "/cond"));
+		line(indent + 4, "data2: " + quote("true"));
+		line(indent + 4, "type: " + quote("boolean"));
+		line(indent + 4, "operator: " + quote("=="));
+		line(indent + 4, "negation: " + quote("false"));
+		line(indent + 4, "combinedWith: " + quote("and"));
+		Data branchInput = new Data(name + "/num", false);
+		line(indent + 2, "then:");
+		Data thenResult = block(indent + 3, level + 1, List.of(branchInput));
+		line(indent + 2, "else:");
+		Data elseResult = block(indent + 3, level + 1, List.of(branchInput));
+		line(indent + 2, "dataOuts:");
+		line(indent + 3, "- name: " + quote("res"));
+		line(indent + 4, "type: " + quote(thenResult.collection ? typeCollection : typeNumber));
+		line(indent + 4, "source: " + quote(thenResult.src + "," + elseResult.src));
+		return new Data(name + "/res", thenResult.collection);
+	}
+
+	/**
+	 * Generates the dataIn of a consumer of the given data (collections are
+	 * either indexed or consumed as a whole).
+	 */
+	protected void consumerDataIn(int indent, String name, Data data) {
+		if (!data.collection) {
+			dataIn(indent, name, typeNumber, data.src, null);
+		} else if (collectionConstraints) {
+			line(indent, "- name: " + quote(name));
+			line(indent + 1, "type: " + quote(typeNumber));
+			line(indent + 1, "source: " + quote(data.src));
+			line(indent + 1, "constraints:");
+			line(indent + 2, "- name: " + quote("element-index"));
+			line(indent + 3, "value: " + quote("0"));
+		} else {
+			dataIn(indent, name, typeCollection, data.src, null);
+		}
+	}
+
+	protected void dataIn(int indent, String name, String type, String source, String blockConstraint) {
+		line(indent, "- name: " + quote(name));
+		line(indent + 1, "type: " + quote(type));
+		line(indent + 1, "source: " + quote(source));
+		if (blockConstraint != null) {
+			line(indent + 1, "constraints:");
+			line(indent + 2, "- name: " + quote("block"));
+			line(indent + 3, "value: " + quote(blockConstraint));
+		}
+	}
+
+	protected void dataOut(int indent, String name, Data data) {
+		line(indent, "- name: " + quote(name));
+		line(indent + 1, "type: " + quote(data.collection ? typeCollection : typeNumber));
+		line(indent + 1, "source: " + quote(data.src));
+	}
+
+	protected void line(int indent, String content) {
+		for (int idx = 0; idx < indent; idx++) {
+			builder.append("  ");
+		}
+		builder.append(content).append('\n');
+	}
+
+	protected static String quote(String string) {
+		return '"' + string + '"';
+	}
+
+	/**
+	 * Reference to a data produced in the workflow.
+	 */
+	protected static class Data {
+		protected final String src;
+		protected final boolean collection;
+
+		protected Data(String src, boolean collection) {
+			this.src = src;
+			this.collection = collection;
+		}
+	}
+}
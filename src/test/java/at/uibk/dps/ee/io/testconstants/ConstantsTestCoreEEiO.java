@@ -20,11 +20,20 @@ public class ConstantsTestCoreEEiO {
 	public static final String cfclFileIf = "src/test/resources/wfInputFiles/simpleIf.yaml";
 	public static final String cfclFileIfMulti = "src/test/resources/wfInputFiles/simpleIfMultiFunc.yaml";
 	public static final String cfclFileIfNoElse = "src/test/resources/wfInputFiles/simpleIfNoElse.yaml";
+	public static final String cfclFileIfConstantThen = "src/test/resources/wfInputFiles/ifConstantThen.yaml";
+	public static final String cfclFileIfConstantElse = "src/test/resources/wfInputFiles/ifConstantElse.yaml";
+	public static final String cfclFileIfConstantUnusedInput = "src/test/resources/wfInputFiles/ifConstantUnusedInput.yaml";
 	public static final String cfclFileElementIndex = "src/test/resources/wfInputFiles/atomicElementIndex.yaml";
 	public static final String cfclFileParallelFor = "src/test/resources/wfInputFiles/parFor.yaml";
 	public static final String cfclFileParallelForConstIterator = "src/test/resources/wfInputFiles/parForConstIterator.yaml";
 	public static final String cfclFileParallelForIntIterator = "src/test/resources/wfInputFiles/parForIntIterator.yaml";
 	public static final String cfclFileParallelForNoInput = "src/test/resources/wfInputFiles/parForNoInput.yaml";
+	public static final String cfclFileParallelForUnroll = "src/test/resources/wfInputFiles/parForUnroll.yaml";
+	public static final String cfclFileParallelForUnrollNoOutput = "src/test/resources/wfInputFiles/parForUnrollNoOutput.yaml";
+	public static final String cfclFileSpecialization = "src/test/resources/wfInputFiles/specialization.yaml";
+	public static final String cfclFileChainedOperations = "src/test/resources/wfInputFiles/chainedOperations.yaml";
+	public static final String cfclFileSharedNodes = "src/test/resources/wfInputFiles/sharedNodes.yaml";
+	public static final String cfclFileForwardReference = "src/test/resources/wfInputFiles/forwardReference.yaml";
 
 	// single atomic names
 	public static final String wfNameAtomic = "single Atomic";
@@ -0,0 +1,148 @@
+package at.uibk.dps.ee.io.validation;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import com.google.gson.JsonPrimitive;
+
+import at.uibk.dps.ee.io.afcl.AfclReader;
+import at.uibk.dps.ee.io.testclasses.AtomicEGGenerator;
+import at.uibk.dps.ee.io.testconstants.ConstantsTestCoreEEiO;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceData.DataType;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections.OperationType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUser;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUtilityCollections;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUtilityCollections.CollectionOperation;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Task;
+
+public class GraphValidatorTest {
+
+	@Test
+	public void testValidGraphs() {
+		assertTrue(getViolations(AtomicEGGenerator.generateGraph()).isEmpty());
+		EnactmentGraph graph = new AfclReader(ConstantsTestCoreEEiO.cfclFileIf).getEnactmentGraph();
+		assertTrue(getViolations(graph).isEmpty());
+		graph = new AfclReader(ConstantsTestCoreEEiO.cfclFileParallelFor).getEnactmentGraph();
+		assertTrue(getViolations(graph).isEmpty());
+		graph = new AfclReader(ConstantsTestCoreEEiO.cfclFileElementIndex).getEnactmentGraph();
+		assertTrue(getViolations(graph).isEmpty());
+	}
+
+	@Test
+	public void testCollectionTypes() {
+		EnactmentGraph graph = new EnactmentGraph();
+		// number sliced by an element index operation
+		Task number = new Communication("number");
+		PropertyServiceData.setDataType(number, DataType.Number);
+		PropertyServiceData.makeRoot(number);
+		Task index = new Communication("index");
+		PropertyServiceData.setDataType(index, DataType.Number);
+		PropertyServiceData.makeRoot(index);
+		Task operation = PropertyServiceFunctionUtilityCollections.createCollectionOperation("number", "index",
+				CollectionOperation.ElementIndex);
+		PropertyServiceDependency.addDataDependency(number, operation, "input", graph);
+		PropertyServiceDependency.addDataDependency(index, operation, "index", graph);
+		Task element = new Communication("element");
+		PropertyServiceData.setDataType(element, DataType.Number);
+		PropertyServiceData.makeLeaf(element);
+		PropertyServiceDependency.addDataDependency(operation, element, "input", graph);
+		// number distributed by a parallelFor
+		Task distribution = PropertyServiceFunctionDataFlowCollections.createCollectionDataFlowTask("distribution",
+				OperationType.Distribution, "parallelFor");
+		PropertyServiceDependency.addDataDependency(number, distribution, "iterator", graph);
+		Task distributed = new Communication("distributed");
+		PropertyServiceData.setDataType(distributed, DataType.Number);
+		PropertyServiceData.makeLeaf(distributed);
+		PropertyServiceDependency.addDataDependency(distribution, distributed, "iterator", graph);
+
+		Set<String> typeViolations = getViolations(graph).stream()
+				.filter(v -> v.getCheck().equals(DataTypeCheck.class.getSimpleName())).map(Violation::getTaskId)
+				.collect(Collectors.toSet());
+		assertEquals(Set.of(operation.getId(), "distribution"), typeViolations);
+	}
+
+	@Test
+	public void testAllViolationsReported() {
+		EnactmentGraph graph = AtomicEGGenerator.generateGraph();
+		// disconnected data
+		Task disconnected = new Communication("disconnected");
+		graph.addVertex(disconnected);
+		// orphan function
+		Task orphan = PropertyServiceFunctionUser.createUserTask("orphan", "addition");
+		graph.addVertex(orphan);
+		// data without producer
+		Task unproduced = new Communication("unproduced");
+		Task consumer = PropertyServiceFunctionUser.createUserTask("consumer", "addition");
+		PropertyServiceDependency.addDataDependency(unproduced, consumer, "key", graph);
+		// constant with the wrong type
+		Task constant = PropertyServiceData.createConstantNode("constant", DataType.Boolean, new JsonPrimitive(1));
+		PropertyServiceDependency.addDataDependency(constant, consumer, "key2", graph);
+		// edge between two functions
+		Task otherFunction = PropertyServiceFunctionUser.createUserTask("other", "addition");
+		PropertyServiceDependency.addDataDependency(consumer, otherFunction, "key3", graph);
+
+		List<Violation> violations = getViolations(graph);
+		Set<String> checks = violations.stream().map(Violation::getCheck).collect(Collectors.toSet());
+		assertTrue(checks.contains(DisconnectedDataCheck.class.getSimpleName()));
+		assertTrue(checks.contains(OrphanFunctionCheck.class.getSimpleName()));
+		assertTrue(checks.contains(RootLeafCheck.class.getSimpleName()));
+		assertTrue(checks.contains(DataTypeCheck.class.getSimpleName()));
+		assertFalse(checks.contains(CycleCheck.class.getSimpleName()));
+		try {
+			GraphValidation.validateGraph(graph);
+			fail();
+		} catch (GraphValidationException exc) {
+			assertEquals(violations.size(), exc.getViolations().size());
+		}
+	}
+
+	@Test
+	public void testCycle() {
+		EnactmentGraph graph = AtomicEGGenerator.generateGraph();
+		Task output = graph.getVertex("atomicFunction/myOutput");
+		Task back = PropertyServiceFunctionUser.createUserTask("back", "addition");
+		Task data = new Communication("data");
+		PropertyServiceDependency.addDataDependency(output, back, "key", graph);
+		PropertyServiceDependency.addDataDependency(back, data, "key", graph);
+		PropertyServiceDependency.addDataDependency(data, graph.getVertex("atomicFunction"), "key2", graph);
+		List<Violation> violations = getViolations(graph);
+		assertFalse(violations.isEmpty());
+		assertTrue(violations.stream().allMatch(v -> v.getCheck().equals(CycleCheck.class.getSimpleName())));
+		assertEquals(4, violations.size());
+	}
+
+	@Test
+	public void testParallelChunks() {
+		EnactmentGraph graph = new EnactmentGraph();
+		int chains = GraphValidator.chunkSize;
+		for (int idx = 0; idx < chains; idx++) {
+			Task input = new Communication("in" + idx);
+			PropertyServiceData.makeRoot(input);
+			Task function = PropertyServiceFunctionUser.createUserTask("f" + idx, "addition");
+			Task output = new Communication("out" + idx);
+			PropertyServiceData.makeLeaf(output);
+			PropertyServiceDependency.addDataDependency(input, function, "in", graph);
+			PropertyServiceDependency.addDataDependency(function, output, "out", graph);
+		}
+		graph.addVertex(new Communication("disconnected"));
+		List<Violation> violations = new GraphValidator(GraphValidation.createDefaultChecks(), new ForkJoinPool(4))
+				.getViolations(graph);
+		assertEquals(1, violations.size());
+		assertEquals("disconnected", violations.get(0).getTaskId());
+	}
+
+	protected static List<Violation> getViolations(EnactmentGraph graph) {
+		return new GraphValidator(GraphValidation.createDefaultChecks()).getViolations(graph);
+	}
+}